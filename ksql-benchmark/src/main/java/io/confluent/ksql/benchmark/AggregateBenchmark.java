@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.KudafAggregator;
+import io.confluent.ksql.function.udaf.KudafInitializer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.apache.kafka.connect.data.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks comparing the per-row cost of aggregating a row by iterating maps of
+ *  column indexes, as {@code KudafAggregator} once did, with iterating the arrays it now
+ *  flattens those maps into.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class AggregateBenchmark {
+
+  private static final int NUM_GROUP_BY_COLUMNS = 2;
+
+  @State(Scope.Thread)
+  public static class AggregateState {
+    BiFunction<GenericRow, GenericRow, GenericRow> aggregator;
+    GenericRow aggRow;
+    GenericRow[] rows;
+    int next;
+
+    @Param({"MAP", "ARRAY"})
+    public String mode;
+
+    @Param({"1", "10"})
+    public int numAggregates;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final FunctionRegistry functionRegistry = new InternalFunctionRegistry();
+
+      // The row holds the group by columns followed by one BIGINT argument per aggregate, and
+      // the aggregate row the same group by columns followed by one SUM per aggregate:
+      final Map<Integer, Integer> aggValToValColumnMap = new HashMap<>();
+      for (int i = 0; i < NUM_GROUP_BY_COLUMNS; i++) {
+        aggValToValColumnMap.put(i, i);
+      }
+
+      final KudafInitializer initializer = new KudafInitializer(NUM_GROUP_BY_COLUMNS);
+      final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap = new HashMap<>();
+      for (int i = NUM_GROUP_BY_COLUMNS; i < NUM_GROUP_BY_COLUMNS + numAggregates; i++) {
+        final KsqlAggregateFunction function = functionRegistry
+            .getAggregate("SUM", Schema.OPTIONAL_INT64_SCHEMA)
+            .getInstance(new AggregateFunctionArguments(
+                i, Collections.singletonList("COL" + i)));
+        aggValToAggFunctionMap.put(i, function);
+        initializer.addAggregateIntializer(function.getInitialValueSupplier());
+      }
+
+      switch (mode) {
+        case "MAP":
+          aggregator = mapAggregator(aggValToAggFunctionMap, aggValToValColumnMap);
+          break;
+        case "ARRAY":
+          final KudafAggregator kudafAggregator =
+              new KudafAggregator(aggValToAggFunctionMap, aggValToValColumnMap);
+          aggregator = (row, aggRow) -> kudafAggregator.apply(null, row, aggRow);
+          break;
+        default:
+          throw new RuntimeException("Invalid mode: " + mode);
+      }
+
+      aggRow = initializer.apply();
+      rows = new GenericRow[]{
+          row("books", 1L),
+          row("games", 2L),
+          row("Books", 3L),
+          row("Games", 4L)
+      };
+    }
+
+    GenericRow next() {
+      final GenericRow row = rows[next];
+      next = (next + 1) % rows.length;
+      return aggregator.apply(row, aggRow);
+    }
+
+    /**
+     * Aggregates a row as {@code KudafAggregator} did before it flattened its maps into arrays.
+     */
+    @SuppressWarnings("unchecked")
+    private static BiFunction<GenericRow, GenericRow, GenericRow> mapAggregator(
+        final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap,
+        final Map<Integer, Integer> aggValToValColumnMap) {
+      return (rowValue, aggRowValue) -> {
+        aggValToValColumnMap.forEach(
+            (key, value) ->
+                aggRowValue.getColumns().set(key, rowValue.getColumns().get(value)));
+
+        aggValToAggFunctionMap.forEach((key, value) ->
+            aggRowValue.getColumns().set(
+                key,
+                value.aggregate(
+                    rowValue.getColumns().get(value.getArgIndexInValue()),
+                    aggRowValue.getColumns().get(key))));
+
+        return aggRowValue;
+      };
+    }
+
+    private GenericRow row(final String category, final long value) {
+      final List<Object> columns = new ArrayList<>(Arrays.asList(category, value));
+      for (int i = 0; i < numAggregates; i++) {
+        columns.add(value);
+      }
+      return new GenericRow(columns);
+    }
+  }
+
+  @Benchmark
+  public GenericRow aggregate(final AggregateState state) {
+    return state.next();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(AggregateBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
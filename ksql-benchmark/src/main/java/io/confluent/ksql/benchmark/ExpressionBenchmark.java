@@ -0,0 +1,256 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.CodeGenRunner;
+import io.confluent.ksql.codegen.CodeGenRunner.ParameterType;
+import io.confluent.ksql.codegen.SqlToJavaVisitor;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.udf.Kudf;
+import io.confluent.ksql.parser.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DoubleLiteral;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.FunctionCall;
+import io.confluent.ksql.parser.tree.IntegerLiteral;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
+import io.confluent.ksql.util.ExpressionTypeManager;
+import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.SchemaUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.codehaus.commons.compiler.CompilerFactoryFactory;
+import org.codehaus.commons.compiler.IExpressionEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks comparing the per-row cost of evaluating generated expression code
+ *  reflectively, through an {@code Object[]} of parameters, with calling it directly, with and
+ *  without enforcing the types of the columns it reads.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class ExpressionBenchmark {
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("CATEGORY", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("AMOUNT", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("QUANTITY", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("TAX", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .build();
+
+  // WHERE AMOUNT > 10.0 AND UCASE(CATEGORY) = 'BOOKS'
+  private static final Expression PREDICATE = new LogicalBinaryExpression(
+      LogicalBinaryExpression.Type.AND,
+      new ComparisonExpression(
+          ComparisonExpression.Type.GREATER_THAN, column("AMOUNT"), new DoubleLiteral("10.0")),
+      new ComparisonExpression(
+          ComparisonExpression.Type.EQUAL,
+          new FunctionCall(QualifiedName.of("UCASE"), Arrays.asList(column("CATEGORY"))),
+          new StringLiteral("BOOKS")));
+
+  // SELECT (AMOUNT * QUANTITY + TAX) * 1.2 - ID % 7
+  private static final Expression ARITHMETIC = arithmetic(
+      ArithmeticBinaryExpression.Type.SUBTRACT,
+      arithmetic(
+          ArithmeticBinaryExpression.Type.MULTIPLY,
+          arithmetic(
+              ArithmeticBinaryExpression.Type.ADD,
+              arithmetic(
+                  ArithmeticBinaryExpression.Type.MULTIPLY, column("AMOUNT"), column("QUANTITY")),
+              column("TAX")),
+          new DoubleLiteral("1.2")),
+      arithmetic(ArithmeticBinaryExpression.Type.MODULUS, column("ID"), new IntegerLiteral(7)));
+
+  @State(Scope.Thread)
+  public static class ExpressionState {
+    Function<GenericRow, Object> evaluator;
+    GenericRow[] rows;
+    int next;
+
+    @Param({"REFLECTIVE", "DIRECT", "DIRECT_TRUSTED"})
+    public String mode;
+
+    @Param({"PREDICATE", "ARITHMETIC"})
+    public String expression;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+      final FunctionRegistry functionRegistry = new InternalFunctionRegistry();
+      final CodeGenRunner codeGenRunner = new CodeGenRunner(SCHEMA, ksqlConfig, functionRegistry);
+
+      final Expression toEvaluate;
+      switch (expression) {
+        case "PREDICATE":
+          toEvaluate = PREDICATE;
+          break;
+        case "ARITHMETIC":
+          toEvaluate = ARITHMETIC;
+          break;
+        default:
+          throw new RuntimeException("Invalid expression: " + expression);
+      }
+
+      switch (mode) {
+        case "REFLECTIVE":
+          evaluator = reflective(toEvaluate, codeGenRunner, functionRegistry);
+          break;
+        case "DIRECT":
+          evaluator = codeGenRunner.buildCodeGenFromParseTree(toEvaluate, "Benchmark")::evaluate;
+          break;
+        case "DIRECT_TRUSTED":
+          final KsqlConfig trustingConfig = new KsqlConfig(ImmutableMap.of(
+              KsqlConfig.KSQL_CODEGEN_TRUST_SERDE_TYPES_ENABLED, true));
+          evaluator = new CodeGenRunner(SCHEMA, trustingConfig, functionRegistry, true)
+              .buildCodeGenFromParseTree(toEvaluate, "Benchmark")::evaluate;
+          break;
+        default:
+          throw new RuntimeException("Invalid mode: " + mode);
+      }
+
+      rows = new GenericRow[]{
+          row(1L, "books", 39.99, 2, 3.2),
+          row(2L, "games", 15.00, 1, 1.2),
+          row(3L, "Books", 4.99, 10, 4.0),
+          row(4L, "Games", 25.00, 3, 6.0)
+      };
+    }
+
+    Object next() {
+      final GenericRow row = rows[next];
+      next = (next + 1) % rows.length;
+      return evaluator.apply(row);
+    }
+
+    /**
+     * Evaluates the expression as generated code was evaluated before it was compiled into a
+     * class implementing {@code CompiledExpression}: through Janino's expression evaluator,
+     * which invokes the generated method reflectively with an array of parameters.
+     */
+    private static Function<GenericRow, Object> reflective(
+        final Expression expression,
+        final CodeGenRunner codeGenRunner,
+        final FunctionRegistry functionRegistry) {
+      try {
+        final Set<ParameterType> parameters = codeGenRunner.getParameterInfo(expression);
+        final String[] names = new String[parameters.size()];
+        final Class[] types = new Class[parameters.size()];
+        final int[] indexes = new int[parameters.size()];
+        final Kudf[] udfs = new Kudf[parameters.size()];
+
+        int index = 0;
+        for (final ParameterType param : parameters) {
+          names[index] = param.getName();
+          types[index] = param.getType();
+          indexes[index] = SchemaUtil.getFieldIndexByName(SCHEMA, param.getName());
+          udfs[index] = param.getKudf();
+          index++;
+        }
+
+        final IExpressionEvaluator ee =
+            CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
+        ee.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
+        ee.setParameters(names, types);
+        ee.setExpressionType(SchemaUtil.getJavaType(
+            new ExpressionTypeManager(SCHEMA, functionRegistry).getExpressionSchema(expression)));
+        ee.cook(new SqlToJavaVisitor(SCHEMA, functionRegistry).process(expression));
+
+        final GenericRowValueTypeEnforcer typeEnforcer = new GenericRowValueTypeEnforcer(SCHEMA);
+        final Object[] parameterObjects = new Object[parameters.size()];
+        return row -> {
+          for (int i = 0; i < indexes.length; i++) {
+            parameterObjects[i] = indexes[i] < 0
+                ? udfs[i]
+                : typeEnforcer.enforceFieldType(indexes[i], row.getColumns().get(indexes[i]));
+          }
+          try {
+            return ee.evaluate(parameterObjects);
+          } catch (final Exception e) {
+            throw new RuntimeException(e);
+          }
+        };
+      } catch (final Exception e) {
+        throw new RuntimeException("Failed to compile: " + expression, e);
+      }
+    }
+
+    private static GenericRow row(final Object... columns) {
+      return new GenericRow(new ArrayList<>(Arrays.asList(columns)));
+    }
+  }
+
+  @Benchmark
+  public Object evaluate(final ExpressionState state) {
+    return state.next();
+  }
+
+  private static Expression column(final String name) {
+    return new QualifiedNameReference(QualifiedName.of(name));
+  }
+
+  private static Expression arithmetic(
+      final ArithmeticBinaryExpression.Type type,
+      final Expression left,
+      final Expression right) {
+    return new ArithmeticBinaryExpression(type, left, right);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(ExpressionBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.CodeGenRunner;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.parser.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DoubleLiteral;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.FunctionCall;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
+import io.confluent.ksql.util.ExpressionMetadata;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.ProjectionMetadata;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks comparing a filter followed by a projection, each evaluated
+ *  separately, with the same filter and projection compiled into a single class.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class FilterProjectBenchmark {
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("CATEGORY", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("AMOUNT", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .build();
+
+  private static final Expression UCASE_CATEGORY = function("UCASE", column("CATEGORY"));
+
+  // WHERE UCASE(CATEGORY) = 'BOOKS'
+  private static final Expression PREDICATE = new ComparisonExpression(
+      ComparisonExpression.Type.EQUAL, UCASE_CATEGORY, new StringLiteral("BOOKS"));
+
+  // SELECT ID, UCASE(CATEGORY), CONCAT(UCASE(CATEGORY), NAME), AMOUNT * 2.0
+  private static final List<Expression> PROJECTION = ImmutableList.of(
+      column("ID"),
+      UCASE_CATEGORY,
+      function("CONCAT", UCASE_CATEGORY, column("NAME")),
+      new ArithmeticBinaryExpression(
+          ArithmeticBinaryExpression.Type.MULTIPLY, column("AMOUNT"), new DoubleLiteral("2.0")));
+
+  @State(Scope.Thread)
+  public static class FilterProjectState {
+    Function<GenericRow, GenericRow> filterProject;
+    GenericRow[] rows;
+    int next;
+
+    @Param({"UNFUSED", "FUSED"})
+    public String mode;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+      final FunctionRegistry functionRegistry = new InternalFunctionRegistry();
+
+      switch (mode) {
+        case "UNFUSED":
+          filterProject = unfused(ksqlConfig, functionRegistry);
+          break;
+        case "FUSED":
+          filterProject = fused(ksqlConfig, functionRegistry);
+          break;
+        default:
+          throw new RuntimeException("Invalid mode: " + mode);
+      }
+
+      // Every other row matches the predicate:
+      rows = new GenericRow[]{
+          row(1L, "Kafka: The Definitive Guide", "books", 39.99),
+          row(2L, "Chess", "games", 15.00),
+          row(3L, "Designing Data-Intensive Applications", "Books", 44.99),
+          row(4L, "Go", "Games", 25.00)
+      };
+    }
+
+    GenericRow next() {
+      final GenericRow row = rows[next];
+      next = (next + 1) % rows.length;
+      return filterProject.apply(row);
+    }
+
+    private static Function<GenericRow, GenericRow> unfused(
+        final KsqlConfig ksqlConfig,
+        final FunctionRegistry functionRegistry) {
+      final ExpressionMetadata predicate = new CodeGenRunner(
+          SCHEMA, ksqlConfig, functionRegistry).buildCodeGenFromParseTree(PREDICATE, "Filter");
+      final List<ExpressionMetadata> expressions = CodeGenRunner.compileExpressions(
+          PROJECTION.stream(), "Select", SCHEMA, ksqlConfig, functionRegistry);
+
+      return row -> {
+        if (!(Boolean) predicate.evaluate(row)) {
+          return null;
+        }
+        final List<Object> columns = new ArrayList<>(expressions.size());
+        for (final ExpressionMetadata expression : expressions) {
+          columns.add(expression.evaluate(row));
+        }
+        return new GenericRow(columns);
+      };
+    }
+
+    private static Function<GenericRow, GenericRow> fused(
+        final KsqlConfig ksqlConfig,
+        final FunctionRegistry functionRegistry) {
+      final ProjectionMetadata projection = CodeGenRunner.compileFilteredProjection(
+          PREDICATE, PROJECTION, "Filter and select", SCHEMA, ksqlConfig, functionRegistry);
+      return projection::evaluate;
+    }
+
+    private static GenericRow row(final Object... columns) {
+      return new GenericRow(new ArrayList<>(Arrays.asList(columns)));
+    }
+  }
+
+  @Benchmark
+  public GenericRow filterProject(final FilterProjectState state) {
+    return state.next();
+  }
+
+  private static Expression column(final String name) {
+    return new QualifiedNameReference(QualifiedName.of(name));
+  }
+
+  private static Expression function(final String name, final Expression... args) {
+    return new FunctionCall(QualifiedName.of(name), Arrays.asList(args));
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(FilterProjectBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.udf.Kudf;
+import io.confluent.ksql.function.udf.json.JsonExtractStringKudf;
+import io.confluent.ksql.util.json.JsonPathTokenizer;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks of the per-row cost of extracting one or five fields with
+ *  {@code EXTRACTJSONFIELD} from the same column of roughly 2KB JSON documents.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class JsonExtractBenchmark {
+
+  static final List<String> PATHS = ImmutableList.of(
+      "$.request.method",
+      "$.user.address.city",
+      "$.response.status",
+      "$.tags.5",
+      "$.metrics.latency_ms");
+
+  @State(Scope.Thread)
+  public static class ExtractState {
+    Kudf[] extractors;
+    String[] documents;
+    int next;
+
+    @Param({"TREE", "STREAMING"})
+    public String mode;
+
+    @Param({"1", "5"})
+    public int numFields;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      extractors = new Kudf[numFields];
+      for (int i = 0; i < numFields; i++) {
+        switch (mode) {
+          case "TREE":
+            extractors[i] = new TreeExtractor();
+            break;
+          case "STREAMING":
+            extractors[i] = new JsonExtractStringKudf();
+            break;
+          default:
+            throw new RuntimeException("Invalid mode: " + mode);
+        }
+      }
+
+      documents = new String[4];
+      for (int i = 0; i < documents.length; i++) {
+        documents[i] = document(i);
+      }
+    }
+
+    void extractNext(final Blackhole blackhole) {
+      final String document = documents[next];
+      next = (next + 1) % documents.length;
+      for (int i = 0; i < extractors.length; i++) {
+        blackhole.consume(extractors[i].evaluate(document, PATHS.get(i)));
+      }
+    }
+
+    /**
+     * @return a JSON document of roughly 2KB, with the fields extracted spread through it.
+     */
+    static String document(final int id) {
+      final StringBuilder json = new StringBuilder()
+          .append("{\"id\":").append(id)
+          .append(",\"timestamp\":\"2019-03-01T10:15:0").append(id).append(".114Z\"")
+          .append(",\"request\":{\"method\":\"GET\",\"path\":\"/api/v1/users/").append(id)
+          .append("\",\"headers\":{");
+      for (int i = 0; i < 10; i++) {
+        json.append(i == 0 ? "" : ",")
+            .append("\"x-header-").append(i).append("\":\"value-").append(i * 31 + id)
+            .append("-abcdefghijklmnopqrstuvwxyz\"");
+      }
+      json.append("}},\"user\":{\"id\":").append(1000 + id)
+          .append(",\"name\":\"user ").append(id).append("\",\"roles\":[\"admin\",\"dev\"]")
+          .append(",\"address\":{\"street\":\"1 Main St\",\"city\":\"Palo Alto\"")
+          .append(",\"zip\":\"94301\"}}")
+          .append(",\"events\":[");
+      for (int i = 0; i < 17; i++) {
+        json.append(i == 0 ? "" : ",")
+            .append("{\"seq\":").append(i).append(",\"type\":\"event-").append(i % 3)
+            .append("\",\"payload\":{\"a\":").append(i * 1.5).append(",\"b\":[1,2,3],\"c\":null}}");
+      }
+      json.append("],\"response\":{\"status\":").append(id % 2 == 0 ? 200 : 503)
+          .append(",\"bytes\":").append(4096 + id).append("}")
+          .append(",\"tags\":[\"t0\",\"t1\",\"t2\",\"t3\",\"t4\",\"t5\",\"t6\"]")
+          .append(",\"metrics\":{\"latency_ms\":").append(12.5 + id)
+          .append(",\"retries\":0}}");
+      return json.toString();
+    }
+  }
+
+  /**
+   * Extracts a field as {@code EXTRACTJSONFIELD} did before 5.3, parsing the whole document into
+   * a tree on every call.
+   */
+  static final class TreeExtractor implements Kudf {
+    private static final ObjectReader OBJECT_READER = new ObjectMapper().reader();
+
+    private List<String> tokens;
+
+    @Override
+    public Object evaluate(final Object... args) {
+      if (tokens == null) {
+        tokens = ImmutableList.copyOf(new JsonPathTokenizer(args[1].toString()));
+      }
+
+      JsonNode currentNode;
+      try {
+        currentNode = OBJECT_READER.readTree(args[0].toString());
+      } catch (final IOException e) {
+        throw new RuntimeException(e);
+      }
+      for (final String token : tokens) {
+        if (currentNode instanceof ArrayNode) {
+          currentNode = currentNode.get(Integer.parseInt(token));
+        } else {
+          currentNode = currentNode.get(token);
+        }
+        if (currentNode == null) {
+          return null;
+        }
+      }
+      return currentNode.isTextual() ? currentNode.asText() : currentNode.toString();
+    }
+  }
+
+  @Benchmark
+  public void extract(final ExtractState state, final Blackhole blackhole) {
+    state.extractNext(blackhole);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(JsonExtractBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
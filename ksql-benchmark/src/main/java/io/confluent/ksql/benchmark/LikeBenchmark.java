@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.CodeGenRunner;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.parser.tree.LikePredicate;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
+import io.confluent.ksql.util.ExpressionMetadata;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks of the per-row cost of testing log lines against {@code LIKE}
+ *  patterns, comparing the generated code with matching a regular expression compiled once.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class LikeBenchmark {
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("LINE", Schema.OPTIONAL_STRING_SCHEMA)
+      .build();
+
+  private static final String[] LINES = {
+      "2019-03-01 10:15:02,114 INFO  [main] Request GET /api/v1/users completed 200 in 12ms",
+      "2019-03-01 10:15:02,381 ERROR [worker-3] Request POST /api/v1/orders failed: timeout",
+      "2019-03-01 10:15:03,007 WARN  [worker-1] Slow request GET /api/v2/users took 1024ms",
+      "2019-03-01 10:15:03,552 ERROR [worker-2] Request GET /api/v1/users failed 503 in 30ms",
+      "2019-03-01 10:15:04,090 DEBUG [main] Cache hit for key user:1234 after 0ms"
+  };
+
+  @State(Scope.Thread)
+  public static class LikeState {
+    Predicate<GenericRow> matcher;
+    GenericRow[] rows;
+    int next;
+
+    @Param({"GENERATED", "REGEX"})
+    public String mode;
+
+    @Param({"PREFIX", "CONTAINS", "SEGMENTS", "SINGLE_CHARS"})
+    public String pattern;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final String likePattern;
+      switch (pattern) {
+        case "PREFIX":
+          likePattern = "2019-03-01 10:15:03%";
+          break;
+        case "CONTAINS":
+          likePattern = "%timeout%";
+          break;
+        case "SEGMENTS":
+          likePattern = "%ERROR%GET /api/%/users%failed%";
+          break;
+        case "SINGLE_CHARS":
+          likePattern = "%/api/v_/users% 5__ %";
+          break;
+        default:
+          throw new RuntimeException("Invalid pattern: " + pattern);
+      }
+
+      switch (mode) {
+        case "GENERATED":
+          matcher = generated(likePattern);
+          break;
+        case "REGEX":
+          matcher = regex(likePattern);
+          break;
+        default:
+          throw new RuntimeException("Invalid mode: " + mode);
+      }
+
+      rows = new GenericRow[LINES.length];
+      for (int i = 0; i < LINES.length; i++) {
+        rows[i] = new GenericRow(new ArrayList<>(Collections.singletonList(LINES[i])));
+      }
+    }
+
+    boolean next() {
+      final GenericRow row = rows[next];
+      next = (next + 1) % rows.length;
+      return matcher.test(row);
+    }
+
+    private static Predicate<GenericRow> generated(final String likePattern) {
+      final ExpressionMetadata expression = new CodeGenRunner(
+          SCHEMA, new KsqlConfig(Collections.emptyMap()), new InternalFunctionRegistry())
+          .buildCodeGenFromParseTree(
+              new LikePredicate(
+                  new QualifiedNameReference(QualifiedName.of("LINE")),
+                  new StringLiteral(likePattern)),
+              "Benchmark");
+      return row -> (Boolean) expression.evaluate(row);
+    }
+
+    /**
+     * Matches the pattern translated to an equivalent regular expression, compiled once.
+     */
+    private static Predicate<GenericRow> regex(final String likePattern) {
+      final StringBuilder regex = new StringBuilder();
+      for (final char c : likePattern.toCharArray()) {
+        if (c == '%') {
+          regex.append(".*");
+        } else if (c == '_') {
+          regex.append('.');
+        } else {
+          regex.append(Pattern.quote(String.valueOf(c)));
+        }
+      }
+      final Pattern compiled = Pattern.compile(regex.toString(), Pattern.DOTALL);
+      return row -> compiled.matcher((String) row.getColumns().get(0)).matches();
+    }
+  }
+
+  @Benchmark
+  public boolean match(final LikeState state) {
+    return state.next();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(LikeBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -17,6 +17,7 @@ package io.confluent.ksql.benchmark;
 
 import static io.confluent.ksql.datagen.DataGenSchemaUtil.getOptionalSchema;
 
+import com.google.common.collect.ImmutableMap;
 import io.confluent.avro.random.generator.Generator;
 import io.confluent.connect.avro.AvroData;
 import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
@@ -26,6 +27,7 @@ import io.confluent.ksql.datagen.RowGenerator;
 import io.confluent.ksql.datagen.SessionManager;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.serde.avro.KsqlAvroTopicSerDe;
+import io.confluent.ksql.serde.delimited.KsqlDelimitedTopicSerDe;
 import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.Pair;
@@ -33,6 +35,7 @@ import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import org.apache.avro.Schema;
@@ -55,6 +58,7 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
@@ -118,7 +122,7 @@ public class SerdeBenchmark {
     GenericRow row;
     byte[] bytes;
 
-    @Param({"JSON", "Avro"})
+    @Param({"JSON", "JSON_STREAMING", "Avro", "DELIMITED"})
     public String serializationFormat;
 
     @Setup(Level.Iteration)
@@ -126,11 +130,19 @@ public class SerdeBenchmark {
       final Serde<GenericRow> serde;
       switch (serializationFormat) {
         case "JSON":
-          serde = getJsonSerde(rowState.schema);
+          serde = getJsonSerde(rowState.schema, Collections.emptyMap());
+          break;
+        case "JSON_STREAMING":
+          serde = getJsonSerde(rowState.schema, ImmutableMap.of(
+              KsqlConfig.KSQL_JSON_STREAMING_DESERIALIZER_ENABLED, true,
+              KsqlConfig.KSQL_JSON_STREAMING_SERIALIZER_ENABLED, true));
           break;
         case "Avro":
           serde = getAvroSerde(rowState.schema);
           break;
+        case "DELIMITED":
+          serde = getDelimitedSerde(rowState.schema);
+          break;
         default:
           throw new RuntimeException("Invalid format: " + serializationFormat);
       }
@@ -141,11 +153,14 @@ public class SerdeBenchmark {
     }
 
     private static Serde<GenericRow> getJsonSerde(
-        final org.apache.kafka.connect.data.Schema schema) {
-      final Serializer<GenericRow> serializer = getJsonSerdeHelper(schema).serializer();
+        final org.apache.kafka.connect.data.Schema schema,
+        final Map<String, Object> configs) {
+      final KsqlConfig ksqlConfig = new KsqlConfig(configs);
+      final Serializer<GenericRow> serializer =
+          getJsonSerdeHelper(schema, ksqlConfig).serializer();
       // KsqlJsonDeserializer requires schema field names to be uppercase
       final Deserializer<GenericRow> deserializer =
-          getJsonSerdeHelper(convertFieldNamesToUppercase(schema)).deserializer();
+          getJsonSerdeHelper(convertFieldNamesToUppercase(schema), ksqlConfig).deserializer();
       return Serdes.serdeFrom(serializer, deserializer);
     }
 
@@ -159,10 +174,11 @@ public class SerdeBenchmark {
     }
 
     private static Serde<GenericRow> getJsonSerdeHelper(
-        final org.apache.kafka.connect.data.Schema schema) {
+        final org.apache.kafka.connect.data.Schema schema,
+        final KsqlConfig ksqlConfig) {
       return new KsqlJsonTopicSerDe().getGenericRowSerde(
           schema,
-          new KsqlConfig(Collections.emptyMap()),
+          ksqlConfig,
           () -> null,
           "benchmark",
           ProcessingLogContext.create());
@@ -178,6 +194,22 @@ public class SerdeBenchmark {
           "benchmark",
           ProcessingLogContext.create());
     }
+
+    private static Serde<GenericRow> getDelimitedSerde(
+        final org.apache.kafka.connect.data.Schema schema) {
+      for (final Field field : schema.fields()) {
+        if (field.schema().type() == org.apache.kafka.connect.data.Schema.Type.STRUCT) {
+          throw new RuntimeException("The DELIMITED format does not support the nested field "
+              + field.name() + "; run it with a flat schema, such as impressions");
+        }
+      }
+      return new KsqlDelimitedTopicSerDe().getGenericRowSerde(
+          schema,
+          new KsqlConfig(Collections.emptyMap()),
+          () -> null,
+          "benchmark",
+          ProcessingLogContext.create());
+    }
   }
 
   @Benchmark
@@ -193,6 +225,7 @@ public class SerdeBenchmark {
   public static void main(final String[] args) throws RunnerException {
     final Options opt = new OptionsBuilder()
         .include(SerdeBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
         .build();
 
     new Runner(opt).run();
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.util.timestamp.StringTimestampExtractionPolicy;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks of the per-record cost of extracting a record's timestamp from a
+ *  string column, as for a source with a {@code TIMESTAMP_FORMAT}.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class TimestampExtractorBenchmark {
+
+  @State(Scope.Thread)
+  public static class ExtractorState {
+    TimestampExtractor extractor;
+    List<ConsumerRecord<Object, Object>> records;
+    int next;
+
+    @Param({"yyyy-MM-dd HH:mm:ss.SSS", "yyyy-MM-dd'T'HH:mm:ssX"})
+    public String format;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      extractor = new StringTimestampExtractionPolicy("TS", format).create(0);
+
+      final DateTimeFormatter formatter =
+          DateTimeFormatter.ofPattern(format).withZone(ZoneId.of("UTC"));
+      records = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        final String timestamp = formatter.format(Instant.ofEpochMilli(1551434102114L + i * 7919L));
+        records.add(new ConsumerRecord<>(
+            "topic", 0, i, null, new GenericRow(Collections.singletonList(timestamp))));
+      }
+    }
+
+    long extractNext() {
+      final ConsumerRecord<Object, Object> record = records.get(next);
+      next = (next + 1) % records.size();
+      return extractor.extract(record, 0L);
+    }
+  }
+
+  @Benchmark
+  public long extract(final ExtractorState state) {
+    return state.extractNext();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(TimestampExtractorBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.apache.kafka.connect.data.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks comparing the per-value cost of adding a value to a TOPK or
+ *  TOPKDISTINCT aggregate by sorting the whole aggregate, as KSQL once did, with inserting it at
+ *  the position found by a binary search.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class TopkBenchmark {
+
+  // The aggregate is restarted after this many values, so that values continue to be added to it:
+  private static final int NUM_VALUES = 10_000;
+
+  @State(Scope.Thread)
+  public static class TopkState {
+    BiFunction<Long, List<Long>, List<Long>> aggregator;
+    List<Long> aggregate;
+    Long[] values;
+    int next;
+
+    @Param({"SORT", "BINARY_SEARCH"})
+    public String mode;
+
+    @Param({"TOPK", "TOPKDISTINCT"})
+    public String function;
+
+    @Param({"10", "100", "1000"})
+    public int k;
+
+    @Setup(Level.Iteration)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+      final boolean distinct;
+      switch (function) {
+        case "TOPK":
+          distinct = false;
+          break;
+        case "TOPKDISTINCT":
+          distinct = true;
+          break;
+        default:
+          throw new RuntimeException("Invalid function: " + function);
+      }
+
+      switch (mode) {
+        case "SORT":
+          aggregator = sortingAggregator(k, distinct);
+          break;
+        case "BINARY_SEARCH":
+          final FunctionRegistry functionRegistry = new InternalFunctionRegistry();
+          final KsqlAggregateFunction<Long, List<Long>> topk =
+              (KsqlAggregateFunction<Long, List<Long>>) functionRegistry
+                  .getAggregate(function, Schema.OPTIONAL_INT64_SCHEMA)
+                  .getInstance(new AggregateFunctionArguments(
+                      0, Arrays.asList("VALUE", Integer.toString(k))));
+          aggregator = topk::aggregate;
+          break;
+        default:
+          throw new RuntimeException("Invalid mode: " + mode);
+      }
+
+      final Random random = new Random(42);
+      values = new Long[NUM_VALUES];
+      for (int i = 0; i < NUM_VALUES; i++) {
+        values[i] = (long) random.nextInt(NUM_VALUES);
+      }
+      aggregate = new ArrayList<>();
+    }
+
+    List<Long> next() {
+      if (next == 0) {
+        aggregate = new ArrayList<>(k);
+      }
+      final Long value = values[next];
+      next = (next + 1) % values.length;
+      aggregate = aggregator.apply(value, aggregate);
+      return aggregate;
+    }
+
+    /**
+     * Aggregates a value as {@code TopkKudaf} and {@code TopkDistinctKudaf} did before they
+     * inserted values by binary search: by replacing the smallest value and sorting.
+     */
+    private static BiFunction<Long, List<Long>, List<Long>> sortingAggregator(
+        final int k,
+        final boolean distinct) {
+      return (currentValue, aggregateValue) -> {
+        final int currentSize = aggregateValue.size();
+        if (currentSize == k && currentValue.compareTo(aggregateValue.get(currentSize - 1)) <= 0) {
+          return aggregateValue;
+        }
+
+        if (distinct && aggregateValue.contains(currentValue)) {
+          return aggregateValue;
+        }
+
+        if (currentSize == k) {
+          aggregateValue.set(currentSize - 1, currentValue);
+        } else {
+          aggregateValue.add(currentValue);
+        }
+
+        aggregateValue.sort(Comparator.reverseOrder());
+        return aggregateValue;
+      };
+    }
+  }
+
+  @Benchmark
+  public List<Long> aggregate(final TopkState state) {
+    return state.next();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(TopkBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.UdfCompiler;
+import io.confluent.ksql.function.UdfLoader;
+import io.confluent.ksql.function.udf.BatchKudf;
+import io.confluent.ksql.function.udf.Kudf;
+import io.confluent.ksql.util.KsqlConfig;
+import java.io.File;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.connect.data.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks of the cost of evaluating a batch of rows with a UDF loaded with
+ *  metrics enabled, comparing calling it once per row with calling it once for the batch.
+ *  See `ksql-benchmark/README.md` for more info.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class UdfBatchBenchmark {
+
+  @State(Scope.Thread)
+  public static class UdfState {
+    Kudf udf;
+    Object[][] args;
+    Object[] results;
+
+    @Param({"ROW", "BATCH"})
+    public String mode;
+
+    @Param({"16", "256"})
+    public int batchSize;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final Metrics metrics = new Metrics();
+      final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+      new UdfLoader(functionRegistry,
+          new File("ext"),
+          UdfBatchBenchmark.class.getClassLoader(),
+          value -> false,
+          new UdfCompiler(Optional.of(metrics)),
+          Optional.of(metrics),
+          false)
+          .load();
+
+      udf = functionRegistry.getUdfFactory("substring")
+          .getFunction(ImmutableList.of(
+              Schema.OPTIONAL_STRING_SCHEMA,
+              Schema.OPTIONAL_INT32_SCHEMA,
+              Schema.OPTIONAL_INT32_SCHEMA))
+          .newInstance(new KsqlConfig(Collections.emptyMap()));
+
+      args = new Object[3][batchSize];
+      for (int row = 0; row < batchSize; row++) {
+        args[0][row] = "user-" + row + "@example.com";
+        args[1][row] = 1;
+        args[2][row] = 4 + row % 3;
+      }
+      results = new Object[batchSize];
+    }
+
+    Object[] evaluate() {
+      switch (mode) {
+        case "ROW":
+          for (int row = 0; row < batchSize; row++) {
+            results[row] = udf.evaluate(args[0][row], args[1][row], args[2][row]);
+          }
+          break;
+        case "BATCH":
+          BatchKudf.evaluateBatch(udf, batchSize, args, results);
+          break;
+        default:
+          throw new RuntimeException("Invalid mode: " + mode);
+      }
+      return results;
+    }
+  }
+
+  @Benchmark
+  public Object[] evaluate(final UdfState state) {
+    return state.evaluate();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(UdfBatchBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.benchmark.AggregateBenchmark.AggregateState;
+import org.junit.Test;
+
+public class AggregateBenchmarkTest {
+
+  @Test
+  public void shouldAggregateSameWithMapsOrArrays() {
+    assertThat(aggregateAll("ARRAY", 10), is(aggregateAll("MAP", 10)));
+  }
+
+  private static GenericRow aggregateAll(final String mode, final int numAggregates) {
+    final AggregateState state = new AggregateState();
+    state.mode = mode;
+    state.numAggregates = numAggregates;
+    state.setUp();
+
+    GenericRow result = null;
+    for (int i = 0; i < state.rows.length; i++) {
+      result = state.next();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.benchmark.ExpressionBenchmark.ExpressionState;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class ExpressionBenchmarkTest {
+
+  @Test
+  public void shouldEvaluatePredicateSameWayReflectivelyOrDirectly() {
+    assertThat(evaluateAll("DIRECT", "PREDICATE"), is(evaluateAll("REFLECTIVE", "PREDICATE")));
+  }
+
+  @Test
+  public void shouldEvaluateArithmeticSameWayReflectivelyOrDirectly() {
+    assertThat(evaluateAll("DIRECT", "ARITHMETIC"), is(evaluateAll("REFLECTIVE", "ARITHMETIC")));
+  }
+
+  @Test
+  public void shouldEvaluateSameWayWhetherTypesTrustedOrNot() {
+    assertThat(evaluateAll("DIRECT_TRUSTED", "PREDICATE"),
+        is(evaluateAll("DIRECT", "PREDICATE")));
+    assertThat(evaluateAll("DIRECT_TRUSTED", "ARITHMETIC"),
+        is(evaluateAll("DIRECT", "ARITHMETIC")));
+  }
+
+  private static List<Object> evaluateAll(final String mode, final String expression) {
+    final ExpressionState state = new ExpressionState();
+    state.mode = mode;
+    state.expression = expression;
+    state.setUp();
+
+    final List<Object> results = new ArrayList<>();
+    for (int i = 0; i < state.rows.length; i++) {
+      results.add(state.next());
+    }
+    return results;
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.benchmark.FilterProjectBenchmark.FilterProjectState;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class FilterProjectBenchmarkTest {
+
+  @Test
+  public void shouldProduceSameRowsWhetherFusedOrNot() {
+    assertThat(filterProjectAll("FUSED"), is(filterProjectAll("UNFUSED")));
+  }
+
+  private static List<GenericRow> filterProjectAll(final String mode) {
+    final FilterProjectState state = new FilterProjectState();
+    state.mode = mode;
+    state.setUp();
+
+    final List<GenericRow> results = new ArrayList<>();
+    for (int i = 0; i < state.rows.length; i++) {
+      results.add(state.next());
+    }
+    return results;
+  }
+}
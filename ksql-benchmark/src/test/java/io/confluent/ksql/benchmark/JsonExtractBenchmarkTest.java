@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.benchmark.JsonExtractBenchmark.ExtractState;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class JsonExtractBenchmarkTest {
+
+  @Test
+  public void shouldExtractSameValuesFromTreeOrStreaming() {
+    // When:
+    final List<Object> streamed = extractAll("STREAMING");
+
+    // Then:
+    assertThat(streamed, is(extractAll("TREE")));
+    assertThat(streamed, everyItem(is(notNullValue())));
+  }
+
+  @Test
+  public void shouldExtractFromDocumentsOfAtLeastTwoKilobytes() {
+    assertThat(ExtractState.document(0).length() >= 2048, is(true));
+  }
+
+  private static List<Object> extractAll(final String mode) {
+    final ExtractState state = new ExtractState();
+    state.mode = mode;
+    state.numFields = 5;
+    state.setUp();
+
+    final List<Object> results = new ArrayList<>();
+    for (final String document : state.documents) {
+      for (int i = 0; i < state.extractors.length; i++) {
+        results.add(state.extractors[i].evaluate(document, JsonExtractBenchmark.PATHS.get(i)));
+      }
+    }
+    return results;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.benchmark.LikeBenchmark.LikeState;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class LikeBenchmarkTest {
+
+  @Test
+  public void shouldMatchSameWayWhetherGeneratedOrRegex() {
+    for (final String pattern : new String[]{"PREFIX", "CONTAINS", "SEGMENTS", "SINGLE_CHARS"}) {
+      final List<Boolean> generated = matchAll("GENERATED", pattern);
+      assertThat(pattern, generated, is(matchAll("REGEX", pattern)));
+      assertThat(pattern, generated, hasItem(true));
+      assertThat(pattern, generated, hasItem(false));
+    }
+  }
+
+  private static List<Boolean> matchAll(final String mode, final String pattern) {
+    final LikeState state = new LikeState();
+    state.mode = mode;
+    state.pattern = pattern;
+    state.setUp();
+
+    final List<Boolean> results = new ArrayList<>();
+    for (int i = 0; i < state.rows.length; i++) {
+      results.add(state.next());
+    }
+    return results;
+  }
+}
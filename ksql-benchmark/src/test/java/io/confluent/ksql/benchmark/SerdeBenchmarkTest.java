@@ -33,7 +33,7 @@ import org.junit.runners.Parameterized;
 public class SerdeBenchmarkTest {
 
   private static final List<String> SCHEMAS = ImmutableList.of("impressions", "metrics");
-  private static final List<String> FORMATS = ImmutableList.of("JSON", "Avro");
+  private static final List<String> FORMATS = ImmutableList.of("JSON", "JSON_STREAMING", "Avro");
   private static final String TOPIC_NAME = "serde_benchmark";
 
   private final String schemaName;
@@ -48,10 +48,13 @@ public class SerdeBenchmarkTest {
 
   @Parameterized.Parameters(name = "{0} - {1}")
   public static Iterable<Object[]> data() {
-    return Lists.cartesianProduct(SCHEMAS, FORMATS)
+    final List<Object[]> data = Lists.cartesianProduct(SCHEMAS, FORMATS)
         .stream()
         .map(List::toArray)
         .collect(Collectors.toList());
+    // The DELIMITED format only supports flat schemas:
+    data.add(new Object[]{"impressions", "DELIMITED"});
+    return data;
   }
 
   @Before
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.benchmark.TimestampExtractorBenchmark.ExtractorState;
+import org.junit.Test;
+
+public class TimestampExtractorBenchmarkTest {
+
+  @Test
+  public void shouldExtractTimestampsOfRecords() {
+    // Given:
+    final ExtractorState state = new ExtractorState();
+    state.format = "yyyy-MM-dd'T'HH:mm:ssX";
+    state.setUp();
+
+    // When:
+    final long first = state.extractNext();
+    final long second = state.extractNext();
+
+    // Then:
+    assertThat(first, is(1551434102000L));
+    assertThat(second, is(1551434110000L));
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.benchmark.TopkBenchmark.TopkState;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class TopkBenchmarkTest {
+
+  @Test
+  public void shouldAggregateSameTopKWhetherSortingOrNot() {
+    assertThat(aggregateAll("BINARY_SEARCH", "TOPK"), is(aggregateAll("SORT", "TOPK")));
+  }
+
+  @Test
+  public void shouldAggregateSameTopKDistinctWhetherSortingOrNot() {
+    assertThat(
+        aggregateAll("BINARY_SEARCH", "TOPKDISTINCT"),
+        is(aggregateAll("SORT", "TOPKDISTINCT")));
+  }
+
+  private static List<Long> aggregateAll(final String mode, final String function) {
+    final TopkState state = new TopkState();
+    state.mode = mode;
+    state.function = function;
+    state.k = 100;
+    state.setUp();
+
+    List<Long> result = null;
+    for (int i = 0; i < state.values.length; i++) {
+      result = state.next();
+    }
+    return new ArrayList<>(result);
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.benchmark.UdfBatchBenchmark.UdfState;
+import org.junit.Test;
+
+public class UdfBatchBenchmarkTest {
+
+  @Test
+  public void shouldEvaluateBatchesTheSameWayAsRows() {
+    // Given:
+    final UdfState rows = state("ROW");
+    final UdfState batch = state("BATCH");
+
+    // When:
+    final Object[] rowResults = rows.evaluate().clone();
+    final Object[] batchResults = batch.evaluate();
+
+    // Then:
+    assertThat(rowResults[0], is("user"));
+    assertThat(rowResults[1], is("user-"));
+    assertThat(batchResults, is(rowResults));
+  }
+
+  private static UdfState state(final String mode) {
+    final UdfState state = new UdfState();
+    state.mode = mode;
+    state.batchSize = 16;
+    state.setUp();
+    return state;
+  }
+}
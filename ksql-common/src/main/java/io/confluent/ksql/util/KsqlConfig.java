@@ -117,6 +117,15 @@ public class KsqlConfig extends AbstractConfig {
       + "continue to store session keys without the end time. With the default value of false "
       + "new queries will now correctly store the session end time as part of the key";
 
+  public static final String KSQL_LIKE_UNDERSCORE_LEGACY_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "like.underscore.legacy";
+
+  private static final String KSQL_LIKE_UNDERSCORE_LEGACY_DOC = ""
+      + "Version 5.2 of KSQL and earlier treated '_' in a LIKE pattern as matching only the '_' "
+      + "character. Setting this value to true keeps that behaviour, and is the value used by "
+      + "queries started by those versions when they are restored. With the default value of "
+      + "false, '_' matches any single character, as in standard SQL.";
+
   public static final String KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_CONFIG =
       "ksql.query.persistent.active.limit";
   private static final int KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_DEFAULT = Integer.MAX_VALUE;
@@ -142,8 +151,85 @@ public class KsqlConfig extends AbstractConfig {
   public static final String KSQL_STREAMS_PREFIX = "ksql.streams.";
 
   public static final String KSQL_COLLECT_UDF_METRICS = "ksql.udf.collect.metrics";
+  public static final String KSQL_UDF_METRICS_SAMPLE_INTERVAL_CONFIG =
+      "ksql.udf.collect.metrics.sample.interval";
+  private static final String KSQL_UDF_METRICS_SAMPLE_INTERVAL_DOC =
+      "When UDF metrics are collected, the timing of one in every this many invocations of a "
+      + "UDF, chosen at random, is recorded, and the invocation count and rate are scaled up to "
+      + "estimate all invocations. Values greater than 1 reduce the overhead of collecting "
+      + "metrics for cheap UDFs. Default is 1, i.e. every invocation is recorded.";
   public static final String KSQL_UDF_SECURITY_MANAGER_ENABLED = "ksql.udf.enable.security.manager";
 
+  public static final String KSQL_JSON_STREAMING_DESERIALIZER_ENABLED =
+      "ksql.json.deserializer.streaming.enabled";
+  private static final String KSQL_JSON_STREAMING_DESERIALIZER_ENABLED_DOC =
+      "Whether JSON values should be deserialized by streaming the raw bytes directly into the "
+      + "row, rather than first converting them to Connect data. Fields not present in the "
+      + "target schema are skipped without being materialized. Default is false.";
+
+  public static final String KSQL_JSON_STREAMING_SERIALIZER_ENABLED =
+      "ksql.json.serializer.streaming.enabled";
+  private static final String KSQL_JSON_STREAMING_SERIALIZER_ENABLED_DOC =
+      "Whether rows should be serialized to JSON by streaming their columns directly to the "
+      + "output bytes, rather than first converting them to Connect data and a JSON tree. The "
+      + "bytes written are unchanged. Default is false.";
+
+  public static final String KSQL_CODEGEN_PROJECTION_ENABLED =
+      "ksql.codegen.projection.enabled";
+  private static final String KSQL_CODEGEN_PROJECTION_ENABLED_DOC =
+      "Whether the expressions of each SELECT should be compiled into a single generated class "
+      + "that reads every referenced column once per row, rather than one class per "
+      + "expression. Default is false.";
+
+  public static final String KSQL_CODEGEN_FILTER_PROJECTION_FUSION_ENABLED =
+      "ksql.codegen.filter.projection.fusion.enabled";
+  private static final String KSQL_CODEGEN_FILTER_PROJECTION_FUSION_ENABLED_DOC =
+      "Whether a WHERE clause on a stream and the SELECT that follows it should be compiled into "
+      + "a single generated class and applied as a single processor, computing any "
+      + "sub-expressions they have in common only once per row. Default is false.";
+
+  public static final String KSQL_CODEGEN_TRUST_SERDE_TYPES_ENABLED =
+      "ksql.codegen.trust.serde.types.enabled";
+  private static final String KSQL_CODEGEN_TRUST_SERDE_TYPES_ENABLED_DOC =
+      "Whether expressions evaluated directly over the rows read from a source should skip "
+      + "enforcing the types of the columns they reference, as the source's serde has already "
+      + "deserialized each column as its schema's type. Default is false.";
+
+  public static final String KSQL_GROUPBY_BINARY_KEY_ENABLED =
+      "ksql.groupby.binary.key.enabled";
+  private static final String KSQL_GROUPBY_BINARY_KEY_ENABLED_DOC =
+      "Whether the keys of rows grouped by a GROUP BY clause should be written to the "
+      + "repartition topic and state store of the aggregation in a compact, typed, binary "
+      + "format, rather than as strings. The keys of the aggregation's output are unchanged, "
+      + "except that, where a query groups by more than one expression, a '\\' is inserted "
+      + "after any '|' followed by a '+' in a value, so that different groups never share a "
+      + "key. Queries started with one setting can not be restarted with the other, as their "
+      + "existing state would be unreadable. Default is false.";
+
+  public static final String KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_CONFIG =
+      "ksql.query.transient.queue.capacity";
+  public static final int KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_DEFAULT = 100;
+  private static final String KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_DOC =
+      "The maximum number of rows of a transient query that can be waiting to be sent to the "
+      + "client. Once the queue is full, the query's stream threads wait for the client to catch "
+      + "up, and the time they spend waiting is recorded in the "
+      + "ksql-transient-query-queue-blocked metrics. Default is "
+      + KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_DEFAULT + ".";
+
+  public static final String KSQL_PROJECTION_PUSHDOWN_ENABLED =
+      "ksql.query.projection.pushdown.enabled";
+  private static final String KSQL_PROJECTION_PUSHDOWN_ENABLED_DOC =
+      "Whether the deserializers of a query's sources should only read the columns the query "
+      + "references, leaving the others null. The columns pruned from each source are listed in "
+      + "the query's execution plan. Default is false.";
+
+  public static final String KSQL_PREDICATE_PUSHDOWN_ENABLED =
+      "ksql.query.predicate.pushdown.enabled";
+  private static final String KSQL_PREDICATE_PUSHDOWN_ENABLED_DOC =
+      "Whether the deserializers of a query reading a single stream should test the simple "
+      + "conditions of its WHERE clause on columns as soon as they are read, dropping records "
+      + "that fail them without reading the rest of their values. Default is false.";
+
   public static final String DEFAULT_EXT_DIR = "ext";
 
   private static final Collection<CompatibilityBreakingConfigDef> COMPATIBLY_BREAKING_CONFIG_DEFS
@@ -170,6 +256,13 @@ public class KsqlConfig extends AbstractConfig {
               false,
               ConfigDef.Importance.LOW,
               KSQL_WINDOWED_SESSION_KEY_LEGACY_DOC),
+          new CompatibilityBreakingConfigDef(
+              KSQL_LIKE_UNDERSCORE_LEGACY_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              true,
+              false,
+              ConfigDef.Importance.LOW,
+              KSQL_LIKE_UNDERSCORE_LEGACY_DOC),
           new CompatibilityBreakingConfigDef(
               KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_CONFIG,
               ConfigDef.Type.INT,
@@ -362,6 +455,13 @@ public class KsqlConfig extends AbstractConfig {
             "Whether or not metrics should be collected for custom udfs. Default is false. Note: "
                 + "this will add some overhead to udf invocation. It is recommended that this "
                 + " be set to false in production."
+        ).define(
+            KSQL_UDF_METRICS_SAMPLE_INTERVAL_CONFIG,
+            ConfigDef.Type.INT,
+            1,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_UDF_METRICS_SAMPLE_INTERVAL_DOC
         ).define(
             KSQL_EXT_DIR,
             ConfigDef.Type.STRING,
@@ -381,6 +481,61 @@ public class KsqlConfig extends AbstractConfig {
             ConfigDef.Importance.LOW,
             "Enable the security manager for UDFs. Default is true and will stop UDFs from"
                + " calling System.exit or executing processes"
+        ).define(
+            KSQL_JSON_STREAMING_DESERIALIZER_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_JSON_STREAMING_DESERIALIZER_ENABLED_DOC
+        ).define(
+            KSQL_JSON_STREAMING_SERIALIZER_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_JSON_STREAMING_SERIALIZER_ENABLED_DOC
+        ).define(
+            KSQL_CODEGEN_PROJECTION_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_CODEGEN_PROJECTION_ENABLED_DOC
+        ).define(
+            KSQL_CODEGEN_FILTER_PROJECTION_FUSION_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_CODEGEN_FILTER_PROJECTION_FUSION_ENABLED_DOC
+        ).define(
+            KSQL_CODEGEN_TRUST_SERDE_TYPES_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_CODEGEN_TRUST_SERDE_TYPES_ENABLED_DOC
+        ).define(
+            KSQL_GROUPBY_BINARY_KEY_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_GROUPBY_BINARY_KEY_ENABLED_DOC
+        ).define(
+            KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_CONFIG,
+            ConfigDef.Type.INT,
+            KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_DOC
+        ).define(
+            KSQL_PROJECTION_PUSHDOWN_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_PROJECTION_PUSHDOWN_ENABLED_DOC
+        ).define(
+            KSQL_PREDICATE_PUSHDOWN_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_PREDICATE_PUSHDOWN_ENABLED_DOC
         )
         .withClientSslSupport();
     for (final CompatibilityBreakingConfigDef compatibilityBreakingConfigDef
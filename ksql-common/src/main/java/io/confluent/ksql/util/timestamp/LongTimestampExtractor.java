@@ -32,9 +32,16 @@ public class LongTimestampExtractor implements TimestampExtractor {
   }
 
   @Override
-  public long extract(final ConsumerRecord<Object, Object> consumerRecord, final long l) {
+  public long extract(
+      final ConsumerRecord<Object, Object> consumerRecord,
+      final long previousTimestamp
+  ) {
     if (timestampColumnindex < 0) {
       return 0;
+    } else if (consumerRecord.value() == null) {
+      // Records that were not deserialized, e.g. those rejected by a filter pushed down to the
+      // deserializer, have no row and are dropped by the query:
+      return previousTimestamp;
     } else {
       try {
         if (consumerRecord.value() instanceof GenericRow) {
@@ -18,6 +18,7 @@ package io.confluent.ksql.util.timestamp;
 import com.google.common.base.Preconditions;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.util.KsqlException;
+import java.time.ZoneId;
 import java.util.Objects;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.streams.processor.TimestampExtractor;
@@ -26,6 +27,8 @@ public class StringTimestampExtractor implements TimestampExtractor {
   private final StringToTimestampParser timestampParser;
   private final int timestampColumn;
   private final String format;
+  // Resolved once, as the system default zone is costly to look up for every record:
+  private final ZoneId zoneId;
 
 
   StringTimestampExtractor(final String format, final int timestampColumn) {
@@ -33,16 +36,20 @@ public class StringTimestampExtractor implements TimestampExtractor {
     Preconditions.checkArgument(timestampColumn >= 0, "timestampColumn must be >= 0");
     this.timestampColumn = timestampColumn;
     this.timestampParser = new StringToTimestampParser(format);
-
+    this.zoneId = ZoneId.systemDefault();
   }
 
   @Override
   public long extract(final ConsumerRecord<Object, Object> consumerRecord,
                       final long previousTimestamp) {
     final GenericRow row = (GenericRow) consumerRecord.value();
+    if (row == null) {
+      // The record was not deserialized, e.g. as a pushed down filter rejected it:
+      return previousTimestamp;
+    }
     final String value = row.getColumnValue(timestampColumn);
     try {
-      return timestampParser.parse(value);
+      return timestampParser.parse(value, zoneId);
     } catch (final KsqlException e) {
       throw new KsqlException("Unable to parse string timestamp from record."
           + " record=" + consumerRecord
@@ -18,6 +18,7 @@ package io.confluent.ksql.util.timestamp;
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.ksql.util.KsqlException;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoField;
@@ -25,16 +26,20 @@ import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalField;
 import java.time.temporal.TemporalQueries;
 import java.util.Locale;
-import java.util.function.Function;
 import org.apache.commons.lang3.ObjectUtils;
 
 public class StringToTimestampParser {
 
-  private static final Function<ZoneId, ZonedDateTime> DEFAULT_ZONED_DATE_TIME =
-      zid -> ZonedDateTime.of(1970, 1, 1, 0, 0, 0, 0, zid);
+  // ChronoField.values() copies the array on every call:
+  private static final ChronoField[] CHRONO_FIELDS = ChronoField.values();
 
   private final DateTimeFormatter formatter;
 
+  // The start of the epoch at the zone of the last timestamp parsed, which is usually the zone
+  // of the next:
+  private volatile ZonedDateTime lastEpoch =
+      ZonedDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
   public StringToTimestampParser(final String pattern) {
     formatter = DateTimeFormatter.ofPattern(pattern, Locale.ROOT);
   }
@@ -63,10 +68,9 @@ public class StringToTimestampParser {
     final TemporalAccessor parsed = formatter.parse(text);
     final ZoneId parsedZone = parsed.query(TemporalQueries.zone());
 
-    ZonedDateTime resolved = DEFAULT_ZONED_DATE_TIME.apply(
-        ObjectUtils.defaultIfNull(parsedZone, zoneId));
+    ZonedDateTime resolved = epochAt(ObjectUtils.defaultIfNull(parsedZone, zoneId));
 
-    for (final TemporalField override : ChronoField.values()) {
+    for (final TemporalField override : CHRONO_FIELDS) {
       if (parsed.isSupported(override)) {
         if (!resolved.isSupported(override)) {
           throw new KsqlException(
@@ -79,4 +83,14 @@ public class StringToTimestampParser {
     return resolved;
   }
 
+  private ZonedDateTime epochAt(final ZoneId zoneId) {
+    final ZonedDateTime epoch = lastEpoch;
+    if (epoch.getZone().equals(zoneId)) {
+      return epoch;
+    }
+    final ZonedDateTime newEpoch = ZonedDateTime.of(1970, 1, 1, 0, 0, 0, 0, zoneId);
+    lastEpoch = newEpoch;
+    return newEpoch;
+  }
+
 }
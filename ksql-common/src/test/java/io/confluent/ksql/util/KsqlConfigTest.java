@@ -356,6 +356,29 @@ public class KsqlConfigTest {
     assertThat(compatibleConfig.getBoolean(KsqlConfig.KSQL_ENABLE_UDFS), is(true));
   }
 
+  @Test
+  public void shouldTreatLikeUnderscoreAsWildcardByDefault() {
+    // When:
+    final KsqlConfig config = new KsqlConfig(Collections.emptyMap());
+
+    // Then:
+    assertThat(config.getBoolean(KsqlConfig.KSQL_LIKE_UNDERSCORE_LEGACY_CONFIG), is(false));
+  }
+
+  @Test
+  public void shouldKeepLegacyLikeUnderscoreForQueriesOfEarlierVersions() {
+    // Given:
+    final KsqlConfig currentConfig = new KsqlConfig(Collections.emptyMap());
+
+    // When:
+    final KsqlConfig compatibleConfig =
+        currentConfig.overrideBreakingConfigsWithOriginalValues(Collections.emptyMap());
+
+    // Then:
+    assertThat(
+        compatibleConfig.getBoolean(KsqlConfig.KSQL_LIKE_UNDERSCORE_LEGACY_CONFIG), is(true));
+  }
+
   @Test
   public void shouldReturnUdfConfig() {
     // Given:
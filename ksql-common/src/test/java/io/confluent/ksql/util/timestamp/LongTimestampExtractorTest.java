@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util.timestamp;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.GenericRow;
+import java.util.Collections;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.Test;
+
+public class LongTimestampExtractorTest {
+
+  private final LongTimestampExtractor timestampExtractor = new LongTimestampExtractor(0);
+
+  @Test
+  public void shouldExtractTimestampFromColumn() {
+    final long actualTime = timestampExtractor.extract(new ConsumerRecord<>("topic",
+        1,
+        1,
+        null,
+        new GenericRow(Collections.singletonList(1234L))), 10L);
+
+    assertThat(actualTime, equalTo(1234L));
+  }
+
+  @Test
+  public void shouldReturnPreviousTimestampForRecordWithNoRow() {
+    final long actualTime = timestampExtractor.extract(
+        new ConsumerRecord<>("topic", 1, 1, null, null), 10L);
+
+    assertThat(actualTime, equalTo(10L));
+  }
+}
@@ -45,6 +45,16 @@ public class StringTimestampExtractorTest {
     assertThat(actualTime, equalTo(expectedTime));
   }
 
+  @Test
+  public void shouldReturnPreviousTimestampForRecordWithNoRow() {
+    final StringTimestampExtractor timestampExtractor = new StringTimestampExtractor(format, 0);
+
+    final long actualTime = timestampExtractor.extract(
+        new ConsumerRecord<>("topic", 1, 1, null, null), 10L);
+
+    assertThat(actualTime, equalTo(10L));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void shouldThrowIfColumnIndexIsNegative() {
     new StringTimestampExtractor(format, -1);
@@ -56,6 +56,7 @@ public class Analysis {
 
   private Integer limitClause = null;
 
+  private Optional<Set<String>> referencedColumns = Optional.empty();
 
   void addSelectItem(final Expression expression, final String alias) {
     selectExpressions.add(expression);
@@ -151,6 +152,18 @@ public class Analysis {
     this.limitClause = limitClause;
   }
 
+  /**
+   * @return the upper case names of the columns the query references, regardless of the source
+   *         they belong to, or empty if the query reads all the columns of its sources.
+   */
+  public Optional<Set<String>> getReferencedColumns() {
+    return referencedColumns;
+  }
+
+  void setReferencedColumns(final Optional<Set<String>> referencedColumns) {
+    this.referencedColumns = requireNonNull(referencedColumns, "referencedColumns");
+  }
+
   public Pair<StructuredDataSource, String> getFromDataSource(final int index) {
     return fromDataSources.get(index);
   }
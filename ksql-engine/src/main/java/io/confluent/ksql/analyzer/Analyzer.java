@@ -337,6 +337,8 @@ class Analyzer {
         final Void context
     ) {
 
+      analysis.setReferencedColumns(ReferencedColumnsExtractor.extract(node));
+
       process(node.getFrom(), context);
 
       process(node.getSelect(), context);
@@ -424,14 +426,16 @@ class Analyzer {
           new StructuredDataSourceNode(
               new PlanNodeId("KafkaTopic_Left"),
               leftDataSource,
-              leftDataSource.getSchema()
+              leftDataSource.getSchema(),
+              analysis.getReferencedColumns()
           );
       final StructuredDataSourceNode
           rightSourceKafkaTopicNode =
           new StructuredDataSourceNode(
               new PlanNodeId("KafkaTopic_Right"),
               rightDataSource,
-              rightDataSource.getSchema()
+              rightDataSource.getSchema(),
+              analysis.getReferencedColumns()
           );
 
       final JoinNode joinNode =
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.analyzer;
+
+import io.confluent.ksql.parser.DefaultTraversalVisitor;
+import io.confluent.ksql.parser.tree.AllColumns;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.Query;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Finds the names of the columns a query references in its SELECT, FROM, WHERE, GROUP BY and
+ * HAVING clauses.
+ *
+ * <p>Names are upper cased and stripped of any source alias, so that a name stands for a column
+ * of that name in any of the query's sources. Parts of dereferenced names that are not columns,
+ * such as aliases and struct fields, are included too: the names found may be more than the
+ * columns referenced, but never fewer.
+ */
+final class ReferencedColumnsExtractor extends DefaultTraversalVisitor<Void, Void> {
+
+  private final Set<String> names = new HashSet<>();
+  private boolean allColumns = false;
+
+  private ReferencedColumnsExtractor() {
+  }
+
+  /**
+   * @return the names of the columns the query references, or empty if it selects all columns.
+   */
+  static Optional<Set<String>> extract(final Query query) {
+    final ReferencedColumnsExtractor extractor = new ReferencedColumnsExtractor();
+    extractor.process(query, null);
+    return extractor.allColumns ? Optional.empty() : Optional.of(extractor.names);
+  }
+
+  @Override
+  protected Void visitAllColumns(final AllColumns node, final Void context) {
+    allColumns = true;
+    return null;
+  }
+
+  @Override
+  protected Void visitQualifiedNameReference(
+      final QualifiedNameReference node,
+      final Void context
+  ) {
+    for (final String part : node.getName().getParts()) {
+      addName(part);
+    }
+    return null;
+  }
+
+  @Override
+  protected Void visitDereferenceExpression(
+      final DereferenceExpression node,
+      final Void context
+  ) {
+    addName(node.getFieldName());
+    return super.visitDereferenceExpression(node, context);
+  }
+
+  private void addName(final String name) {
+    // Names qualified with their source's alias may be held in a single part:
+    names.add(name.substring(name.lastIndexOf('.') + 1).toUpperCase());
+  }
+}
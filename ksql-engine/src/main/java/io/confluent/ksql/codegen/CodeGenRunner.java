@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.codegen;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlFunction;
 import io.confluent.ksql.function.UdfFactory;
@@ -40,10 +41,12 @@ import io.confluent.ksql.util.ExpressionTypeManager;
 import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.ProjectionMetadata;
 import io.confluent.ksql.util.SchemaUtil;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -51,16 +54,27 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
 import org.codehaus.commons.compiler.CompileException;
 import org.codehaus.commons.compiler.CompilerFactoryFactory;
-import org.codehaus.commons.compiler.IExpressionEvaluator;
+import org.codehaus.commons.compiler.IClassBodyEvaluator;
 
+// CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 public class CodeGenRunner {
+  // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
+
+  private static final List<String> CLASS_BODY_IMPORTS = ImmutableList.<String>builder()
+      .addAll(SqlToJavaVisitor.JAVA_IMPORTS)
+      .add(Kudf.class.getCanonicalName())
+      .add(GenericRowValueTypeEnforcer.class.getCanonicalName())
+      .add(RowTransformer.class.getCanonicalName())
+      .build();
 
   private final Schema schema;
   private final FunctionRegistry functionRegistry;
   private final ExpressionTypeManager expressionTypeManager;
   private final KsqlConfig ksqlConfig;
+  private final boolean skipTypeEnforcement;
 
   public static List<ExpressionMetadata> compileExpressions(
       final Stream<Expression> expressions,
@@ -76,14 +90,55 @@ public class CodeGenRunner {
         .collect(Collectors.toList());
   }
 
+  public static ProjectionMetadata compileProjection(
+      final List<Expression> expressions,
+      final String type,
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry
+  ) {
+    return new CodeGenRunner(schema, ksqlConfig, functionRegistry)
+        .buildProjectionFromParseTrees(expressions, type);
+  }
+
+  public static ProjectionMetadata compileFilteredProjection(
+      final Expression predicate,
+      final List<Expression> expressions,
+      final String type,
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry
+  ) {
+    return new CodeGenRunner(schema, ksqlConfig, functionRegistry)
+        .buildFilteredProjectionFromParseTrees(predicate, expressions, type);
+  }
+
   public CodeGenRunner(
       final Schema schema,
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry) {
+    this(schema, ksqlConfig, functionRegistry, false);
+  }
+
+  /**
+   * @param typesEnforcedBySerde whether the rows the generated code is evaluated over are
+   *                             known to hold values of their columns' schema types, having
+   *                             been deserialized by a serde that enforces them. If so, and
+   *                             {@link KsqlConfig#KSQL_CODEGEN_TRUST_SERDE_TYPES_ENABLED} is
+   *                             set, the generated code casts column values without first
+   *                             enforcing their types.
+   */
+  public CodeGenRunner(
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final boolean typesEnforcedBySerde) {
     this.functionRegistry = functionRegistry;
     this.schema = schema;
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.expressionTypeManager = new ExpressionTypeManager(schema, functionRegistry);
+    this.skipTypeEnforcement = typesEnforcedBySerde
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_CODEGEN_TRUST_SERDE_TYPES_ENABLED);
   }
 
   public Set<ParameterType> getParameterInfo(final Expression expression) {
@@ -101,35 +156,46 @@ public class CodeGenRunner {
     try {
       final Set<ParameterType> parameters = getParameterInfo(expression);
 
-      final String[] parameterNames = new String[parameters.size()];
-      final Class[] parameterTypes = new Class[parameters.size()];
       final List<Integer> columnIndexes = new ArrayList<>(parameters.size());
       final List<Kudf> kudfObjects = new ArrayList<>(parameters.size());
+      final List<String> declarations = new ArrayList<>(parameters.size());
+      final List<String> arguments = new ArrayList<>(parameters.size());
 
       int index = 0;
       for (final ParameterType param : parameters) {
-        parameterNames[index] = param.name;
-        parameterTypes[index] = param.type;
-        columnIndexes.add(SchemaUtil.getFieldIndexByName(schema, param.name));
+        final int columnIndex = SchemaUtil.getFieldIndexByName(schema, param.name);
+        columnIndexes.add(columnIndex);
         kudfObjects.add(param.getKudf());
+        if (columnIndex < 0) {
+          declarations.add("final Kudf " + param.name);
+          arguments.add("udfs[" + index + "]");
+        } else {
+          final String javaType = param.type.getCanonicalName();
+          declarations.add("final " + javaType + " " + param.name);
+          arguments.add(readColumn(columnIndex, javaType));
+        }
         index++;
       }
 
-      final String javaCode = new SqlToJavaVisitor(schema, functionRegistry).process(expression);
-
-      final IExpressionEvaluator ee =
-          CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
-      ee.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
-      ee.setParameters(parameterNames, parameterTypes);
+      final String javaCode = new SqlToJavaVisitor(schema, functionRegistry, ksqlConfig)
+          .process(expression);
 
       final Schema expressionType = expressionTypeManager.getExpressionSchema(expression);
 
-      ee.setExpressionType(SchemaUtil.getJavaType(expressionType));
+      final String classBody = "public Object evaluate(final List columns, "
+          + "final GenericRowValueTypeEnforcer typeEnforcer, final Kudf[] udfs) {\n"
+          + "  return expression(" + String.join(", ", arguments) + ");\n"
+          + "}\n"
+          + "private " + SchemaUtil.getJavaType(expressionType).getCanonicalName()
+          + " expression(" + String.join(", ", declarations) + ") {\n"
+          + "  return " + javaCode + ";\n"
+          + "}\n";
 
-      ee.cook(javaCode);
+      final Class<?> compiled = CompiledClassCache.instance()
+          .get(CompiledExpression.class, classBody, CodeGenRunner::compile);
 
       return new ExpressionMetadata(
-          ee,
+          (CompiledExpression) compiled.newInstance(),
           columnIndexes,
           kudfObjects,
           expressionType,
@@ -145,6 +211,320 @@ public class CodeGenRunner {
     }
   }
 
+  /**
+   * Compile all the supplied expressions into a single generated class.
+   *
+   * @see #buildFilteredProjectionFromParseTrees(Expression, List, String)
+   */
+  public ProjectionMetadata buildProjectionFromParseTrees(
+      final List<Expression> expressions,
+      final String type
+  ) {
+    return buildProjection(Optional.empty(), expressions, type);
+  }
+
+  /**
+   * Compile a filter's predicate, and all the supplied expressions of the projection that
+   * follows it, into a single generated class.
+   *
+   * <p>The generated class reads and type-enforces each input column referenced by any of the
+   * expressions once per row, and only just before it is first needed, so that the columns only
+   * referenced by the projection are not read for rows that fail the predicate.
+   *
+   * <p>Common sub-expressions are computed once per row, before the first expression that
+   * references them: those referenced by the predicate before it is evaluated, the others
+   * only once it holds. The predicate, and then each expression, is evaluated in its own method,
+   * adding the results to a pre-sized output row.
+   *
+   * <p>The failure to read a column or compute a sub-expression is held until an expression
+   * that references it is computed, which then fails in turn. Each expression is computed
+   * within its own {@code try} block, so that a failing expression adds {@code null} to the
+   * output row, and is reported to the {@link RowTransformer.ErrorHandler}, without the
+   * others being computed again. Likewise, should the predicate fail, the failure is reported
+   * and the row dropped. A predicate that evaluates to {@code null} drops the row.
+   */
+  public ProjectionMetadata buildFilteredProjectionFromParseTrees(
+      final Expression predicate,
+      final List<Expression> expressions,
+      final String type
+  ) {
+    return buildProjection(Optional.of(predicate), expressions, type);
+  }
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private ProjectionMetadata buildProjection(
+      final Optional<Expression> predicate,
+      final List<Expression> expressions,
+      final String type
+  ) {
+    final ProjectionGenerator generator;
+    try {
+      final List<Expression> allExpressions = new ArrayList<>(expressions.size() + 1);
+      predicate.ifPresent(allExpressions::add);
+      allExpressions.addAll(expressions);
+
+      final CommonSubExpressions commonSubExpressions =
+          new CommonSubExpressions(schema, allExpressions);
+      final Optional<Expression> rewrittenPredicate = predicate.map(commonSubExpressions::replace);
+      final int predicateSubExpressions = commonSubExpressions.getNames().size();
+      final List<Expression> rewrittenExpressions = expressions.stream()
+          .map(commonSubExpressions::replace)
+          .collect(Collectors.toList());
+
+      generator = new ProjectionGenerator(commonSubExpressions.getNames());
+
+      int subExpressionIndex = 0;
+      for (final Map.Entry<Expression, String> e
+          : commonSubExpressions.getNames().entrySet()) {
+        if (subExpressionIndex++ == predicateSubExpressions) {
+          break;
+        }
+        generator.addSubExpression(e.getKey(), e.getValue());
+      }
+
+      rewrittenPredicate.ifPresent(generator::addPredicate);
+
+      subExpressionIndex = 0;
+      for (final Map.Entry<Expression, String> e
+          : commonSubExpressions.getNames().entrySet()) {
+        if (subExpressionIndex++ >= predicateSubExpressions) {
+          generator.addSubExpression(e.getKey(), e.getValue());
+        }
+      }
+
+      for (final Expression expression : rewrittenExpressions) {
+        generator.addOutput(expression);
+      }
+    } catch (final KsqlException e) {
+      throw new KsqlException("Code generation failed for " + type
+          + ": " + e.getMessage()
+          + ". predicate:" + predicate.orElse(null)
+          + ", expressions:" + expressions + ", schema:" + schema, e);
+    }
+
+    try {
+      final Class<?> compiled = CompiledClassCache.instance()
+          .get(RowTransformer.class, generator.getClassBody(), CodeGenRunner::compile);
+
+      return new ProjectionMetadata(
+          (RowTransformer) compiled.newInstance(),
+          generator.kudfObjects,
+          new GenericRowValueTypeEnforcer(schema),
+          expressions.size());
+    } catch (final CompileException e) {
+      throw new KsqlException("Code generation failed for " + type
+          + ": " + e.getMessage()
+          + ". predicate:" + predicate.orElse(null)
+          + ", expressions:" + expressions + ", schema:" + schema, e);
+    } catch (final Exception e) {
+      throw new RuntimeException("Unexpected error generating code for " + type
+          + ". predicate:" + predicate.orElse(null)
+          + ", expressions:" + expressions, e);
+    }
+  }
+
+  private static Class<?> compile(
+      final String classBody,
+      final Class<?> implementedInterface
+  ) throws CompileException {
+    final IClassBodyEvaluator cbe =
+        CompilerFactoryFactory.getDefaultCompilerFactory().newClassBodyEvaluator();
+    cbe.setDefaultImports(CLASS_BODY_IMPORTS.toArray(new String[0]));
+    cbe.setImplementedInterfaces(new Class[]{implementedInterface});
+    cbe.cook(classBody);
+    return cbe.getClazz();
+  }
+
+  /**
+   * @return the code to read the value of an input column as the supplied Java type.
+   */
+  private String readColumn(final int columnIndex, final String javaType) {
+    final String value = "columns.get(" + columnIndex + ")";
+    if (skipTypeEnforcement) {
+      return "(" + javaType + ") " + value;
+    }
+    return "(" + javaType + ") typeEnforcer.enforceFieldType(" + columnIndex + ", " + value + ")";
+  }
+
+  /**
+   * Accumulates the body of the {@link RowTransformer} class generated for a projection.
+   */
+  private final class ProjectionGenerator {
+
+    private final CodeGenRunner runner;
+    private final int inputColumnCount;
+    private final Set<Integer> declaredColumns = new HashSet<>();
+    private final List<Kudf> kudfObjects = new ArrayList<>();
+    private final StringBuilder transformBody = new StringBuilder();
+    private final StringBuilder methods = new StringBuilder();
+    private int outputCount = 0;
+
+    private ProjectionGenerator(final Map<Expression, String> subExpressionNames) {
+      final SchemaBuilder schemaWithSubExpressions = SchemaBuilder.struct();
+      schema.fields().forEach(f -> schemaWithSubExpressions.field(f.name(), f.schema()));
+      subExpressionNames.forEach((subExpression, name) -> schemaWithSubExpressions.field(
+          name, expressionTypeManager.getExpressionSchema(subExpression)));
+
+      this.runner = new CodeGenRunner(
+          schemaWithSubExpressions.build(), ksqlConfig, functionRegistry);
+      this.inputColumnCount = schema.fields().size();
+    }
+
+    void addSubExpression(final Expression subExpression, final String name) {
+      final String javaType = javaType(subExpression);
+      final MethodCall call = addMethod(subExpression, javaType, name.toLowerCase());
+      transformBody.append("  ").append(javaType).append(" ").append(name).append(" = null;\n")
+          .append("  Exception ").append(errorVariable(name)).append(" = null;\n")
+          .append("  try {\n")
+          .append(call.rethrowErrors("    "))
+          .append("    ").append(name).append(" = ").append(call.code).append(";\n")
+          .append("  } catch (final Exception e) {\n")
+          .append("    ").append(errorVariable(name)).append(" = e;\n")
+          .append("  }\n");
+    }
+
+    void addPredicate(final Expression predicate) {
+      final MethodCall call = addMethod(predicate, javaType(predicate), "predicate");
+      transformBody.append("  try {\n")
+          .append(call.rethrowErrors("    "))
+          .append("    final Boolean matches = ").append(call.code).append(";\n")
+          .append("    if (matches == null || !matches.booleanValue()) {\n")
+          .append("      return false;\n")
+          .append("    }\n")
+          .append("  } catch (final Exception e) {\n")
+          .append("    errorHandler.onError(RowTransformer.ErrorHandler.PREDICATE, e);\n")
+          .append("    return false;\n")
+          .append("  }\n");
+    }
+
+    void addOutput(final Expression expression) {
+      final MethodCall call =
+          addMethod(expression, javaType(expression), "expression" + outputCount);
+      transformBody.append("  try {\n")
+          .append(call.rethrowErrors("    "))
+          .append("    output.add(").append(call.code).append(");\n")
+          .append("  } catch (final Exception e) {\n")
+          .append("    output.add(null);\n")
+          .append("    errorHandler.onError(").append(outputCount).append(", e);\n")
+          .append("  }\n");
+      outputCount++;
+    }
+
+    String getClassBody() {
+      return "public boolean transform(final List columns, "
+          + "final GenericRowValueTypeEnforcer typeEnforcer, "
+          + "final Kudf[] udfs, final List output, "
+          + "final RowTransformer.ErrorHandler errorHandler) {\n"
+          + transformBody
+          + "  return true;\n"
+          + "}\n"
+          + methods;
+    }
+
+    private String javaType(final Expression expression) {
+      return SchemaUtil
+          .getJavaType(runner.expressionTypeManager.getExpressionSchema(expression))
+          .getCanonicalName();
+    }
+
+    /**
+     * Add a method evaluating the supplied expression, declaring any input columns it
+     * references that have not already been read.
+     *
+     * @return the code to call the method.
+     */
+    private MethodCall addMethod(
+        final Expression expression,
+        final String returnType,
+        final String methodName
+    ) {
+      final List<String> declarations = new ArrayList<>();
+      final List<String> arguments = new ArrayList<>();
+      final List<String> argumentErrors = new ArrayList<>();
+      for (final ParameterType param : runner.getParameterInfo(expression)) {
+        final int columnIndex = SchemaUtil.getFieldIndexByName(runner.schema, param.name);
+        if (columnIndex < 0) {
+          declarations.add("final Kudf " + param.name);
+          arguments.add("udfs[" + kudfObjects.size() + "]");
+          kudfObjects.add(param.getKudf());
+        } else {
+          final String variable = columnVariable(columnIndex);
+          declarations.add("final " + param.type.getCanonicalName() + " " + param.name);
+          arguments.add(variable);
+          argumentErrors.add(errorVariable(variable));
+        }
+      }
+
+      final String javaCode =
+          new SqlToJavaVisitor(runner.schema, functionRegistry, runner.ksqlConfig)
+              .process(expression);
+
+      methods.append("private ").append(returnType).append(" ").append(methodName)
+          .append("(").append(String.join(", ", declarations)).append(") {\n")
+          .append("  return ").append(javaCode).append(";\n")
+          .append("}\n");
+
+      return new MethodCall(
+          methodName + "(" + String.join(", ", arguments) + ")",
+          argumentErrors);
+    }
+
+    private String columnVariable(final int columnIndex) {
+      if (columnIndex >= inputColumnCount) {
+        return runner.schema.fields().get(columnIndex).name();
+      }
+
+      final String variable = "input" + columnIndex;
+      if (declaredColumns.add(columnIndex)) {
+        final String javaType = SchemaUtil
+            .getJavaType(schema.fields().get(columnIndex).schema())
+            .getCanonicalName();
+        transformBody.append("  ").append(javaType).append(" ").append(variable)
+            .append(" = null;\n")
+            .append("  Exception ").append(errorVariable(variable)).append(" = null;\n")
+            .append("  try {\n")
+            .append("    ").append(variable).append(" = ")
+            .append(readColumn(columnIndex, javaType)).append(";\n")
+            .append("  } catch (final Exception e) {\n")
+            .append("    ").append(errorVariable(variable)).append(" = e;\n")
+            .append("  }\n");
+      }
+      return variable;
+    }
+
+    private String errorVariable(final String variable) {
+      return variable + "Error";
+    }
+  }
+
+  /**
+   * The code to call a generated method, and the variables holding the failures to compute its
+   * arguments.
+   */
+  private static final class MethodCall {
+
+    private final String code;
+    private final List<String> argumentErrors;
+
+    private MethodCall(final String code, final List<String> argumentErrors) {
+      this.code = code;
+      this.argumentErrors = argumentErrors;
+    }
+
+    /**
+     * @return the code to rethrow the failure to compute any of the call's arguments.
+     */
+    String rethrowErrors(final String indent) {
+      final StringBuilder code = new StringBuilder();
+      for (final String error : argumentErrors) {
+        code.append(indent).append("if (").append(error).append(" != null) {\n")
+            .append(indent).append("  throw ").append(error).append(";\n")
+            .append(indent).append("}\n");
+      }
+      return code.toString();
+    }
+  }
+
   private static final class Visitor extends AstVisitor<Object, Object> {
 
     private final Schema schema;
@@ -154,6 +534,7 @@ public class CodeGenRunner {
     private final KsqlConfig ksqlConfig;
 
     private int functionCounter = 0;
+    private int likeCounter = 0;
 
     private Visitor(
         final Schema schema,
@@ -175,6 +556,12 @@ public class CodeGenRunner {
 
     protected Object visitLikePredicate(final LikePredicate node, final Object context) {
       process(node.getValue(), null);
+      final LikeMatcher matcher =
+          LikeMatcher.compile(node, LikeMatcher.isUnderscoreWildcard(ksqlConfig));
+      if (matcher.getKind() == LikeMatcher.Kind.PATTERN) {
+        parameters.add(new ParameterType(
+            matcher, SqlToJavaVisitor.LIKE_PREFIX + likeCounter++, ksqlConfig));
+      }
       return null;
     }
 
@@ -319,11 +706,13 @@ public class CodeGenRunner {
     private final Class type;
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private final Optional<KsqlFunction> function;
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private final Optional<LikeMatcher> likeMatcher;
     private final String name;
     private final KsqlConfig ksqlConfig;
 
     private ParameterType(final Class type, final String name, final KsqlConfig ksqlConfig) {
-      this(null, Objects.requireNonNull(type, "type can't be null"), name, ksqlConfig);
+      this(null, null, Objects.requireNonNull(type, "type can't be null"), name, ksqlConfig);
     }
 
     private ParameterType(
@@ -331,16 +720,29 @@ public class CodeGenRunner {
         final String name,
         final KsqlConfig ksqlConfig) {
       this(Objects.requireNonNull(function, "function can't be null"),
+          null,
           function.getKudfClass(),
           name, ksqlConfig);
     }
 
+    private ParameterType(
+        final LikeMatcher likeMatcher,
+        final String name,
+        final KsqlConfig ksqlConfig) {
+      this(null,
+          Objects.requireNonNull(likeMatcher, "likeMatcher can't be null"),
+          LikeMatcher.class,
+          name, ksqlConfig);
+    }
+
     private ParameterType(
         final KsqlFunction function,
+        final LikeMatcher likeMatcher,
         final Class type,
         final String name,
         final KsqlConfig ksqlConfig) {
       this.function = Optional.ofNullable(function);
+      this.likeMatcher = Optional.ofNullable(likeMatcher);
       this.type = Objects.requireNonNull(type, "type");
       this.name = Objects.requireNonNull(name, "name");
       this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
@@ -355,6 +757,9 @@ public class CodeGenRunner {
     }
 
     public Kudf getKudf() {
+      if (likeMatcher.isPresent()) {
+        return likeMatcher.get();
+      }
       return function.map(f -> f.newInstance(ksqlConfig)).orElse(null);
     }
 
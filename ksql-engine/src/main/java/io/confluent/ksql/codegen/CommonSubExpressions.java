@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import io.confluent.ksql.parser.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.parser.tree.Cast;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.ExpressionRewriter;
+import io.confluent.ksql.parser.tree.ExpressionTreeRewriter;
+import io.confluent.ksql.parser.tree.FunctionCall;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.SearchedCaseExpression;
+import io.confluent.ksql.parser.tree.SubscriptExpression;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Finds the sub-expressions that occur more than once across a set of expressions, so that
+ * generated code can compute each of them only once per row.
+ *
+ * <p>Only function calls, arithmetic, casts, subscripts and case expressions are shared.
+ * Functions that take no arguments, e.g. {@code RANDOM()}, are assumed to be
+ * non-deterministic, and no expression containing one is shared. Sub-expressions within the
+ * branches of a case expression, or the right operand of {@code AND} or {@code OR}, are not
+ * shared, as they may never be evaluated.
+ */
+final class CommonSubExpressions {
+
+  private static final String NAME_PREFIX = "KSQL_INTERNAL_CSE_";
+
+  private final Set<String> columnNames;
+  private final Map<Expression, Integer> occurrences = new HashMap<>();
+  private final Map<Expression, String> names = new LinkedHashMap<>();
+
+  CommonSubExpressions(final Schema schema, final List<Expression> expressions) {
+    this.columnNames = schema.fields().stream()
+        .map(Field::name)
+        .collect(Collectors.toSet());
+
+    final Counter counter = new Counter();
+    expressions.forEach(expression -> ExpressionTreeRewriter.rewriteWith(counter, expression));
+  }
+
+  /**
+   * Replace each outermost common sub-expression within the supplied expression with a
+   * reference to a column holding its value, naming the column if it is not already named.
+   *
+   * @param expression the expression to rewrite.
+   * @return the rewritten expression.
+   */
+  Expression replace(final Expression expression) {
+    return ExpressionTreeRewriter.rewriteWith(new Replacer(), expression);
+  }
+
+  /**
+   * @return the common sub-expressions replaced so far, mapped to the names of the columns
+   *         that reference them, in the order they were first replaced.
+   */
+  Map<Expression, String> getNames() {
+    return Collections.unmodifiableMap(names);
+  }
+
+  private String newName() {
+    String name = NAME_PREFIX + names.size();
+    while (columnNames.contains(name)) {
+      name = "_" + name;
+    }
+    return name;
+  }
+
+  private static boolean isShareable(final Expression expression) {
+    if (expression instanceof FunctionCall) {
+      return !((FunctionCall) expression).getArguments().isEmpty()
+          && isDeterministic(expression);
+    }
+
+    return (expression instanceof ArithmeticBinaryExpression
+        || expression instanceof Cast
+        || expression instanceof SubscriptExpression
+        || expression instanceof SearchedCaseExpression)
+        && isDeterministic(expression);
+  }
+
+  private static boolean isDeterministic(final Expression expression) {
+    final NonDeterminismDetector detector = new NonDeterminismDetector();
+    ExpressionTreeRewriter.rewriteWith(detector, expression);
+    return !detector.found;
+  }
+
+  private final class Counter extends ExpressionRewriter<Void> {
+
+    @Override
+    public Expression rewriteExpression(
+        final Expression node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter
+    ) {
+      occurrences.merge(node, 1, Integer::sum);
+      return null;
+    }
+  }
+
+  private final class Replacer extends ExpressionRewriter<Void> {
+
+    @Override
+    public Expression rewriteExpression(
+        final Expression node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter
+    ) {
+      if (occurrences.getOrDefault(node, 0) < 2 || !isShareable(node)) {
+        return null;
+      }
+
+      final String name = names.computeIfAbsent(node, e -> newName());
+      return new QualifiedNameReference(QualifiedName.of(name));
+    }
+
+    @Override
+    public Expression rewriteSearchedCaseExpression(
+        final SearchedCaseExpression node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter
+    ) {
+      final Expression replaced = rewriteExpression(node, context, treeRewriter);
+      return replaced == null ? node : replaced;
+    }
+
+    @Override
+    public Expression rewriteLogicalBinaryExpression(
+        final LogicalBinaryExpression node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter
+    ) {
+      final Expression left = treeRewriter.rewrite(node.getLeft(), context);
+      return left == node.getLeft()
+          ? node
+          : new LogicalBinaryExpression(node.getLocation(), node.getType(), left, node.getRight());
+    }
+  }
+
+  private static final class NonDeterminismDetector extends ExpressionRewriter<Void> {
+
+    private boolean found;
+
+    @Override
+    public Expression rewriteFunctionCall(
+        final FunctionCall node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter
+    ) {
+      found |= node.getArguments().isEmpty();
+      return null;
+    }
+  }
+}
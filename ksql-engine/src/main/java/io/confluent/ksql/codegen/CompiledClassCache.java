@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.concurrent.ExecutionException;
+import org.codehaus.commons.compiler.CompileException;
+
+/**
+ * A bounded, least-recently-used cache of the classes compiled from generated code, keyed on
+ * the code itself, so that the expressions of a query that is issued again and again are only
+ * compiled by Janino the first time.
+ *
+ * <p>The generated code embeds everything its behaviour depends on, such as the indexes and
+ * types of the columns it reads, so no other key is needed. Only the classes are shared: each
+ * use creates its own instance of the class, and of the UDFs it calls.
+ */
+public final class CompiledClassCache {
+
+  private static final int MAX_SIZE = 500;
+
+  private static final CompiledClassCache INSTANCE = new CompiledClassCache(MAX_SIZE);
+
+  private final Cache<String, Class<?>> cache;
+
+  public static CompiledClassCache instance() {
+    return INSTANCE;
+  }
+
+  CompiledClassCache(final int maxSize) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * @return the cached class for the supplied code, otherwise the class {@code compiler}
+   *         compiles from it.
+   */
+  Class<?> get(
+      final Class<?> implementedInterface,
+      final String classBody,
+      final Compiler compiler
+  ) throws CompileException {
+    try {
+      return cache.get(
+          implementedInterface.getName() + "\n" + classBody,
+          () -> compiler.compile(classBody, implementedInterface));
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof CompileException) {
+        throw (CompileException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (final UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  interface Compiler {
+    Class<?> compile(String classBody, Class<?> implementedInterface) throws CompileException;
+  }
+}
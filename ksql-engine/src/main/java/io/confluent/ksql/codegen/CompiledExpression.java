@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import io.confluent.ksql.function.udf.Kudf;
+import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
+import java.util.List;
+
+/**
+ * Implemented by the classes {@link CodeGenRunner} generates for single expressions.
+ *
+ * <p>Calls are plain interface calls, which the JIT can inline, rather than reflective calls
+ * through an argument array.
+ *
+ * <p>Must be public so that the generated classes can implement it.
+ */
+public interface CompiledExpression {
+
+  /**
+   * Compute the expression for a single row.
+   *
+   * @param columns the columns of the input row.
+   * @param typeEnforcer the type enforcer for the input schema.
+   * @param udfs the UDF instances referenced by the expression, indexed by parameter.
+   * @return the value of the expression.
+   */
+  @SuppressWarnings("rawtypes")
+  Object evaluate(List columns, GenericRowValueTypeEnforcer typeEnforcer, Kudf[] udfs);
+}
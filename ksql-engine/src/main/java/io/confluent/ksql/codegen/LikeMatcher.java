@@ -0,0 +1,265 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import io.confluent.ksql.function.udf.Kudf;
+import io.confluent.ksql.parser.tree.LikePredicate;
+import io.confluent.ksql.parser.tree.StringLiteral;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@code LIKE} pattern, compiled once, when a query is planned, into a matcher specialised for
+ * its shape, where {@code %} matches any sequence of characters and {@code _} any single one.
+ *
+ * <p>Patterns of the simple {@link Kind kinds} are tested by the generated code with the
+ * corresponding {@code String} method. Others are split on {@code %} into fixed length segments:
+ * the first and last are matched in place at the start and end of the value, unless the pattern
+ * starts or ends with {@code %}, and each other segment at its leftmost occurrence after the
+ * previous one. Segments without {@code _} are found with {@link String#indexOf(String, int)}.
+ *
+ * <p>Before KSQL 5.3, {@code _} matched only itself. Queries restored from the command topic
+ * that were started by earlier versions keep that behaviour, as
+ * {@link KsqlConfig#KSQL_LIKE_UNDERSCORE_LEGACY_CONFIG} is then set.
+ *
+ * <p>The matcher is handed to the generated code of the query with its UDFs, and so is a
+ * {@link Kudf}.
+ */
+public final class LikeMatcher implements Kudf {
+
+  private static final char ANY_CHARS = '%';
+  private static final char ANY_CHAR = '_';
+
+  public enum Kind {
+    EXACT,
+    PREFIX,
+    SUFFIX,
+    CONTAINS,
+    PATTERN
+  }
+
+  private final String pattern;
+  private final Kind kind;
+  private final String literal;
+  private final boolean anchoredStart;
+  private final boolean anchoredEnd;
+  private final String[] segments;
+  private final boolean[] segmentHasAnyChar;
+  private final int minLength;
+
+  private LikeMatcher(
+      final String pattern,
+      final Kind kind,
+      final String literal,
+      final boolean anchoredStart,
+      final boolean anchoredEnd,
+      final List<String> segments,
+      final boolean underscoreWildcard
+  ) {
+    this.pattern = pattern;
+    this.kind = kind;
+    this.literal = literal;
+    this.anchoredStart = anchoredStart;
+    this.anchoredEnd = anchoredEnd;
+    this.segments = segments.toArray(new String[0]);
+    this.segmentHasAnyChar = new boolean[this.segments.length];
+    int length = 0;
+    for (int i = 0; i < this.segments.length; i++) {
+      segmentHasAnyChar[i] = underscoreWildcard && this.segments[i].indexOf(ANY_CHAR) >= 0;
+      length += this.segments[i].length();
+    }
+    this.minLength = length;
+  }
+
+  public static LikeMatcher compile(final String pattern) {
+    return compile(pattern, true);
+  }
+
+  /**
+   * @param underscoreWildcard whether {@code _} matches any single character, rather than only
+   *                           itself.
+   */
+  public static LikeMatcher compile(final String pattern, final boolean underscoreWildcard) {
+    Objects.requireNonNull(pattern, "pattern");
+
+    final boolean anchoredStart = pattern.isEmpty() || pattern.charAt(0) != ANY_CHARS;
+    final boolean anchoredEnd =
+        pattern.isEmpty() || pattern.charAt(pattern.length() - 1) != ANY_CHARS;
+    final List<String> segments = new ArrayList<>();
+    for (final String segment : pattern.split(String.valueOf(ANY_CHARS), -1)) {
+      if (!segment.isEmpty()) {
+        segments.add(segment);
+      }
+    }
+
+    final Kind kind;
+    if ((underscoreWildcard && pattern.indexOf(ANY_CHAR) >= 0) || segments.size() > 1) {
+      kind = Kind.PATTERN;
+    } else if (anchoredStart && anchoredEnd) {
+      kind = Kind.EXACT;
+    } else if (anchoredStart) {
+      kind = Kind.PREFIX;
+    } else if (anchoredEnd) {
+      kind = Kind.SUFFIX;
+    } else {
+      kind = Kind.CONTAINS;
+    }
+
+    final String literal = kind == Kind.PATTERN || segments.isEmpty() ? "" : segments.get(0);
+    return new LikeMatcher(
+        pattern, kind, literal, anchoredStart, anchoredEnd, segments, underscoreWildcard);
+  }
+
+  /**
+   * @return the matcher of the pattern of the supplied predicate, which must be a literal.
+   */
+  static LikeMatcher compile(final LikePredicate predicate, final boolean underscoreWildcard) {
+    if (!(predicate.getPattern() instanceof StringLiteral)) {
+      throw new KsqlException(
+          "KSQL only supports string literals as LIKE patterns: " + predicate.getPattern());
+    }
+    return compile(((StringLiteral) predicate.getPattern()).getValue(), underscoreWildcard);
+  }
+
+  /**
+   * @return whether {@code _} in the LIKE patterns of queries run with the supplied config
+   *         matches any single character.
+   */
+  public static boolean isUnderscoreWildcard(final KsqlConfig ksqlConfig) {
+    return !ksqlConfig.getBoolean(KsqlConfig.KSQL_LIKE_UNDERSCORE_LEGACY_CONFIG);
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * @return the text an {@link Kind#EXACT EXACT}, {@link Kind#PREFIX PREFIX},
+   *         {@link Kind#SUFFIX SUFFIX} or {@link Kind#CONTAINS CONTAINS} pattern tests for.
+   */
+  public String getLiteral() {
+    return literal;
+  }
+
+  /**
+   * @param value the non-null value to test.
+   * @return {@code true} if the value matches the pattern.
+   */
+  public boolean matches(final String value) {
+    switch (kind) {
+      case EXACT:
+        return value.equals(literal);
+      case PREFIX:
+        return value.startsWith(literal);
+      case SUFFIX:
+        return value.endsWith(literal);
+      case CONTAINS:
+        return value.contains(literal);
+      default:
+        return matchesSegments(value);
+    }
+  }
+
+  @Override
+  public Object evaluate(final Object... args) {
+    if (args.length != 1) {
+      throw new KsqlException("LIKE takes one value, got " + args.length);
+    }
+    return matches((String) args[0]);
+  }
+
+  @Override
+  public String toString() {
+    return "LikeMatcher{pattern='" + pattern + "', kind=" + kind + "}";
+  }
+
+  private boolean matchesSegments(final String value) {
+    if (value.length() < minLength) {
+      return false;
+    }
+
+    if (anchoredStart && anchoredEnd && segments.length == 1) {
+      return value.length() == minLength && segmentAt(value, 0, 0);
+    }
+
+    int first = 0;
+    int last = segments.length - 1;
+    int from = 0;
+    int end = value.length();
+
+    if (anchoredStart) {
+      if (!segmentAt(value, 0, 0)) {
+        return false;
+      }
+      from = segments[0].length();
+      first = 1;
+    }
+
+    if (anchoredEnd) {
+      final int start = end - segments[last].length();
+      if (start < from || !segmentAt(value, last, start)) {
+        return false;
+      }
+      end = start;
+      last--;
+    }
+
+    for (int i = first; i <= last; i++) {
+      final int at = indexOfSegment(value, i, from, end);
+      if (at < 0) {
+        return false;
+      }
+      from = at + segments[i].length();
+    }
+    return true;
+  }
+
+  /**
+   * @return the index of the leftmost occurrence of the segment that lies within
+   *         {@code [from, end)} of the value, or -1 if there is none.
+   */
+  private int indexOfSegment(final String value, final int segment, final int from, final int end) {
+    final int lastStart = end - segments[segment].length();
+    if (!segmentHasAnyChar[segment]) {
+      final int at = value.indexOf(segments[segment], from);
+      return at <= lastStart ? at : -1;
+    }
+
+    for (int at = from; at <= lastStart; at++) {
+      if (segmentAt(value, segment, at)) {
+        return at;
+      }
+    }
+    return -1;
+  }
+
+  private boolean segmentAt(final String value, final int segment, final int offset) {
+    final String text = segments[segment];
+    if (!segmentHasAnyChar[segment]) {
+      return value.startsWith(text, offset);
+    }
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (c != ANY_CHAR && c != value.charAt(offset + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import io.confluent.ksql.function.udf.Kudf;
+import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
+import java.util.List;
+
+/**
+ * Implemented by the classes {@link CodeGenRunner} generates for whole projections, optionally
+ * fused with the predicate of a preceding filter.
+ *
+ * <p>Must be public so that the generated classes can implement it.
+ */
+public interface RowTransformer {
+
+  /**
+   * Compute every expression of the projection for a single row.
+   *
+   * <p>Where the projection has a predicate, it is evaluated first, and the projection's
+   * expressions are only computed if it holds.
+   *
+   * <p>Each expression is computed once. Should computing one fail, a {@code null} is added to
+   * the output in its place, the failure passed to the {@code errorHandler}, and the remaining
+   * expressions computed as normal. Should the predicate fail, the failure is passed to the
+   * {@code errorHandler} and the row does not match. Nor does it if the predicate is
+   * {@code null}.
+   *
+   * @param columns the columns of the input row.
+   * @param typeEnforcer the type enforcer for the input schema.
+   * @param udfs the UDF instances referenced by the projection's expressions.
+   * @param output the list to which the value of each expression is added, in order.
+   * @param errorHandler receives the failure of each expression that could not be computed.
+   * @return {@code false} if the row does not match the predicate, otherwise {@code true}.
+   */
+  @SuppressWarnings("rawtypes")
+  boolean transform(
+      List columns,
+      GenericRowValueTypeEnforcer typeEnforcer,
+      Kudf[] udfs,
+      List output,
+      ErrorHandler errorHandler);
+
+  /**
+   * Receives the failures of the expressions of a projection.
+   */
+  interface ErrorHandler {
+
+    /**
+     * The index passed for the failure of the predicate.
+     */
+    int PREDICATE = -1;
+
+    /**
+     * @param expression the index of the expression that failed, or {@link #PREDICATE}.
+     * @param e the failure.
+     */
+    void onError(int expression, Exception e);
+  }
+}
@@ -55,6 +55,7 @@ import io.confluent.ksql.parser.tree.SubscriptExpression;
 import io.confluent.ksql.parser.tree.Type;
 import io.confluent.ksql.schema.ksql.LogicalSchemas;
 import io.confluent.ksql.util.ExpressionTypeManager;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.SchemaUtil;
@@ -80,16 +81,40 @@ public class SqlToJavaVisitor {
       "java.util.List",
       "java.util.ArrayList",
       "com.google.common.collect.ImmutableList",
-      "java.util.function.Supplier");
+      "java.util.function.Supplier",
+      LikeMatcher.class.getCanonicalName());
+
+  /**
+   * The prefix of the names of the {@link LikeMatcher} parameters of generated code.
+   */
+  static final String LIKE_PREFIX = "LIKE_";
 
   private final Schema schema;
   private final FunctionRegistry functionRegistry;
 
   private final ExpressionTypeManager expressionTypeManager;
+  private final boolean likeUnderscoreWildcard;
 
   public SqlToJavaVisitor(final Schema schema, final FunctionRegistry functionRegistry) {
+    this(schema, functionRegistry, true);
+  }
+
+  public SqlToJavaVisitor(
+      final Schema schema,
+      final FunctionRegistry functionRegistry,
+      final KsqlConfig ksqlConfig
+  ) {
+    this(schema, functionRegistry, LikeMatcher.isUnderscoreWildcard(ksqlConfig));
+  }
+
+  private SqlToJavaVisitor(
+      final Schema schema,
+      final FunctionRegistry functionRegistry,
+      final boolean likeUnderscoreWildcard
+  ) {
     this.schema = schema;
     this.functionRegistry = functionRegistry;
+    this.likeUnderscoreWildcard = likeUnderscoreWildcard;
     this.expressionTypeManager =
         new ExpressionTypeManager(schema, functionRegistry);
   }
@@ -109,6 +134,7 @@ public class SqlToJavaVisitor {
 
     private final FunctionRegistry functionRegistry;
     private int functionCounter = 0;
+    private int likeCounter = 0;
 
     Formatter(final FunctionRegistry functionRegistry) {
       this.functionRegistry = functionRegistry;
@@ -516,46 +542,34 @@ public class SqlToJavaVisitor {
         final LikePredicate node,
         final Void context
     ) {
-
-      // For now we just support simple prefix/suffix cases only.
-      final String patternString = trimQuotes(process(node.getPattern(), context).getLeft());
+      final LikeMatcher matcher = LikeMatcher.compile(node, likeUnderscoreWildcard);
       final String valueString = process(node.getValue(), context).getLeft();
-      if (patternString.startsWith("%")) {
-        if (patternString.endsWith("%")) {
-          return new Pair<>(
-              "(" + valueString + ").contains(\""
-                  + patternString.substring(1, patternString.length() - 1)
-                  + "\")",
-              Schema.OPTIONAL_STRING_SCHEMA
-          );
-        } else {
+      final String literal = "\"" + StringEscapeUtils.escapeJava(matcher.getLiteral()) + "\"";
+      final String method;
+      // Simple patterns are tested inline, others by the matcher passed in with the UDFs:
+      switch (matcher.getKind()) {
+        case EXACT:
+          method = "equals";
+          break;
+        case PREFIX:
+          method = "startsWith";
+          break;
+        case SUFFIX:
+          method = "endsWith";
+          break;
+        case CONTAINS:
+          method = "contains";
+          break;
+        default:
           return new Pair<>(
-              "(" + valueString + ").endsWith(\"" + patternString.substring(1) + "\")",
+              "((" + LikeMatcher.class.getSimpleName() + ") " + LIKE_PREFIX + likeCounter++
+                  + ").matches(" + valueString + ")",
               Schema.OPTIONAL_STRING_SCHEMA
           );
-        }
-      }
-
-      if (patternString.endsWith("%")) {
-        return new Pair<>(
-            "(" + valueString + ")"
-                + ".startsWith(\""
-                + patternString.substring(0, patternString.length() - 1) + "\")",
-            Schema.OPTIONAL_STRING_SCHEMA
-        );
-      }
-
-      if (!patternString.contains("%")) {
-        return new Pair<>(
-            "(" + valueString + ")"
-                + ".equals(\""
-                + patternString + "\")",
-            Schema.OPTIONAL_STRING_SCHEMA
-        );
       }
-
-      throw new UnsupportedOperationException(
-          "KSQL only supports leading and trailing wildcards in LIKE expressions."
+      return new Pair<>(
+          "(" + valueString + ")." + method + "(" + literal + ")",
+          Schema.OPTIONAL_STRING_SCHEMA
       );
     }
 
@@ -657,10 +671,6 @@ public class SqlToJavaVisitor {
       return s;
     }
 
-    private String trimQuotes(final String s) {
-      return s.substring(1, s.length() - 1);
-    }
-
     private String getCastToBooleanString(final Schema schema, final String exprStr) {
       if (schema.type() == Schema.Type.STRING) {
         return "Boolean.parseBoolean(" + exprStr + ")";
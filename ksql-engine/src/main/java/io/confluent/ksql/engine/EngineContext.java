@@ -21,7 +21,6 @@ import io.confluent.ksql.ddl.commands.DdlCommandExec;
 import io.confluent.ksql.ddl.commands.DdlCommandResult;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.metastore.MutableMetaStore;
-import io.confluent.ksql.parser.DefaultKsqlParser;
 import io.confluent.ksql.parser.KsqlParser;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
@@ -53,7 +52,7 @@ final class EngineContext {
   private final DdlCommandExec ddlCommandExec;
   private final QueryIdGenerator queryIdGenerator;
   private final ProcessingLogContext processingLogContext;
-  private final KsqlParser parser = new DefaultKsqlParser();
+  private final KsqlParser parser;
   private final Consumer<QueryMetadata> outerOnQueryCloseCallback;
   private final Map<QueryId, PersistentQueryMetadata> persistentQueries;
 
@@ -62,8 +61,10 @@ final class EngineContext {
       final ProcessingLogContext processingLogContext,
       final MutableMetaStore metaStore,
       final QueryIdGenerator queryIdGenerator,
+      final KsqlParser parser,
       final Consumer<QueryMetadata> onQueryCloseCallback
   ) {
+    this.parser = Objects.requireNonNull(parser, "parser");
     this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
     this.metaStore = Objects.requireNonNull(metaStore, "metaStore");
     this.queryIdGenerator = Objects.requireNonNull(queryIdGenerator, "queryIdGenerator");
@@ -81,6 +82,7 @@ final class EngineContext {
       final ProcessingLogContext processingLogContext,
       final MutableMetaStore metaStore,
       final QueryIdGenerator queryIdGenerator,
+      final KsqlParser parser,
       final Consumer<QueryMetadata> onQueryCloseCallback
   ) {
     return new EngineContext(
@@ -88,6 +90,7 @@ final class EngineContext {
         processingLogContext,
         metaStore,
         queryIdGenerator,
+        parser,
         onQueryCloseCallback);
   }
 
@@ -97,6 +100,7 @@ final class EngineContext {
         processingLogContext,
         metaStore.copy(),
         queryIdGenerator.copy(),
+        parser,
         query -> {
           // No-op
         }
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.engine;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.ddl.commands.DdlCommandExec;
@@ -25,6 +26,7 @@ import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.metastore.MetaStoreImpl;
 import io.confluent.ksql.metastore.MutableMetaStore;
 import io.confluent.ksql.metrics.StreamsErrorCollector;
+import io.confluent.ksql.parser.DefaultKsqlParser;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.ExecutableDdlStatement;
@@ -62,6 +64,8 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
   private final ScheduledExecutorService aggregateMetricsCollector;
   private final String serviceId;
   private final ServiceContext serviceContext;
+  private final DefaultKsqlParser parser;
+  private final QueryIdGenerator queryIdGenerator;
   private final EngineContext primaryContext;
 
   public KsqlEngine(
@@ -85,11 +89,15 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
       final MutableMetaStore metaStore,
       final Function<KsqlEngine, KsqlEngineMetrics> engineMetricsFactory
   ) {
+    // Shared with sandboxes, as metastore versions are unique across copies:
+    this.parser = new DefaultKsqlParser(DefaultKsqlParser.DEFAULT_CACHE_MAX_TEXT_LENGTH);
+    this.queryIdGenerator = new QueryIdGenerator();
     this.primaryContext = EngineContext.create(
         serviceContext,
         processingLogContext,
         metaStore,
-        new QueryIdGenerator(),
+        queryIdGenerator,
+        parser,
         this::unregisterQuery);
     this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
     this.serviceId = Objects.requireNonNull(serviceId, "serviceId");
@@ -144,6 +152,18 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     return serviceId;
   }
 
+  public QueryIdGenerator getQueryIdGenerator() {
+    return queryIdGenerator;
+  }
+
+  public CacheStats getParseCacheStats() {
+    return parser.getParseCacheStats();
+  }
+
+  public CacheStats getPrepareCacheStats() {
+    return parser.getPrepareCacheStats();
+  }
+
   public void stopAcceptingStatements() {
     acceptingStatements.set(false);
   }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function;
+
+/**
+ * The batch counterpart of {@link UdfInvoker}: the UDFCompiler generates and compiles an
+ * implementation of this, when a batch is first evaluated, for each function that is loaded via
+ * the UDFLoader, which calls onto the UDF once for each row of a batch.
+ */
+public interface BatchUdfInvoker {
+
+  /**
+   * Call onto an UDF instance for each row of a batch.
+   *
+   * @param udf       the udf that is being called
+   * @param batchSize the number of rows in the batch
+   * @param udfArgs   the columns of arguments, i.e. {@code udfArgs[i][row]} is the i'th argument
+   *                  to pass to the udf for the row
+   * @param results   the array to which the result of evaluating the udf for each row is written
+   */
+  void evalBatch(Object udf, int batchSize, Object[][] udfArgs, Object[] results);
+}
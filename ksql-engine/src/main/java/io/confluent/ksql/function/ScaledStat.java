@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function;
+
+import java.util.Objects;
+import org.apache.kafka.common.metrics.MeasurableStat;
+import org.apache.kafka.common.metrics.MetricConfig;
+
+/**
+ * Scales a stat, such as a count or rate, that is recorded for only one in every {@code scale}
+ * invocations of a udf up to an estimate for all of them.
+ */
+final class ScaledStat implements MeasurableStat {
+
+  private final MeasurableStat stat;
+  private final int scale;
+
+  ScaledStat(final MeasurableStat stat, final int scale) {
+    this.stat = Objects.requireNonNull(stat, "stat can't be null");
+    this.scale = scale;
+  }
+
+  @Override
+  public void record(final MetricConfig config, final double value, final long timeMs) {
+    stat.record(config, value, timeMs);
+  }
+
+  @Override
+  public double measure(final MetricConfig config, final long now) {
+    return stat.measure(config, now) * scale;
+  }
+}
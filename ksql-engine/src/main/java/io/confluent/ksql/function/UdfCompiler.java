@@ -48,7 +48,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class takes methods that have been marked with the Udf or UdfFactory annotation.
- * Each method gets a class generated for it. For Udfs it is an {@link UdfInvoker}.
+ * Each method gets a class generated for it. For Udfs it is an {@link UdfInvoker},
+ * along with a {@link BatchUdfInvoker} to evaluate the Udf over a batch of rows.
  * For UDAFs it is a {@link KsqlAggregateFunction}
  */
 public class UdfCompiler {
@@ -98,6 +99,22 @@ public class UdfCompiler {
     }
   }
 
+  BatchUdfInvoker compileBatch(final Method method, final ClassLoader loader) {
+    try {
+      final IScriptEvaluator scriptEvaluator = createScriptEvaluator(method,
+          loader,
+          method.getDeclaringClass().getName());
+      final String code = generateBatchCode(method);
+      return (BatchUdfInvoker) scriptEvaluator.createFastEvaluator(code,
+          BatchUdfInvoker.class, new String[]{"thiz", "batchSize", "args", "results"});
+    } catch (final KsqlException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new KsqlException("Failed to compile batch udf wrapper class for "
+          + method, e);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   KsqlAggregateFunction<?, ?> compileAggregate(final Method method,
                                                final ClassLoader loader,
@@ -232,6 +249,21 @@ public class UdfCompiler {
    * @return String representation of the code that should be compiled for the UDF
    */
   private static String generateCode(final Method method) {
+    validateParameterTypes(method);
+    return UdfTemplate.generateCode(method, "thiz");
+  }
+
+  /**
+   * Generates code to evaluate the given method for each row of a batch.
+   * @param method  the UDF to generate the code for
+   * @return String representation of the code that should be compiled for the UDF
+   */
+  private static String generateBatchCode(final Method method) {
+    validateParameterTypes(method);
+    return UdfTemplate.generateBatchCode(method, "thiz");
+  }
+
+  private static void validateParameterTypes(final Method method) {
     Arrays.stream(method.getParameterTypes())
         .filter(type -> !UdfCompiler.isTypeSupported(type, SUPPORTED_UDF_TYPES))
         .findFirst()
@@ -247,8 +279,6 @@ public class UdfCompiler {
               )
           );
         });
-
-    return UdfTemplate.generateCode(method, "thiz");
   }
 
   private static boolean isTypeSupported(final Class<?> type, final Set<Class<?>> supportedTypes) {
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.function;
 
+import com.google.common.base.Suppliers;
 import io.confluent.common.Configurable;
 import io.confluent.ksql.function.udaf.UdafAggregateFunctionFactory;
 import io.confluent.ksql.function.udaf.UdafDescription;
@@ -47,14 +48,19 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import org.apache.kafka.common.metrics.MeasurableStat;
 import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.metrics.stats.Avg;
-import org.apache.kafka.common.metrics.stats.Count;
 import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
+import org.apache.kafka.common.metrics.stats.Percentiles.BucketSizing;
 import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.Total;
 import org.apache.kafka.common.utils.Time;
 import org.apache.kafka.connect.data.Schema;
 import org.slf4j.Logger;
@@ -66,6 +72,8 @@ public class UdfLoader {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(UdfLoader.class);
   private static final String UDF_METRIC_GROUP = "ksql-udf";
+  private static final int PERCENTILES_SIZE_IN_BYTES = 2000;
+  private static final double PERCENTILES_MAX_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
 
   private final MutableFunctionRegistry functionRegistry;
   private final File pluginDir;
@@ -75,6 +83,7 @@ public class UdfLoader {
   @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
   private final Optional<Metrics> metrics;
   private final boolean loadCustomerUdfs;
+  private final int metricsSampleInterval;
 
 
   @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
@@ -85,6 +94,25 @@ public class UdfLoader {
                    final UdfCompiler compiler,
                    final Optional<Metrics> metrics,
                    final boolean loadCustomerUdfs) {
+    this(functionRegistry,
+        pluginDir,
+        parentClassLoader,
+        blacklist,
+        compiler,
+        metrics,
+        loadCustomerUdfs,
+        1);
+  }
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  public UdfLoader(final MutableFunctionRegistry functionRegistry,
+                   final File pluginDir,
+                   final ClassLoader parentClassLoader,
+                   final Predicate<String> blacklist,
+                   final UdfCompiler compiler,
+                   final Optional<Metrics> metrics,
+                   final boolean loadCustomerUdfs,
+                   final int metricsSampleInterval) {
     this.functionRegistry = Objects
         .requireNonNull(functionRegistry, "functionRegistry can't be null");
     this.pluginDir = Objects.requireNonNull(pluginDir, "pluginDir can't be null");
@@ -94,6 +122,11 @@ public class UdfLoader {
     this.compiler = Objects.requireNonNull(compiler, "compiler can't be null");
     this.metrics = Objects.requireNonNull(metrics, "metrics can't be null");
     this.loadCustomerUdfs = loadCustomerUdfs;
+    if (metricsSampleInterval < 1) {
+      throw new IllegalArgumentException(
+          "metricsSampleInterval must be at least 1: " + metricsSampleInterval);
+    }
+    this.metricsSampleInterval = metricsSampleInterval;
   }
 
   public void load() {
@@ -212,7 +245,10 @@ public class UdfLoader {
       final Method method = (Method) executable;
       try {
         final UdfInvoker udf = compiler.compile(method, loader);
-        addFunction(annotation, method, udf, path);
+        // Few functions are evaluated in batches, so their batch invokers are compiled on demand:
+        final Supplier<BatchUdfInvoker> batchUdf =
+            Suppliers.memoize(() -> compiler.compileBatch(method, loader));
+        addFunction(annotation, method, udf, batchUdf, path);
       } catch (final KsqlException e) {
         if (parentClassLoader == loader) {
           throw e;
@@ -229,6 +265,7 @@ public class UdfLoader {
   private void addFunction(final UdfDescription classLevelAnnotation,
                            final Method method,
                            final UdfInvoker udf,
+                           final Supplier<BatchUdfInvoker> batchUdf,
                            final String path) {
     // sanity check
     instantiateUdfClass(method, classLevelAnnotation);
@@ -278,10 +315,12 @@ public class UdfLoader {
             ((Configurable)actualUdf)
                 .configure(ksqlConfig.getKsqlFunctionsConfigProps(functionName));
           }
-          final PluggableUdf theUdf = new PluggableUdf(udf, actualUdf);
+          final PluggableUdf theUdf = new PluggableUdf(udf, batchUdf, actualUdf);
           return metrics.<Kudf>map(m -> new UdfMetricProducer(m.getSensor(sensorName),
+              m.getSensor(invocationSensorName(sensorName)),
               theUdf,
-              Time.SYSTEM)).orElse(theUdf);
+              Time.SYSTEM,
+              metricsSampleInterval)).orElse(theUdf);
         }, udfAnnotation.description(),
         path));
   }
@@ -308,17 +347,39 @@ public class UdfLoader {
         sensor.add(metrics.metricName(sensorName + "-max", UDF_METRIC_GROUP,
             "Max time for an invocation of " + udfName + " udf"),
             new Max());
-        sensor.add(metrics.metricName(sensorName + "-count", UDF_METRIC_GROUP,
+        sensor.add(new Percentiles(PERCENTILES_SIZE_IN_BYTES,
+            PERCENTILES_MAX_NANOS,
+            BucketSizing.LINEAR,
+            new Percentile(metrics.metricName(sensorName + "-p50", UDF_METRIC_GROUP,
+                "Median time for an invocation of " + udfName + " udf"), 50),
+            new Percentile(metrics.metricName(sensorName + "-p99", UDF_METRIC_GROUP,
+                "99th percentile time for an invocation of " + udfName + " udf"), 99)));
+
+        // A batch of rows is timed once, but counts as one invocation per row:
+        final Sensor invocations = metrics.sensor(invocationSensorName(sensorName));
+        invocations.add(metrics.metricName(sensorName + "-count", UDF_METRIC_GROUP,
             "Total number of invocations of " + udfName + " udf"),
-            new Count());
-        sensor.add(metrics.metricName(sensorName + "-rate", UDF_METRIC_GROUP,
+            scaled(new Total()));
+        invocations.add(metrics.metricName(sensorName + "-rate", UDF_METRIC_GROUP,
             "The average number of occurrence of " + udfName + " operation per second "
                 + udfName + " udf"),
-            new Rate(TimeUnit.SECONDS, new Count()));
+            scaled(new Rate(TimeUnit.SECONDS)));
       }
     });
   }
 
+  private static String invocationSensorName(final String sensorName) {
+    return sensorName + "-invocations";
+  }
+
+  /**
+   * When only one in every {@code metricsSampleInterval} invocations is recorded, stats that
+   * count invocations are scaled up to estimate all of them.
+   */
+  private MeasurableStat scaled(final MeasurableStat stat) {
+    return metricsSampleInterval == 1 ? stat : new ScaledStat(stat, metricsSampleInterval);
+  }
+
   public static UdfLoader newInstance(final KsqlConfig config,
                                       final MutableFunctionRegistry metaStore,
                                       final String ksqlInstallDir
@@ -343,7 +404,8 @@ public class UdfLoader {
         new Blacklist(new File(pluginDir, "resource-blacklist.txt")),
         new UdfCompiler(metrics),
         metrics,
-        loadCustomerUdfs
+        loadCustomerUdfs,
+        config.getInt(KsqlConfig.KSQL_UDF_METRICS_SAMPLE_INTERVAL_CONFIG)
     );
   }
 }
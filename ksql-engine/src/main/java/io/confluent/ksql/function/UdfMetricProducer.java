@@ -15,35 +15,88 @@
 
 package io.confluent.ksql.function;
 
+import io.confluent.ksql.function.udf.BatchKudf;
 import io.confluent.ksql.function.udf.Kudf;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.utils.Time;
 
 /**
  * Capture metrics for a given Kudf
+ *
+ * <p>Times are recorded to the {@code sensor}, and the number of invocations to the
+ * {@code invocationSensor}. A batch is timed as a whole, rather than reading the clock twice for
+ * every row, and its average time per row recorded once, while its size is recorded as the number
+ * of invocations.
+ *
+ * <p>With a {@code sampleInterval} greater than one, only one in every {@code sampleInterval}
+ * calls, chosen at random, is timed and recorded, so the others neither read the clock nor take
+ * the sensor's lock.
  */
-class UdfMetricProducer implements Kudf {
+class UdfMetricProducer implements BatchKudf {
 
   private final Sensor sensor;
+  private final Sensor invocationSensor;
   private final Kudf kudf;
   private final Time time;
+  private final int sampleInterval;
 
   UdfMetricProducer(final Sensor sensor,
+                    final Sensor invocationSensor,
                     final Kudf kudf,
                     final Time time) {
+    this(sensor, invocationSensor, kudf, time, 1);
+  }
+
+  UdfMetricProducer(final Sensor sensor,
+                    final Sensor invocationSensor,
+                    final Kudf kudf,
+                    final Time time,
+                    final int sampleInterval) {
     this.sensor = Objects.requireNonNull(sensor, "sensor can't be null");
+    this.invocationSensor =
+        Objects.requireNonNull(invocationSensor, "invocationSensor can't be null");
     this.kudf = Objects.requireNonNull(kudf, "kudf can't be null");
     this.time = Objects.requireNonNull(time, "time can't be null");
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("sampleInterval must be at least 1: " + sampleInterval);
+    }
+    this.sampleInterval = sampleInterval;
   }
 
   @Override
   public Object evaluate(final Object... args) {
+    if (!sample()) {
+      return kudf.evaluate(args);
+    }
+
     final long start = time.nanoseconds();
     try {
       return kudf.evaluate(args);
     } finally {
       sensor.record(time.nanoseconds() - start);
+      invocationSensor.record(1);
     }
   }
+
+  @Override
+  public void evaluateBatch(final int batchSize, final Object[][] args, final Object[] results) {
+    if (!sample()) {
+      BatchKudf.evaluateBatch(kudf, batchSize, args, results);
+      return;
+    }
+
+    final long start = time.nanoseconds();
+    try {
+      BatchKudf.evaluateBatch(kudf, batchSize, args, results);
+    } finally {
+      sensor.record((time.nanoseconds() - start) / (double) Math.max(batchSize, 1));
+      invocationSensor.record(batchSize);
+    }
+  }
+
+  private boolean sample() {
+    return sampleInterval == 1 || ThreadLocalRandom.current().nextInt(sampleInterval) == 0;
+  }
 }
@@ -57,11 +57,47 @@ public final class UdfTemplate {
     return codeString;
   }
 
+  static String generateBatchCode(final Method method, final String obj) {
+    final Class<?>[] params = method.getParameterTypes();
+
+    final CodeBlock.Builder code = CodeBlock.builder()
+        .beginControlFlow("for (int row = 0; row < batchSize; row++)");
+    for (int idx = 0; idx < params.length; idx++) {
+      final Class<?> param = params[idx];
+      code.addStatement("$T arg$L = ($T) $T.coerceArg(args[$L][row], $T.class, $L)",
+                        Primitives.wrap(param),
+                        idx,
+                        Primitives.wrap(param),
+                        UdfTemplate.class,
+                        idx,
+                        param,
+                        idx);
+    }
+
+    final String args = IntStream.range(0, params.length)
+        .mapToObj(i -> "arg" + i)
+        .collect(Collectors.joining(", "));
+
+    code.addStatement("results[row] = (($T) $L).$L($L)",
+                      method.getDeclaringClass(), obj, method.getName(), args)
+        .endControlFlow();
+
+    final String codeString = code.build().toString();
+    LOG.trace("Generated batch code:\n" + codeString);
+    return codeString;
+  }
+
   public static <T> T coerce(
       final Object[] args,
       final Class<? extends T> clazz,
       final int index) {
-    final Object arg = args[index];
+    return coerceArg(args[index], clazz, index);
+  }
+
+  public static <T> T coerceArg(
+      final Object arg,
+      final Class<? extends T> clazz,
+      final int index) {
     if (arg == null) {
       if (clazz.isPrimitive()) {
         throw new KsqlFunctionException(
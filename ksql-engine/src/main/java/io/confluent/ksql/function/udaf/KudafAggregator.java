@@ -18,71 +18,126 @@ package io.confluent.ksql.function.udaf;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.UdafAggregator;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.Merger;
 
 public class KudafAggregator implements UdafAggregator {
 
-  private Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap;
-  private Map<Integer, Integer> aggValToValColumnMap;
+  // The maps passed to the constructor, flattened into parallel arrays, so that each row can
+  // be aggregated without iterating a map or boxing an index:
+  private final int[] nonAggIndexes;
+  private final int[] nonAggValueIndexes;
+  private final int[] aggIndexes;
+  private final int[] aggArgValueIndexes;
+  private final KsqlAggregateFunction[] aggFunctions;
+  private final Merger[] aggMergers;
 
   public KudafAggregator(
       final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap,
       final Map<Integer, Integer> aggValToValColumnMap) {
-    this.aggValToAggFunctionMap = aggValToAggFunctionMap;
-    this.aggValToValColumnMap = aggValToValColumnMap;
+    this.nonAggIndexes = new int[aggValToValColumnMap.size()];
+    this.nonAggValueIndexes = new int[aggValToValColumnMap.size()];
+    int i = 0;
+    for (final Map.Entry<Integer, Integer> e : aggValToValColumnMap.entrySet()) {
+      nonAggIndexes[i] = e.getKey();
+      nonAggValueIndexes[i] = e.getValue();
+      i++;
+    }
+
+    this.aggIndexes = new int[aggValToAggFunctionMap.size()];
+    this.aggArgValueIndexes = new int[aggValToAggFunctionMap.size()];
+    this.aggFunctions = new KsqlAggregateFunction[aggValToAggFunctionMap.size()];
+    this.aggMergers = new Merger[aggValToAggFunctionMap.size()];
+    i = 0;
+    for (final Map.Entry<Integer, KsqlAggregateFunction> e : aggValToAggFunctionMap.entrySet()) {
+      aggIndexes[i] = e.getKey();
+      aggArgValueIndexes[i] = e.getValue().getArgIndexInValue();
+      aggFunctions[i] = e.getValue();
+      aggMergers[i] = e.getValue().getMerger();
+      i++;
+    }
+  }
+
+  @Override
+  public GenericRow apply(
+      final String key,
+      final GenericRow rowValue,
+      final GenericRow aggRowValue
+  ) {
+    return aggregate(rowValue, aggRowValue);
   }
 
-  @SuppressWarnings("unchecked")
   @Override
-  public GenericRow apply(final String s, final GenericRow rowValue, final GenericRow aggRowValue) {
+  public Merger<String, GenericRow> getMerger() {
+    return this::merge;
+  }
+
+  /**
+   * @return this aggregator, for rows grouped by keys of any type, e.g. a {@code GroupByKey}.
+   */
+  public Aggregator<Object, GenericRow, GenericRow> asAggregator() {
+    return (key, rowValue, aggRowValue) -> aggregate(rowValue, aggRowValue);
+  }
+
+  /**
+   * @return the merger of this aggregator, for rows grouped by keys of any type. Aggregate
+   *     functions are passed the string form of the key.
+   */
+  public Merger<Object, GenericRow> asMerger() {
+    return (key, aggRowOne, aggRowTwo) -> merge(String.valueOf(key), aggRowOne, aggRowTwo);
+  }
+
+  @SuppressWarnings("unchecked")
+  private GenericRow aggregate(final GenericRow rowValue, final GenericRow aggRowValue) {
+    final List<Object> columns = rowValue.getColumns();
+    final List<Object> aggColumns = aggRowValue.getColumns();
+
     // copy over group-by and aggregate parameter columns into the output row
-    aggValToValColumnMap.forEach(
-        (key, value) ->
-            aggRowValue.getColumns().set(key, rowValue.getColumns().get(value)));
+    for (int i = 0; i < nonAggIndexes.length; i++) {
+      aggColumns.set(nonAggIndexes[i], columns.get(nonAggValueIndexes[i]));
+    }
 
     // compute the aggregation and write it into the output row. Its assumed that
     // the columns written by this statement do not overlap with those written by
     // the above statement.
-    aggValToAggFunctionMap.forEach((key, value) ->
-        aggRowValue.getColumns().set(
-            key,
-            value.aggregate(
-                rowValue.getColumns().get(value.getArgIndexInValue()),
-                aggRowValue.getColumns().get(key))));
+    for (int i = 0; i < aggIndexes.length; i++) {
+      final int aggIndex = aggIndexes[i];
+      aggColumns.set(
+          aggIndex,
+          aggFunctions[i].aggregate(columns.get(aggArgValueIndexes[i]), aggColumns.get(aggIndex)));
+    }
 
     return aggRowValue;
   }
 
   @SuppressWarnings("unchecked")
-  @Override
-  public Merger<String, GenericRow> getMerger() {
-    return (key, aggRowOne, aggRowTwo) -> {
-      final List<Object> columns = Stream.generate(String::new).limit(aggRowOne.getColumns().size())
-          .collect(Collectors.toList());
-      final GenericRow mergedRow = new GenericRow(columns);
-
-      aggValToValColumnMap.forEach((columnIndex, value) -> {
-        if (aggRowOne.getColumns().get(value) == null) {
-          mergedRow.getColumns().set(columnIndex, aggRowTwo.getColumns()
-              .get(value));
-        } else {
-          mergedRow.getColumns().set(columnIndex, aggRowOne.getColumns()
-              .get(value));
-        }
-      });
-
-      aggValToAggFunctionMap.forEach((functionIndex, ksqlAggregateFunction) ->
-          mergedRow.getColumns().set(functionIndex, ksqlAggregateFunction.getMerger()
-          .apply(key,
-              aggRowOne.getColumns().get(functionIndex),
-              aggRowTwo.getColumns().get(functionIndex))));
-
-      return mergedRow;
-    };
-  }
+  private GenericRow merge(
+      final String key,
+      final GenericRow aggRowOne,
+      final GenericRow aggRowTwo
+  ) {
+    final List<Object> columnsOne = aggRowOne.getColumns();
+    final List<Object> columnsTwo = aggRowTwo.getColumns();
+    final List<Object> merged = new ArrayList<>(Arrays.asList(new Object[columnsOne.size()]));
+
+    for (int i = 0; i < nonAggIndexes.length; i++) {
+      final Object value = columnsOne.get(nonAggValueIndexes[i]);
+      merged.set(
+          nonAggIndexes[i],
+          value == null ? columnsTwo.get(nonAggValueIndexes[i]) : value);
+    }
 
+    for (int i = 0; i < aggIndexes.length; i++) {
+      final int aggIndex = aggIndexes[i];
+      merged.set(
+          aggIndex,
+          aggMergers[i].apply(key, columnsOne.get(aggIndex), columnsTwo.get(aggIndex)));
+    }
+
+    return new GenericRow(merged);
+  }
 }
@@ -19,8 +19,6 @@ import io.confluent.ksql.GenericRow;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.kafka.streams.kstream.Initializer;
 
 public class KudafInitializer implements Initializer<GenericRow> {
@@ -34,11 +32,14 @@ public class KudafInitializer implements Initializer<GenericRow> {
 
   @Override
   public GenericRow apply() {
-    final List<Object> values = IntStream.range(0, nonAggValSize)
-        .mapToObj(value -> null)
-        .collect(Collectors.toList());
-
-    aggValueSuppliers.forEach(supplier -> values.add(supplier.get()));
+    final int numAggValues = aggValueSuppliers.size();
+    final List<Object> values = new ArrayList<>(nonAggValSize + numAggValues);
+    for (int i = 0; i < nonAggValSize; i++) {
+      values.add(null);
+    }
+    for (int i = 0; i < numAggValues; i++) {
+      values.add(aggValueSuppliers.get(i).get());
+    }
     return new GenericRow(values);
   }
 
@@ -19,6 +19,7 @@ import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import org.apache.kafka.connect.data.Schema;
@@ -63,21 +64,26 @@ public class TopkKudaf<T extends Comparable<? super T>>
     }
 
     final int currentSize = aggregateValue.size();
-    if (!aggregateValue.isEmpty()) {
-      final T last = aggregateValue.get(currentSize - 1);
-      if (currentValue.compareTo(last) <= 0
-          && currentSize == topKSize) {
-        return aggregateValue;
-      }
+    if (currentSize == topKSize
+        && currentValue.compareTo(aggregateValue.get(currentSize - 1)) <= 0) {
+      return aggregateValue;
     }
 
+    // The aggregate is kept sorted in descending order, so the value's position can be found
+    // with a binary search, rather than appending it and sorting the whole list:
+    final int found = Collections.binarySearch(
+        aggregateValue, currentValue, Comparator.reverseOrder());
+    final int index = found < 0 ? -found - 1 : found;
+
     if (currentSize == topKSize) {
-      aggregateValue.set(currentSize - 1, currentValue);
+      // Shift the smaller values down, dropping the smallest, without resizing the list:
+      for (int i = currentSize - 1; i > index; i--) {
+        aggregateValue.set(i, aggregateValue.get(i - 1));
+      }
+      aggregateValue.set(index, currentValue);
     } else {
-      aggregateValue.add(currentValue);
+      aggregateValue.add(index, currentValue);
     }
-
-    aggregateValue.sort(Comparator.reverseOrder());
     return aggregateValue;
   }
 
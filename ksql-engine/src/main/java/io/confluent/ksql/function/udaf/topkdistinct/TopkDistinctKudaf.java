@@ -66,17 +66,24 @@ public class TopkDistinctKudaf<T extends Comparable<? super T>>
       return aggregateValue;
     }
 
-    if (aggregateValue.contains(currentValue)) {
+    // The aggregate is kept sorted in descending order, so a binary search both finds any
+    // duplicate of the value and the position to insert it at:
+    final int found = Collections.binarySearch(
+        aggregateValue, currentValue, Comparator.reverseOrder());
+    if (found >= 0) {
       return aggregateValue;
     }
+    final int index = -found - 1;
 
     if (currentSize == tkVal) {
-      aggregateValue.set(currentSize - 1, currentValue);
+      // Shift the smaller values down, dropping the smallest, without resizing the list:
+      for (int i = currentSize - 1; i > index; i--) {
+        aggregateValue.set(i, aggregateValue.get(i - 1));
+      }
+      aggregateValue.set(index, currentValue);
     } else {
-      aggregateValue.add(currentValue);
+      aggregateValue.add(index, currentValue);
     }
-
-    aggregateValue.sort(Comparator.reverseOrder());
     return aggregateValue;
   }
 
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf;
+
+/**
+ * A {@link Kudf} that can also be evaluated over a batch of rows in one call, so that the fixed
+ * cost of a call, such as allocating its arguments or recording its metrics, is paid once per
+ * batch rather than once per row.
+ *
+ * <p>This is internal to the engine, rather than part of the API for writing functions, until the
+ * engine has a caller that evaluates rows in batches.
+ */
+public interface BatchKudf extends Kudf {
+
+  /**
+   * Evaluate the function for each row of a batch.
+   *
+   * @param batchSize the number of rows in the batch.
+   * @param args      the columns of arguments, i.e. {@code args[i][row]} is the i'th argument
+   *                  for the row.
+   * @param results   the array to which the result for each row is written.
+   */
+  void evaluateBatch(int batchSize, Object[][] args, Object[] results);
+
+  /**
+   * Evaluate any {@code kudf} for each row of a batch, in one call if it is a {@code BatchKudf}
+   * and otherwise one row at a time.
+   */
+  static void evaluateBatch(
+      final Kudf kudf,
+      final int batchSize,
+      final Object[][] args,
+      final Object[] results
+  ) {
+    if (kudf instanceof BatchKudf) {
+      ((BatchKudf) kudf).evaluateBatch(batchSize, args, results);
+      return;
+    }
+
+    for (int row = 0; row < batchSize; row++) {
+      final Object[] rowArgs = new Object[args.length];
+      for (int i = 0; i < args.length; i++) {
+        rowArgs[i] = args[i][row];
+      }
+      results[row] = kudf.evaluate(rowArgs);
+    }
+  }
+}
@@ -15,24 +15,38 @@
 
 package io.confluent.ksql.function.udf;
 
+import io.confluent.ksql.function.BatchUdfInvoker;
 import io.confluent.ksql.function.UdfInvoker;
 import io.confluent.ksql.security.ExtensionSecurityManager;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Class to allow conversion from Kudf to UdfInvoker.
  * This may change if we ever get rid of Kudf. As it stands we need
  * to do a conversion from custom UDF -> Kudf so we can support stong
  * typing etc.
+ *
+ * <p>When given a {@link BatchUdfInvoker} a batch of rows is evaluated with a single
+ * call onto it, otherwise by calling the {@link UdfInvoker} once per row. The batch invoker is
+ * only requested from its supplier when a batch is first evaluated.
  */
-public class PluggableUdf implements Kudf {
+public class PluggableUdf implements BatchKudf {
 
   private final UdfInvoker udf;
+  private final Supplier<BatchUdfInvoker> batchUdf;
   private final Object actualUdf;
 
   public PluggableUdf(final UdfInvoker udfInvoker,
                       final Object actualUdf) {
+    this(udfInvoker, rowByRow(udfInvoker), actualUdf);
+  }
+
+  public PluggableUdf(final UdfInvoker udfInvoker,
+                      final Supplier<BatchUdfInvoker> batchUdfInvoker,
+                      final Object actualUdf) {
     this.udf = Objects.requireNonNull(udfInvoker, "udfInvoker can't be null");
+    this.batchUdf = Objects.requireNonNull(batchUdfInvoker, "batchUdfInvoker can't be null");
     this.actualUdf = Objects.requireNonNull(actualUdf, "actualUdf can't be null");
   }
 
@@ -45,4 +59,28 @@ public class PluggableUdf implements Kudf {
       ExtensionSecurityManager.INSTANCE.popOutUdf();
     }
   }
+
+  @Override
+  public void evaluateBatch(final int batchSize, final Object[][] args, final Object[] results) {
+    try {
+      ExtensionSecurityManager.INSTANCE.pushInUdf();
+      batchUdf.get().evalBatch(actualUdf, batchSize, args, results);
+    } finally {
+      ExtensionSecurityManager.INSTANCE.popOutUdf();
+    }
+  }
+
+  private static Supplier<BatchUdfInvoker> rowByRow(final UdfInvoker udfInvoker) {
+    Objects.requireNonNull(udfInvoker, "udfInvoker can't be null");
+    final BatchUdfInvoker batchUdfInvoker = (udf, batchSize, udfArgs, results) -> {
+      for (int row = 0; row < batchSize; row++) {
+        final Object[] rowArgs = new Object[udfArgs.length];
+        for (int i = 0; i < udfArgs.length; i++) {
+          rowArgs[i] = udfArgs[i][row];
+        }
+        results[row] = udfInvoker.eval(udf, rowArgs);
+      }
+    };
+    return () -> batchUdfInvoker;
+  }
 }
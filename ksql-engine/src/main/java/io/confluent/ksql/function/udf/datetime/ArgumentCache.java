@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.datetime;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches the values, such as formatters or zones, that a UDF derives from one of its string
+ * arguments, such as a format pattern or time zone ID.
+ *
+ * <p>Each use of a UDF in a query has its own instance, whose arguments are most often literals.
+ * So the value for the last argument is kept and returned, without locking or hashing, for as
+ * long as the argument stays the same, i.e. for every row where it is a literal. Values for other
+ * arguments are found in a {@link ConcurrentHashMap}, whose reads do not lock either, which is
+ * cleared once it holds {@code maxSize} entries.
+ */
+final class ArgumentCache<T> {
+
+  private final Function<String, T> loader;
+  private final int maxSize;
+  private final Map<String, T> cache = new ConcurrentHashMap<>();
+  private volatile Entry<T> last;
+
+  ArgumentCache(final Function<String, T> loader, final int maxSize) {
+    this.loader = Objects.requireNonNull(loader, "loader");
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @return the value for the non-null argument, loading it if it is not cached.
+   * @throws RuntimeException if loading the value fails.
+   */
+  T get(final String argument) {
+    final Entry<T> entry = last;
+    if (entry != null && entry.argument.equals(argument)) {
+      return entry.value;
+    }
+
+    T value = cache.get(argument);
+    if (value == null) {
+      value = loader.apply(argument);
+      if (cache.size() >= maxSize) {
+        cache.clear();
+      }
+      cache.put(argument, value);
+    }
+
+    last = new Entry<>(argument, value);
+    return value;
+  }
+
+  private static final class Entry<T> {
+    private final String argument;
+    private final T value;
+
+    private Entry(final String argument, final T value) {
+      this.argument = argument;
+      this.value = value;
+    }
+  }
+}
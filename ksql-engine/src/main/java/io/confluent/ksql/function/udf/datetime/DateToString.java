@@ -15,16 +15,12 @@
 
 package io.confluent.ksql.function.udf.datetime;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import io.confluent.ksql.function.KsqlFunctionException;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.ExecutionException;
 
 @UdfDescription(name = "datetostring", author = "Confluent",
     description = "Converts an integer representing days since epoch to a date string"
@@ -33,10 +29,8 @@ import java.util.concurrent.ExecutionException;
         + " in the format expected by java.time.format.DateTimeFormatter")
 public class DateToString {
 
-  private final LoadingCache<String, DateTimeFormatter> formatters =
-      CacheBuilder.newBuilder()
-          .maximumSize(1000)
-          .build(CacheLoader.from(DateTimeFormatter::ofPattern));
+  private final ArgumentCache<DateTimeFormatter> formatters =
+      new ArgumentCache<>(DateTimeFormatter::ofPattern, 1000);
 
   @Udf(description = "Converts an integer representing days since epoch to a string"
       + " using the given format pattern. The format pattern should be in the format"
@@ -51,7 +45,7 @@ public class DateToString {
     try {
       final DateTimeFormatter formatter = formatters.get(formatPattern);
       return LocalDate.ofEpochDay(epochDays).format(formatter);
-    } catch (final ExecutionException | RuntimeException e) {
+    } catch (final RuntimeException e) {
       throw new KsqlFunctionException("Failed to format date " + epochDays
           + " with formatter '" + formatPattern
           + "': " + e.getMessage(), e);
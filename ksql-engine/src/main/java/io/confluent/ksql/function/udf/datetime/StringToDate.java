@@ -15,16 +15,12 @@
 
 package io.confluent.ksql.function.udf.datetime;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import io.confluent.ksql.function.KsqlFunctionException;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.ExecutionException;
 
 @UdfDescription(name = "stringtodate", author = "Confluent",
     description = "Converts a string representation of a date into an integer representing"
@@ -34,10 +30,8 @@ import java.util.concurrent.ExecutionException;
         + " java.time.format.DateTimeFormatter")
 public class StringToDate {
 
-  private final LoadingCache<String, DateTimeFormatter> formatters =
-      CacheBuilder.newBuilder()
-          .maximumSize(1000)
-          .build(CacheLoader.from(DateTimeFormatter::ofPattern));
+  private final ArgumentCache<DateTimeFormatter> formatters =
+      new ArgumentCache<>(DateTimeFormatter::ofPattern, 1000);
 
   @Udf(description = "Converts formattedDate, a string representation of a date into"
       + " an integer representing days since epoch using the given formatPattern.")
@@ -50,7 +44,7 @@ public class StringToDate {
     try {
       final DateTimeFormatter formatter = formatters.get(formatPattern);
       return ((int)LocalDate.parse(formattedDate, formatter).toEpochDay());
-    } catch (final ExecutionException | RuntimeException e) {
+    } catch (final RuntimeException e) {
       throw new KsqlFunctionException("Failed to parse date '" + formattedDate
           + "' with formatter '" + formatPattern
           + "': " + e.getMessage(), e);
@@ -15,26 +15,21 @@
 
 package io.confluent.ksql.function.udf.datetime;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import io.confluent.ksql.function.KsqlFunctionException;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
 import io.confluent.ksql.util.timestamp.StringToTimestampParser;
 import java.time.ZoneId;
-import java.util.concurrent.ExecutionException;
 
 @UdfDescription(name = "stringtotimestamp", author = "Confluent",
     description = "Converts a string representation of a date in the given format"
         + " into the BIGINT value that represents the millisecond timestamp.")
 public class StringToTimestamp {
 
-  private final LoadingCache<String, StringToTimestampParser> parsers =
-      CacheBuilder.newBuilder()
-          .maximumSize(1000)
-          .build(CacheLoader.from(StringToTimestampParser::new));
+  private final ArgumentCache<StringToTimestampParser> parsers =
+      new ArgumentCache<>(StringToTimestampParser::new, 1000);
+  private final ArgumentCache<ZoneId> zones = new ArgumentCache<>(ZoneId::of, 1000);
 
   @Udf(description = "Converts a string representation of a date in the given format"
       + " into the BIGINT value that represents the millisecond timestamp."
@@ -49,7 +44,7 @@ public class StringToTimestamp {
     try {
       final StringToTimestampParser timestampParser = parsers.get(formatPattern);
       return timestampParser.parse(formattedTimestamp);
-    } catch (final ExecutionException | RuntimeException e) {
+    } catch (final RuntimeException e) {
       throw new KsqlFunctionException("Failed to parse timestamp '" + formattedTimestamp
            + "' with formatter '" + formatPattern
           + "': " + e.getMessage(), e);
@@ -71,9 +66,9 @@ public class StringToTimestamp {
               + " \"America/Los_Angeles\", \"PDT\", \"Europe/London\"") final String timeZone) {
     try {
       final StringToTimestampParser timestampParser = parsers.get(formatPattern);
-      final ZoneId zoneId = ZoneId.of(timeZone);
+      final ZoneId zoneId = zones.get(timeZone);
       return timestampParser.parse(formattedTimestamp, zoneId);
-    } catch (final ExecutionException | RuntimeException e) {
+    } catch (final RuntimeException e) {
       throw new KsqlFunctionException("Failed to parse timestamp '" + formattedTimestamp
           + "' at timezone '" + timeZone + "' with formatter '" + formatPattern
           + "': " + e.getMessage(), e);
@@ -15,27 +15,22 @@
 
 package io.confluent.ksql.function.udf.datetime;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import io.confluent.ksql.function.KsqlFunctionException;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
-import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.ExecutionException;
 
 @UdfDescription(name = "timestamptostring", author = "Confluent",
     description = "Converts a BIGINT millisecond timestamp value into"
         + " the string representation of the timestamp in the given format.")
 public class TimestampToString {
 
-  private final LoadingCache<String, DateTimeFormatter> formatters =
-      CacheBuilder.newBuilder()
-          .maximumSize(1000)
-          .build(CacheLoader.from(DateTimeFormatter::ofPattern));
+  private final ArgumentCache<DateTimeFormatter> formatters =
+      new ArgumentCache<>(DateTimeFormatter::ofPattern, 1000);
+  private final ArgumentCache<ZoneId> zones = new ArgumentCache<>(ZoneId::of, 1000);
 
   @Udf(description = "Converts a BIGINT millisecond timestamp value into the"
       + " string representation of the timestamp in the given format. Single quotes in the"
@@ -51,12 +46,11 @@ public class TimestampToString {
           description = "The format pattern should be in the format expected by"
               + " java.time.format.DateTimeFormatter.") final String formatPattern) {
     try {
-      final Timestamp timestamp = new Timestamp(epochMilli);
       final DateTimeFormatter formatter = formatters.get(formatPattern);
-      return timestamp.toInstant()
+      return Instant.ofEpochMilli(epochMilli)
           .atZone(ZoneId.systemDefault())
           .format(formatter);
-    } catch (final ExecutionException | RuntimeException e) {
+    } catch (final RuntimeException e) {
       throw new KsqlFunctionException("Failed to format timestamp " + epochMilli
           + " with formatter '" + formatPattern
           + "': " + e.getMessage(), e);
@@ -78,13 +72,12 @@ public class TimestampToString {
           description =  " timeZone is a java.util.TimeZone ID format, for example: \"UTC\","
               + " \"America/Los_Angeles\", \"PDT\", \"Europe/London\"") final String timeZone) {
     try {
-      final Timestamp timestamp = new Timestamp(epochMilli);
       final DateTimeFormatter formatter = formatters.get(formatPattern);
-      final ZoneId zoneId = ZoneId.of(timeZone);
-      return timestamp.toInstant()
+      final ZoneId zoneId = zones.get(timeZone);
+      return Instant.ofEpochMilli(epochMilli)
           .atZone(zoneId)
           .format(formatter);
-    } catch (final ExecutionException | RuntimeException e) {
+    } catch (final RuntimeException e) {
       throw new KsqlFunctionException("Failed to format timestamp " + epochMilli
           + " at timeZone '" + timeZone + "' with formatter '" + formatPattern
           + "': " + e.getMessage(), e);
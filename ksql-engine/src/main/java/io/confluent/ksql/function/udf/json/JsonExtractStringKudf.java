@@ -15,6 +15,9 @@
 
 package io.confluent.ksql.function.udf.json;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
@@ -26,10 +29,26 @@ import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.json.JsonPathTokenizer;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.List;
 
+/**
+ * Extracts the value at a JSON path from a JSON document.
+ *
+ * <p>The first extraction from a document scans only the objects and arrays on the path,
+ * skipping the values of other fields and elements without building them, so malformed JSON
+ * outside of them is not reported. As when the document is parsed into a tree, of any duplicate
+ * keys the last is taken.
+ *
+ * <p>A projection often extracts several fields from the same column, so each thread remembers
+ * the last document it extracted from. Another extraction from the same document, i.e. the same
+ * instance, parses it into a tree, which is kept for any further extractions from it.
+ */
 public class JsonExtractStringKudf implements Kudf {
   private static final ObjectReader OBJECT_READER = new ObjectMapper().reader();
+  private static final JsonFactory JSON_FACTORY = OBJECT_READER.getFactory();
+  private static final ThreadLocal<LastDocument> LAST_DOCUMENT =
+      ThreadLocal.withInitial(LastDocument::new);
   public static final String NAME = "EXTRACTJSONFIELD";
 
   private List<String> tokens = null;
@@ -44,7 +63,22 @@ public class JsonExtractStringKudf implements Kudf {
       return null;
     }
 
-    JsonNode currentNode = parseJsonDoc(args[0]);
+    final String jsonString = args[0].toString();
+    final LastDocument last = LAST_DOCUMENT.get();
+    if (last.json == jsonString) {
+      if (last.tree == null) {
+        last.tree = parseJsonDoc(jsonString);
+      }
+      return extract(last.tree);
+    }
+
+    last.json = jsonString;
+    last.tree = null;
+    return extractStreaming(jsonString);
+  }
+
+  private Object extract(final JsonNode jsonDoc) {
+    JsonNode currentNode = jsonDoc;
     for (final String token : tokens) {
       if (currentNode instanceof ArrayNode) {
         try {
@@ -69,6 +103,143 @@ public class JsonExtractStringKudf implements Kudf {
     }
   }
 
+  private Object extractStreaming(final String jsonString) {
+    try {
+      return extractStreaming(jsonString, 0, 0);
+    } catch (final IOException e) {
+      throw new KsqlFunctionException("Invalid JSON format:" + jsonString, e);
+    }
+  }
+
+  /**
+   * Extracts the value at the remainder of the path from the JSON value starting at an offset
+   * within a document.
+   *
+   * @param jsonString the document.
+   * @param offset the offset of the first character of the value within the document.
+   * @param depth the number of tokens of the path already followed to reach the value.
+   */
+  private Object extractStreaming(
+      final String jsonString,
+      final long offset,
+      final int depth
+  ) throws IOException {
+    final StringReader reader = new StringReader(jsonString);
+    reader.skip(offset);
+
+    try (JsonParser parser = JSON_FACTORY.createParser(reader)) {
+      JsonToken current = parser.nextToken();
+      for (int i = depth; i < tokens.size(); i++) {
+        final String token = tokens.get(i);
+        if (current == JsonToken.START_OBJECT) {
+          if (i == tokens.size() - 1) {
+            return readField(parser, token);
+          }
+          final long fieldOffset = seekField(parser, token);
+          return fieldOffset < 0
+              ? null
+              : extractStreaming(jsonString, offset + fieldOffset, i + 1);
+        } else if (current == JsonToken.START_ARRAY) {
+          try {
+            current = seekElement(parser, Integer.parseInt(token));
+          } catch (final NumberFormatException e) {
+            return null;
+          }
+        } else {
+          return null;
+        }
+      }
+
+      return current == null ? null : readValue(parser, current);
+    }
+  }
+
+  /**
+   * Reads the value of a field of an object, from the parser positioned at its start. As with
+   * Jackson's tree model, the last of any duplicate fields is taken.
+   *
+   * @return the field's value, or {@code null} if the object has no such field.
+   */
+  private static Object readField(
+      final JsonParser parser,
+      final String name
+  ) throws IOException {
+    Object value = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final boolean found = name.equals(parser.getCurrentName());
+      final JsonToken token = parser.nextToken();
+      if (found) {
+        value = readValue(parser, token);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Finds the object or array that is the value of a field of an object, from the parser
+   * positioned at its start. As with Jackson's tree model, the last of any duplicate fields is
+   * taken, so the whole object is scanned.
+   *
+   * @return the offset of the field's value relative to the parser's input, or {@code -1} if the
+   *         object has no such field, or its value is neither an object nor an array.
+   */
+  private static long seekField(
+      final JsonParser parser,
+      final String name
+  ) throws IOException {
+    long offset = -1;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final boolean found = name.equals(parser.getCurrentName());
+      final JsonToken token = parser.nextToken();
+      if (found) {
+        offset = token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY
+            ? parser.getTokenLocation().getCharOffset()
+            : -1;
+      }
+      parser.skipChildren();
+    }
+    return offset;
+  }
+
+  private static Object readValue(
+      final JsonParser parser,
+      final JsonToken token
+  ) throws IOException {
+    if (token == JsonToken.VALUE_STRING) {
+      return parser.getText();
+    }
+    if (token == JsonToken.VALUE_NULL) {
+      return "null";
+    }
+    return OBJECT_READER.readTree(parser).toString();
+  }
+
+  /**
+   * Advances the parser, positioned at the start of an array, to one of its elements.
+   *
+   * @return the first token of the element, or {@code null} if the array has no such element.
+   */
+  private static JsonToken seekElement(
+      final JsonParser parser,
+      final int index
+  ) throws IOException {
+    if (index < 0) {
+      return null;
+    }
+    for (int i = 0; ; i++) {
+      final JsonToken element = parser.nextToken();
+      if (element == JsonToken.END_ARRAY || element == null) {
+        return null;
+      }
+      if (i == index) {
+        return element;
+      }
+      parser.skipChildren();
+    }
+  }
+
   private void ensureInitialized(final Object[] args) {
     if (tokens != null) {
       return;
@@ -91,4 +262,9 @@ public class JsonExtractStringKudf implements Kudf {
       throw new KsqlFunctionException("Invalid JSON format:" + jsonString, e);
     }
   }
+
+  private static final class LastDocument {
+    private String json;
+    private JsonNode tree;
+  }
 }
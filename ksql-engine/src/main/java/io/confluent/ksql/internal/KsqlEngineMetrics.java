@@ -15,6 +15,8 @@
 
 package io.confluent.ksql.internal;
 
+import com.google.common.cache.CacheStats;
+import io.confluent.ksql.codegen.CompiledClassCache;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.util.KsqlConstants;
@@ -25,6 +27,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.Gauge;
 import org.apache.kafka.common.metrics.MeasurableStat;
@@ -83,6 +87,12 @@ public class KsqlEngineMetrics implements Closeable {
     this.errorRate = configureErrorRate(metrics);
     Arrays.stream(State.values())
         .forEach(state -> configureNumActiveQueriesForGivenState(metrics, state));
+    configureCacheMetrics(metrics, "parse-cache", "parsed statements",
+        ksqlEngine::getParseCacheStats);
+    configureCacheMetrics(metrics, "prepare-cache", "prepared statements",
+        ksqlEngine::getPrepareCacheStats);
+    configureCacheMetrics(metrics, "codegen-cache", "compiled expression classes",
+        () -> CompiledClassCache.instance().stats());
   }
 
   @Override
@@ -275,6 +285,35 @@ public class KsqlEngineMetrics implements Closeable {
     return countMetric;
   }
 
+  private void configureCacheMetrics(
+      final Metrics metrics,
+      final String cacheName,
+      final String cachedItems,
+      final Supplier<CacheStats> stats
+  ) {
+    configureCacheMetric(metrics, cacheName + "-hits",
+        "The number of lookups that found " + cachedItems + " in the cache",
+        stats, CacheStats::hitCount);
+    configureCacheMetric(metrics, cacheName + "-misses",
+        "The number of lookups that did not find " + cachedItems + " in the cache",
+        stats, CacheStats::missCount);
+  }
+
+  private void configureCacheMetric(
+      final Metrics metrics,
+      final String name,
+      final String description,
+      final Supplier<CacheStats> stats,
+      final Function<CacheStats, Long> stat
+  ) {
+    final Gauge<Long> gauge = (metricConfig, l) -> stat.apply(stats.get());
+    final MetricName metricName = metrics.metricName(ksqlServiceId + name,
+        metricGroupName,
+        description);
+    metrics.addMetric(metricName, gauge);
+    countMetrics.add(new CountMetric(metricName, gauge));
+  }
+
   private static class CountMetric {
     private final Gauge<Long> count;
     private final MetricName metricName;
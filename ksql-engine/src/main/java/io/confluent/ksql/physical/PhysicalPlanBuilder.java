@@ -195,7 +195,9 @@ public class PhysicalPlanBuilder {
         processingLogContext
     );
 
-    final TransientQueryQueue<?> queue = new TransientQueryQueue<>(schemaKStream);
+    final TransientQueryQueue<?> queue = new TransientQueryQueue<>(
+        schemaKStream,
+        ksqlConfig.getInt(KsqlConfig.KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_CONFIG));
 
     final KafkaStreams streams = kafkaStreamsBuilder.buildKafkaStreams(builder, streamsProperties);
 
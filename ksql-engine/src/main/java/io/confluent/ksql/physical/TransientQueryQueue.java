@@ -16,12 +16,19 @@
 package io.confluent.ksql.physical;
 
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.planner.plan.OutputNode;
 import io.confluent.ksql.structured.QueuedSchemaKStream;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Count;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Total;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.kstream.ForeachAction;
 import org.apache.kafka.streams.kstream.Windowed;
@@ -33,19 +40,27 @@ import org.apache.kafka.streams.kstream.Windowed;
  */
 class TransientQueryQueue<K> {
 
+  private static final String METRIC_GROUP = "ksql-transient-queries";
+  private static final String BLOCKED_SENSOR_NAME = "ksql-transient-query-queue-blocked";
+
   private final LimitQueueCallback callback;
-  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue =
-      new LinkedBlockingQueue<>(100);
+  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue;
 
   TransientQueryQueue(final QueuedSchemaKStream<K> schemaKStream) {
+    this(schemaKStream, KsqlConfig.KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_DEFAULT);
+  }
+
+  TransientQueryQueue(final QueuedSchemaKStream<K> schemaKStream, final int capacity) {
     final OutputNode output = schemaKStream.outputNode();
+    this.rowQueue = new LinkedBlockingQueue<>(capacity);
 
     this.callback = output.getLimit()
         .map(limit -> (LimitQueueCallback) new LimitedQueueCallback(limit))
         .orElseGet(UnlimitedQueueCallback::new);
 
     schemaKStream.getKstream()
-        .foreach(new TransientQueryQueue.QueuePopulator<>(rowQueue, callback));
+        .foreach(new TransientQueryQueue.QueuePopulator<>(
+            rowQueue, callback, blockedSensor(MetricCollectors.getMetrics())));
   }
 
   BlockingQueue<KeyValue<String, GenericRow>> getQueue() {
@@ -56,18 +71,45 @@ class TransientQueryQueue<K> {
     callback.setLimitHandler(limitHandler);
   }
 
+  /**
+   * @return the sensor recording the milliseconds a stream thread spends waiting for space in a
+   *         full queue, shared by all transient queries.
+   */
+  private static synchronized Sensor blockedSensor(final Metrics metrics) {
+    final Sensor existing = metrics.getSensor(BLOCKED_SENSOR_NAME);
+    if (existing != null) {
+      return existing;
+    }
+
+    final Sensor sensor = metrics.sensor(BLOCKED_SENSOR_NAME);
+    sensor.add(metrics.metricName(BLOCKED_SENSOR_NAME + "-time-total", METRIC_GROUP,
+        "Total time, in milliseconds, stream threads have waited to queue a transient "
+            + "query's rows because its queue was full"),
+        new Total());
+    sensor.add(metrics.metricName(BLOCKED_SENSOR_NAME + "-time-max", METRIC_GROUP,
+        "Max time, in milliseconds, a stream thread has waited to queue a transient query's row"),
+        new Max());
+    sensor.add(metrics.metricName(BLOCKED_SENSOR_NAME + "-count", METRIC_GROUP,
+        "Number of times a stream thread has found a transient query's queue full"),
+        new Count());
+    return sensor;
+  }
+
   @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
   static final class QueuePopulator<K> implements ForeachAction<K, GenericRow> {
 
     private final BlockingQueue<KeyValue<String, GenericRow>> queue;
     private final QueueCallback callback;
+    private final Sensor blockedSensor;
 
     QueuePopulator(
         final BlockingQueue<KeyValue<String, GenericRow>> queue,
-        final QueueCallback callback
+        final QueueCallback callback,
+        final Sensor blockedSensor
     ) {
       this.queue = Objects.requireNonNull(queue, "queue");
       this.callback = Objects.requireNonNull(callback, "callback");
+      this.blockedSensor = Objects.requireNonNull(blockedSensor, "blockedSensor");
     }
 
     @Override
@@ -81,8 +123,13 @@ class TransientQueryQueue<K> {
           return;
         }
 
-        final String keyString = getStringKey(key);
-        queue.put(new KeyValue<>(keyString, row));
+        final KeyValue<String, GenericRow> keyValue = new KeyValue<>(getStringKey(key), row);
+        if (!queue.offer(keyValue)) {
+          // The client is not keeping up, so the stream thread must wait for it:
+          final long start = System.nanoTime();
+          queue.put(keyValue);
+          blockedSensor.record((System.nanoTime() - start) / 1_000_000.0);
+        }
 
         callback.onQueued();
       } catch (final InterruptedException exception) {
@@ -40,6 +40,7 @@ import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicyFactory;
 import java.util.Map;
+import java.util.Optional;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 
@@ -197,7 +198,12 @@ public class LogicalPlanner {
     );
 
     if (dataSource.left instanceof KsqlStream || dataSource.left instanceof KsqlTable) {
-      return new StructuredDataSourceNode(new PlanNodeId("KsqlTopic"), dataSource.left, fromSchema);
+      return new StructuredDataSourceNode(
+          new PlanNodeId("KsqlTopic"),
+          dataSource.left,
+          fromSchema,
+          analysis.getReferencedColumns(),
+          Optional.ofNullable(analysis.getWhereExpression()));
     }
     throw new RuntimeException("Data source is not supported yet.");
   }
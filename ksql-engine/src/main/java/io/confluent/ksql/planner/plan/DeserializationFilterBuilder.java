@@ -0,0 +1,361 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.planner.plan;
+
+import io.confluent.ksql.codegen.LikeMatcher;
+import io.confluent.ksql.parser.tree.BetweenPredicate;
+import io.confluent.ksql.parser.tree.BooleanLiteral;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
+import io.confluent.ksql.parser.tree.DoubleLiteral;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.IntegerLiteral;
+import io.confluent.ksql.parser.tree.IsNotNullPredicate;
+import io.confluent.ksql.parser.tree.IsNullPredicate;
+import io.confluent.ksql.parser.tree.LikePredicate;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.LongLiteral;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
+import io.confluent.ksql.serde.DeserializationFilter;
+import io.confluent.ksql.util.SchemaUtil;
+import java.util.Optional;
+import java.util.function.Predicate;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Builds the {@link DeserializationFilter} of a source from the WHERE clause of the query
+ * reading it.
+ *
+ * <p>Of the conjuncts of the clause, those comparing a column of a primitive type with a literal
+ * of the same kind, {@code IS NULL} and {@code IS NOT NULL} tests, {@code BETWEEN} tests with
+ * literal bounds and {@code LIKE} tests with a literal pattern are pushed down. Each is
+ * evaluated as the generated code of the clause does, including its handling of nulls, so the
+ * filter never rejects a row that the clause would accept. Other conjuncts are left to the clause
+ * alone.
+ *
+ * <p>Where evaluating the clause would log a processing error, e.g. for a {@code LIKE} test of a
+ * null value, the pushed down predicate accepts the row, so that the error is still logged.
+ */
+final class DeserializationFilterBuilder {
+
+  private DeserializationFilterBuilder() {
+  }
+
+  /**
+   * @param filterExpression the WHERE clause of the query.
+   * @param sourceSchema the schema of the source, as seen by the clause.
+   * @param valueSchema the schema of the rows deserialized, whose columns the filter tests.
+   * @param likeUnderscoreWildcard whether {@code _} in {@code LIKE} patterns matches any single
+   *                               character, as it does in the generated code of the clause.
+   */
+  static DeserializationFilter build(
+      final Expression filterExpression,
+      final Schema sourceSchema,
+      final Schema valueSchema,
+      final boolean likeUnderscoreWildcard
+  ) {
+    final DeserializationFilter.Builder builder = DeserializationFilter.builder();
+    addConjuncts(builder, filterExpression, sourceSchema, valueSchema, likeUnderscoreWildcard);
+    return builder.build();
+  }
+
+  private static void addConjuncts(
+      final DeserializationFilter.Builder builder,
+      final Expression expression,
+      final Schema sourceSchema,
+      final Schema valueSchema,
+      final boolean likeUnderscoreWildcard
+  ) {
+    if (expression instanceof LogicalBinaryExpression
+        && ((LogicalBinaryExpression) expression).getType() == LogicalBinaryExpression.Type.AND) {
+      final LogicalBinaryExpression and = (LogicalBinaryExpression) expression;
+      addConjuncts(builder, and.getLeft(), sourceSchema, valueSchema, likeUnderscoreWildcard);
+      addConjuncts(builder, and.getRight(), sourceSchema, valueSchema, likeUnderscoreWildcard);
+      return;
+    }
+
+    final Optional<Expression> columnExpression = columnOf(expression);
+    if (!columnExpression.isPresent()) {
+      return;
+    }
+
+    final Optional<Field> column = resolveColumn(
+        columnExpression.get(), sourceSchema, valueSchema);
+    if (!column.isPresent()) {
+      return;
+    }
+
+    predicateOf(expression, column.get().schema().type(), likeUnderscoreWildcard)
+        .ifPresent(predicate -> builder.addColumnPredicate(column.get().index(), predicate));
+  }
+
+  /**
+   * @return the expression that the conjunct tests against literals, if it is of a form that
+   *         may be pushed down.
+   */
+  private static Optional<Expression> columnOf(final Expression conjunct) {
+    if (conjunct instanceof ComparisonExpression) {
+      final ComparisonExpression comparison = (ComparisonExpression) conjunct;
+      if (isLiteral(comparison.getRight())) {
+        return Optional.of(comparison.getLeft());
+      }
+      if (isLiteral(comparison.getLeft())) {
+        return Optional.of(comparison.getRight());
+      }
+      return Optional.empty();
+    }
+    if (conjunct instanceof IsNullPredicate) {
+      return Optional.of(((IsNullPredicate) conjunct).getValue());
+    }
+    if (conjunct instanceof IsNotNullPredicate) {
+      return Optional.of(((IsNotNullPredicate) conjunct).getValue());
+    }
+    if (conjunct instanceof BetweenPredicate) {
+      final BetweenPredicate between = (BetweenPredicate) conjunct;
+      return isLiteral(between.getMin()) && isLiteral(between.getMax())
+          ? Optional.of(between.getValue())
+          : Optional.empty();
+    }
+    if (conjunct instanceof LikePredicate) {
+      final LikePredicate like = (LikePredicate) conjunct;
+      return like.getPattern() instanceof StringLiteral
+          ? Optional.of(like.getValue())
+          : Optional.empty();
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Resolves a column as the generated code of the clause does, but only to a column of the
+   * rows deserialized: not to an implicit column, nor to the field of a struct.
+   */
+  private static Optional<Field> resolveColumn(
+      final Expression expression,
+      final Schema sourceSchema,
+      final Schema valueSchema
+  ) {
+    if (!(expression instanceof QualifiedNameReference)
+        && !(expression instanceof DereferenceExpression
+            && ((DereferenceExpression) expression).getBase() instanceof QualifiedNameReference)) {
+      return Optional.empty();
+    }
+
+    return SchemaUtil.getFieldByName(sourceSchema, expression.toString())
+        .map(field -> valueSchema.field(field.name()));
+  }
+
+  private static Optional<Predicate<Object>> predicateOf(
+      final Expression conjunct,
+      final Schema.Type columnType,
+      final boolean likeUnderscoreWildcard
+  ) {
+    if (conjunct instanceof IsNullPredicate) {
+      return Optional.of(value -> value == null);
+    }
+    if (conjunct instanceof IsNotNullPredicate) {
+      return Optional.of(value -> value != null);
+    }
+    if (conjunct instanceof ComparisonExpression) {
+      final ComparisonExpression comparison = (ComparisonExpression) conjunct;
+      return isLiteral(comparison.getRight())
+          ? comparisonPredicate(comparison.getType(), columnType, comparison.getRight())
+          : comparisonPredicate(comparison.getType().flip(), columnType, comparison.getLeft());
+    }
+    if (conjunct instanceof BetweenPredicate) {
+      final BetweenPredicate between = (BetweenPredicate) conjunct;
+      if (columnType == Schema.Type.BOOLEAN) {
+        return Optional.empty();
+      }
+      final Optional<Predicate<Object>> min = comparisonPredicate(
+          ComparisonExpression.Type.GREATER_THAN_OR_EQUAL, columnType, between.getMin());
+      final Optional<Predicate<Object>> max = comparisonPredicate(
+          ComparisonExpression.Type.LESS_THAN_OR_EQUAL, columnType, between.getMax());
+      return min.isPresent() && max.isPresent()
+          ? Optional.of(min.get().and(max.get()))
+          : Optional.empty();
+    }
+    if (conjunct instanceof LikePredicate) {
+      return likePredicate(
+          columnType,
+          ((StringLiteral) ((LikePredicate) conjunct).getPattern()).getValue(),
+          likeUnderscoreWildcard);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * @return a predicate testing {@code value <type> literal}, where the literal is of the same
+   *         kind as the column.
+   */
+  private static Optional<Predicate<Object>> comparisonPredicate(
+      final ComparisonExpression.Type type,
+      final Schema.Type columnType,
+      final Expression literal
+  ) {
+    // As for the generated code, a null value is distinct from, but otherwise unequal to, any
+    // literal:
+    final boolean nullResult = type == ComparisonExpression.Type.IS_DISTINCT_FROM;
+
+    switch (columnType) {
+      case STRING:
+        if (!(literal instanceof StringLiteral)) {
+          return Optional.empty();
+        }
+        final String string = ((StringLiteral) literal).getValue();
+        return Optional.of(value -> value == null
+            ? nullResult
+            : !(value instanceof String) || compare(type, ((String) value).compareTo(string)));
+      case BOOLEAN:
+        if (!(literal instanceof BooleanLiteral) || isRange(type)) {
+          return Optional.empty();
+        }
+        final boolean bool = ((BooleanLiteral) literal).getValue();
+        return Optional.of(value -> value == null
+            ? nullResult
+            : !(value instanceof Boolean) || compare(type, Boolean.compare((Boolean) value, bool)));
+      case INT32:
+      case INT64:
+      case FLOAT64:
+        return numericPredicate(type, columnType, literal, nullResult);
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private static Optional<Predicate<Object>> numericPredicate(
+      final ComparisonExpression.Type type,
+      final Schema.Type columnType,
+      final Expression literal,
+      final boolean nullResult
+  ) {
+    final Number number = numericValue(literal);
+    if (number == null) {
+      return Optional.empty();
+    }
+
+    // Compare with the binary numeric promotion of the generated code:
+    if (columnType == Schema.Type.FLOAT64 || literal instanceof DoubleLiteral) {
+      final double literalValue = number.doubleValue();
+      return Optional.of(value -> value == null
+          ? nullResult
+          : !(value instanceof Number)
+              || compare(type, ((Number) value).doubleValue(), literalValue));
+    }
+
+    final long literalValue = number.longValue();
+    return Optional.of(value -> value == null
+        ? nullResult
+        : !(value instanceof Number)
+            || compare(type, ((Number) value).longValue(), literalValue));
+  }
+
+  /**
+   * @return a predicate for a {@code LIKE} pattern. The generated code fails to evaluate the test
+   *         of a null value, which is logged, so nulls are accepted.
+   */
+  private static Optional<Predicate<Object>> likePredicate(
+      final Schema.Type columnType,
+      final String pattern,
+      final boolean underscoreWildcard
+  ) {
+    if (columnType != Schema.Type.STRING) {
+      return Optional.empty();
+    }
+    final LikeMatcher matcher = LikeMatcher.compile(pattern, underscoreWildcard);
+    return Optional.of(value ->
+        !(value instanceof String) || matcher.matches((String) value));
+  }
+
+  private static boolean isLiteral(final Expression expression) {
+    return expression instanceof StringLiteral
+        || expression instanceof BooleanLiteral
+        || numericValue(expression) != null;
+  }
+
+  private static Number numericValue(final Expression expression) {
+    if (expression instanceof IntegerLiteral) {
+      return ((IntegerLiteral) expression).getValue();
+    }
+    if (expression instanceof LongLiteral) {
+      return ((LongLiteral) expression).getValue();
+    }
+    if (expression instanceof DoubleLiteral) {
+      return ((DoubleLiteral) expression).getValue();
+    }
+    return null;
+  }
+
+  private static boolean isRange(final ComparisonExpression.Type type) {
+    return type != ComparisonExpression.Type.EQUAL
+        && type != ComparisonExpression.Type.NOT_EQUAL
+        && type != ComparisonExpression.Type.IS_DISTINCT_FROM;
+  }
+
+  private static boolean compare(final ComparisonExpression.Type type, final int comparison) {
+    return compare(type, comparison, 0L);
+  }
+
+  private static boolean compare(
+      final ComparisonExpression.Type type,
+      final long value,
+      final long literal
+  ) {
+    switch (type) {
+      case EQUAL:
+        return value == literal;
+      case NOT_EQUAL:
+      case IS_DISTINCT_FROM:
+        return value != literal;
+      case LESS_THAN:
+        return value < literal;
+      case LESS_THAN_OR_EQUAL:
+        return value <= literal;
+      case GREATER_THAN:
+        return value > literal;
+      case GREATER_THAN_OR_EQUAL:
+        return value >= literal;
+      default:
+        return true;
+    }
+  }
+
+  private static boolean compare(
+      final ComparisonExpression.Type type,
+      final double value,
+      final double literal
+  ) {
+    // As the generated code, which compares NaN as neither equal nor unequal to anything:
+    switch (type) {
+      case EQUAL:
+        return value <= literal && value >= literal;
+      case NOT_EQUAL:
+      case IS_DISTINCT_FROM:
+        return value < literal || value > literal;
+      case LESS_THAN:
+        return value < literal;
+      case LESS_THAN_OR_EQUAL:
+        return value <= literal;
+      case GREATER_THAN:
+        return value > literal;
+      case GREATER_THAN_OR_EQUAL:
+        return value >= literal;
+      default:
+        return true;
+    }
+  }
+}
@@ -108,6 +108,24 @@ public class ProjectNode
       final ProcessingLogContext processingLogContext,
       final FunctionRegistry functionRegistry,
       final QueryId queryId) {
+    if (source instanceof FilterNode
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_CODEGEN_FILTER_PROJECTION_FUSION_ENABLED)) {
+      final FilterNode filter = (FilterNode) source;
+      return filter.getSource().buildStream(
+          builder,
+          ksqlConfig,
+          serviceContext,
+          processingLogContext,
+          functionRegistry,
+          queryId
+      ).filterAndSelect(
+          filter.getPredicate(),
+          filter.buildNodeContext(queryId),
+          getProjectSelectExpressions(),
+          buildNodeContext(queryId),
+          processingLogContext);
+    }
+
     return getSource().buildStream(
         builder,
         ksqlConfig,
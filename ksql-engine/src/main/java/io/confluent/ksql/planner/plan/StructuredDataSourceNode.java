@@ -18,14 +18,17 @@ package io.confluent.ksql.planner.plan;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.LikeMatcher;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.metastore.model.KsqlStream;
 import io.confluent.ksql.metastore.model.KsqlTable;
 import io.confluent.ksql.metastore.model.KsqlTopic;
 import io.confluent.ksql.metastore.model.StructuredDataSource;
+import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.physical.AddTimestampColumn;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.serde.DeserializationFilter;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
 import io.confluent.ksql.services.KafkaTopicClient;
 import io.confluent.ksql.services.ServiceContext;
@@ -39,10 +42,13 @@ import io.confluent.ksql.util.QueryLoggerUtil;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import javax.annotation.concurrent.Immutable;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -93,6 +99,8 @@ public class StructuredDataSourceNode
   private final StructuredDataSource<?> structuredDataSource;
   private final Schema schema;
   private final Function<KsqlConfig, MaterializedFactory> materializedFactorySupplier;
+  private final Optional<Set<String>> referencedColumns;
+  private final Optional<Expression> filterExpression;
 
   // TODO: pass in the "assignments" and the "outputs" separately
   // TODO: (i.e., get rid if the symbol := symbol idiom)
@@ -102,13 +110,77 @@ public class StructuredDataSourceNode
       @JsonProperty("structuredDataSource") final StructuredDataSource structuredDataSource,
       @JsonProperty("schema") final Schema schema
   ) {
-    this(id, structuredDataSource, schema, MaterializedFactory::create);
+    this(id, structuredDataSource, schema, Optional.empty());
   }
 
+  /**
+   * @param referencedColumns the upper case names of the columns referenced by the query reading
+   *                          the source, as found by the analyzer, or empty if the query reads
+   *                          all its columns. If
+   *                          {@link KsqlConfig#KSQL_PROJECTION_PUSHDOWN_ENABLED} is set, the
+   *                          source's other columns, bar its key and timestamp columns, are not
+   *                          deserialized.
+   */
   public StructuredDataSourceNode(
       final PlanNodeId id,
       final StructuredDataSource structuredDataSource,
       final Schema schema,
+      final Optional<Set<String>> referencedColumns
+  ) {
+    this(id, structuredDataSource, schema, referencedColumns, Optional.empty());
+  }
+
+  /**
+   * @param filterExpression the WHERE clause of the query reading the source, if it reads no
+   *                         other source. If {@link KsqlConfig#KSQL_PREDICATE_PUSHDOWN_ENABLED}
+   *                         is set, the value deserializer of a stream drops records that fail
+   *                         the simple conditions of the clause.
+   */
+  public StructuredDataSourceNode(
+      final PlanNodeId id,
+      final StructuredDataSource structuredDataSource,
+      final Schema schema,
+      final Optional<Set<String>> referencedColumns,
+      final Optional<Expression> filterExpression
+  ) {
+    this(
+        id,
+        structuredDataSource,
+        schema,
+        referencedColumns,
+        filterExpression,
+        MaterializedFactory::create);
+  }
+
+  public StructuredDataSourceNode(
+      final PlanNodeId id,
+      final StructuredDataSource structuredDataSource,
+      final Schema schema,
+      final Function<KsqlConfig, MaterializedFactory> materializedFactorySupplier) {
+    this(id, structuredDataSource, schema, Optional.empty(), materializedFactorySupplier);
+  }
+
+  public StructuredDataSourceNode(
+      final PlanNodeId id,
+      final StructuredDataSource structuredDataSource,
+      final Schema schema,
+      final Optional<Set<String>> referencedColumns,
+      final Function<KsqlConfig, MaterializedFactory> materializedFactorySupplier) {
+    this(
+        id,
+        structuredDataSource,
+        schema,
+        referencedColumns,
+        Optional.empty(),
+        materializedFactorySupplier);
+  }
+
+  public StructuredDataSourceNode(
+      final PlanNodeId id,
+      final StructuredDataSource structuredDataSource,
+      final Schema schema,
+      final Optional<Set<String>> referencedColumns,
+      final Optional<Expression> filterExpression,
       final Function<KsqlConfig, MaterializedFactory> materializedFactorySupplier) {
     super(id, structuredDataSource.getDataSourceType());
     this.schema =
@@ -117,6 +189,8 @@ public class StructuredDataSourceNode
         Objects.requireNonNull(structuredDataSource, "structuredDataSource");
     this.materializedFactorySupplier =
         Objects.requireNonNull(materializedFactorySupplier, "materializedFactorySupplier");
+    this.referencedColumns = Objects.requireNonNull(referencedColumns, "referencedColumns");
+    this.filterExpression = Objects.requireNonNull(filterExpression, "filterExpression");
   }
 
   public String getTopicName() {
@@ -173,14 +247,32 @@ public class StructuredDataSourceNode
 
     final KsqlTopicSerDe ksqlTopicSerDe = getStructuredDataSource()
         .getKsqlTopic().getKsqlTopicSerDe();
-    final Serde<GenericRow> genericRowSerde =
-        ksqlTopicSerDe.getGenericRowSerde(
-            SchemaUtil.removeImplicitRowTimeRowKeyFromSchema(getSchema()),
+    final Schema valueSchema = SchemaUtil.removeImplicitRowTimeRowKeyFromSchema(getSchema());
+    final List<String> prunedColumns = ksqlConfig.getBoolean(
+        KsqlConfig.KSQL_PROJECTION_PUSHDOWN_ENABLED)
+        ? getPrunedColumns(valueSchema)
+        : Collections.emptyList();
+    final String sourceLoggerName =
+        QueryLoggerUtil.queryLoggerName(contextStacker.push(SOURCE_OP_NAME).getQueryContext());
+    final DeserializationFilter filter = ksqlConfig.getBoolean(
+        KsqlConfig.KSQL_PREDICATE_PUSHDOWN_ENABLED)
+        ? getDeserializationFilter(valueSchema, LikeMatcher.isUnderscoreWildcard(ksqlConfig))
+        : DeserializationFilter.ACCEPT_ALL;
+    final Serde<GenericRow> genericRowSerde = prunedColumns.isEmpty() && filter.isEmpty()
+        ? ksqlTopicSerDe.getGenericRowSerde(
+            valueSchema,
+            ksqlConfig,
+            serviceContext.getSchemaRegistryClientFactory(),
+            sourceLoggerName,
+            processingLogContext)
+        : ksqlTopicSerDe.getGenericRowSerde(
+            valueSchema,
             ksqlConfig,
             serviceContext.getSchemaRegistryClientFactory(),
-            QueryLoggerUtil.queryLoggerName(contextStacker.push(SOURCE_OP_NAME).getQueryContext()),
-            processingLogContext
-        );
+            sourceLoggerName,
+            processingLogContext,
+            getRequiredColumns(valueSchema, prunedColumns),
+            filter);
 
     if (getDataSourceType() == StructuredDataSource.DataSourceType.KTABLE) {
       final KsqlTable table = (KsqlTable) getStructuredDataSource();
@@ -200,7 +292,7 @@ public class StructuredDataSourceNode
           ksqlConfig,
           reduceContextStacker.getQueryContext()
       );
-      return new SchemaKTable<>(
+      final SchemaKTable<?> schemaKTable = new SchemaKTable<>(
           getSchema(),
           kTable,
           getKeyField(),
@@ -211,12 +303,14 @@ public class StructuredDataSourceNode
           functionRegistry,
           contextStacker.getQueryContext()
       );
+      schemaKTable.setPrunedColumns(prunedColumns);
+      return schemaKTable;
     }
 
     final KsqlStream stream = (KsqlStream) getStructuredDataSource();
     final KStream kstream = createKStream(builder, timestampExtractor, genericRowSerde);
 
-    return new SchemaKStream<>(
+    final SchemaKStream<?> schemaKStream = new SchemaKStream<>(
         getSchema(),
         kstream,
         getKeyField(),
@@ -227,6 +321,69 @@ public class StructuredDataSourceNode
         functionRegistry,
         contextStacker.getQueryContext()
     );
+    schemaKStream.setPrunedColumns(prunedColumns);
+    return schemaKStream;
+  }
+
+  /**
+   * @return the value columns of the source that the query does not reference, and so need not
+   *         be deserialized. The key and timestamp columns are always read.
+   */
+  private List<String> getPrunedColumns(final Schema valueSchema) {
+    if (!referencedColumns.isPresent()) {
+      return Collections.emptyList();
+    }
+
+    final String keyFieldName = getKeyField()
+        .map(field -> unqualifiedName(field.name()))
+        .orElse(null);
+    final String timestampFieldName = getTimestampExtractionPolicy().timestampField() == null
+        ? null
+        : unqualifiedName(getTimestampExtractionPolicy().timestampField());
+
+    final List<String> pruned = new ArrayList<>();
+    for (final Field field : valueSchema.fields()) {
+      final String name = unqualifiedName(field.name());
+      if (!referencedColumns.get().contains(name)
+          && !name.equals(keyFieldName)
+          && !name.equals(timestampFieldName)) {
+        pruned.add(field.name());
+      }
+    }
+    return pruned;
+  }
+
+  /**
+   * @return the filter on the columns of the stream's records pushed down from the query's WHERE
+   *         clause. The clause is still applied to the rows deserialized. Tables are never
+   *         filtered, as a record dropped by the deserializer would delete its key.
+   */
+  private DeserializationFilter getDeserializationFilter(
+      final Schema valueSchema,
+      final boolean likeUnderscoreWildcard
+  ) {
+    if (!filterExpression.isPresent()
+        || getDataSourceType() != StructuredDataSource.DataSourceType.KSTREAM) {
+      return DeserializationFilter.ACCEPT_ALL;
+    }
+    return DeserializationFilterBuilder.build(
+        filterExpression.get(), getSchema(), valueSchema, likeUnderscoreWildcard);
+  }
+
+  private static Set<String> getRequiredColumns(
+      final Schema valueSchema,
+      final List<String> prunedColumns
+  ) {
+    final Set<String> required = new HashSet<>();
+    for (final Field field : valueSchema.fields()) {
+      required.add(field.name());
+    }
+    required.removeAll(prunedColumns);
+    return required;
+  }
+
+  private static String unqualifiedName(final String name) {
+    return name.substring(name.indexOf('.') + 1).toUpperCase();
   }
 
   private static Topology.AutoOffsetReset getAutoOffsetReset(final Map<String, Object> props) {
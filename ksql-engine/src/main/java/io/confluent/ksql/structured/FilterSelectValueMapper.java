@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.RowTransformer;
+import io.confluent.ksql.util.ProjectionMetadata;
+import java.util.Collections;
+import java.util.Objects;
+import org.apache.kafka.streams.kstream.ValueMapper;
+
+/**
+ * Applies a filter, and the projection that follows it, in a single step.
+ *
+ * <p>Rows are evaluated by a projection compiled together with the filter's predicate, which
+ * evaluates each expression once. Errors are logged against the same expressions and columns,
+ * by the filter's {@link SqlPredicate} and the projection's {@link SelectValueMapper}, as if
+ * the two were applied separately.
+ */
+class FilterSelectValueMapper implements ValueMapper<GenericRow, Iterable<GenericRow>> {
+  private final ProjectionMetadata filteredProjection;
+  private final SqlPredicate predicate;
+  private final SelectValueMapper selectValueMapper;
+
+  FilterSelectValueMapper(
+      final ProjectionMetadata filteredProjection,
+      final SqlPredicate predicate,
+      final SelectValueMapper selectValueMapper
+  ) {
+    this.filteredProjection = Objects.requireNonNull(filteredProjection, "filteredProjection");
+    this.predicate = Objects.requireNonNull(predicate, "predicate");
+    this.selectValueMapper = Objects.requireNonNull(selectValueMapper, "selectValueMapper");
+  }
+
+  @Override
+  public Iterable<GenericRow> apply(final GenericRow row) {
+    if (row == null) {
+      return Collections.emptyList();
+    }
+
+    final GenericRow projected = filteredProjection.evaluate(row, (expression, e) -> {
+      if (expression == RowTransformer.ErrorHandler.PREDICATE) {
+        predicate.logProcessingError(e, row);
+      } else {
+        selectValueMapper.logColumnError(expression, e, row);
+      }
+    });
+    return projected == null
+        ? Collections.emptyList()
+        : Collections.singletonList(projected);
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.ByteUtils;
+
+/**
+ * The key of a row grouped by one or more expressions.
+ *
+ * <p>The {@link #binarySerde() binary serde}, used for repartition topics and state stores,
+ * writes each value of the key in turn as a type tag followed by: nothing, for a null; the
+ * value's big-endian bytes, for an INT, BIGINT, DOUBLE or BOOLEAN; or the unsigned varint length
+ * of its UTF-8 bytes followed by the bytes, for a string. Values of any other type are written
+ * as their string representation. A key of a single BIGINT is thus nine bytes.
+ *
+ * <p>{@link #toString()} formats the key as KSQL has always formatted grouping keys, and the
+ * {@link #stringSerde() string serde} writes it in that form, so that the keys of an
+ * aggregation's output are unchanged, other than for the rare values that contain a {@code |+}.
+ */
+final class GroupByKey {
+
+  private static final byte NULL = 0;
+  private static final byte INT = 1;
+  private static final byte LONG = 2;
+  private static final byte DOUBLE = 3;
+  private static final byte BOOLEAN = 4;
+  private static final byte STRING = 5;
+
+  private final Object[] values;
+
+  private GroupByKey(final Object[] values) {
+    this.values = values;
+  }
+
+  static GroupByKey of(final Object value) {
+    return new GroupByKey(new Object[]{normalize(value)});
+  }
+
+  /**
+   * @param values the values of the key, which the key takes ownership of.
+   */
+  static GroupByKey of(final Object[] values) {
+    for (int i = 0; i < values.length; i++) {
+      values[i] = normalize(values[i]);
+    }
+    return new GroupByKey(values);
+  }
+
+  static Serde<GroupByKey> binarySerde() {
+    return Serdes.serdeFrom(new BinarySerializer(), new BinaryDeserializer());
+  }
+
+  static Serde<GroupByKey> stringSerde() {
+    return Serdes.serdeFrom(new StringSerializer(), new StringDeserializer());
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return Arrays.equals(values, ((GroupByKey) o).values);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(values);
+  }
+
+  /**
+   * Format the key as the string form of each of its values, separated by {@code |+|}.
+   *
+   * <p>So that two keys with different values never format to the same string, a {@code \} is
+   * inserted after any {@code |} in a value that is followed by any number of {@code \} and a
+   * {@code +}. A value can then not contain a {@code |+}, so the first {@code |+|} after each
+   * value is always the separator. Values with no such sequence, i.e. nearly all values, are
+   * formatted unchanged.
+   */
+  @Override
+  public String toString() {
+    if (values.length == 1) {
+      return String.valueOf(values[0]);
+    }
+
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        sb.append(GroupByMapper.GROUP_BY_COLUMN_SEPARATOR);
+      }
+      appendEscaped(String.valueOf(values[i]), sb);
+    }
+    return sb.toString();
+  }
+
+  private static void appendEscaped(final String value, final StringBuilder sb) {
+    if (value.indexOf('|') < 0) {
+      sb.append(value);
+      return;
+    }
+
+    final int length = value.length();
+    for (int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      sb.append(c);
+      if (c != '|') {
+        continue;
+      }
+
+      int next = i + 1;
+      while (next < length && value.charAt(next) == '\\') {
+        next++;
+      }
+      if (next < length && value.charAt(next) == '+') {
+        sb.append('\\');
+      }
+    }
+  }
+
+  private static Object normalize(final Object value) {
+    if (value == null
+        || value instanceof Integer
+        || value instanceof Long
+        || value instanceof Double
+        || value instanceof Boolean
+        || value instanceof String) {
+      return value;
+    }
+    return String.valueOf(value);
+  }
+
+  private static final class BinarySerializer implements Serializer<GroupByKey> {
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final GroupByKey key) {
+      if (key == null) {
+        return null;
+      }
+
+      final Object[] values = key.values;
+      final byte[][] strings = new byte[values.length][];
+      int size = 0;
+      for (int i = 0; i < values.length; i++) {
+        final Object value = values[i];
+        size++;
+        if (value instanceof Integer) {
+          size += Integer.BYTES;
+        } else if (value instanceof Long || value instanceof Double) {
+          size += Long.BYTES;
+        } else if (value instanceof Boolean) {
+          size++;
+        } else if (value instanceof String) {
+          strings[i] = ((String) value).getBytes(StandardCharsets.UTF_8);
+          size += ByteUtils.sizeOfUnsignedVarint(strings[i].length) + strings[i].length;
+        }
+      }
+
+      final ByteBuffer buffer = ByteBuffer.allocate(size);
+      for (int i = 0; i < values.length; i++) {
+        final Object value = values[i];
+        if (value == null) {
+          buffer.put(NULL);
+        } else if (value instanceof Integer) {
+          buffer.put(INT).putInt((Integer) value);
+        } else if (value instanceof Long) {
+          buffer.put(LONG).putLong((Long) value);
+        } else if (value instanceof Double) {
+          buffer.put(DOUBLE).putDouble((Double) value);
+        } else if (value instanceof Boolean) {
+          buffer.put(BOOLEAN).put((byte) ((Boolean) value ? 1 : 0));
+        } else {
+          buffer.put(STRING);
+          ByteUtils.writeUnsignedVarint(strings[i].length, buffer);
+          buffer.put(strings[i]);
+        }
+      }
+      return buffer.array();
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  private static final class BinaryDeserializer implements Deserializer<GroupByKey> {
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+    }
+
+    @Override
+    public GroupByKey deserialize(final String topic, final byte[] bytes) {
+      if (bytes == null) {
+        return null;
+      }
+
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      final List<Object> values = new ArrayList<>(1);
+      while (buffer.hasRemaining()) {
+        final byte type = buffer.get();
+        switch (type) {
+          case NULL:
+            values.add(null);
+            break;
+          case INT:
+            values.add(buffer.getInt());
+            break;
+          case LONG:
+            values.add(buffer.getLong());
+            break;
+          case DOUBLE:
+            values.add(buffer.getDouble());
+            break;
+          case BOOLEAN:
+            values.add(buffer.get() != 0);
+            break;
+          case STRING:
+            final byte[] string = new byte[ByteUtils.readUnsignedVarint(buffer)];
+            buffer.get(string);
+            values.add(new String(string, StandardCharsets.UTF_8));
+            break;
+          default:
+            throw new SerializationException("Unknown group by key value type: " + type);
+        }
+      }
+      return new GroupByKey(values.toArray());
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  private static final class StringSerializer implements Serializer<GroupByKey> {
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final GroupByKey key) {
+      if (key == null) {
+        return null;
+      }
+      return key.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  private static final class StringDeserializer implements Deserializer<GroupByKey> {
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+    }
+
+    @Override
+    public GroupByKey deserialize(final String topic, final byte[] bytes) {
+      if (bytes == null) {
+        return null;
+      }
+      // The values of a key can not be recovered from its string form, so the whole string
+      // is read as a single value, which formats back to the same string:
+      return of(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -22,7 +22,6 @@ import io.confluent.ksql.util.ExpressionMetadata;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.kafka.streams.kstream.KeyValueMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,7 +30,7 @@ class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, String> {
 
   private static final Logger LOG = LoggerFactory.getLogger(GroupByMapper.class);
 
-  private static final String GROUP_BY_COLUMN_SEPARATOR = "|+|";
+  static final String GROUP_BY_COLUMN_SEPARATOR = "|+|";
 
   private final List<ExpressionMetadata> expressions;
 
@@ -44,9 +43,34 @@ class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, String> {
 
   @Override
   public String apply(final K key, final GenericRow row) {
-    return IntStream.range(0, expressions.size())
-        .mapToObj(idx -> processColumn(idx, expressions.get(idx), row))
-        .collect(Collectors.joining(GROUP_BY_COLUMN_SEPARATOR));
+    if (expressions.size() == 1) {
+      return String.valueOf(processColumn(0, expressions.get(0), row));
+    }
+
+    final StringBuilder sb = new StringBuilder();
+    for (int idx = 0; idx < expressions.size(); idx++) {
+      if (idx > 0) {
+        sb.append(GROUP_BY_COLUMN_SEPARATOR);
+      }
+      sb.append(processColumn(idx, expressions.get(idx), row));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Build the same key as {@link #apply}, but as a {@link GroupByKey}, which retains the type
+   * of each of the key's values and serializes them compactly.
+   */
+  GroupByKey applyBinary(final K key, final GenericRow row) {
+    if (expressions.size() == 1) {
+      return GroupByKey.of(processColumn(0, expressions.get(0), row));
+    }
+
+    final Object[] values = new Object[expressions.size()];
+    for (int idx = 0; idx < values.length; idx++) {
+      values[idx] = processColumn(idx, expressions.get(idx), row);
+    }
+    return GroupByKey.of(values);
   }
 
   static String keyNameFor(final List<Expression> groupByExpressions) {
@@ -55,16 +79,16 @@ class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, String> {
         .collect(Collectors.joining(GROUP_BY_COLUMN_SEPARATOR));
   }
 
-  private String processColumn(
+  private static Object processColumn(
       final int index,
       final ExpressionMetadata exp,
       final GenericRow row
   ) {
     try {
-      return String.valueOf(exp.evaluate(row));
+      return exp.evaluate(row);
     } catch (final Exception e) {
       LOG.error("Error calculating group-by field with index {}", index, e);
-      return "null";
+      return null;
     }
   }
 }
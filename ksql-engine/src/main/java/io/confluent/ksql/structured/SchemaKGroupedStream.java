@@ -18,11 +18,11 @@ package io.confluent.ksql.structured;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
-import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.function.udaf.KudafAggregator;
 import io.confluent.ksql.function.udaf.window.WindowSelectMapper;
 import io.confluent.ksql.metastore.SerdeFactory;
 import io.confluent.ksql.parser.tree.KsqlWindowExpression;
+import io.confluent.ksql.parser.tree.SessionWindowExpression;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.streams.StreamsUtil;
@@ -42,6 +42,7 @@ import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
 import org.apache.kafka.streams.kstream.Windowed;
 import org.apache.kafka.streams.kstream.WindowedSerdes;
+import org.apache.kafka.streams.processor.StateStore;
 import org.apache.kafka.streams.state.KeyValueStore;
 import org.apache.kafka.streams.state.WindowStore;
 
@@ -54,6 +55,9 @@ public class SchemaKGroupedStream {
   final KsqlConfig ksqlConfig;
   final FunctionRegistry functionRegistry;
   final MaterializedFactory materializedFactory;
+  // The serde of the keys of rows grouped by expressions, in repartition topics and state
+  // stores, or empty if the rows are grouped by their existing String keys:
+  final Optional<Serde<GroupByKey>> groupByKeySerde;
 
   SchemaKGroupedStream(
       final Schema schema,
@@ -82,6 +86,28 @@ public class SchemaKGroupedStream {
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry,
       final MaterializedFactory materializedFactory
+  ) {
+    this(
+        schema,
+        kgroupedStream,
+        keyField,
+        sourceSchemaKStreams,
+        ksqlConfig,
+        functionRegistry,
+        materializedFactory,
+        Optional.empty()
+    );
+  }
+
+  SchemaKGroupedStream(
+      final Schema schema,
+      final KGroupedStream kgroupedStream,
+      final Optional<Field> keyField,
+      final List<SchemaKStream> sourceSchemaKStreams,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final MaterializedFactory materializedFactory,
+      final Optional<Serde<GroupByKey>> groupByKeySerde
   ) {
     this.schema = schema;
     this.kgroupedStream = kgroupedStream;
@@ -90,6 +116,7 @@ public class SchemaKGroupedStream {
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.functionRegistry = functionRegistry;
     this.materializedFactory = materializedFactory;
+    this.groupByKeySerde = Objects.requireNonNull(groupByKeySerde, "groupByKeySerde");
   }
 
   public Optional<Field> getKeyField() {
@@ -117,8 +144,7 @@ public class SchemaKGroupedStream {
           topicValueSerDe,
           contextStacker);
     } else {
-      keySerdeFactory = (SerdeFactory)Serdes::String;
-
+      keySerdeFactory = getKeySerde();
       table = aggregateNonWindowed(
           initializer,
           aggValToFunctionMap,
@@ -147,15 +173,12 @@ public class SchemaKGroupedStream {
       final Serde<GenericRow> topicValueSerDe,
       final QueryContext.Stacker contextStacker) {
 
-    final UdafAggregator aggregator = new KudafAggregator(
+    final KudafAggregator aggregator = new KudafAggregator(
         indexToFunctionMap, indexToValueMap);
 
-    final Materialized<String, GenericRow, KeyValueStore<Bytes, byte[]>> materialized
-          = materializedFactory.create(
-              Serdes.String(),
-              topicValueSerDe,
-              StreamsUtil.buildOpName(contextStacker.getQueryContext()));
-    return kgroupedStream.aggregate(initializer, aggregator, materialized);
+    final Materialized<?, GenericRow, KeyValueStore<Bytes, byte[]>> materialized =
+        materialize(topicValueSerDe, contextStacker);
+    return kgroupedStream.aggregate(initializer, aggregator.asAggregator(), materialized);
   }
 
   @SuppressWarnings("unchecked")
@@ -167,18 +190,19 @@ public class SchemaKGroupedStream {
       final Serde<GenericRow> topicValueSerDe,
       final QueryContext.Stacker contextStacker) {
 
-    final UdafAggregator aggregator = new KudafAggregator(
+    final KudafAggregator aggregator = new KudafAggregator(
         indexToFunctionMap, indexToValueMap);
 
     final KsqlWindowExpression ksqlWindowExpression = windowExpression.getKsqlWindowExpression();
 
-    final Materialized<String, GenericRow, WindowStore<Bytes, byte[]>> materialized
-          = materializedFactory.create(
-              Serdes.String(),
-              topicValueSerDe,
-              StreamsUtil.buildOpName(contextStacker.getQueryContext()));
+    final Materialized<?, GenericRow, WindowStore<Bytes, byte[]>> materialized =
+        materialize(topicValueSerDe, contextStacker);
     final KTable aggKtable = ksqlWindowExpression.applyAggregate(
-        kgroupedStream, initializer, aggregator, materialized);
+        kgroupedStream,
+        initializer,
+        aggregator.asAggregator(),
+        aggregator.asMerger(),
+        materialized);
 
     final WindowSelectMapper windowSelectMapper = new WindowSelectMapper(indexToFunctionMap);
     if (!windowSelectMapper.hasSelects()) {
@@ -189,7 +213,46 @@ public class SchemaKGroupedStream {
         windowSelectMapper.apply((Windowed<?>) readOnlyKey, (GenericRow) value));
   }
 
-  private SerdeFactory<Windowed<String>> getKeySerde(final WindowExpression windowExpression) {
+  /**
+   * @return the materialization of the aggregation's state store, keyed by the grouped keys.
+   */
+  <S extends StateStore> Materialized<?, GenericRow, S> materialize(
+      final Serde<GenericRow> topicValueSerDe,
+      final QueryContext.Stacker contextStacker
+  ) {
+    final String opName = StreamsUtil.buildOpName(contextStacker.getQueryContext());
+    if (groupByKeySerde.isPresent()) {
+      return materializedFactory.create(groupByKeySerde.get(), topicValueSerDe, opName);
+    }
+    return materializedFactory.create(Serdes.String(), topicValueSerDe, opName);
+  }
+
+  /**
+   * @return the serde of the keys of the aggregation's output. Keys built from the grouping
+   *     expressions are written in their string form, as String keys are.
+   */
+  SerdeFactory<?> getKeySerde() {
+    if (groupByKeySerde.isPresent()) {
+      final SerdeFactory<GroupByKey> keySerdeFactory = GroupByKey::stringSerde;
+      return keySerdeFactory;
+    }
+    final SerdeFactory<String> keySerdeFactory = Serdes::String;
+    return keySerdeFactory;
+  }
+
+  private SerdeFactory<?> getKeySerde(final WindowExpression windowExpression) {
+    final boolean sessionKeys =
+        windowExpression.getKsqlWindowExpression() instanceof SessionWindowExpression
+        && !ksqlConfig.getBoolean(KsqlConfig.KSQL_WINDOWED_SESSION_KEY_LEGACY_CONFIG);
+
+    if (groupByKeySerde.isPresent()) {
+      // Windowed keys are written in the same form as windowed String keys:
+      final SerdeFactory<Windowed<GroupByKey>> keySerdeFactory = sessionKeys
+          ? () -> new WindowedSerdes.SessionWindowedSerde<>(GroupByKey.stringSerde())
+          : () -> new WindowedSerdes.TimeWindowedSerde<>(GroupByKey.stringSerde());
+      return keySerdeFactory;
+    }
+
     if (ksqlConfig.getBoolean(KsqlConfig.KSQL_WINDOWED_SESSION_KEY_LEGACY_CONFIG)) {
       return () -> WindowedSerdes.timeWindowedSerdeFrom(String.class);
     }
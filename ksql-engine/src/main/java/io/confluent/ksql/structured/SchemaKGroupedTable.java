@@ -23,7 +23,6 @@ import io.confluent.ksql.function.udaf.KudafAggregator;
 import io.confluent.ksql.function.udaf.KudafUndoAggregator;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.streams.MaterializedFactory;
-import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import java.util.List;
@@ -32,13 +31,14 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.serialization.Serde;
-import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedTable;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.state.KeyValueStore;
 
 public class SchemaKGroupedTable extends SchemaKGroupedStream {
   private final KGroupedTable kgroupedTable;
@@ -69,16 +69,37 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry,
       final MaterializedFactory materializedFactory
+  ) {
+    this(
+        schema,
+        kgroupedTable,
+        keyField,
+        sourceSchemaKStreams,
+        ksqlConfig,
+        functionRegistry,
+        materializedFactory,
+        Optional.empty());
+  }
+
+  SchemaKGroupedTable(
+      final Schema schema,
+      final KGroupedTable kgroupedTable,
+      final Optional<Field> keyField,
+      final List<SchemaKStream> sourceSchemaKStreams,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final MaterializedFactory materializedFactory,
+      final Optional<Serde<GroupByKey>> groupByKeySerde
   ) {
     super(schema, null, keyField, sourceSchemaKStreams,
-        ksqlConfig, functionRegistry, materializedFactory);
+        ksqlConfig, functionRegistry, materializedFactory, groupByKeySerde);
 
     this.kgroupedTable = Objects.requireNonNull(kgroupedTable, "kgroupedTable");
   }
 
   @SuppressWarnings("unchecked")
   @Override
-  public SchemaKTable<String> aggregate(
+  public SchemaKTable<?> aggregate(
       final Initializer initializer,
       final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap,
       final Map<Integer, Integer> aggValToValColumnMap,
@@ -112,22 +133,19 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
                     k -> ((TableAggregationFunction) aggValToFunctionMap.get(k))));
     final KudafUndoAggregator subtractor = new KudafUndoAggregator(
         aggValToUndoFunctionMap, aggValToValColumnMap);
-    final Materialized<String, GenericRow, ?> materialized =
-        materializedFactory.create(
-            Serdes.String(),
-            topicValueSerDe,
-            StreamsUtil.buildOpName(contextStacker.getQueryContext()));
-    final KTable<String, GenericRow> aggKtable = kgroupedTable.aggregate(
+    final Materialized<?, GenericRow, KeyValueStore<Bytes, byte[]>> materialized =
+        materialize(topicValueSerDe, contextStacker);
+    final KTable aggKtable = kgroupedTable.aggregate(
         initializer,
-        aggregator,
+        aggregator.asAggregator(),
         subtractor,
         materialized);
-    return new SchemaKTable<>(
+    return new SchemaKTable(
         schema,
         aggKtable,
         keyField,
         sourceSchemaKStreams,
-        Serdes::String,
+        getKeySerde(),
         SchemaKStream.Type.AGGREGATE,
         ksqlConfig,
         functionRegistry,
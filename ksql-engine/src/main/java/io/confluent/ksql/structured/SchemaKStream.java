@@ -26,10 +26,12 @@ import io.confluent.ksql.parser.tree.DereferenceExpression;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.streams.StreamsFactories;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.ExpressionMetadata;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.ProjectionMetadata;
 import io.confluent.ksql.util.QueryLoggerUtil;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.SelectExpression;
@@ -50,6 +52,7 @@ import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.streams.kstream.JoinWindows;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KeyValueMapper;
 import org.apache.kafka.streams.kstream.Produced;
 import org.apache.kafka.streams.kstream.ValueJoiner;
 import org.apache.kafka.streams.kstream.WindowedSerdes;
@@ -59,7 +62,7 @@ import org.apache.kafka.streams.kstream.WindowedSerdes;
 public class SchemaKStream<K> {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
-  public enum Type { SOURCE, PROJECT, FILTER, AGGREGATE, SINK, REKEY, JOIN }
+  public enum Type { SOURCE, PROJECT, FILTER, FILTER_PROJECT, AGGREGATE, SINK, REKEY, JOIN }
 
   final Schema schema;
   final KStream<K, GenericRow> kstream;
@@ -69,6 +72,7 @@ public class SchemaKStream<K> {
   final KsqlConfig ksqlConfig;
   final FunctionRegistry functionRegistry;
   private OutputNode output;
+  private List<String> prunedColumns = Collections.emptyList();
   final SerdeFactory<K> keySerdeFactory;
   final StreamsFactories streamsFactories;
   final QueryContext queryContext;
@@ -131,6 +135,22 @@ public class SchemaKStream<K> {
         || keySerde instanceof WindowedSerdes.TimeWindowedSerde;
   }
 
+  /**
+   * @return whether the values of this stream's rows are known to be of their columns' schema
+   *         types. The rows of a source, and of any filter of them, have been deserialized by
+   *         one of KSQL's serdes, each of which enforces the schema's types as it deserializes.
+   */
+  boolean hasTypesEnforcedBySerde() {
+    if (type == Type.SOURCE) {
+      return true;
+    }
+    return type == Type.FILTER && sourceSchemaKStreams.get(0).hasTypesEnforcedBySerde();
+  }
+
+  private CodeGenRunner codeGenRunner() {
+    return new CodeGenRunner(schema, ksqlConfig, functionRegistry, hasTypesEnforcedBySerde());
+  }
+
   public SchemaKStream into(
       final String kafkaTopicName,
       final Serde<GenericRow> topicValueSerDe,
@@ -161,6 +181,7 @@ public class SchemaKStream<K> {
         filterExpression,
         schema,
         hasWindowedKey(),
+        hasTypesEnforcedBySerde(),
         ksqlConfig,
         functionRegistry,
         processingLogContext.getLoggerFactory().getLogger(
@@ -206,6 +227,65 @@ public class SchemaKStream<K> {
     );
   }
 
+  /**
+   * Apply a filter, and then a projection, as a single processor, whose predicate and
+   * expressions are compiled into a single class.
+   *
+   * <p>Rows are processed as by {@link #filter} followed by {@link #select}, and any
+   * processing errors are logged to the same loggers, but each expression is evaluated once.
+   * A predicate that evaluates to {@code null} drops the row without logging an error.
+   */
+  @SuppressWarnings("unchecked")
+  public SchemaKStream<K> filterAndSelect(
+      final Expression filterExpression,
+      final QueryContext.Stacker filterContextStacker,
+      final List<SelectExpression> selectExpressions,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext) {
+    final SqlPredicate predicate = new SqlPredicate(
+        filterExpression,
+        schema,
+        hasWindowedKey(),
+        hasTypesEnforcedBySerde(),
+        ksqlConfig,
+        functionRegistry,
+        processingLogContext.getLoggerFactory().getLogger(
+            QueryLoggerUtil.queryLoggerName(
+                filterContextStacker.push(Type.FILTER.name()).getQueryContext())
+        )
+    );
+    final Selection selection = new Selection(
+        selectExpressions,
+        processingLogContext.getLoggerFactory().getLogger(
+            QueryLoggerUtil.queryLoggerName(
+                contextStacker.push(Type.PROJECT.name()).getQueryContext()))
+    );
+    final ProjectionMetadata filteredProjection = codeGenRunner()
+        .buildFilteredProjectionFromParseTrees(
+            filterExpression,
+            selectExpressions.stream()
+                .map(SelectExpression::getExpression)
+                .collect(Collectors.toList()),
+            "Filter and select");
+
+    final FilterSelectValueMapper mapper = new FilterSelectValueMapper(
+        filteredProjection,
+        predicate,
+        selection.getSelectValueMapper());
+
+    return new SchemaKStream<>(
+        selection.getProjectedSchema(),
+        kstream.flatMapValues(mapper),
+        selection.getKey(),
+        Collections.singletonList(this),
+        keySerdeFactory,
+        Type.FILTER_PROJECT,
+        ksqlConfig,
+        functionRegistry,
+        contextStacker.getQueryContext()
+    );
+  }
+
   class Selection {
     private final Schema schema;
     private final Optional<Field> key;
@@ -220,9 +300,14 @@ public class SchemaKStream<K> {
       final List<String> selectFieldNames = selectExpressions.stream()
           .map(SelectExpression::getName)
           .collect(Collectors.toList());
+      final Optional<ProjectionMetadata> projection =
+          ksqlConfig.getBoolean(KsqlConfig.KSQL_CODEGEN_PROJECTION_ENABLED)
+              ? Optional.of(buildProjection(selectExpressions))
+              : Optional.empty();
       selectValueMapper = new SelectValueMapper(
           selectFieldNames,
           expressionEvaluators,
+          projection,
           processingLogger);
     }
 
@@ -282,8 +367,18 @@ public class SchemaKStream<K> {
       final Stream<Expression> expressions = selectExpressions.stream()
           .map(SelectExpression::getExpression);
 
-      return CodeGenRunner.compileExpressions(
-          expressions, "Select", SchemaKStream.this.getSchema(), ksqlConfig, functionRegistry);
+      final CodeGenRunner codeGenRunner = codeGenRunner();
+      return expressions
+          .map(expression -> codeGenRunner.buildCodeGenFromParseTree(expression, "Select"))
+          .collect(Collectors.toList());
+    }
+
+    private ProjectionMetadata buildProjection(final List<SelectExpression> selectExpressions) {
+      final List<Expression> expressions = selectExpressions.stream()
+          .map(SelectExpression::getExpression)
+          .collect(Collectors.toList());
+
+      return codeGenRunner().buildProjectionFromParseTrees(expressions, "Select");
     }
 
     public Schema getProjectedSchema() {
@@ -569,13 +664,13 @@ public class SchemaKStream<K> {
 
     final GroupBy groupBy = new GroupBy(groupByExpressions);
 
-    final KGroupedStream kgroupedStream = kstream
+    final KGroupedStream<GroupByKey, GenericRow> kgroupedStream = kstream
         .filter((key, value) -> value != null)
         .groupBy(
             groupBy.mapper,
             streamsFactories.getGroupedFactory().create(
                 StreamsUtil.buildOpName(contextStacker.getQueryContext()),
-                Serdes.String(),
+                groupBy.keySerde,
                 valSerde)
         );
 
@@ -590,7 +685,9 @@ public class SchemaKStream<K> {
         Optional.of(newKeyField),
         Collections.singletonList(this),
         ksqlConfig,
-        functionRegistry
+        functionRegistry,
+        MaterializedFactory.create(ksqlConfig),
+        Optional.of(groupBy.keySerde)
     );
   }
 
@@ -616,8 +713,11 @@ public class SchemaKStream<K> {
         .append(" > [ ")
         .append(type).append(" ] | Schema: ")
         .append(SchemaUtil.getSchemaDefinitionString(schema))
-        .append(" | Logger: ").append(QueryLoggerUtil.queryLoggerName(queryContext))
-        .append("\n");
+        .append(" | Logger: ").append(QueryLoggerUtil.queryLoggerName(queryContext));
+    if (!prunedColumns.isEmpty()) {
+      stringBuilder.append(" | Pruned columns: ").append(prunedColumns);
+    }
+    stringBuilder.append("\n");
     for (final SchemaKStream schemaKStream : sourceSchemaKStreams) {
       stringBuilder
           .append("\t")
@@ -635,6 +735,14 @@ public class SchemaKStream<K> {
     this.output = output;
   }
 
+  /**
+   * @param prunedColumns the columns of a source that are not deserialized, as listed in the
+   *                      execution plan.
+   */
+  public void setPrunedColumns(final List<String> prunedColumns) {
+    this.prunedColumns = Objects.requireNonNull(prunedColumns, "prunedColumns");
+  }
+
   public Type getType() {
     return type;
   }
@@ -646,13 +754,24 @@ public class SchemaKStream<K> {
   class GroupBy {
 
     final String aggregateKeyName;
-    final GroupByMapper<Object> mapper;
+    final KeyValueMapper<Object, GenericRow, GroupByKey> mapper;
+    final Serde<GroupByKey> keySerde;
 
     GroupBy(final List<Expression> expressions) {
-      final List<ExpressionMetadata> groupBy = CodeGenRunner.compileExpressions(
-          expressions.stream(), "Group By", schema, ksqlConfig, functionRegistry);
+      final CodeGenRunner codeGenRunner = codeGenRunner();
+      final List<ExpressionMetadata> groupBy = expressions.stream()
+          .map(expression -> codeGenRunner.buildCodeGenFromParseTree(expression, "Group By"))
+          .collect(Collectors.toList());
 
-      this.mapper = new GroupByMapper<>(groupBy);
+      final GroupByMapper<Object> groupByMapper = new GroupByMapper<>(groupBy);
+      if (ksqlConfig.getBoolean(KsqlConfig.KSQL_GROUPBY_BINARY_KEY_ENABLED)) {
+        this.mapper = groupByMapper::applyBinary;
+        this.keySerde = GroupByKey.binarySerde();
+      } else {
+        // The legacy String key, as a key of one value, which the string serde writes unchanged:
+        this.mapper = (key, row) -> GroupByKey.of(groupByMapper.apply(key, row));
+        this.keySerde = GroupByKey.stringSerde();
+      }
       this.aggregateKeyName = GroupByMapper.keyNameFor(expressions);
     }
   }
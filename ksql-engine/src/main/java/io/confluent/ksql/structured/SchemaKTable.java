@@ -21,6 +21,7 @@ import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.metastore.SerdeFactory;
 import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.streams.StreamsFactories;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
@@ -32,7 +33,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.apache.kafka.common.serialization.Serde;
-import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.KeyValue;
@@ -134,6 +134,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
         filterExpression,
         schema,
         hasWindowedKey(),
+        hasTypesEnforcedBySerde(),
         ksqlConfig,
         functionRegistry,
         processingLogContext.getLoggerFactory().getLogger(
@@ -178,6 +179,21 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
     );
   }
 
+  /**
+   * Tables are not fused: filtering a table must forward a tombstone for each row that no
+   * longer matches, which {@link KTable#filter} takes care of.
+   */
+  @Override
+  public SchemaKTable<K> filterAndSelect(
+      final Expression filterExpression,
+      final QueryContext.Stacker filterContextStacker,
+      final List<SelectExpression> selectExpressions,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext) {
+    return filter(filterExpression, filterContextStacker, processingLogContext)
+        .select(selectExpressions, contextStacker, processingLogContext);
+  }
+
   @SuppressWarnings("unchecked") // needs investigating
   @Override
   public KStream getKstream() {
@@ -196,13 +212,13 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
 
     final GroupBy groupBy = new GroupBy(groupByExpressions);
 
-    final KGroupedTable kgroupedTable = ktable
+    final KGroupedTable<GroupByKey, GenericRow> kgroupedTable = ktable
         .filter((key, value) -> value != null)
         .groupBy(
             (key, value) -> new KeyValue<>(groupBy.mapper.apply(key, value), value),
             streamsFactories.getGroupedFactory().create(
                 StreamsUtil.buildOpName(
-                    contextStacker.getQueryContext()), Serdes.String(), valSerde)
+                    contextStacker.getQueryContext()), groupBy.keySerde, valSerde)
         );
 
     final Field newKeyField = new Field(
@@ -213,7 +229,9 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
         Optional.of(newKeyField),
         Collections.singletonList(this),
         ksqlConfig,
-        functionRegistry);
+        functionRegistry,
+        MaterializedFactory.create(ksqlConfig),
+        Optional.of(groupBy.keySerde));
   }
 
   @SuppressWarnings("unchecked")
@@ -19,23 +19,37 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.util.EngineProcessingLogMessageFactory;
 import io.confluent.ksql.util.ExpressionMetadata;
+import io.confluent.ksql.util.ProjectionMetadata;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import org.apache.kafka.streams.kstream.ValueMapper;
 
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 class SelectValueMapper implements ValueMapper<GenericRow, GenericRow> {
   private final List<String> selectFieldNames;
   private final List<ExpressionMetadata> expressionEvaluators;
+  private final Optional<ProjectionMetadata> projection;
   private final ProcessingLogger processingLogger;
 
   SelectValueMapper(
       final List<String> selectFieldNames,
       final List<ExpressionMetadata> expressionEvaluators,
       final ProcessingLogger processingLogger
+  ) {
+    this(selectFieldNames, expressionEvaluators, Optional.empty(), processingLogger);
+  }
+
+  SelectValueMapper(
+      final List<String> selectFieldNames,
+      final List<ExpressionMetadata> expressionEvaluators,
+      final Optional<ProjectionMetadata> projection,
+      final ProcessingLogger processingLogger
   ) {
     this.selectFieldNames = Objects.requireNonNull(selectFieldNames);
     this.expressionEvaluators = Objects.requireNonNull(expressionEvaluators);
+    this.projection = Objects.requireNonNull(projection);
     this.processingLogger = Objects.requireNonNull(processingLogger);
 
     if (selectFieldNames.size() != expressionEvaluators.size()) {
@@ -49,7 +63,11 @@ class SelectValueMapper implements ValueMapper<GenericRow, GenericRow> {
       return null;
     }
 
-    final List<Object> newColumns = new ArrayList<>();
+    if (projection.isPresent()) {
+      return projection.get().evaluate(row, (column, e) -> logColumnError(column, e, row));
+    }
+
+    final List<Object> newColumns = new ArrayList<>(selectFieldNames.size());
     for (int i = 0; i < selectFieldNames.size(); i++) {
       newColumns.add(processColumn(i, row));
     }
@@ -62,19 +80,23 @@ class SelectValueMapper implements ValueMapper<GenericRow, GenericRow> {
           .get(column)
           .evaluate(row);
     } catch (final Exception e) {
-      final String errorMsg = String.format(
-          "Error computing expression %s for column %s with index %d: %s",
-          expressionEvaluators.get(column).getExpression(),
-          selectFieldNames.get(column),
-          column,
-          e.getMessage());
-      processingLogger.error(
-          EngineProcessingLogMessageFactory.recordProcessingError(
-              errorMsg,
-              row
-          )
-      );
+      logColumnError(column, e, row);
       return null;
     }
   }
+
+  void logColumnError(final int column, final Exception e, final GenericRow row) {
+    final String errorMsg = String.format(
+        "Error computing expression %s for column %s with index %d: %s",
+        expressionEvaluators.get(column).getExpression(),
+        selectFieldNames.get(column),
+        column,
+        e.getMessage());
+    processingLogger.error(
+        EngineProcessingLogMessageFactory.recordProcessingError(
+            errorMsg,
+            row
+        )
+    );
+  }
 }
@@ -17,35 +17,24 @@ package io.confluent.ksql.structured;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.codegen.CodeGenRunner;
-import io.confluent.ksql.codegen.SqlToJavaVisitor;
 import io.confluent.ksql.function.FunctionRegistry;
-import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.util.EngineProcessingLogMessageFactory;
 import io.confluent.ksql.util.ExpressionMetadata;
-import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
-import io.confluent.ksql.util.SchemaUtil;
-import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Predicate;
 import org.apache.kafka.streams.kstream.Windowed;
-import org.codehaus.commons.compiler.CompilerFactoryFactory;
-import org.codehaus.commons.compiler.IExpressionEvaluator;
 
 public class SqlPredicate {
   private final Expression filterExpression;
   private final Schema schema;
-  private final IExpressionEvaluator ee;
+  private final ExpressionMetadata expressionMetadata;
   private final int[] columnIndexes;
   private final boolean isWindowedKey;
-  private final KsqlConfig ksqlConfig;
-  private final FunctionRegistry functionRegistry;
-  private final GenericRowValueTypeEnforcer genericRowValueTypeEnforcer;
   private final ProcessingLogger processingLogger;
 
   SqlPredicate(
@@ -55,43 +44,33 @@ public class SqlPredicate {
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry,
       final ProcessingLogger processingLogger
+  ) {
+    this(filterExpression, schema, isWindowedKey, false, ksqlConfig, functionRegistry,
+        processingLogger);
+  }
+
+  SqlPredicate(
+      final Expression filterExpression,
+      final Schema schema,
+      final boolean isWindowedKey,
+      final boolean typesEnforcedBySerde,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final ProcessingLogger processingLogger
   ) {
     this.filterExpression = filterExpression;
     this.schema = schema;
-    this.genericRowValueTypeEnforcer = new GenericRowValueTypeEnforcer(schema);
     this.isWindowedKey = isWindowedKey;
-    this.functionRegistry = functionRegistry;
-    this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.processingLogger = Objects.requireNonNull(processingLogger);
 
-    final CodeGenRunner codeGenRunner = new CodeGenRunner(schema, ksqlConfig, functionRegistry);
-    final Set<CodeGenRunner.ParameterType> parameters
-        = codeGenRunner.getParameterInfo(filterExpression);
-
-    final String[] parameterNames = new String[parameters.size()];
-    final Class[] parameterTypes = new Class[parameters.size()];
-    columnIndexes = new int[parameters.size()];
-    int index = 0;
-    for (final CodeGenRunner.ParameterType param : parameters) {
-      parameterNames[index] = param.getName();
-      parameterTypes[index] = param.getType();
-      columnIndexes[index] = SchemaUtil.getFieldIndexByName(schema, param.getName());
-      index++;
-    }
+    final CodeGenRunner codeGenRunner = new CodeGenRunner(
+        schema,
+        Objects.requireNonNull(ksqlConfig, "ksqlConfig"),
+        functionRegistry,
+        typesEnforcedBySerde);
 
     try {
-      ee = CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
-      ee.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
-      ee.setParameters(parameterNames, parameterTypes);
-
-      ee.setExpressionType(boolean.class);
-
-      final String expressionStr = new SqlToJavaVisitor(
-          schema,
-          functionRegistry
-      ).process(filterExpression);
-
-      ee.cook(expressionStr);
+      expressionMetadata = codeGenRunner.buildCodeGenFromParseTree(filterExpression, "filter");
     } catch (final Exception e) {
       throw new KsqlException(
           "Failed to generate code for SqlPredicate."
@@ -104,6 +83,10 @@ public class SqlPredicate {
           e
       );
     }
+
+    columnIndexes = expressionMetadata.getIndexes().stream()
+        .mapToInt(Integer::intValue)
+        .toArray();
   }
 
   Predicate getPredicate() {
@@ -114,67 +97,27 @@ public class SqlPredicate {
     }
   }
 
-  private Predicate<String, GenericRow> getStringKeyPredicate() {
-    final ExpressionMetadata expressionEvaluator = createExpressionMetadata();
-
-    return (key, row) -> {
-      if (row == null) {
-        return false;
-      }
-      try {
-        final List<Kudf> kudfs = expressionEvaluator.getUdfs();
-        final Object[] values = new Object[columnIndexes.length];
-        for (int i = 0; i < values.length; i++) {
-          if (columnIndexes[i] < 0) {
-            values[i] = kudfs.get(i);
-          } else {
-            values[i] = genericRowValueTypeEnforcer.enforceFieldType(columnIndexes[i], row
-                .getColumns().get(columnIndexes[i]));
-          }
-        }
-        return (Boolean) ee.evaluate(values);
-      } catch (final Exception e) {
-        logProcessingError(e, row);
-      }
-      return false;
-    };
+  private Predicate<Object, GenericRow> getStringKeyPredicate() {
+    return (key, row) -> test(row);
   }
 
-  private ExpressionMetadata createExpressionMetadata() {
-    final CodeGenRunner codeGenRunner = new CodeGenRunner(schema, ksqlConfig, functionRegistry);
-    return codeGenRunner.buildCodeGenFromParseTree(filterExpression, "filter");
+  private Predicate getWindowedKeyPredicate() {
+    return (Predicate<Windowed<?>, GenericRow>) (key, row) -> test(row);
   }
 
-  private Predicate getWindowedKeyPredicate() {
-    final ExpressionMetadata expressionEvaluator = createExpressionMetadata();
-    return (Predicate<Windowed<String>, GenericRow>) (key, row) -> {
-      if (row == null) {
-        return false;
-      }
-      try {
-        final List<Kudf> kudfs = expressionEvaluator.getUdfs();
-        final Object[] values = new Object[columnIndexes.length];
-        for (int i = 0; i < values.length; i++) {
-          if (columnIndexes[i] < 0) {
-            values[i] = kudfs.get(i);
-          } else {
-            values[i] = genericRowValueTypeEnforcer
-                .enforceFieldType(
-                    columnIndexes[i],
-                    row.getColumns().get(columnIndexes[i]
-                    )
-                );
-          }
-        }
-        return (Boolean) ee.evaluate(values);
-      } catch (final Exception e) {
-        logProcessingError(e, row);
-      }
+  private boolean test(final GenericRow row) {
+    if (row == null) {
       return false;
-    };
+    }
+    try {
+      return (Boolean) expressionMetadata.evaluate(row);
+    } catch (final Exception e) {
+      logProcessingError(e, row);
+    }
+    return false;
   }
 
-  private void logProcessingError(final Exception e, final GenericRow row) {
+  void logProcessingError(final Exception e, final GenericRow row) {
     processingLogger.error(
         EngineProcessingLogMessageFactory.recordProcessingError(
             String.format(
@@ -16,39 +16,38 @@
 package io.confluent.ksql.util;
 
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.CompiledExpression;
 import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.parser.tree.Expression;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import org.apache.kafka.connect.data.Schema;
-import org.codehaus.commons.compiler.IExpressionEvaluator;
 
 public class ExpressionMetadata {
 
-  private final IExpressionEvaluator expressionEvaluator;
+  private final CompiledExpression compiledExpression;
   private final List<Integer> indexes;
   private final List<Kudf> udfs;
   private final Schema expressionType;
   private final GenericRowValueTypeEnforcer typeEnforcer;
-  private final ThreadLocal<Object[]> threadLocalParameters;
   private final Expression expression;
+  private final Kudf[] udfArray;
 
   public ExpressionMetadata(
-      final IExpressionEvaluator expressionEvaluator,
+      final CompiledExpression compiledExpression,
       final List<Integer> indexes,
       final List<Kudf> udfs,
       final Schema expressionType,
       final GenericRowValueTypeEnforcer typeEnforcer,
       final Expression expression) {
-    this.expressionEvaluator = Objects.requireNonNull(expressionEvaluator, "expressionEvaluator");
+    this.compiledExpression = Objects.requireNonNull(compiledExpression, "compiledExpression");
     this.indexes = Collections.unmodifiableList(Objects.requireNonNull(indexes, "indexes"));
     this.udfs = Collections.unmodifiableList(Objects.requireNonNull(udfs, "udfs"));
     this.expressionType = Objects.requireNonNull(expressionType, "expressionType");
     this.typeEnforcer = Objects.requireNonNull(typeEnforcer, "typeEnforcer");
     this.expression = Objects.requireNonNull(expression, "expression");
-    this.threadLocalParameters = ThreadLocal.withInitial(() -> new Object[indexes.size()]);
+    this.udfArray = udfs.toArray(new Kudf[0]);
   }
 
   public List<Integer> getIndexes() {
@@ -68,24 +67,6 @@ public class ExpressionMetadata {
   }
 
   public Object evaluate(final GenericRow row) {
-    try {
-      return expressionEvaluator.evaluate(getParameters(row));
-    } catch (InvocationTargetException e) {
-      throw new KsqlException(e.getCause().getMessage(), e.getCause());
-    }
-  }
-
-  private Object[] getParameters(final GenericRow row) {
-    final Object[] parameters = this.threadLocalParameters.get();
-    for (int idx = 0; idx < indexes.size(); idx++) {
-      final int paramIndex = indexes.get(idx);
-      if (paramIndex < 0) {
-        parameters[idx] = udfs.get(idx);
-      } else {
-        parameters[idx] = typeEnforcer
-            .enforceFieldType(paramIndex, row.getColumns().get(paramIndex));
-      }
-    }
-    return parameters;
+    return compiledExpression.evaluate(row.getColumns(), typeEnforcer, udfArray);
   }
 }
@@ -17,45 +17,55 @@ package io.confluent.ksql.util;
 
 import com.google.common.collect.ImmutableMap;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 
-import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 
+/**
+ * Coerces the values of a row's columns to the Java types of the columns' schemas.
+ *
+ * <p>The coercion for each column is chosen once, when the enforcer is created, so that
+ * enforcing a value's type is a single array access and call.
+ */
 public class GenericRowValueTypeEnforcer {
 
-  private final List<Field> fields;
-
-  private static final Map<Schema.Type, Function<Object, Object>> SCHEMA_TYPE_TO_ENFORCE =
-      ImmutableMap.<Schema.Type, Function<Object, Object>>builder()
-          .put(Schema.Type.INT32, v -> enforceInteger(v))
-          .put(Schema.Type.INT64, v -> enforceLong(v))
-          .put(Schema.Type.FLOAT64, v -> enforceDouble(v))
-          .put(Schema.Type.STRING, v -> enforceString(v))
-          .put(Schema.Type.BOOLEAN, v -> enforceBoolean(v))
+  private static final Map<Schema.Type, FieldEnforcer> SCHEMA_TYPE_TO_ENFORCE =
+      ImmutableMap.<Schema.Type, FieldEnforcer>builder()
+          .put(Schema.Type.INT32, GenericRowValueTypeEnforcer::enforceInteger)
+          .put(Schema.Type.INT64, GenericRowValueTypeEnforcer::enforceLong)
+          .put(Schema.Type.FLOAT64, GenericRowValueTypeEnforcer::enforceDouble)
+          .put(Schema.Type.STRING, GenericRowValueTypeEnforcer::enforceString)
+          .put(Schema.Type.BOOLEAN, GenericRowValueTypeEnforcer::enforceBoolean)
           .put(Schema.Type.ARRAY, v -> v)
           .put(Schema.Type.MAP, v -> v)
           .put(Schema.Type.STRUCT, v -> v)
           .build();
 
+  private final FieldEnforcer[] enforcers;
+
   public GenericRowValueTypeEnforcer(final Schema schema) {
-    this.fields = schema.fields();
+    this.enforcers = schema.fields().stream()
+        .map(field -> enforcerFor(field.schema()))
+        .toArray(FieldEnforcer[]::new);
   }
 
   public Object enforceFieldType(final int index, final Object value) {
-    final Field field = fields.get(index);
-    return enforceFieldType(field.schema(), value);
+    return enforcers[index].enforce(value);
   }
 
-  private Object enforceFieldType(final Schema schema, final Object value) {
-    final Function<Object, Object> handler = SCHEMA_TYPE_TO_ENFORCE.get(schema.type());
-    if (handler == null) {
-      throw new KsqlException("Type is not supported: " + schema);
+  private static FieldEnforcer enforcerFor(final Schema schema) {
+    final FieldEnforcer enforcer = SCHEMA_TYPE_TO_ENFORCE.get(schema.type());
+    if (enforcer == null) {
+      return v -> {
+        throw new KsqlException("Type is not supported: " + schema);
+      };
     }
+    return enforcer;
+  }
 
-    return handler.apply(value);
+  @FunctionalInterface
+  private interface FieldEnforcer {
+    Object enforce(Object value);
   }
 
   private static Double enforceDouble(final Object value) {
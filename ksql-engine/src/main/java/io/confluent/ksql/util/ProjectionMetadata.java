@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.RowTransformer;
+import io.confluent.ksql.function.udf.Kudf;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A projection whose expressions, and optionally the predicate of a preceding filter, have all
+ * been compiled into a single generated class.
+ */
+public class ProjectionMetadata {
+
+  private final RowTransformer rowTransformer;
+  private final List<Kudf> udfs;
+  private final GenericRowValueTypeEnforcer typeEnforcer;
+  private final int width;
+  private final Kudf[] udfArray;
+
+  public ProjectionMetadata(
+      final RowTransformer rowTransformer,
+      final List<Kudf> udfs,
+      final GenericRowValueTypeEnforcer typeEnforcer,
+      final int width) {
+    this.rowTransformer = Objects.requireNonNull(rowTransformer, "rowTransformer");
+    this.udfs = Collections.unmodifiableList(Objects.requireNonNull(udfs, "udfs"));
+    this.typeEnforcer = Objects.requireNonNull(typeEnforcer, "typeEnforcer");
+    this.width = width;
+    this.udfArray = udfs.toArray(new Kudf[0]);
+  }
+
+  public List<Kudf> getUdfs() {
+    return udfs;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Evaluate the projection, failing if any of its expressions fails.
+   *
+   * @param row the input row.
+   * @return the projected row, or {@code null} if the row does not match the predicate.
+   */
+  public GenericRow evaluate(final GenericRow row) {
+    return evaluate(row, ProjectionMetadata::rethrow);
+  }
+
+  /**
+   * Evaluate the projection, passing the failure of any of its expressions to the
+   * {@code errorHandler} and setting the expression's column in the projected row to
+   * {@code null}.
+   *
+   * @param row the input row.
+   * @param errorHandler receives the failure of each expression that could not be computed.
+   * @return the projected row, or {@code null} if the row does not match the predicate.
+   */
+  public GenericRow evaluate(
+      final GenericRow row,
+      final RowTransformer.ErrorHandler errorHandler
+  ) {
+    final List<Object> output = new ArrayList<>(width);
+    if (!rowTransformer.transform(
+        row.getColumns(), typeEnforcer, udfArray, output, errorHandler)) {
+      return null;
+    }
+    return new GenericRow(output);
+  }
+
+  private static void rethrow(final int expression, final Exception e) {
+    if (e instanceof RuntimeException) {
+      throw (RuntimeException) e;
+    }
+    throw new KsqlException("Error computing expression " + expression, e);
+  }
+}
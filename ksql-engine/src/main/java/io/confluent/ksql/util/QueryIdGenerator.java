@@ -33,6 +33,23 @@ public class QueryIdGenerator {
     return String.valueOf(queryIdCounter.getAndIncrement());
   }
 
+  /**
+   * @return the number the next ID will be generated from, without generating it.
+   */
+  public long peekNextId() {
+    return queryIdCounter.get();
+  }
+
+  /**
+   * Sets the number the next ID will be generated from, so that a replayed statement can be
+   * given the same query ID it had when first executed.
+   *
+   * @param nextId the number to generate the next ID from.
+   */
+  public void setNextId(final long nextId) {
+    queryIdCounter.set(nextId);
+  }
+
   public QueryIdGenerator copy() {
     return new QueryIdGenerator(queryIdCounter.get());
   }
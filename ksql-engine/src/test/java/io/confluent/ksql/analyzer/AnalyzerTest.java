@@ -17,6 +17,8 @@ package io.confluent.ksql.analyzer;
 
 import static io.confluent.ksql.testutils.AnalysisTestUtil.analyzeQuery;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 
@@ -378,6 +380,28 @@ public class AnalyzerTest {
     analyzer.analyze(query, Optional.of(createStreamAsSelect.getSink()));
   }
 
+  @Test
+  public void shouldRecordColumnsReferencedByQuery() {
+    // When:
+    final Analysis analysis = analyzeQuery(
+        "SELECT t1.col0, ucase(t2.col2) FROM test1 t1 JOIN test2 t2 ON t1.col1 = t2.col1 "
+            + "WHERE t1.col3 > 10;", jsonMetaStore);
+
+    // Then:
+    assertThat(analysis.getReferencedColumns().get(),
+        hasItems("COL0", "COL1", "COL2", "COL3"));
+    assertThat(analysis.getReferencedColumns().get(), not(hasItem("COL4")));
+  }
+
+  @Test
+  public void shouldNotRecordReferencedColumnsIfQuerySelectsAllColumns() {
+    // When:
+    final Analysis analysis = analyzeQuery("SELECT * FROM test1 WHERE col0 > 10;", jsonMetaStore);
+
+    // Then:
+    assertThat(analysis.getReferencedColumns(), is(Optional.empty()));
+  }
+
   private static List<Statement> parse(final String simpleQuery, final MetaStore metaStore) {
     return KsqlParserTestUtil.buildAst(simpleQuery, metaStore)
         .stream()
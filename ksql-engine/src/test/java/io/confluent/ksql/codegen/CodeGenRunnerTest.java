@@ -20,13 +20,16 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.both;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 
 import com.google.common.collect.ImmutableList;
@@ -53,6 +56,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.serialization.Serdes;
@@ -94,6 +98,7 @@ public class CodeGenRunnerTest {
 
     private MutableMetaStore metaStore;
     private CodeGenRunner codeGenRunner;
+    private Schema schema;
     private final MutableFunctionRegistry functionRegistry = new InternalFunctionRegistry();
     private final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
 
@@ -124,7 +129,7 @@ public class CodeGenRunnerTest {
         final Schema arraySchema = SchemaBuilder.array(Schema.STRING_SCHEMA).optional().build();
 
 
-        final Schema schema = SchemaBuilder.struct()
+        schema = SchemaBuilder.struct()
             .field("CODEGEN_TEST.COL0", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
             .field("CODEGEN_TEST.COL1", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
             .field("CODEGEN_TEST.COL2", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
@@ -207,6 +212,26 @@ public class CodeGenRunnerTest {
         assertThat(result0, is(false));
     }
 
+    @Test
+    public void shouldNotShareUdfInstancesWhenCompilingTheSameExpressionAgain() {
+        // Given:
+        final String simpleQuery = "SELECT UCASE(col1) FROM CODEGEN_TEST;";
+        final Analysis analysis = analyzeQuery(simpleQuery, metaStore);
+        final ExpressionMetadata first = codeGenRunner.buildCodeGenFromParseTree
+            (analysis.getSelectExpressions().get(0), "Select");
+
+        // When:
+        final ExpressionMetadata second = codeGenRunner.buildCodeGenFromParseTree
+            (analysis.getSelectExpressions().get(0), "Select");
+
+        // Then:
+        final int udfIndex = first.getUdfs().indexOf(
+            first.getUdfs().stream().filter(Objects::nonNull).findFirst().get());
+        assertThat(second.getUdfs().get(udfIndex),
+            not(sameInstance(first.getUdfs().get(udfIndex))));
+        assertThat(second.evaluate(genericRow(ONE_ROW)), is(first.evaluate(genericRow(ONE_ROW))));
+    }
+
     @Test
     public void shouldHandleMultiDimensionalArray() {
         // Given:
@@ -620,6 +645,206 @@ public class CodeGenRunnerTest {
         assertThat(columns, contains(" hello ", " HELLO ", "Hello", " Hello _test", "Hell"));
     }
 
+    @Test
+    public void shouldCompileWholeProjection() {
+        // Given:
+        final String query =
+            "SELECT LCASE(col1), UCASE(col1), CONCAT(col1,'_test'), SUBSTRING(col1, 2, 4),"
+            + " col0 + col5, col1 LIKE '%ell%', col3"
+            + " FROM codegen_test;";
+
+        final Map<Integer, Object> inputValues = ImmutableMap.of(
+            0, 10L, 1, " Hello ", 3, 1.5, 5, 2);
+
+        // When:
+        final List<Object> columns = executeProjection(query, inputValues);
+
+        // Then:
+        assertThat(columns, contains(
+            " hello ", " HELLO ", " Hello _test", "Hell", 12L, true, 1.5));
+    }
+
+    @Test
+    public void shouldEvaluateLikePatternsWithInnerWildcards() {
+        // Given:
+        final String query =
+            "SELECT col1 LIKE 'H_ll%', col1 LIKE '%e%o', col1 LIKE 'H%x%', col1 LIKE 'H____'"
+            + " FROM codegen_test;";
+
+        final Map<Integer, Object> inputValues = ImmutableMap.of(1, "Hello");
+
+        // When:
+        final List<Object> columns = executeProjection(query, inputValues);
+
+        // Then:
+        assertThat(columns, contains(true, true, false, true));
+    }
+
+    @Test
+    public void shouldCompileWholeProjectionEquivalentToSingleExpressions() {
+        // Given:
+        final String query =
+            "SELECT col11['key1'], col9[0], col14[0][0], col0 * 2, CAST(col5 AS VARCHAR)"
+            + " FROM codegen_test;";
+
+        final GenericRow input = genericRow(ONE_ROW);
+        final Analysis analysis = analyzeQuery(query, metaStore);
+
+        // When:
+        final List<Object> projected = codeGenRunner
+            .buildProjectionFromParseTrees(analysis.getSelectExpressions(), "Select")
+            .evaluate(input)
+            .getColumns();
+
+        // Then:
+        final List<Object> expected = analysis.getSelectExpressions().stream()
+            .map(exp -> codeGenRunner.buildCodeGenFromParseTree(exp, "Select"))
+            .map(md -> md.evaluate(input))
+            .collect(Collectors.toList());
+        assertThat(projected, equalTo(expected));
+    }
+
+    @Test
+    public void shouldNullAndReportOnlyTheFailingExpressionsOfProjection() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col0, CEIL(col3), col0 + 1 FROM codegen_test;", metaStore);
+        final List<Integer> failed = new ArrayList<>();
+
+        // When:
+        final GenericRow result = codeGenRunner
+            .buildProjectionFromParseTrees(analysis.getSelectExpressions(), "Select")
+            .evaluate(buildRow(ImmutableMap.of(0, 10L)), (expression, e) -> failed.add(expression));
+
+        // Then:
+        assertThat(result.getColumns(), contains(10L, null, 11L));
+        assertThat(failed, contains(1));
+    }
+
+    @Test
+    public void shouldReportEachExpressionReferencingFailedSubExpression() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT CEIL(col3), CEIL(col3) + 1, col0 FROM codegen_test;", metaStore);
+        final List<Integer> failed = new ArrayList<>();
+
+        // When:
+        final GenericRow result = codeGenRunner
+            .buildProjectionFromParseTrees(analysis.getSelectExpressions(), "Select")
+            .evaluate(buildRow(ImmutableMap.of(0, 10L)), (expression, e) -> failed.add(expression));
+
+        // Then:
+        assertThat(result.getColumns(), contains(null, null, 10L));
+        assertThat(failed, contains(0, 1));
+    }
+
+    @Test
+    public void shouldCompileFilteredProjection() {
+        // Given:
+        final String query =
+            "SELECT UCASE(col1), CONCAT(UCASE(col1), '_x'), col0"
+            + " FROM codegen_test WHERE UCASE(col1) = ' HELLO ';";
+
+        // When:
+        final GenericRow matching =
+            executeFilteredProjection(query, ImmutableMap.of(0, 10L, 1, " Hello "));
+        final GenericRow notMatching =
+            executeFilteredProjection(query, ImmutableMap.of(0, 10L, 1, "Bye"));
+
+        // Then:
+        assertThat(matching.getColumns(), contains(" HELLO ", " HELLO _x", 10L));
+        assertThat(notMatching, is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotEvaluateSharedSubExpressionsThePredicateShortCircuits() {
+        // Given:
+        final String query =
+            "SELECT UCASE(col1) FROM codegen_test"
+            + " WHERE col1 IS NOT NULL AND UCASE(col1) = ' HELLO ';";
+
+        // When:
+        final GenericRow result =
+            executeFilteredProjection(query, ImmutableMap.of(0, 10L));
+
+        // Then:
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void shouldDropRowIfPredicateOfFilteredProjectionIsNull() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col0 FROM codegen_test WHERE col6;", metaStore);
+        final List<Integer> failed = new ArrayList<>();
+
+        // When:
+        final GenericRow result = codeGenRunner
+            .buildFilteredProjectionFromParseTrees(
+                analysis.getWhereExpression(), analysis.getSelectExpressions(), "Select")
+            .evaluate(buildRow(ImmutableMap.of(0, 10L)), (expression, e) -> failed.add(expression));
+
+        // Then:
+        assertThat(result, is(nullValue()));
+        assertThat(failed, is(empty()));
+    }
+
+    @Test
+    public void shouldDropRowAndReportIfPredicateOfFilteredProjectionFails() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col0, CEIL(col3) FROM codegen_test WHERE CEIL(col3) > 1;", metaStore);
+        final List<Integer> failed = new ArrayList<>();
+
+        // When:
+        final GenericRow result = codeGenRunner
+            .buildFilteredProjectionFromParseTrees(
+                analysis.getWhereExpression(), analysis.getSelectExpressions(), "Select")
+            .evaluate(buildRow(ImmutableMap.of(0, 10L)), (expression, e) -> failed.add(expression));
+
+        // Then:
+        assertThat(result, is(nullValue()));
+        assertThat(failed, contains(RowTransformer.ErrorHandler.PREDICATE));
+    }
+
+    @Test
+    public void shouldEnforceTypesEnforcedBySerdeIfNotTrusted() {
+        // Given:
+        final Expression expression = analyzeQuery(
+            "SELECT col0 + 1 FROM codegen_test;", metaStore)
+            .getSelectExpressions()
+            .get(0);
+        final CodeGenRunner runner = new CodeGenRunner(schema, ksqlConfig, functionRegistry, true);
+
+        // When:
+        final Object result = runner
+            .buildCodeGenFromParseTree(expression, "Select")
+            .evaluate(buildRow(ImmutableMap.of(0, 1)));
+
+        // Then:
+        assertThat(result, is(2L));
+    }
+
+    @Test
+    public void shouldNotEnforceTypesEnforcedBySerdeIfTrusted() {
+        // Given:
+        final Expression expression = analyzeQuery(
+            "SELECT col0 + 1 FROM codegen_test;", metaStore)
+            .getSelectExpressions()
+            .get(0);
+        final KsqlConfig trustingConfig = new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_CODEGEN_TRUST_SERDE_TYPES_ENABLED, true));
+        final ExpressionMetadata expressionMetadata =
+            new CodeGenRunner(schema, trustingConfig, functionRegistry, true)
+                .buildCodeGenFromParseTree(expression, "Select");
+
+        // Then:
+        expectedException.expect(ClassCastException.class);
+
+        // When:
+        expressionMetadata.evaluate(buildRow(ImmutableMap.of(0, 1)));
+    }
+
     @Test
     public void shouldHandleNestedUdfs() {
         final String query =
@@ -810,6 +1035,30 @@ public class CodeGenRunnerTest {
             .collect(Collectors.toList());
     }
 
+    private List<Object> executeProjection(final String query,
+                                           final Map<Integer, Object> inputValues) {
+        final Analysis analysis = analyzeQuery(query, metaStore);
+
+        final GenericRow input = buildRow(inputValues);
+
+        return codeGenRunner
+            .buildProjectionFromParseTrees(analysis.getSelectExpressions(), "Select")
+            .evaluate(input)
+            .getColumns();
+    }
+
+    private GenericRow executeFilteredProjection(final String query,
+                                                 final Map<Integer, Object> inputValues) {
+        final Analysis analysis = analyzeQuery(query, metaStore);
+
+        final GenericRow input = buildRow(inputValues);
+
+        return codeGenRunner
+            .buildFilteredProjectionFromParseTrees(
+                analysis.getWhereExpression(), analysis.getSelectExpressions(), "Select")
+            .evaluate(input);
+    }
+
     private boolean evalBooleanExprEq(final int cola, final int colb, final Object[] values) {
         return evalBooleanExpr("SELECT col%d = col%d FROM CODEGEN_TEST;", cola, colb, values);
     }
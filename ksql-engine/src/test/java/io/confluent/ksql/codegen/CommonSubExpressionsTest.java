@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.parser.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.FunctionCall;
+import io.confluent.ksql.parser.tree.IsNotNullPredicate;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Test;
+
+public class CommonSubExpressionsTest {
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("COL0", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("COL1", Schema.OPTIONAL_STRING_SCHEMA)
+      .build();
+
+  private static final Expression COL0 = column("COL0");
+  private static final Expression COL1 = column("COL1");
+  private static final Expression UCASE_COL1 = function("UCASE", COL1);
+  private static final Expression PREDICATE = new ComparisonExpression(
+      ComparisonExpression.Type.EQUAL, UCASE_COL1, new StringLiteral("A"));
+
+  @Test
+  public void shouldReplaceSubExpressionsSharedAcrossExpressions() {
+    // Given:
+    final Expression concat = function("CONCAT", UCASE_COL1, new StringLiteral("_x"));
+    final CommonSubExpressions cse =
+        new CommonSubExpressions(SCHEMA, ImmutableList.of(PREDICATE, concat));
+
+    // When:
+    final Expression predicate = cse.replace(PREDICATE);
+    final Expression projection = cse.replace(concat);
+
+    // Then:
+    final Expression shared = column("KSQL_INTERNAL_CSE_0");
+    assertThat(predicate, is(new ComparisonExpression(
+        ComparisonExpression.Type.EQUAL, shared, new StringLiteral("A"))));
+    assertThat(projection, is(function("CONCAT", shared, new StringLiteral("_x"))));
+    assertThat(cse.getNames().keySet(), contains(UCASE_COL1));
+  }
+
+  @Test
+  public void shouldOnlyReplaceOutermostSharedSubExpression() {
+    // Given:
+    final Expression nested = function("LEN", UCASE_COL1);
+    final CommonSubExpressions cse =
+        new CommonSubExpressions(SCHEMA, ImmutableList.of(nested, nested));
+
+    // When:
+    cse.replace(nested);
+
+    // Then:
+    assertThat(cse.getNames().keySet(), contains(nested));
+  }
+
+  @Test
+  public void shouldNotReplaceSubExpressionsThatAreNotShared() {
+    // Given:
+    final Expression sum = new ArithmeticBinaryExpression(
+        ArithmeticBinaryExpression.Type.ADD, COL0, COL0);
+    final CommonSubExpressions cse =
+        new CommonSubExpressions(SCHEMA, ImmutableList.of(PREDICATE, sum));
+
+    // When:
+    final Expression result = cse.replace(sum);
+
+    // Then:
+    assertThat(result, is(sum));
+    assertThat(cse.getNames().isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotReplaceSubExpressionsInRightOperandOfLogicalExpression() {
+    // Given:
+    final Expression predicate = LogicalBinaryExpression.and(
+        new IsNotNullPredicate(COL1), PREDICATE);
+    final CommonSubExpressions cse =
+        new CommonSubExpressions(SCHEMA, ImmutableList.of(predicate, UCASE_COL1));
+
+    // When:
+    final Expression result = cse.replace(predicate);
+
+    // Then:
+    assertThat(result, is(predicate));
+    assertThat(cse.getNames().isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldReplaceSubExpressionsInLeftOperandOfLogicalExpression() {
+    // Given:
+    final Expression predicate = LogicalBinaryExpression.or(
+        PREDICATE, new IsNotNullPredicate(COL1));
+    final CommonSubExpressions cse =
+        new CommonSubExpressions(SCHEMA, ImmutableList.of(predicate, UCASE_COL1));
+
+    // When:
+    final Expression result = cse.replace(predicate);
+
+    // Then:
+    assertThat(result, is(LogicalBinaryExpression.or(
+        new ComparisonExpression(
+            ComparisonExpression.Type.EQUAL,
+            column("KSQL_INTERNAL_CSE_0"),
+            new StringLiteral("A")),
+        new IsNotNullPredicate(COL1))));
+    assertThat(cse.getNames().keySet(), contains(UCASE_COL1));
+  }
+
+  @Test
+  public void shouldNotReplaceFunctionsWithoutArguments() {
+    // Given:
+    final Expression random = function("RANDOM");
+    final Expression scaled = new ArithmeticBinaryExpression(
+        ArithmeticBinaryExpression.Type.MULTIPLY, random, COL0);
+    final CommonSubExpressions cse =
+        new CommonSubExpressions(SCHEMA, ImmutableList.of(scaled, scaled));
+
+    // When:
+    final Expression result = cse.replace(scaled);
+
+    // Then:
+    assertThat(result, is(scaled));
+    assertThat(cse.getNames().isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotClashWithExistingColumnNames() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("COL1", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("KSQL_INTERNAL_CSE_0", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+    final CommonSubExpressions cse =
+        new CommonSubExpressions(schema, ImmutableList.of(UCASE_COL1, UCASE_COL1));
+
+    // When:
+    final Expression result = cse.replace(UCASE_COL1);
+
+    // Then:
+    assertThat(result, is(column("_KSQL_INTERNAL_CSE_0")));
+  }
+
+  private static Expression column(final String name) {
+    return new QualifiedNameReference(QualifiedName.of(name));
+  }
+
+  private static Expression function(final String name, final Expression... args) {
+    return new FunctionCall(QualifiedName.of(name), ImmutableList.copyOf(args));
+  }
+}
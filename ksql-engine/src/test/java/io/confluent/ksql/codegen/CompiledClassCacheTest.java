@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.codehaus.commons.compiler.CompileException;
+import org.junit.Test;
+
+public class CompiledClassCacheTest {
+
+  private final CompiledClassCache cache = new CompiledClassCache(10);
+  private final AtomicInteger compilations = new AtomicInteger();
+
+  @Test
+  public void shouldOnlyCompileTheSameCodeOnce() throws Exception {
+    // When:
+    final Class<?> first = cache.get(Runnable.class, "body", this::compile);
+    final Class<?> second = cache.get(Runnable.class, "body", this::compile);
+
+    // Then:
+    assertThat(second, sameInstance(first));
+    assertThat(compilations.get(), is(1));
+    assertThat(cache.stats().hitCount(), is(1L));
+    assertThat(cache.stats().missCount(), is(1L));
+  }
+
+  @Test
+  public void shouldCompileDifferentCodeOrInterfacesSeparately() throws Exception {
+    // When:
+    cache.get(Runnable.class, "body", this::compile);
+    cache.get(Runnable.class, "other body", this::compile);
+    cache.get(AutoCloseable.class, "body", this::compile);
+
+    // Then:
+    assertThat(compilations.get(), is(3));
+  }
+
+  @Test
+  public void shouldThrowCompileExceptionsWithoutCachingThem() throws Exception {
+    // Given:
+    try {
+      cache.get(Runnable.class, "body", (body, type) -> {
+        throw new CompileException("boom", null);
+      });
+      fail("Expected CompileException");
+    } catch (final CompileException e) {
+      assertThat(e.getMessage(), containsString("boom"));
+    }
+
+    // When:
+    cache.get(Runnable.class, "body", this::compile);
+
+    // Then:
+    assertThat(compilations.get(), is(1));
+  }
+
+  private Class<?> compile(final String classBody, final Class<?> implementedInterface) {
+    compilations.incrementAndGet();
+    return implementedInterface;
+  }
+}
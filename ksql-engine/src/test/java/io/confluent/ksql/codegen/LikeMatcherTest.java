@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.codegen.LikeMatcher.Kind;
+import io.confluent.ksql.parser.tree.LikePredicate;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.util.KsqlException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class LikeMatcherTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldCompileSimplePatternsToTheirKinds() {
+    assertThat(LikeMatcher.compile("foo").getKind(), is(Kind.EXACT));
+    assertThat(LikeMatcher.compile("foo%").getKind(), is(Kind.PREFIX));
+    assertThat(LikeMatcher.compile("%foo").getKind(), is(Kind.SUFFIX));
+    assertThat(LikeMatcher.compile("%foo%").getKind(), is(Kind.CONTAINS));
+    assertThat(LikeMatcher.compile("%%foo%%").getLiteral(), is("foo"));
+    assertThat(LikeMatcher.compile("%").getKind(), is(Kind.CONTAINS));
+    assertThat(LikeMatcher.compile("%").getLiteral(), is(""));
+  }
+
+  @Test
+  public void shouldCompileOtherPatternsToPatterns() {
+    assertThat(LikeMatcher.compile("f_o").getKind(), is(Kind.PATTERN));
+    assertThat(LikeMatcher.compile("foo%bar").getKind(), is(Kind.PATTERN));
+    assertThat(LikeMatcher.compile("%foo%bar%").getKind(), is(Kind.PATTERN));
+  }
+
+  @Test
+  public void shouldMatchSingleCharWildcards() {
+    // Given:
+    final LikeMatcher matcher = LikeMatcher.compile("f_o_");
+
+    // Then:
+    assertThat(matcher.matches("fooo"), is(true));
+    assertThat(matcher.matches("f.o!"), is(true));
+    assertThat(matcher.matches("foo"), is(false));
+    assertThat(matcher.matches("foooo"), is(false));
+    assertThat(matcher.matches("xooo"), is(false));
+  }
+
+  @Test
+  public void shouldMatchOnlyUnderscoreWithLegacyUnderscore() {
+    // Given:
+    final LikeMatcher matcher = LikeMatcher.compile("user_id%", false);
+
+    // Then:
+    assertThat(matcher.getKind(), is(Kind.PREFIX));
+    assertThat(matcher.matches("user_id=1"), is(true));
+    assertThat(matcher.matches("userXid=1"), is(false));
+  }
+
+  @Test
+  public void shouldMatchOnlyUnderscoreInPatternsWithLegacyUnderscore() {
+    // Given:
+    final LikeMatcher matcher = LikeMatcher.compile("f_o%b_r", false);
+
+    // Then:
+    assertThat(matcher.matches("f_o b_r"), is(true));
+    assertThat(matcher.matches("fxo b_r"), is(false));
+    assertThat(matcher.matches("f_o bar"), is(false));
+  }
+
+  @Test
+  public void shouldMatchAnchoredSegments() {
+    // Given:
+    final LikeMatcher matcher = LikeMatcher.compile("ERROR%timeout%ms");
+
+    // Then:
+    assertThat(matcher.matches("ERROR: timeout after 30ms"), is(true));
+    assertThat(matcher.matches("ERROR timeoutms"), is(true));
+    assertThat(matcher.matches("WARN: timeout after 30ms"), is(false));
+    assertThat(matcher.matches("ERROR: timeout after 30s"), is(false));
+    assertThat(matcher.matches("ERRORms"), is(false));
+  }
+
+  @Test
+  public void shouldNotLetAnchoredSegmentsOverlap() {
+    // Given:
+    final LikeMatcher matcher = LikeMatcher.compile("ab%ba");
+
+    // Then:
+    assertThat(matcher.matches("aba"), is(false));
+    assertThat(matcher.matches("abba"), is(true));
+  }
+
+  @Test
+  public void shouldMatchUnanchoredSegmentsInOrder() {
+    // Given:
+    final LikeMatcher matcher = LikeMatcher.compile("%GET%/api/_/%200%");
+
+    // Then:
+    assertThat(matcher.matches("10.0.0.1 GET /api/v/users 200 12ms"), is(true));
+    assertThat(matcher.matches("10.0.0.1 GET /api/v1/users 200 12ms"), is(false));
+    assertThat(matcher.matches("10.0.0.1 200 /api/v/users GET"), is(false));
+  }
+
+  @Test
+  public void shouldMatchSegmentsAfterEarlierPartialOccurrences() {
+    // Given:
+    final LikeMatcher matcher = LikeMatcher.compile("%a_c%");
+
+    // Then:
+    assertThat(matcher.matches("aab_abc"), is(true));
+    assertThat(matcher.matches("aab_ab"), is(false));
+  }
+
+  @Test
+  public void shouldEvaluateAsKudf() {
+    assertThat(LikeMatcher.compile("a%c").evaluate("abc"), is(true));
+  }
+
+  @Test
+  public void shouldThrowOnPatternsThatAreNotLiterals() {
+    // Given:
+    final LikePredicate predicate = new LikePredicate(
+        new QualifiedNameReference(QualifiedName.of("COL0")),
+        new QualifiedNameReference(QualifiedName.of("COL1")));
+
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("KSQL only supports string literals as LIKE patterns");
+
+    // When:
+    LikeMatcher.compile(predicate, true);
+  }
+}
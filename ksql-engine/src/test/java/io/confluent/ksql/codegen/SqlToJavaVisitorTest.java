@@ -20,10 +20,12 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.analyzer.Analysis;
 import io.confluent.ksql.function.TestFunctionRegistry;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.MetaStoreFixture;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
@@ -38,6 +40,7 @@ public class SqlToJavaVisitorTest {
   public final ExpectedException expectedException = ExpectedException.none();
 
   private MetaStore metaStore;
+  private Schema schema;
   private SqlToJavaVisitor sqlToJavaVisitor;
 
   @Before
@@ -52,7 +55,7 @@ public class SqlToJavaVisitorTest {
         .field("ZIPCODE", Schema.OPTIONAL_INT64_SCHEMA)
         .optional().build();
 
-    final Schema schema = SchemaBuilder.struct()
+    schema = SchemaBuilder.struct()
         .field("TEST1.COL0", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
         .field("TEST1.COL1", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
         .field("TEST1.COL2", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
@@ -206,6 +209,35 @@ public class SqlToJavaVisitorTest {
     assertThat(javaExpression, equalTo("(TEST1_COL1).equals(\"foo\")"));
   }
 
+  @Test
+  public void shouldGenerateCorrectCodeForLikePatternWithInnerWildcards() {
+    final Analysis analysis = analyzeQuery(
+        "SELECT * FROM test1 WHERE col1 LIKE 'f_o%bar' AND col2 LIKE '%a%b%';", metaStore);
+
+    final String javaExpression = sqlToJavaVisitor
+        .process(analysis.getWhereExpression());
+    assertThat(javaExpression, equalTo(
+        "(((LikeMatcher) LIKE_0).matches(TEST1_COL1)"
+            + "  &&  ((LikeMatcher) LIKE_1).matches(TEST1_COL2))"));
+  }
+
+  @Test
+  public void shouldGenerateCorrectCodeForLikePatternWithLegacyUnderscore() {
+    // Given:
+    final Analysis analysis = analyzeQuery(
+        "SELECT * FROM test1 WHERE col1 LIKE 'user_id%';", metaStore);
+    final KsqlConfig legacyConfig = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_LIKE_UNDERSCORE_LEGACY_CONFIG, true));
+
+    // When:
+    final String javaExpression =
+        new SqlToJavaVisitor(schema, TestFunctionRegistry.INSTANCE.get(), legacyConfig)
+            .process(analysis.getWhereExpression());
+
+    // Then:
+    assertThat(javaExpression, equalTo("(TEST1_COL1).startsWith(\"user_id\")"));
+  }
+
   @Test
   public void shouldGenerateCorrectCodeForCaseStatement() {
     // Given:
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.udaf.KudafAggregator;
+import io.confluent.ksql.function.udaf.KudafInitializer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KudafAggregatorTest {
+
+  private KudafAggregator aggregator;
+
+  @Before
+  public void setUp() {
+    final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+    final Map<Integer, Integer> aggValToValColumnMap = ImmutableMap.of(0, 1, 1, 0);
+    final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap = ImmutableMap.of(
+        2, sum(functionRegistry, 2),
+        3, sum(functionRegistry, 3));
+
+    aggregator = new KudafAggregator(aggValToAggFunctionMap, aggValToValColumnMap);
+  }
+
+  @Test
+  public void shouldApplyAggregateFunctions() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList("snow", "jon", 3, 4));
+    final GenericRow aggRow = new GenericRow(Arrays.asList(null, null, 5, 6));
+
+    // When:
+    final GenericRow resultRow = aggregator.apply("key", row, aggRow);
+
+    // Then:
+    assertThat(resultRow, equalTo(new GenericRow(Arrays.asList("jon", "snow", 8, 10))));
+  }
+
+  @Test
+  public void shouldInitializeNonAggregateColumnsToNull() {
+    // Given:
+    final KudafInitializer initializer = new KudafInitializer(2);
+    initializer.addAggregateIntializer(() -> 0);
+    initializer.addAggregateIntializer(() -> 1);
+
+    // When:
+    final GenericRow initialRow = initializer.apply();
+
+    // Then:
+    assertThat(initialRow, equalTo(new GenericRow(Arrays.asList(null, null, 0, 1))));
+  }
+
+  @Test
+  public void shouldMergeAggregateRows() {
+    // Given:
+    final GenericRow aggRowOne = new GenericRow(Arrays.asList(null, "snow", 3, 4));
+    final GenericRow aggRowTwo = new GenericRow(Arrays.asList("jon", "stark", 5, 6));
+
+    // When:
+    final GenericRow merged = aggregator.getMerger().apply("key", aggRowOne, aggRowTwo);
+
+    // Then:
+    assertThat(merged, equalTo(new GenericRow(Arrays.asList("snow", "jon", 8, 10))));
+  }
+
+  @Test
+  public void shouldApplyAggregateFunctionsToRowsOfAnyKey() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList("snow", "jon", 3, 4));
+    final GenericRow aggRow = new GenericRow(Arrays.asList(null, null, 5, 6));
+
+    // When:
+    final GenericRow resultRow = aggregator.asAggregator().apply(10L, row, aggRow);
+
+    // Then:
+    assertThat(resultRow, equalTo(new GenericRow(Arrays.asList("jon", "snow", 8, 10))));
+  }
+
+  @Test
+  public void shouldMergeAggregateRowsOfAnyKey() {
+    // Given:
+    final GenericRow aggRowOne = new GenericRow(Arrays.asList(null, "snow", 3, 4));
+    final GenericRow aggRowTwo = new GenericRow(Arrays.asList("jon", "stark", 5, 6));
+
+    // When:
+    final GenericRow merged = aggregator.asMerger().apply(10L, aggRowOne, aggRowTwo);
+
+    // Then:
+    assertThat(merged, equalTo(new GenericRow(Arrays.asList("snow", "jon", 8, 10))));
+  }
+
+  private static KsqlAggregateFunction sum(
+      final FunctionRegistry functionRegistry,
+      final int argIndex) {
+    return functionRegistry.getAggregate("SUM", Schema.OPTIONAL_INT32_SCHEMA)
+        .getInstance(new AggregateFunctionArguments(
+            argIndex, Collections.singletonList("col" + argIndex)));
+  }
+}
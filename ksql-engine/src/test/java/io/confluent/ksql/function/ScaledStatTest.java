@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.stats.Count;
+import org.junit.Test;
+
+public class ScaledStatTest {
+
+  private final MetricConfig config = new MetricConfig();
+
+  @Test
+  public void shouldScaleMeasurementOfStat() {
+    // Given:
+    final ScaledStat stat = new ScaledStat(new Count(), 10);
+
+    // When:
+    stat.record(config, 1.0, 0L);
+    stat.record(config, 1.0, 0L);
+
+    // Then:
+    assertThat(stat.measure(config, 0L), is(20.0));
+  }
+}
@@ -118,6 +118,40 @@ public class UdfCompilerTest {
     assertThat(udf.eval(this, 1, 2, 3), equalTo(6.0));
   }
 
+  @Test
+  public void shouldCompileBatchFunctionWithMultipleArguments() throws NoSuchMethodException {
+    // Given:
+    final BatchUdfInvoker udf = udfCompiler.compileBatch(
+        getClass().getMethod("multi", int.class, long.class, double.class),
+        classLoader);
+    final Object[] results = new Object[3];
+
+    // When:
+    udf.evalBatch(this, 2, new Object[][]{{1, 10}, {2L, 20L}, {3.0, "30"}}, results);
+
+    // Then:
+    assertThat(results[0], equalTo(6.0));
+    assertThat(results[1], equalTo(60.0));
+    assertThat(results[2], nullValue());
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowIfUnsupportedArgumentTypeForBatch() throws NoSuchMethodException {
+    udfCompiler.compileBatch(
+        getClass().getMethod("udf", Set.class),
+        classLoader);
+  }
+
+  @Test
+  public void shouldThrowKsqlFunctionExceptionIfNullInBatchWhenExpectingPrimitiveType()
+      throws NoSuchMethodException {
+    expectedException.expect(KsqlFunctionException.class);
+    expectedException.expectMessage("Can't coerce argument at index 0 from null to a primitive type");
+    final BatchUdfInvoker udf =
+        udfCompiler.compileBatch(getClass().getMethod("udfPrimitive", double.class), classLoader);
+    udf.evalBatch(this, 2, new Object[][]{{1.0, null}}, new Object[2]);
+  }
+
   @Test
   public void shouldCompileUdafWithMethodWithNoArgs() throws NoSuchMethodException {
     final KsqlAggregateFunction function
@@ -246,6 +246,38 @@ public class UdfLoaderTest {
         not(nullValue()));
     assertThat(metrics.metric(metrics.metricName("ksql-udf-substring-rate", "ksql-udf")),
         not(nullValue()));
+    assertThat(metrics.metric(metrics.metricName("ksql-udf-substring-p50", "ksql-udf")),
+        not(nullValue()));
+    assertThat(metrics.metric(metrics.metricName("ksql-udf-substring-p99", "ksql-udf")),
+        not(nullValue()));
+  }
+
+  @Test
+  public void shouldScaleInvocationCountWhenSamplingMetrics() {
+    // Given:
+    final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+    new UdfLoader(functionRegistry,
+        new File("src/test/resources"),
+        parentClassLoader,
+        value -> false,
+        compiler,
+        Optional.of(metrics),
+        false,
+        4).load();
+    final Kudf kudf = functionRegistry.getUdfFactory("substring")
+        .getFunction(Arrays.asList(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA))
+        .newInstance(ksqlConfig);
+
+    // When:
+    for (int i = 0; i < 4000; i++) {
+      kudf.evaluate("some string", 2);
+    }
+
+    // Then:
+    final double count = (Double) metrics.metric(
+        metrics.metricName("ksql-udf-substring-count", "ksql-udf")).metricValue();
+    assertThat(count % 4, is(0.0));
+    assertThat("count: " + count, count > 3000 && count < 5000, is(true));
   }
 
   @Test
@@ -16,14 +16,18 @@
 package io.confluent.ksql.function;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import io.confluent.ksql.function.udf.BatchKudf;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.KafkaMetric;
 import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.Count;
+import org.apache.kafka.common.metrics.stats.Total;
 import org.apache.kafka.common.utils.MockTime;
 import org.apache.kafka.common.utils.Time;
 import org.junit.Before;
@@ -34,17 +38,22 @@ public class UdfMetricProducerTest {
   private final Time time = new MockTime();
   private final Metrics metrics = new Metrics(time);
   private final Sensor sensor = metrics.sensor("my-udf");
+  private final Sensor invocationSensor = metrics.sensor("my-udf-invocations");
   private final MetricName metricName = metrics.metricName("avg", "blah");
+  private final MetricName samplesMetricName = metrics.metricName("samples", "blah");
+  private final MetricName countMetricName = metrics.metricName("count", "blah");
 
   @Before
   public void before() {
     sensor.add(metricName, new Avg());
+    sensor.add(samplesMetricName, new Count());
+    invocationSensor.add(countMetricName, new Total());
   }
 
   @Test
   public void shouldRecordMetrics() {
     final UdfMetricProducer metricProducer
-        = new UdfMetricProducer(sensor, args -> {
+        = new UdfMetricProducer(sensor, invocationSensor, args -> {
       time.sleep(100);
       return null;
     }, time);
@@ -54,12 +63,13 @@ public class UdfMetricProducerTest {
     final KafkaMetric metric = metrics.metric(metricName);
     final Double actual = (Double) metric.metricValue();
     assertThat(actual.longValue(), equalTo(TimeUnit.MILLISECONDS.toNanos(100)));
+    assertThat(metrics.metric(countMetricName).metricValue(), equalTo(1.0));
   }
 
   @Test
   public void shouldRecordEvenIfExceptionThrown(){
     final UdfMetricProducer metricProducer
-        = new UdfMetricProducer(sensor, args -> {
+        = new UdfMetricProducer(sensor, invocationSensor, args -> {
           time.sleep(10);
      throw new RuntimeException("boom");
     }, time);
@@ -74,4 +84,74 @@ public class UdfMetricProducerTest {
     final Double actual = (Double) metric.metricValue();
     assertThat(actual.longValue(), equalTo(TimeUnit.MILLISECONDS.toNanos(10)));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldRecordAverageTimePerRowOfBatchOnceAndCountEachRow() {
+    // Given:
+    final UdfMetricProducer metricProducer
+        = new UdfMetricProducer(sensor, invocationSensor, new BatchKudf() {
+      @Override
+      public void evaluateBatch(final int batchSize, final Object[][] args,
+          final Object[] results) {
+        time.sleep(100 * batchSize);
+      }
+
+      @Override
+      public Object evaluate(final Object... args) {
+        throw new AssertionError("should evaluate batch");
+      }
+    }, time);
+
+    // When:
+    metricProducer.evaluateBatch(4, new Object[][]{new Object[4]}, new Object[4]);
+
+    // Then:
+    final Double actual = (Double) metrics.metric(metricName).metricValue();
+    assertThat(actual.longValue(), equalTo(TimeUnit.MILLISECONDS.toNanos(100)));
+    assertThat(metrics.metric(samplesMetricName).metricValue(), equalTo(1.0));
+    assertThat(metrics.metric(countMetricName).metricValue(), equalTo(4.0));
+  }
+
+  @Test
+  public void shouldEvaluateBatchOfNonBatchKudfRowByRow() {
+    // Given:
+    final UdfMetricProducer metricProducer
+        = new UdfMetricProducer(
+            sensor, invocationSensor, args -> (Integer) args[0] + (Integer) args[1], time);
+    final Object[] results = new Object[2];
+
+    // When:
+    metricProducer.evaluateBatch(2, new Object[][]{{1, 2}, {10, 20}}, results);
+
+    // Then:
+    assertThat(results, equalTo(new Object[]{11, 22}));
+    assertThat(metrics.metric(countMetricName).metricValue(), equalTo(2.0));
+  }
+
+  @Test
+  public void shouldOnlyRecordSampleOfCallsWhenSampling() {
+    // Given:
+    final UdfMetricProducer metricProducer
+        = new UdfMetricProducer(sensor, invocationSensor, args -> null, time, 10);
+
+    // When:
+    for (int i = 0; i < 10000; i++) {
+      metricProducer.evaluate("foo");
+    }
+
+    // Then:
+    final double count = (Double) metrics.metric(countMetricName).metricValue();
+    assertThat("count: " + count, count > 500 && count < 1500, is(true));
+  }
+
+  @Test
+  public void shouldStillEvaluateCallsThatAreNotSampled() {
+    // Given:
+    final UdfMetricProducer metricProducer
+        = new UdfMetricProducer(
+            sensor, invocationSensor, args -> args[0], time, Integer.MAX_VALUE);
+
+    // Then:
+    assertThat(metricProducer.evaluate("foo"), equalTo("foo"));
+  }
+}
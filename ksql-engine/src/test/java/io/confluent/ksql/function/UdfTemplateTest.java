@@ -96,6 +96,13 @@ public class UdfTemplateTest {
     assertThat(UdfTemplate.coerce(args, String.class, 2), equalTo(""));
   }
 
+  @Test
+  public void testCoerceSingleArgument() {
+    assertThat(UdfTemplate.coerceArg(1L, int.class, 0), equalTo(1));
+    assertThat(UdfTemplate.coerceArg("1.2", Double.class, 0), equalTo(1.2));
+    assertThat(UdfTemplate.coerceArg(null, String.class, 0), nullValue());
+  }
+
   @Test
   public void testInvalidStringCoercion() {
     // Given:
@@ -22,7 +22,10 @@ import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Schema;
 import org.junit.Before;
 import org.junit.Test;
@@ -91,4 +94,24 @@ public class LongTopkKudafTest {
     assertThat("Invalid results.", topkKudaf.getMerger().apply("key", array1, array2),
         equalTo(ImmutableList.of(60L, 50L)));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldAggregateSameTopKAsSortingAllValues() {
+    // Given:
+    final KsqlAggregateFunction<Long, List<Long>> topkKudaf =
+        new TopKAggregateFunctionFactory(100).getProperAggregateFunction(argumentType);
+    final List<Long> values = new Random(42).longs(10_000, 0, 1_000)
+        .boxed()
+        .collect(Collectors.toList());
+
+    // When:
+    List<Long> aggregate = new ArrayList<>();
+    for (final Long value : values) {
+      aggregate = topkKudaf.aggregate(value, aggregate);
+    }
+
+    // Then:
+    values.sort(Comparator.reverseOrder());
+    assertThat(aggregate, equalTo(values.subList(0, 100)));
+  }
+}
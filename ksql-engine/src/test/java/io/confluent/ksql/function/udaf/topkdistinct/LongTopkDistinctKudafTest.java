@@ -20,7 +20,10 @@ import static org.junit.Assert.assertThat;
 
 import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Schema;
 import org.junit.Test;
 
@@ -84,4 +87,28 @@ public class LongTopkDistinctKudafTest {
     assertThat("Invalid results.", longTopkDistinctKudaf.getMerger().apply("key", array1, array2), equalTo(
         ImmutableList.of(60L)));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldAggregateSameTopKAsSortingAllDistinctValues() {
+    // Given:
+    final TopkDistinctKudaf<Long> topkDistinctKudaf =
+        TopKDistinctTestUtils.getTopKDistinctKudaf(100, Schema.OPTIONAL_INT64_SCHEMA);
+    final List<Long> values = new Random(42).longs(10_000, 0, 1_000)
+        .boxed()
+        .collect(Collectors.toList());
+
+    // When:
+    List<Long> aggregate = new ArrayList<>();
+    for (final Long value : values) {
+      aggregate = topkDistinctKudaf.aggregate(value, aggregate);
+    }
+
+    // Then:
+    final List<Long> expected = values.stream()
+        .distinct()
+        .sorted(Comparator.reverseOrder())
+        .limit(100)
+        .collect(Collectors.toList());
+    assertThat(aggregate, equalTo(expected));
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.function.BatchUdfInvoker;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class PluggableUdfTest {
+
+  private final AtomicInteger batchInvokerRequests = new AtomicInteger();
+
+  private final BatchUdfInvoker batchInvoker = (udf, batchSize, args, results) -> {
+    for (int row = 0; row < batchSize; row++) {
+      results[row] = (Integer) args[0][row] * 10;
+    }
+  };
+
+  private final PluggableUdf udf = new PluggableUdf(
+      (thiz, args) -> (Integer) args[0] + 1,
+      () -> {
+        batchInvokerRequests.incrementAndGet();
+        return batchInvoker;
+      },
+      new Object());
+
+  @Test
+  public void shouldNotRequestBatchInvokerToEvaluateSingleRow() {
+    // When:
+    final Object result = udf.evaluate(1);
+
+    // Then:
+    assertThat(result, is(2));
+    assertThat(batchInvokerRequests.get(), is(0));
+  }
+
+  @Test
+  public void shouldEvaluateBatchWithBatchInvoker() {
+    // Given:
+    final Object[] results = new Object[2];
+
+    // When:
+    udf.evaluateBatch(2, new Object[][]{{1, 2}}, results);
+
+    // Then:
+    assertThat(results, equalTo(new Object[]{10, 20}));
+    assertThat(batchInvokerRequests.get(), is(1));
+  }
+
+  @Test
+  public void shouldEvaluateBatchRowByRowIfNoBatchInvoker() {
+    // Given:
+    final PluggableUdf udf = new PluggableUdf((thiz, args) -> (Integer) args[0] + 1, new Object());
+    final Object[] results = new Object[2];
+
+    // When:
+    udf.evaluateBatch(2, new Object[][]{{1, 2}}, results);
+
+    // Then:
+    assertThat(results, equalTo(new Object[]{2, 3}));
+  }
+}
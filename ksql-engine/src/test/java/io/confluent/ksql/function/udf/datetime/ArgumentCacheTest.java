@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.datetime;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArgumentCacheTest {
+
+  private List<String> loaded;
+  private ArgumentCache<ZoneId> cache;
+
+  @Before
+  public void setUp() {
+    loaded = new ArrayList<>();
+    cache = new ArgumentCache<>(
+        id -> {
+          loaded.add(id);
+          return ZoneId.of(id);
+        },
+        2);
+  }
+
+  @Test
+  public void shouldLoadRepeatedArgumentOnce() {
+    // When:
+    final ZoneId first = cache.get("UTC");
+    final ZoneId second = cache.get(new String("UTC"));
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+    assertThat(loaded.size(), is(1));
+  }
+
+  @Test
+  public void shouldLoadAlternatingArgumentsOnce() {
+    // When:
+    cache.get("UTC");
+    cache.get("Europe/London");
+    cache.get("UTC");
+    cache.get("Europe/London");
+
+    // Then:
+    assertThat(loaded.size(), is(2));
+  }
+
+  @Test
+  public void shouldReloadArgumentsOnceFull() {
+    // When:
+    cache.get("UTC");
+    cache.get("Europe/London");
+    cache.get("America/Los_Angeles");
+    cache.get("UTC");
+
+    // Then:
+    assertThat(loaded.size(), is(4));
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void shouldThrowIfLoadingFails() {
+    cache.get("not a zone");
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowOnNullArgument() {
+    cache.get("UTC");
+    cache.get(null);
+  }
+}
@@ -91,6 +91,69 @@ public class JsonExtractStringKudfTest {
     assertThat(result, is(nullValue()));
   }
 
+  @Test
+  public void shouldSkipValuesOfOtherFieldsAndElements() {
+    // Given:
+    final String doc = "{\"a\":{\"b\":[1,{\"c\":2}]},\"d\":[[3],{\"e\":[4,5]},\"six\"]}";
+
+    // Then:
+    assertThat(new JsonExtractStringKudf().evaluate(new String(doc), "$.d.1.e.1"), is("5"));
+    assertThat(new JsonExtractStringKudf().evaluate(new String(doc), "$.d.2"), is("six"));
+    assertThat(new JsonExtractStringKudf().evaluate(new String(doc), "$.d.3"), is(nullValue()));
+    assertThat(new JsonExtractStringKudf().evaluate(new String(doc), "$.a.b.x"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldExtractDifferentPathsFromSameDocument() {
+    // Given:
+    final String doc = new String(JSON_DOC);
+
+    // When:
+    final Object field = udf.evaluate(doc, "$.thing1.thing2");
+    final Object element = new JsonExtractStringKudf().evaluate(doc, "$.array.0");
+    final Object missing = new JsonExtractStringKudf().evaluate(doc, "$.array.2");
+    final Object whole = new JsonExtractStringKudf().evaluate(doc, "$");
+
+    // Then:
+    assertThat(field, is("hello"));
+    assertThat(element, is("101"));
+    assertThat(missing, is(nullValue()));
+    assertThat(whole, is(JSON_DOC));
+  }
+
+  @Test
+  public void shouldNotReadBeyondObjectHoldingExtractedValue() {
+    // When:
+    final Object result =
+        udf.evaluate(new String("[{\"thing1\":\"hello\"}, NOT JSON"), "$.0.thing1");
+
+    // Then:
+    assertThat(result, is("hello"));
+  }
+
+  @Test
+  public void shouldTakeLastOfDuplicateKeys() {
+    // Given:
+    final String doc = new String("{\"a\":{\"b\":1},\"c\":\"x\",\"a\":{\"b\":2},\"c\":\"y\"}");
+
+    // When:
+    final Object nested = udf.evaluate(doc, "$.a.b");
+    final Object fromTree = new JsonExtractStringKudf().evaluate(doc, "$.a.b");
+    final Object field = new JsonExtractStringKudf().evaluate(new String(doc), "$.c");
+
+    // Then:
+    assertThat(nested, is("2"));
+    assertThat(field, is("y"));
+    assertThat(fromTree, is("2"));
+  }
+
+  @Test(expected = KsqlFunctionException.class)
+  public void shouldThrowOnInvalidJsonDocExtractedFromTwice() {
+    final String doc = new String("[{\"thing1\":\"hello\"}, NOT JSON");
+    udf.evaluate(doc, "$.0.thing1");
+    new JsonExtractStringKudf().evaluate(doc, "$.0.thing1");
+  }
+
   @Test(expected = KsqlFunctionException.class)
   public void shouldThrowIfTooFewParameters() {
     udf.evaluate(JSON_DOC);
@@ -24,6 +24,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.metrics.ConsumerCollector;
@@ -100,6 +101,38 @@ public class KsqlEngineMetricsTest {
     assertEquals(3.0, value, 0.0);
   }
 
+  @Test
+  public void shouldRecordParseCacheHits() {
+    // Given:
+    when(ksqlEngine.getParseCacheStats()).thenReturn(new CacheStats(3, 1, 0, 0, 0, 0));
+
+    // When:
+    final long hits = getLongMetricValue(
+        engineMetrics.getMetrics(), metricNamePrefix + "parse-cache-hits");
+
+    // Then:
+    assertThat(hits, is(3L));
+  }
+
+  @Test
+  public void shouldRecordPrepareCacheMisses() {
+    // Given:
+    when(ksqlEngine.getPrepareCacheStats()).thenReturn(new CacheStats(3, 1, 0, 0, 0, 0));
+
+    // When:
+    final long misses = getLongMetricValue(
+        engineMetrics.getMetrics(), metricNamePrefix + "prepare-cache-misses");
+
+    // Then:
+    assertThat(misses, is(1L));
+  }
+
+  @Test
+  public void shouldRegisterCodegenCacheMetrics() {
+    assertThat(getLongMetricValue(
+        engineMetrics.getMetrics(), metricNamePrefix + "codegen-cache-misses") >= 0, is(true));
+  }
+
   @Test
   public void shouldRecordNumberOfQueriesInCREATEDState() {
     when(ksqlEngine.getPersistentQueries())
@@ -153,6 +153,15 @@ public class TransientQueryQueueTest {
     verify(limitHandler, times(1)).limitReached();
   }
 
+  @Test
+  public void shouldBoundQueueToCapacity() {
+    // When:
+    final TransientQueryQueue<String> queuer = new TransientQueryQueue<>(queuedKStream, 2);
+
+    // Then:
+    assertThat(queuer.getQueue().remainingCapacity(), is(2));
+  }
+
   private QueuePopulator<String> getQueuePopulator() {
     final TransientQueryQueue<String> queuer = new TransientQueryQueue<>(queuedKStream);
     queue = queuer.getQueue();
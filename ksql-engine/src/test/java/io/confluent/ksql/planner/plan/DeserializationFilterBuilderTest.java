@@ -0,0 +1,206 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.planner.plan;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.parser.tree.BetweenPredicate;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
+import io.confluent.ksql.parser.tree.DoubleLiteral;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.IntegerLiteral;
+import io.confluent.ksql.parser.tree.IsNotNullPredicate;
+import io.confluent.ksql.parser.tree.LikePredicate;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
+import io.confluent.ksql.serde.DeserializationFilter;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Test;
+
+public class DeserializationFilterBuilderTest {
+
+  private static final Schema SOURCE_SCHEMA = SchemaBuilder.struct()
+      .field("S.ROWTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("S.ROWKEY", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("S.REGION", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("S.VIEWS", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("S.SCORE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .build();
+
+  private static final Schema VALUE_SCHEMA = SchemaBuilder.struct()
+      .field("S.REGION", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("S.VIEWS", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("S.SCORE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .build();
+
+  private static final int REGION = 0;
+  private static final int VIEWS = 1;
+  private static final int SCORE = 2;
+
+  @Test
+  public void shouldRejectValuesFailingEquality() {
+    // When:
+    final DeserializationFilter filter = build(new ComparisonExpression(
+        ComparisonExpression.Type.EQUAL, column("REGION"), new StringLiteral("EU")));
+
+    // Then:
+    assertThat(filter.rejects(REGION, "EU"), is(false));
+    assertThat(filter.rejects(REGION, "US"), is(true));
+    assertThat(filter.rejects(REGION, null), is(true));
+  }
+
+  @Test
+  public void shouldPushDownEachConjunct() {
+    // When:
+    final DeserializationFilter filter = build(LogicalBinaryExpression.and(
+        LogicalBinaryExpression.and(
+            new ComparisonExpression(
+                ComparisonExpression.Type.GREATER_THAN, column("VIEWS"), new IntegerLiteral(10)),
+            new ComparisonExpression(
+                ComparisonExpression.Type.GREATER_THAN_OR_EQUAL,
+                new DoubleLiteral("2.5"),
+                column("SCORE"))),
+        new IsNotNullPredicate(column("REGION"))));
+
+    // Then:
+    assertThat(filter.rejects(VIEWS, 11L), is(false));
+    assertThat(filter.rejects(VIEWS, 10L), is(true));
+    assertThat(filter.rejects(SCORE, 2.5), is(false));
+    assertThat(filter.rejects(SCORE, 2.6), is(true));
+    assertThat(filter.rejects(SCORE, Double.NaN), is(true));
+    assertThat(filter.rejects(REGION, ""), is(false));
+    assertThat(filter.rejects(REGION, null), is(true));
+  }
+
+  @Test
+  public void shouldPushDownBetweenWithPromotionToDouble() {
+    // When:
+    final DeserializationFilter filter = build(new BetweenPredicate(
+        column("VIEWS"), new IntegerLiteral(1), new DoubleLiteral("2.5")));
+
+    // Then:
+    assertThat(filter.rejects(VIEWS, 2L), is(false));
+    assertThat(filter.rejects(VIEWS, 3L), is(true));
+    assertThat(filter.rejects(VIEWS, null), is(true));
+  }
+
+  @Test
+  public void shouldPushDownLikeButAcceptNulls() {
+    // When:
+    final DeserializationFilter filter = build(
+        new LikePredicate(column("REGION"), new StringLiteral("EU-%")));
+
+    // Then:
+    assertThat(filter.rejects(REGION, "EU-West"), is(false));
+    assertThat(filter.rejects(REGION, "US-West"), is(true));
+    assertThat(filter.rejects(REGION, null), is(false));
+  }
+
+  @Test
+  public void shouldPushDownLikeWithInnerWildcards() {
+    // When:
+    final DeserializationFilter filter = build(
+        new LikePredicate(column("REGION"), new StringLiteral("E_-%st")));
+
+    // Then:
+    assertThat(filter.rejects(REGION, "EU-West"), is(false));
+    assertThat(filter.rejects(REGION, "EU-North"), is(true));
+    assertThat(filter.rejects(REGION, "E-West"), is(true));
+  }
+
+  @Test
+  public void shouldPushDownLikeWithLegacyUnderscore() {
+    // When:
+    final DeserializationFilter filter = DeserializationFilterBuilder.build(
+        new LikePredicate(column("REGION"), new StringLiteral("E_-%st")),
+        SOURCE_SCHEMA,
+        VALUE_SCHEMA,
+        false);
+
+    // Then:
+    assertThat(filter.rejects(REGION, "E_-West"), is(false));
+    assertThat(filter.rejects(REGION, "EU-West"), is(true));
+  }
+
+  @Test
+  public void shouldNotPushDownLikeOnNonStringColumns() {
+    // When:
+    final DeserializationFilter filter = build(
+        new LikePredicate(column("VIEWS"), new StringLiteral("1%")));
+
+    // Then:
+    assertThat(filter.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotPushDownConditionsOnColumnsOfOtherSources() {
+    // When:
+    final DeserializationFilter filter = build(new ComparisonExpression(
+        ComparisonExpression.Type.EQUAL,
+        new DereferenceExpression(new QualifiedNameReference(QualifiedName.of("T")), "REGION"),
+        new StringLiteral("EU")));
+
+    // Then:
+    assertThat(filter.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotPushDownDisjunctions() {
+    // When:
+    final DeserializationFilter filter = build(LogicalBinaryExpression.or(
+        new ComparisonExpression(
+            ComparisonExpression.Type.EQUAL, column("REGION"), new StringLiteral("EU")),
+        new ComparisonExpression(
+            ComparisonExpression.Type.GREATER_THAN, column("VIEWS"), new IntegerLiteral(10))));
+
+    // Then:
+    assertThat(filter.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotPushDownConditionsOnImplicitColumns() {
+    // When:
+    final DeserializationFilter filter = build(new ComparisonExpression(
+        ComparisonExpression.Type.GREATER_THAN, column("ROWTIME"), new IntegerLiteral(10)));
+
+    // Then:
+    assertThat(filter.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotPushDownComparisonsWithLiteralsOfOtherKinds() {
+    // When:
+    final DeserializationFilter filter = build(new ComparisonExpression(
+        ComparisonExpression.Type.EQUAL, column("REGION"), new IntegerLiteral(10)));
+
+    // Then:
+    assertThat(filter.isEmpty(), is(true));
+  }
+
+  private static DeserializationFilter build(final Expression filterExpression) {
+    return DeserializationFilterBuilder.build(
+        filterExpression, SOURCE_SCHEMA, VALUE_SCHEMA, true);
+  }
+
+  private static Expression column(final String name) {
+    return new DereferenceExpression(new QualifiedNameReference(QualifiedName.of("S")), name);
+  }
+}
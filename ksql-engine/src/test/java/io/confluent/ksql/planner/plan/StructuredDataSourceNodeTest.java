@@ -17,16 +17,20 @@ package io.confluent.ksql.planner.plan;
 
 import static io.confluent.ksql.planner.plan.PlanTestUtil.getNodeByName;
 import static io.confluent.ksql.planner.plan.PlanTestUtil.verifyProcessorNode;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,8 +43,13 @@ import io.confluent.ksql.logging.processing.ProcessingLoggerUtil;
 import io.confluent.ksql.metastore.model.KsqlStream;
 import io.confluent.ksql.metastore.model.KsqlTable;
 import io.confluent.ksql.metastore.model.KsqlTopic;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.serde.DataSource.DataSourceType;
+import io.confluent.ksql.serde.DeserializationFilter;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
 import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
 import io.confluent.ksql.services.ServiceContext;
@@ -217,6 +226,153 @@ public class StructuredDataSourceNodeTest {
     verify(kGroupedStream).aggregate(any(), any(), same(materialized));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldOnlyDeserializeReferencedKeyAndTimestampColumnsIfPushdownEnabled() {
+    // Given:
+    final StructuredDataSourceNode node = new StructuredDataSourceNode(
+        realNodeId,
+        tableSource,
+        realSchema,
+        Optional.of(ImmutableSet.of("FIELD2", "OTHER")),
+        materializedFactorySupplier);
+    when(topicSerDe.getGenericRowSerde(
+        any(Schema.class),
+        any(KsqlConfig.class),
+        any(Supplier.class),
+        anyString(),
+        any(ProcessingLogContext.class),
+        any(Set.class),
+        any(DeserializationFilter.class))).thenReturn(rowSerde);
+
+    // When:
+    final SchemaKStream result = node.buildStream(
+        streamsBuilder,
+        realConfig.cloneWithPropertyOverwrite(
+            Collections.singletonMap(KsqlConfig.KSQL_PROJECTION_PUSHDOWN_ENABLED, true)),
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId
+    );
+
+    // Then:
+    verify(topicSerDe).getGenericRowSerde(
+        any(Schema.class),
+        any(KsqlConfig.class),
+        any(Supplier.class),
+        anyString(),
+        any(ProcessingLogContext.class),
+        eq(ImmutableSet.of("field2", TIMESTAMP_FIELD)),
+        same(DeserializationFilter.ACCEPT_ALL));
+    assertThat(result.getExecutionPlan(""),
+        containsString("Pruned columns: [field1, field3, key]"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldMatchReferencedColumnsToColumnsQualifiedWithAlias() {
+    // Given:
+    final Schema aliasedSchema = SchemaBuilder.struct()
+        .field("T.field1", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("T.field2", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("T." + TIMESTAMP_FIELD, Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+    final StructuredDataSourceNode node = new StructuredDataSourceNode(
+        realNodeId,
+        tableSource,
+        aliasedSchema,
+        Optional.of(ImmutableSet.of("FIELD2")),
+        materializedFactorySupplier);
+    when(topicSerDe.getGenericRowSerde(
+        any(Schema.class),
+        any(KsqlConfig.class),
+        any(Supplier.class),
+        anyString(),
+        any(ProcessingLogContext.class),
+        any(Set.class),
+        any(DeserializationFilter.class))).thenReturn(rowSerde);
+
+    // When:
+    node.buildStream(
+        streamsBuilder,
+        realConfig.cloneWithPropertyOverwrite(
+            Collections.singletonMap(KsqlConfig.KSQL_PROJECTION_PUSHDOWN_ENABLED, true)),
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId
+    );
+
+    // Then:
+    verify(topicSerDe).getGenericRowSerde(
+        any(Schema.class),
+        any(KsqlConfig.class),
+        any(Supplier.class),
+        anyString(),
+        any(ProcessingLogContext.class),
+        eq(ImmutableSet.of("T.field2", "T." + TIMESTAMP_FIELD)),
+        same(DeserializationFilter.ACCEPT_ALL));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldNotPushDownFilterToTables() {
+    // Given:
+    final StructuredDataSourceNode node = new StructuredDataSourceNode(
+        realNodeId,
+        tableSource,
+        realSchema,
+        Optional.empty(),
+        Optional.of(new ComparisonExpression(
+            ComparisonExpression.Type.EQUAL,
+            new QualifiedNameReference(QualifiedName.of("field1")),
+            new StringLiteral("a"))),
+        materializedFactorySupplier);
+
+    // When:
+    node.buildStream(
+        streamsBuilder,
+        realConfig.cloneWithPropertyOverwrite(
+            Collections.singletonMap(KsqlConfig.KSQL_PREDICATE_PUSHDOWN_ENABLED, true)),
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId
+    );
+
+    // Then:
+    verify(topicSerDe, never()).getGenericRowSerde(
+        any(Schema.class),
+        any(KsqlConfig.class),
+        any(Supplier.class),
+        anyString(),
+        any(ProcessingLogContext.class),
+        any(Set.class),
+        any(DeserializationFilter.class));
+  }
+
+  @Test
+  public void shouldNotPruneColumnsIfPushdownDisabled() {
+    // Given:
+    final StructuredDataSourceNode node = new StructuredDataSourceNode(
+        new PlanNodeId("0"),
+        new KsqlStream<>("sqlExpression", "datasource",
+            realSchema,
+            Optional.of(realSchema.field("key")),
+            new LongColumnTimestampExtractionPolicy("timestamp"),
+            new KsqlTopic("topic", "topic",
+                new KsqlJsonTopicSerDe(), false), Serdes::String),
+        realSchema,
+        Optional.of(ImmutableSet.of("FIELD2")));
+
+    // When:
+    final SchemaKStream result = build(node);
+
+    // Then:
+    assertThat(result.getExecutionPlan(""), not(containsString("Pruned columns")));
+  }
+
   @Test
   public void shouldCreateLoggerForSourceSerde() {
     assertThat(
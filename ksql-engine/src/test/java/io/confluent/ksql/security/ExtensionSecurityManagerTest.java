@@ -78,5 +78,12 @@ public class ExtensionSecurityManagerTest {
       return null;
     }, new Object()).evaluate();
   }
-  
-}
\ No newline at end of file
+
+  @Test(expected = SecurityException.class)
+  public void shouldNotAllowExitWhenPluggableUDFEvaluatesBatch() {
+    new PluggableUdf((thiz,args) -> {
+      System.exit(1);
+      return null;
+    }, new Object()).evaluateBatch(1, new Object[][]{}, new Object[1]);
+  }
+}
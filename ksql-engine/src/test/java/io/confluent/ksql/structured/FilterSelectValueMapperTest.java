@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.RowTransformer;
+import io.confluent.ksql.util.ProjectionMetadata;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class FilterSelectValueMapperTest {
+
+  private static final GenericRow ROW = new GenericRow(Arrays.asList(1L, "a"));
+  private static final GenericRow PROJECTED = new GenericRow(Arrays.asList("A"));
+  private static final Exception ERROR = new IllegalStateException("boom");
+
+  @Mock
+  private ProjectionMetadata filteredProjection;
+  @Mock
+  private SqlPredicate predicate;
+  @Mock
+  private SelectValueMapper selectValueMapper;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private FilterSelectValueMapper mapper;
+
+  @Before
+  public void setUp() {
+    mapper = new FilterSelectValueMapper(filteredProjection, predicate, selectValueMapper);
+  }
+
+  @Test
+  public void shouldDropNullRows() {
+    assertThat(mapper.apply(null), emptyIterable());
+  }
+
+  @Test
+  public void shouldReturnProjectedRow() {
+    // Given:
+    when(filteredProjection.evaluate(eq(ROW), any())).thenReturn(PROJECTED);
+
+    // When:
+    final Iterable<GenericRow> result = mapper.apply(ROW);
+
+    // Then:
+    assertThat(result, contains(PROJECTED));
+  }
+
+  @Test
+  public void shouldDropRowsNotMatchingPredicate() {
+    // Given:
+    when(filteredProjection.evaluate(eq(ROW), any())).thenReturn(null);
+
+    // When:
+    final Iterable<GenericRow> result = mapper.apply(ROW);
+
+    // Then:
+    assertThat(result, emptyIterable());
+  }
+
+  @Test
+  public void shouldLogPredicateErrorsAgainstFilter() {
+    // Given:
+    when(filteredProjection.evaluate(eq(ROW), any())).thenAnswer(inv -> {
+      final RowTransformer.ErrorHandler errorHandler = inv.getArgument(1);
+      errorHandler.onError(RowTransformer.ErrorHandler.PREDICATE, ERROR);
+      return null;
+    });
+
+    // When:
+    final Iterable<GenericRow> result = mapper.apply(ROW);
+
+    // Then:
+    assertThat(result, emptyIterable());
+    verify(predicate).logProcessingError(ERROR, ROW);
+    verify(selectValueMapper, never()).logColumnError(anyInt(), any(), any());
+  }
+
+  @Test
+  public void shouldLogExpressionErrorsAgainstColumn() {
+    // Given:
+    when(filteredProjection.evaluate(eq(ROW), any())).thenAnswer(inv -> {
+      final RowTransformer.ErrorHandler errorHandler = inv.getArgument(1);
+      errorHandler.onError(0, ERROR);
+      return PROJECTED;
+    });
+
+    // When:
+    final Iterable<GenericRow> result = mapper.apply(ROW);
+
+    // Then:
+    assertThat(result, contains(PROJECTED));
+    verify(selectValueMapper).logColumnError(0, ERROR, ROW);
+    verify(predicate, never()).logProcessingError(any(), any());
+    verify(selectValueMapper, never()).apply(any());
+  }
+}
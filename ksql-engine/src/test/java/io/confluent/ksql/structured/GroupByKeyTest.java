@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.serialization.Serde;
+import org.junit.Test;
+
+public class GroupByKeyTest {
+
+  private final Serde<GroupByKey> binarySerde = GroupByKey.binarySerde();
+  private final Serde<GroupByKey> stringSerde = GroupByKey.stringSerde();
+
+  @Test
+  public void shouldRoundTripSingleNumericKeyInNineBytes() {
+    // Given:
+    final GroupByKey key = GroupByKey.of(1234567890123L);
+
+    // When:
+    final byte[] bytes = binarySerde.serializer().serialize("topic", key);
+
+    // Then:
+    assertThat(bytes.length, is(9));
+    assertThat(binarySerde.deserializer().deserialize("topic", bytes), is(key));
+  }
+
+  @Test
+  public void shouldRoundTripCompositeKey() {
+    // Given:
+    final GroupByKey key = GroupByKey.of(new Object[]{
+        1, 2L, 3.5, true, "été", null, ImmutableList.of(1, 2)});
+
+    // When:
+    final byte[] bytes = binarySerde.serializer().serialize("topic", key);
+
+    // Then:
+    assertThat(binarySerde.deserializer().deserialize("topic", bytes), is(key));
+    assertThat(binarySerde.deserializer().deserialize("topic", bytes).toString(),
+        is("1|+|2|+|3.5|+|true|+|été|+|null|+|[1, 2]"));
+  }
+
+  @Test
+  public void shouldDistinguishValuesWithSameStringForm() {
+    assertThat(GroupByKey.of(1).equals(GroupByKey.of(1L)), is(false));
+    assertThat(GroupByKey.of(new Object[]{"a|+|b"}).equals(GroupByKey.of(new Object[]{"a", "b"})),
+        is(false));
+  }
+
+  @Test
+  public void shouldSerializeAsStringKey() {
+    // Given:
+    final GroupByKey key = GroupByKey.of(new Object[]{10L, "x", null});
+
+    // When:
+    final byte[] bytes = stringSerde.serializer().serialize("topic", key);
+
+    // Then:
+    assertThat(new String(bytes, StandardCharsets.UTF_8), is("10|+|x|+|null"));
+    assertThat(stringSerde.deserializer().deserialize("topic", bytes).toString(),
+        is("10|+|x|+|null"));
+  }
+
+  @Test
+  public void shouldFormatCompositeKeysWithDifferentValuesDifferently() {
+    // Given:
+    final List<GroupByKey> keys = ImmutableList.of(
+        GroupByKey.of(new Object[]{"a|+|b", "c"}),
+        GroupByKey.of(new Object[]{"a", "b|+|c"}),
+        GroupByKey.of(new Object[]{"a|+", "b|+|c"}),
+        GroupByKey.of(new Object[]{"a", "+|b|+|c"}),
+        GroupByKey.of(new Object[]{"a|\\+|b", "c"}),
+        GroupByKey.of(new Object[]{"a|", "|b|+|c"}),
+        GroupByKey.of(new Object[]{"a|+|", "b|+|c"}));
+
+    // When:
+    final Set<String> formatted = keys.stream()
+        .map(key -> stringSerde.serializer().serialize("topic", key))
+        .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+        .collect(Collectors.toSet());
+
+    // Then:
+    assertThat(formatted, hasSize(keys.size()));
+    assertThat(keys.get(0).toString(), is("a|\\+|b|+|c"));
+    assertThat(keys.get(1).toString(), is("a|+|b|\\+|c"));
+  }
+
+  @Test
+  public void shouldNotEscapeSingleValue() {
+    // Given:
+    final GroupByKey key = GroupByKey.of("a|+|b");
+
+    // When:
+    final byte[] bytes = stringSerde.serializer().serialize("topic", key);
+
+    // Then:
+    assertThat(new String(bytes, StandardCharsets.UTF_8), is("a|+|b"));
+  }
+
+  @Test
+  public void shouldHandleNulls() {
+    assertThat(binarySerde.serializer().serialize("topic", null), is(nullValue()));
+    assertThat(binarySerde.deserializer().deserialize("topic", null), is(nullValue()));
+    assertThat(stringSerde.serializer().serialize("topic", null), is(nullValue()));
+  }
+}
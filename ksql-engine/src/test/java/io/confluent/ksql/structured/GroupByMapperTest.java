@@ -105,6 +105,36 @@ public class GroupByMapperTest {
     assertThat(result, is("null|+|result1"));
   }
 
+  @Test
+  public void shouldGenerateSingleColumnGroupByKey() {
+    // Given:
+    final GroupByMapper<Object> singleColumnMapper =
+        new GroupByMapper<>(ImmutableList.of(groupBy0));
+    EasyMock.expect(groupBy0.evaluate(row)).andReturn(10L);
+    EasyMock.replay(groupBy0);
+
+    // When:
+    final String result = singleColumnMapper.apply("key", row);
+
+    // Then:
+    assertThat(result, is("10"));
+  }
+
+  @Test
+  public void shouldGenerateBinaryGroupByKeyFormattedAsStringKey() {
+    // Given:
+    EasyMock.expect(groupBy0.evaluate(row)).andReturn(10L).times(2);
+    EasyMock.expect(groupBy1.evaluate(row)).andThrow(new RuntimeException("Boom")).times(2);
+    EasyMock.replay(groupBy0, groupBy1);
+
+    // When:
+    final GroupByKey result = mapper.applyBinary("key", row);
+
+    // Then:
+    assertThat(result, is(GroupByKey.of(new Object[]{10L, null})));
+    assertThat(result.toString(), is(mapper.apply("key", row)));
+  }
+
   @Test
   public void shouldGetKeyName() {
     // Given:
@@ -21,6 +21,7 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
@@ -38,6 +39,7 @@ import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -171,6 +173,29 @@ public class SchemaKGroupedStreamTest {
     assertThat(result.getKeySerdeFactory().create(), instanceOf(Serdes.String().getClass()));
   }
 
+  @Test
+  public void shouldWriteBinaryKeysInStringFormForNoneWindowed() {
+    // Given:
+    final SchemaKGroupedStream binaryKeyedStream = new SchemaKGroupedStream(
+        schema, groupedStream, keyField, sourceStreams, config, funcRegistry, materializedFactory,
+        Optional.of(GroupByKey.binarySerde()));
+    final GroupByKey key = GroupByKey.of(new Object[]{1L, "a"});
+
+    // When:
+    final SchemaKTable result = binaryKeyedStream
+        .aggregate(initializer, emptyMap(), emptyMap(), null, topicValueSerDe, queryContext);
+
+    // Then:
+    final byte[] bytes = result.getKeySerdeFactory().create().serializer().serialize("t", key);
+    assertThat(bytes, is(Serdes.String().serializer().serialize("t", "1|+|a")));
+    verify(materializedFactory).create(
+        argThat(serde -> Arrays.equals(
+            ((Serde<GroupByKey>) serde).serializer().serialize("t", key),
+            GroupByKey.binarySerde().serializer().serialize("t", key))),
+        same(topicValueSerDe),
+        any());
+  }
+
   @Test
   public void shouldUseWindowExpressionKeySerde() {
     // When:
@@ -204,7 +229,7 @@ public class SchemaKGroupedStreamTest {
 
     // Given:
     if (windowExp != null) {
-      when(ksqlWindowExp.applyAggregate(any(), any(), any(), any()))
+      when(ksqlWindowExp.applyAggregate(any(), any(), any(), any(), any()))
           .thenReturn(table);
     } else {
       when(groupedStream.aggregate(any(), any(), any()))
@@ -227,7 +252,7 @@ public class SchemaKGroupedStreamTest {
   private void assertDoesInstallWindowSelectMapper(
       final Map<Integer, KsqlAggregateFunction> funcMap) {
     // Given:
-    when(ksqlWindowExp.applyAggregate(any(), any(), any(), any()))
+    when(ksqlWindowExp.applyAggregate(any(), any(), any(), any(), any()))
         .thenReturn(table);
 
     when(table.mapValues(any(ValueMapperWithKey.class)))
@@ -288,7 +313,7 @@ public class SchemaKGroupedStreamTest {
     // Given:
     final Materialized materialized = whenMaterializedFactoryCreates();
     when(ksqlWindowExp.getKeySerdeFactory(String.class)).thenReturn(() -> windowedKeySerde);
-    when(ksqlWindowExp.applyAggregate(any(), any(), any(), same(materialized)))
+    when(ksqlWindowExp.applyAggregate(any(), any(), any(), any(), same(materialized)))
         .thenReturn(table);
 
     // When:
@@ -306,6 +331,6 @@ public class SchemaKGroupedStreamTest {
             any(Serdes.String().getClass()),
             same(topicValueSerDe),
             eq(StreamsUtil.buildOpName(queryContext.getQueryContext())));
-    verify(ksqlWindowExp, times(1)).applyAggregate(any(), any(), any(), same(materialized));
+    verify(ksqlWindowExp, times(1)).applyAggregate(any(), any(), any(), any(), same(materialized));
   }
 }
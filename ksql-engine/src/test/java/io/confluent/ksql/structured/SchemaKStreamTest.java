@@ -21,6 +21,7 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -148,7 +149,7 @@ public class SchemaKStreamTest {
         Consumed.with(Serdes.String(),
         getRowSerde(ksqlStream.getKsqlTopic(), ksqlStream.getSchema())));
 
-    when(mockGroupedFactory.create(anyString(), any(StringSerde.class), any(Serde.class)))
+    when(mockGroupedFactory.create(anyString(), any(Serde.class), any(Serde.class)))
         .thenReturn(grouped);
 
     final KsqlStream secondKsqlStream = (KsqlStream) metaStore.getSource("ORDERS");
@@ -345,6 +346,56 @@ public class SchemaKStreamTest {
     Assert.assertSame(filteredSchemaKStream.getSourceSchemaKStreams().get(0), initialSchemaKStream);
   }
 
+  @Test
+  public void shouldFilterAndSelectAsSingleStep() {
+    // Given:
+    final PlanNode logicalPlan = givenInitialKStreamOf(
+        "SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;");
+    final ProjectNode projectNode = (ProjectNode) logicalPlan.getSources().get(0);
+    final FilterNode filterNode = (FilterNode) projectNode.getSources().get(0);
+
+    // When:
+    final SchemaKStream projectedSchemaKStream = initialSchemaKStream.filterAndSelect(
+        filterNode.getPredicate(),
+        queryContext.push("filter"),
+        projectNode.getProjectSelectExpressions(),
+        childContextStacker,
+        processingLogContext);
+
+    // Then:
+    assertThat(projectedSchemaKStream.getType(), is(Type.FILTER_PROJECT));
+    assertThat(projectedSchemaKStream.getSchema().fields().size(), is(3));
+    assertThat(projectedSchemaKStream.getSchema().field("COL0").index(), is(0));
+    assertThat(projectedSchemaKStream.getSchema().field("COL3").schema().type(),
+        is(Schema.Type.FLOAT64));
+    assertThat(projectedSchemaKStream.getSourceSchemaKStreams().get(0),
+        sameInstance(initialSchemaKStream));
+  }
+
+  @Test
+  public void shouldOnlyHaveTypesEnforcedBySerdeForSourcesAndTheirFilters() {
+    // Given:
+    final PlanNode logicalPlan = givenInitialKStreamOf(
+        "SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;");
+    final ProjectNode projectNode = (ProjectNode) logicalPlan.getSources().get(0);
+    final FilterNode filterNode = (FilterNode) projectNode.getSources().get(0);
+
+    // When:
+    final SchemaKStream filteredSchemaKStream = initialSchemaKStream.filter(
+        filterNode.getPredicate(),
+        queryContext.push("filter"),
+        processingLogContext);
+    final SchemaKStream projectedSchemaKStream = filteredSchemaKStream.select(
+        projectNode.getProjectSelectExpressions(),
+        childContextStacker,
+        processingLogContext);
+
+    // Then:
+    assertThat(initialSchemaKStream.hasTypesEnforcedBySerde(), is(true));
+    assertThat(filteredSchemaKStream.hasTypesEnforcedBySerde(), is(true));
+    assertThat(projectedSchemaKStream.hasTypesEnforcedBySerde(), is(false));
+  }
+
   @Test
   public void testSelectKey() {
     givenInitialKStreamOf("SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;");
@@ -468,7 +519,7 @@ public class SchemaKStreamTest {
     // Then:
     verify(mockGroupedFactory).create(
         eq(StreamsUtil.buildOpName(childContextStacker.getQueryContext())),
-        any(StringSerde.class),
+        any(Serde.class),
         same(leftSerde));
     verify(mockKStream).groupBy(any(KeyValueMapper.class), same(grouped));
   }
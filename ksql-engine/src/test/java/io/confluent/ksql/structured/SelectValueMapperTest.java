@@ -19,10 +19,16 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.codegen.CodeGenRunner;
+import io.confluent.ksql.codegen.RowTransformer;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
 import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema;
@@ -35,11 +41,13 @@ import io.confluent.ksql.testutils.AnalysisTestUtil;
 import io.confluent.ksql.util.ExpressionMetadata;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.MetaStoreFixture;
+import io.confluent.ksql.util.ProjectionMetadata;
 import io.confluent.ksql.util.SelectExpression;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Schema;
@@ -136,7 +144,86 @@ public class SelectValueMapperTest {
     );
   }
 
+  @Test
+  public void shouldApplyUdfsToColumnsWithCompiledProjection() {
+    // Given:
+    final SelectValueMapper selectMapper = givenCompiledSelectMapperFor(
+        "SELECT col0, col1, col2, CEIL(col3), col0 + 1 FROM test1 WHERE col0 > 100;");
+
+    // When:
+    final GenericRow row = selectMapper.apply(
+        genericRow(1521834663L, "key1", 2L, "foo", "whatever", 6.9F, "boo", "hoo"));
+
+    // Then:
+    assertThat(row, is(genericRow(2L, "foo", "whatever", 7.0F, 3L)));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldOnlyNullFailingColumnsWithCompiledProjection() {
+    // Given:
+    final SelectValueMapper selectMapper = givenCompiledSelectMapperFor(
+        "SELECT col0, col1, col2, CEIL(col3) FROM test1 WHERE col0 > 100;");
+
+    // When:
+    final GenericRow row = selectMapper.apply(
+        new GenericRow(0L, "key", 2L, "foo", "whatever", null, "boo", "hoo"));
+
+    // Then:
+    assertThat(row, is(genericRow(2L, "foo", "whatever", null)));
+    final ArgumentCaptor<Function<ProcessingLogConfig, SchemaAndValue>> captor
+        = ArgumentCaptor.forClass(Function.class);
+    verify(processingLogger).error(captor.capture());
+    final Struct struct = (Struct) captor.getValue().apply(
+        new ProcessingLogConfig(Collections.emptyMap())).value();
+    final Struct errorStruct
+        = struct.getStruct(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR);
+    assertThat(
+        errorStruct.get(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE),
+        equalTo(
+            "Error computing expression CEIL(TEST1.COL3) "
+                + "for column KSQL_COL_3 with index 3: null")
+    );
+  }
+
+  @Test
+  public void shouldNotEvaluateExpressionsAgainIfCompiledProjectionFails() {
+    // Given:
+    final ExpressionMetadata expression = mock(ExpressionMetadata.class);
+    final ProjectionMetadata projection = mock(ProjectionMetadata.class);
+    final GenericRow row = genericRow(1L);
+    when(projection.evaluate(eq(row), any())).thenAnswer(inv -> {
+      final RowTransformer.ErrorHandler errorHandler = inv.getArgument(1);
+      errorHandler.onError(0, new IllegalStateException("boom"));
+      return genericRow((Object) null);
+    });
+    final SelectValueMapper selectMapper = new SelectValueMapper(
+        Collections.singletonList("A"),
+        Collections.singletonList(expression),
+        Optional.of(projection),
+        processingLogger);
+
+    // When:
+    final GenericRow result = selectMapper.apply(row);
+
+    // Then:
+    assertThat(result, is(genericRow((Object) null)));
+    verify(expression, never()).evaluate(any());
+    verify(processingLogger).error(any());
+  }
+
   private SelectValueMapper givenSelectMapperFor(final String query) {
+    return givenSelectMapperFor(query, false);
+  }
+
+  private SelectValueMapper givenCompiledSelectMapperFor(final String query) {
+    return givenSelectMapperFor(query, true);
+  }
+
+  private SelectValueMapper givenSelectMapperFor(
+      final String query,
+      final boolean compileProjection
+  ) {
     final PlanNode planNode = AnalysisTestUtil.buildLogicalPlan(query, metaStore);
     final ProjectNode projectNode = (ProjectNode) planNode.getSources().get(0);
     final Schema schema = planNode.getTheSourceNode().getSchema();
@@ -145,9 +232,20 @@ public class SelectValueMapperTest {
     final List<String> selectFieldNames = selectExpressions.stream()
         .map(SelectExpression::getName)
         .collect(Collectors.toList());
+    final Optional<ProjectionMetadata> projection = compileProjection
+        ? Optional.of(CodeGenRunner.compileProjection(
+            selectExpressions.stream()
+                .map(SelectExpression::getExpression)
+                .collect(Collectors.toList()),
+            "Select",
+            schema,
+            ksqlConfig,
+            new InternalFunctionRegistry()))
+        : Optional.empty();
     return new SelectValueMapper(
         selectFieldNames,
         metadata,
+        projection,
         processingLogger
     );
   }
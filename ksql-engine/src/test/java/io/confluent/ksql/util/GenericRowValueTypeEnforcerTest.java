@@ -394,4 +394,36 @@ public class GenericRowValueTypeEnforcerTest {
 
     assertNull(genericRowValueTypeEnforcer.enforceFieldType(0, null));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testEnforceColumnsOfDifferentTypes() {
+    final SchemaBuilder schemaBuilder = SchemaBuilder.struct()
+        .field("long", SchemaBuilder.int64())
+        .field("string", SchemaBuilder.string())
+        .field("double", SchemaBuilder.float64());
+    final GenericRowValueTypeEnforcer genericRowValueTypeEnforcer =
+        new GenericRowValueTypeEnforcer(schemaBuilder);
+
+    assertEquals(12L, genericRowValueTypeEnforcer.enforceFieldType(0, 12));
+    assertEquals("12", genericRowValueTypeEnforcer.enforceFieldType(1, "12"));
+    assertEquals(12.0, genericRowValueTypeEnforcer.enforceFieldType(2, 12));
+  }
+
+  @Test
+  public void testEnforceUnsupportedTypeOnlyThrowsWhenEnforced() {
+    final SchemaBuilder schemaBuilder = SchemaBuilder.struct()
+        .field("bytes", SchemaBuilder.bytes())
+        .field("long", SchemaBuilder.int64());
+    final GenericRowValueTypeEnforcer genericRowValueTypeEnforcer =
+        new GenericRowValueTypeEnforcer(schemaBuilder);
+
+    assertEquals(1L, genericRowValueTypeEnforcer.enforceFieldType(1, 1L));
+    try {
+      genericRowValueTypeEnforcer.enforceFieldType(0, new byte[0]);
+      fail("Expecting exception: KsqlException");
+    } catch (final KsqlException e) {
+      assertEquals(GenericRowValueTypeEnforcer.class.getName(),
+                   e.getStackTrace()[0].getClassName());
+    }
+  }
+}
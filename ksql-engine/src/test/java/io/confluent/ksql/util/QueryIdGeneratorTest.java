@@ -42,6 +42,32 @@ public class QueryIdGeneratorTest {
     assertThat(generator.getNextId(), is("2"));
   }
 
+  @Test
+  public void shouldPeekWithoutGenerating() {
+    // Given:
+    generator.getNextId();
+
+    // When:
+    final long next = generator.peekNextId();
+
+    // Then:
+    assertThat(next, is(1L));
+    assertThat(generator.getNextId(), is("1"));
+  }
+
+  @Test
+  public void shouldGenerateFromSetNextId() {
+    // Given:
+    generator.getNextId();
+
+    // When:
+    generator.setNextId(7);
+
+    // Then:
+    assertThat(generator.getNextId(), is("7"));
+    assertThat(generator.getNextId(), is("8"));
+  }
+
   @Test
   public void shouldCopy() {
     // When:
@@ -24,6 +24,14 @@ import java.util.Set;
 
 public interface MetaStore extends FunctionRegistry {
 
+  /**
+   * @return the version of the topics and sources, which every change to them replaces with one
+   *         never used by any other store. A copy starts at the version of the store it was
+   *         copied from, so stores with the same version hold the same topics and sources. Zero
+   *         if the store does not track versions.
+   */
+  long getVersion();
+
   KsqlTopic getTopic(String topicName);
 
   StructuredDataSource<?> getSource(String sourceName);
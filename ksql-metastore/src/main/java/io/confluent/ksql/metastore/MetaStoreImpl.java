@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.metastore;
 
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.function.AggregateFunctionFactory;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
@@ -24,56 +25,70 @@ import io.confluent.ksql.metastore.model.StructuredDataSource;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlReferentialIntegrityException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.kafka.connect.data.Schema;
 
+/**
+ * A meta store whose topics and sources are held in an immutable snapshot, which every change
+ * replaces with a new one.
+ *
+ * <p>Reads use the current snapshot without locking, and {@link #copy()} just shares it with the
+ * new store, so creating a sandbox does not depend on the number of topics and sources. Changes
+ * are serialised by a lock and copy the maps they change, which is cheap enough as they are made
+ * by DDL statements and queries starting or stopping, far less often than sandboxes are created.
+ */
 @ThreadSafe
 public final class MetaStoreImpl implements MutableMetaStore {
 
-  private final Map<String, KsqlTopic> topics = new ConcurrentHashMap<>();
-  private final Map<String, SourceInfo> dataSources = new ConcurrentHashMap<>();
-  private final Object referentialIntegrityLock = new Object();
+  private final Object writeLock = new Object();
   private final FunctionRegistry functionRegistry;
+  private volatile State state;
 
   public MetaStoreImpl(final FunctionRegistry functionRegistry) {
-    this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
+    this(State.empty(), functionRegistry);
   }
 
-  private MetaStoreImpl(
-      final Map<String, KsqlTopic> topics,
-      final Map<String, SourceInfo> dataSources,
-      final FunctionRegistry functionRegistry
-  ) {
-    this.topics.putAll(topics);
+  private MetaStoreImpl(final State state, final FunctionRegistry functionRegistry) {
+    this.state = Objects.requireNonNull(state, "state");
     this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
+  }
 
-    dataSources.forEach((name, info) -> this.dataSources.put(name, info.copy()));
+  @Override
+  public long getVersion() {
+    return state.version;
   }
 
   @Override
   public KsqlTopic getTopic(final String topicName) {
-    return topics.get(topicName);
+    return state.topics.get(topicName);
   }
 
   @Override
   public void putTopic(final KsqlTopic topic) {
-    if (topics.putIfAbsent(topic.getName(), topic) != null) {
-      throw new KsqlException(
-          "Cannot add the new topic. Another topic with the same name already exists: "
-          + topic.getName());
+    synchronized (writeLock) {
+      final State current = state;
+      if (current.topics.containsKey(topic.getName())) {
+        throw new KsqlException(
+            "Cannot add the new topic. Another topic with the same name already exists: "
+            + topic.getName());
+      }
+
+      state = current.withTopics(
+          with(current.topics, topics -> topics.put(topic.getName(), topic)));
     }
   }
 
   @Override
   public StructuredDataSource<?> getSource(final String sourceName) {
-    final SourceInfo source = dataSources.get(sourceName);
+    final SourceInfo source = state.dataSources.get(sourceName);
     if (source == null) {
       return null;
     }
@@ -83,7 +98,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
   @SuppressWarnings("unchecked")
   @Override
   public List<StructuredDataSource<?>> getSourcesForKafkaTopic(final String kafkaTopicName) {
-    return dataSources.values()
+    return state.dataSources.values()
         .stream()
         .map(sourceInfo -> sourceInfo.source)
         .filter(source -> source.getKafkaTopicName().equals(kafkaTopicName))
@@ -92,55 +107,66 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public void putSource(final StructuredDataSource<?> dataSource) {
-    if (dataSources.putIfAbsent(dataSource.getName(), new SourceInfo(dataSource)) != null) {
-      throw new KsqlException(
-          "Cannot add the new data source. Another data source with the same name already exists: "
-              + dataSource.toString());
+    synchronized (writeLock) {
+      final State current = state;
+      if (current.dataSources.containsKey(dataSource.getName())) {
+        throw new KsqlException("Cannot add the new data source. "
+            + "Another data source with the same name already exists: " + dataSource.toString());
+      }
+
+      state = current.withDataSources(with(current.dataSources,
+          sources -> sources.put(dataSource.getName(), new SourceInfo(dataSource))));
     }
   }
 
   @Override
   public void deleteTopic(final String topicName) {
-    if (topics.remove(topicName) == null) {
-      throw new KsqlException(String.format("No topic with name %s was registered.", topicName));
+    synchronized (writeLock) {
+      final State current = state;
+      if (!current.topics.containsKey(topicName)) {
+        throw new KsqlException(String.format("No topic with name %s was registered.", topicName));
+      }
+
+      state = current.withTopics(with(current.topics, topics -> topics.remove(topicName)));
     }
   }
 
   @Override
   public void deleteSource(final String sourceName) {
-    synchronized (referentialIntegrityLock) {
-      dataSources.compute(sourceName, (ignored, source) -> {
-        if (source == null) {
-          throw new KsqlException(String.format("No data source with name %s exists.", sourceName));
-        }
-
-        final String sourceForQueriesMessage = source.referentialIntegrity
-            .getSourceForQueries()
-            .stream()
-            .collect(Collectors.joining(", "));
-
-        final String sinkForQueriesMessage = source.referentialIntegrity
-            .getSinkForQueries()
-            .stream()
-            .collect(Collectors.joining(", "));
-
-        if (!sourceForQueriesMessage.isEmpty() || !sinkForQueriesMessage.isEmpty()) {
-          throw new KsqlReferentialIntegrityException(
-              String.format("Cannot drop %s.%n"
-                      + "The following queries read from this source: [%s].%n"
-                      + "The following queries write into this source: [%s].%n"
-                      + "You need to terminate them before dropping %s.",
-                  sourceName, sourceForQueriesMessage, sinkForQueriesMessage, sourceName));
-        }
-
-        return null;
-      });
+    synchronized (writeLock) {
+      final State current = state;
+      final SourceInfo source = current.dataSources.get(sourceName);
+      if (source == null) {
+        throw new KsqlException(String.format("No data source with name %s exists.", sourceName));
+      }
+
+      final String sourceForQueriesMessage = source.referentialIntegrity
+          .getSourceForQueries()
+          .stream()
+          .collect(Collectors.joining(", "));
+
+      final String sinkForQueriesMessage = source.referentialIntegrity
+          .getSinkForQueries()
+          .stream()
+          .collect(Collectors.joining(", "));
+
+      if (!sourceForQueriesMessage.isEmpty() || !sinkForQueriesMessage.isEmpty()) {
+        throw new KsqlReferentialIntegrityException(
+            String.format("Cannot drop %s.%n"
+                    + "The following queries read from this source: [%s].%n"
+                    + "The following queries write into this source: [%s].%n"
+                    + "You need to terminate them before dropping %s.",
+                sourceName, sourceForQueriesMessage, sinkForQueriesMessage, sourceName));
+      }
+
+      state = current.withDataSources(
+          with(current.dataSources, sources -> sources.remove(sourceName)));
     }
   }
 
   @Override
   public Map<String, StructuredDataSource<?>> getAllStructuredDataSources() {
-    return dataSources
+    return state.dataSources
         .entrySet()
         .stream()
         .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().source));
@@ -148,7 +174,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public Map<String, KsqlTopic> getAllKsqlTopics() {
-    return Collections.unmodifiableMap(topics);
+    return state.topics;
   }
 
   @Override
@@ -157,13 +183,16 @@ public final class MetaStoreImpl implements MutableMetaStore {
       final Set<String> sourceNames,
       final Set<String> sinkNames
   ) {
-    synchronized (referentialIntegrityLock) {
-      final String sourceAlreadyRegistered = streamSources(sourceNames)
+    synchronized (writeLock) {
+      final State current = state;
+      final String sourceAlreadyRegistered = sourceNames.stream()
+          .map(name -> getSourceInfo(current, name))
           .filter(source -> source.referentialIntegrity.getSourceForQueries().contains(queryId))
           .map(source -> source.source.getName())
           .collect(Collectors.joining(","));
 
-      final String sinkAlreadyRegistered = streamSources(sinkNames)
+      final String sinkAlreadyRegistered = sinkNames.stream()
+          .map(name -> getSourceInfo(current, name))
           .filter(source -> source.referentialIntegrity.getSinkForQueries().contains(queryId))
           .map(source -> source.source.getName())
           .collect(Collectors.joining(","));
@@ -175,25 +204,37 @@ public final class MetaStoreImpl implements MutableMetaStore {
             + ", registeredAgainstSink: " + sinkAlreadyRegistered);
       }
 
-      streamSources(sourceNames)
-          .forEach(source -> source.referentialIntegrity.addSourceForQueries(queryId));
-      streamSources(sinkNames)
-          .forEach(source -> source.referentialIntegrity.addSinkForQueries(queryId));
+      state = current.withDataSources(with(current.dataSources, sources -> {
+        sourceNames.forEach(name -> sources.put(name, sources.get(name)
+            .withReferentialIntegrity(entry -> entry.addSourceForQueries(queryId))));
+        sinkNames.forEach(name -> sources.put(name, sources.get(name)
+            .withReferentialIntegrity(entry -> entry.addSinkForQueries(queryId))));
+      }));
     }
   }
 
   @Override
   public void removePersistentQuery(final String queryId) {
-    synchronized (referentialIntegrityLock) {
-      for (final SourceInfo sourceInfo : dataSources.values()) {
-        sourceInfo.referentialIntegrity.removeQuery(queryId);
+    synchronized (writeLock) {
+      final State current = state;
+      final List<SourceInfo> affected = current.dataSources.values().stream()
+          .filter(source -> source.referentialIntegrity.getSourceForQueries().contains(queryId)
+              || source.referentialIntegrity.getSinkForQueries().contains(queryId))
+          .collect(Collectors.toList());
+
+      if (affected.isEmpty()) {
+        return;
       }
+
+      state = current.withDataSources(with(current.dataSources, sources ->
+          affected.forEach(source -> sources.put(source.source.getName(),
+              source.withReferentialIntegrity(entry -> entry.removeQuery(queryId))))));
     }
   }
 
   @Override
   public Set<String> getQueriesWithSource(final String sourceName) {
-    final SourceInfo sourceInfo = dataSources.get(sourceName);
+    final SourceInfo sourceInfo = state.dataSources.get(sourceName);
     if (sourceInfo == null) {
       return Collections.emptySet();
     }
@@ -202,7 +243,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public Set<String> getQueriesWithSink(final String sourceName) {
-    final SourceInfo sourceInfo = dataSources.get(sourceName);
+    final SourceInfo sourceInfo = state.dataSources.get(sourceName);
     if (sourceInfo == null) {
       return Collections.emptySet();
     }
@@ -211,9 +252,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public MutableMetaStore copy() {
-    synchronized (referentialIntegrityLock) {
-      return new MetaStoreImpl(topics, dataSources, functionRegistry);
-    }
+    return new MetaStoreImpl(state, functionRegistry);
   }
 
   @Override
@@ -247,18 +286,62 @@ public final class MetaStoreImpl implements MutableMetaStore {
     return functionRegistry.listAggregateFunctions();
   }
 
-  private Stream<SourceInfo> streamSources(final Set<String> sourceNames) {
-    return sourceNames.stream()
-        .map(sourceName -> {
-          final SourceInfo sourceInfo = dataSources.get(sourceName);
-          if (sourceInfo == null) {
-            throw new KsqlException("Unknown source: " + sourceName);
-          }
+  private static SourceInfo getSourceInfo(final State state, final String sourceName) {
+    final SourceInfo sourceInfo = state.dataSources.get(sourceName);
+    if (sourceInfo == null) {
+      throw new KsqlException("Unknown source: " + sourceName);
+    }
+    return sourceInfo;
+  }
+
+  /**
+   * @return a copy of {@code map} with the supplied changes applied.
+   */
+  private static <V> ImmutableMap<String, V> with(
+      final ImmutableMap<String, V> map,
+      final Consumer<Map<String, V>> changes
+  ) {
+    final Map<String, V> copy = new HashMap<>(map);
+    changes.accept(copy);
+    return ImmutableMap.copyOf(copy);
+  }
+
+  private static final class State {
+
+    // Shared by all stores, so that no two states are ever given the same version:
+    private static final AtomicLong LAST_VERSION = new AtomicLong();
+
+    private final ImmutableMap<String, KsqlTopic> topics;
+    private final ImmutableMap<String, SourceInfo> dataSources;
+    private final long version;
+
+    private State(
+        final ImmutableMap<String, KsqlTopic> topics,
+        final ImmutableMap<String, SourceInfo> dataSources,
+        final long version
+    ) {
+      this.topics = topics;
+      this.dataSources = dataSources;
+      this.version = version;
+    }
 
-          return sourceInfo;
-        });
+    private static State empty() {
+      return new State(ImmutableMap.of(), ImmutableMap.of(), LAST_VERSION.incrementAndGet());
+    }
+
+    private State withTopics(final ImmutableMap<String, KsqlTopic> topics) {
+      return new State(topics, dataSources, LAST_VERSION.incrementAndGet());
+    }
+
+    private State withDataSources(final ImmutableMap<String, SourceInfo> dataSources) {
+      return new State(topics, dataSources, LAST_VERSION.incrementAndGet());
+    }
   }
 
+  /**
+   * A source and the queries that use it. Never changed once it is part of a {@link State}: a
+   * change in the queries creates a new instance with a changed copy of them.
+   */
   private static final class SourceInfo {
 
     private final StructuredDataSource<?> source;
@@ -267,8 +350,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
     private SourceInfo(
         final StructuredDataSource<?> source
     ) {
-      this.source = Objects.requireNonNull(source, "source");
-      this.referentialIntegrity = new ReferentialIntegrityTableEntry();
+      this(source, new ReferentialIntegrityTableEntry());
     }
 
     private SourceInfo(
@@ -276,11 +358,16 @@ public final class MetaStoreImpl implements MutableMetaStore {
         final ReferentialIntegrityTableEntry referentialIntegrity
     ) {
       this.source = Objects.requireNonNull(source, "source");
-      this.referentialIntegrity = referentialIntegrity.copy();
+      this.referentialIntegrity =
+          Objects.requireNonNull(referentialIntegrity, "referentialIntegrity");
     }
 
-    public SourceInfo copy() {
-      return new SourceInfo(source, referentialIntegrity);
+    private SourceInfo withReferentialIntegrity(
+        final Consumer<ReferentialIntegrityTableEntry> change
+    ) {
+      final ReferentialIntegrityTableEntry changed = referentialIntegrity.copy();
+      change.accept(changed);
+      return new SourceInfo(source, changed);
     }
   }
 }
@@ -19,7 +19,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +32,7 @@ import io.confluent.ksql.metastore.model.KsqlTopic;
 import io.confluent.ksql.metastore.model.StructuredDataSource;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlReferentialIntegrityException;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -137,6 +140,98 @@ public class MetaStoreImplTest {
     assertThat(metaStore.getQueriesWithSink(dataSource.getName()), is(empty()));
   }
 
+  @Test
+  public void shouldNotSeeChangesToCopyInOriginal() {
+    // Given:
+    metaStore.putSource(dataSource);
+    final MutableMetaStore copy = metaStore.copy();
+
+    // When:
+    copy.putTopic(topic);
+    copy.putSource(dataSource1);
+    copy.updateForPersistentQuery(
+        "source query",
+        ImmutableSet.of(dataSource.getName()),
+        ImmutableSet.of());
+
+    // Then:
+    assertThat(metaStore.getAllKsqlTopics().keySet(), is(empty()));
+    assertThat(metaStore.getAllStructuredDataSources().keySet(), contains(dataSource.getName()));
+    assertThat(metaStore.getQueriesWithSource(dataSource.getName()), is(empty()));
+    assertThat(copy.getQueriesWithSource(dataSource.getName()), contains("source query"));
+  }
+
+  @Test
+  public void shouldChangeVersionOnEachChange() {
+    // Given:
+    final Set<Long> versions = new HashSet<>();
+    versions.add(metaStore.getVersion());
+
+    // When:
+    metaStore.putTopic(topic);
+    versions.add(metaStore.getVersion());
+    metaStore.putSource(dataSource);
+    versions.add(metaStore.getVersion());
+    metaStore.updateForPersistentQuery(
+        "source query",
+        ImmutableSet.of(dataSource.getName()),
+        ImmutableSet.of());
+    versions.add(metaStore.getVersion());
+    metaStore.removePersistentQuery("source query");
+    versions.add(metaStore.getVersion());
+
+    // Then:
+    assertThat(versions, hasSize(5));
+  }
+
+  @Test
+  public void shouldNotShareVersionWithCopyOnceEitherChanges() {
+    // Given:
+    final MutableMetaStore copy = metaStore.copy();
+
+    // When:
+    metaStore.putTopic(topic);
+    copy.putSource(dataSource);
+
+    // Then:
+    assertThat(copy.getVersion(), is(not(metaStore.getVersion())));
+  }
+
+  @Test
+  public void shouldNotShareVersionWithOtherStores() {
+    assertThat(new MetaStoreImpl(functionRegistry).getVersion(),
+        is(not(new MetaStoreImpl(functionRegistry).getVersion())));
+  }
+
+  @Test
+  public void shouldNotIncrementVersionOnFailedChange() {
+    // Given:
+    metaStore.putTopic(topic);
+    final long before = metaStore.getVersion();
+
+    // When:
+    try {
+      metaStore.putTopic(topic);
+    } catch (final KsqlException e) {
+      // Expected
+    }
+
+    // Then:
+    assertThat(metaStore.getVersion(), is(before));
+  }
+
+  @Test
+  public void shouldStartCopyAtVersionOfOriginal() {
+    // Given:
+    metaStore.putTopic(topic);
+
+    // When:
+    final MetaStore copy = metaStore.copy();
+
+    // Then:
+    assertThat(copy.getVersion(), is(metaStore.getVersion()));
+  }
+
   @Test
   public void shouldNotAllowModificationViaGetAllStructuredDataSources() {
     // Given:
@@ -15,6 +15,11 @@
 
 package io.confluent.ksql.parser;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.parser.SqlBaseParser.SingleStatementContext;
 import io.confluent.ksql.parser.exception.ParseFailedException;
@@ -23,8 +28,9 @@ import io.confluent.ksql.parser.tree.Node;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.util.DataSourceExtractor;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
@@ -54,24 +60,106 @@ public class DefaultKsqlParser implements KsqlParser {
     }
   };
 
+  /**
+   * The default bound on the total length of the sql text held by each cache of a caching parser.
+   * Parse trees and prepared statements grow with the text they are built from, so bounding the
+   * text, rather than the number of entries, bounds the memory the caches hold.
+   */
+  public static final int DEFAULT_CACHE_MAX_TEXT_LENGTH = 256 * 1024;
+
+  /**
+   * The statements parsed from recently parsed sql, which are only ever read once parsed, so that
+   * sql that is submitted again and again, e.g. by dashboards, is only lexed and parsed once.
+   */
+  private final Cache<String, List<ParsedStatement>> parseCache;
+
+  /**
+   * The statements recently prepared against each version of a meta store. Prepared statements
+   * are immutable, and depend only on the statement text and the sources in the meta store, so
+   * the same statement prepared again against an unchanged store, or an unchanged copy of it,
+   * is not rebuilt.
+   */
+  private final Cache<PrepareKey, PreparedStatement<?>> prepareCache;
+
+  /**
+   * Create a parser that caches nothing.
+   */
+  public DefaultKsqlParser() {
+    this(0);
+  }
+
+  /**
+   * @param cacheMaxTextLength the maximum total length of the sql text held by each of the parse
+   *                           and prepare caches, or zero to cache nothing.
+   */
+  public DefaultKsqlParser(final int cacheMaxTextLength) {
+    if (cacheMaxTextLength < 0) {
+      throw new IllegalArgumentException(
+          "cacheMaxTextLength must not be negative: " + cacheMaxTextLength);
+    }
+    this.parseCache = CacheBuilder.newBuilder()
+        .maximumWeight(cacheMaxTextLength)
+        .<String, List<ParsedStatement>>weigher((sql, statements) -> sql.length())
+        .recordStats()
+        .build();
+    this.prepareCache = CacheBuilder.newBuilder()
+        .maximumWeight(cacheMaxTextLength)
+        .<PrepareKey, PreparedStatement<?>>weigher((key, prepared) -> key.statementText.length())
+        .recordStats()
+        .build();
+  }
+
   @Override
   public List<ParsedStatement> parse(final String sql) {
     try {
-      final SqlBaseParser.StatementsContext statementsContext = getParseTree(sql);
+      return parseCache.get(sql, () -> parseStatements(sql));
+    } catch (final ExecutionException | UncheckedExecutionException e) {
+      final Throwable cause = e.getCause();
+      throw new ParseFailedException(cause.getMessage(), sql, cause);
+    }
+  }
 
-      return statementsContext.singleStatement().stream()
-          .map(stmt -> ParsedStatement.of(getStatementString(stmt), stmt))
-          .collect(Collectors.toList());
+  public CacheStats getParseCacheStats() {
+    return parseCache.stats();
+  }
 
-    } catch (final Exception e) {
-      throw new ParseFailedException(e.getMessage(), sql, e);
-    }
+  public CacheStats getPrepareCacheStats() {
+    return prepareCache.stats();
+  }
+
+  private static List<ParsedStatement> parseStatements(final String sql) {
+    final SqlBaseParser.StatementsContext statementsContext = getParseTree(sql);
+
+    return statementsContext.singleStatement().stream()
+        .map(stmt -> ParsedStatement.of(getStatementString(stmt), stmt))
+        .collect(ImmutableList.toImmutableList());
   }
 
   @Override
   public PreparedStatement<?> prepare(
       final ParsedStatement stmt,
       final MetaStore metaStore
+  ) {
+    final long version = metaStore.getVersion();
+    if (version == 0) {
+      return prepareStatement(stmt, metaStore);
+    }
+
+    final PrepareKey key = new PrepareKey(stmt, version);
+    final PreparedStatement<?> cached = prepareCache.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    // Failures are not cached, and are thrown as they are:
+    final PreparedStatement<?> prepared = prepareStatement(stmt, metaStore);
+    prepareCache.put(key, prepared);
+    return prepared;
+  }
+
+  private static PreparedStatement<?> prepareStatement(
+      final ParsedStatement stmt,
+      final MetaStore metaStore
   ) {
     try {
       final DataSourceExtractor dataSourceExtractor = new DataSourceExtractor(metaStore);
@@ -133,4 +221,43 @@ public class DefaultKsqlParser implements KsqlParser {
         singleStatementContext.stop.getStopIndex()
     ));
   }
+
+  /**
+   * Identifies a statement prepared against a version of a meta store. The statement's position
+   * in the sql it was parsed from is included, as the nodes of the prepared statement record it.
+   */
+  private static final class PrepareKey {
+
+    private final String statementText;
+    private final int line;
+    private final int column;
+    private final long metaStoreVersion;
+
+    private PrepareKey(final ParsedStatement stmt, final long metaStoreVersion) {
+      this.statementText = stmt.getStatementText();
+      this.line = stmt.getStatement().start.getLine();
+      this.column = stmt.getStatement().start.getCharPositionInLine();
+      this.metaStoreVersion = metaStoreVersion;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final PrepareKey that = (PrepareKey) o;
+      return metaStoreVersion == that.metaStoreVersion
+          && line == that.line
+          && column == that.column
+          && statementText.equals(that.statementText);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(statementText, line, column, metaStoreVersion);
+    }
+  }
 }
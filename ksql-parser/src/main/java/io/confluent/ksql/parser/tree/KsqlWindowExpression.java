@@ -17,13 +17,14 @@ package io.confluent.ksql.parser.tree;
 
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.GenericRow;
-import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.metastore.SerdeFactory;
 import java.util.Optional;
+import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Merger;
 import org.apache.kafka.streams.kstream.Windowed;
 
 @Immutable
@@ -35,8 +36,9 @@ public abstract class KsqlWindowExpression extends Node {
 
   public abstract KTable applyAggregate(KGroupedStream groupedStream,
                                         Initializer initializer,
-                                        UdafAggregator aggregator,
-                                        Materialized<String, GenericRow, ?> materialized);
+                                        Aggregator<Object, GenericRow, GenericRow> aggregator,
+                                        Merger<Object, GenericRow> merger,
+                                        Materialized<?, GenericRow, ?> materialized);
 
   public abstract <K> SerdeFactory<Windowed<K>> getKeySerdeFactory(Class<K> innerType);
 
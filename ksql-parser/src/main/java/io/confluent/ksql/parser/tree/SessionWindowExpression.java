@@ -19,16 +19,17 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.GenericRow;
-import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.metastore.SerdeFactory;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Merger;
 import org.apache.kafka.streams.kstream.SessionWindows;
 import org.apache.kafka.streams.kstream.Windowed;
 import org.apache.kafka.streams.kstream.WindowedSerdes;
@@ -92,14 +93,15 @@ public class SessionWindowExpression extends KsqlWindowExpression {
   @Override
   public KTable applyAggregate(final KGroupedStream groupedStream,
                                final Initializer initializer,
-                               final UdafAggregator aggregator,
-                               final Materialized<String, GenericRow, ?> materialized) {
+                               final Aggregator<Object, GenericRow, GenericRow> aggregator,
+                               final Merger<Object, GenericRow> merger,
+                               final Materialized<?, GenericRow, ?> materialized) {
 
     final SessionWindows windows = SessionWindows.with(Duration.ofMillis(sizeUnit.toMillis(gap)));
 
     return groupedStream
         .windowedBy(windows)
-        .aggregate(initializer, aggregator, aggregator.getMerger(), materialized);
+        .aggregate(initializer, aggregator, merger, materialized);
   }
 
   @Override
@@ -20,6 +20,7 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.hamcrest.core.IsNot.not;
@@ -35,6 +36,7 @@ import io.confluent.ksql.metastore.MutableMetaStore;
 import io.confluent.ksql.metastore.model.KsqlStream;
 import io.confluent.ksql.metastore.model.KsqlTable;
 import io.confluent.ksql.metastore.model.KsqlTopic;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.exception.ParseFailedException;
 import io.confluent.ksql.parser.tree.AliasedRelation;
@@ -164,6 +166,96 @@ public class KsqlParserTest {
     metaStore.putSource(ksqlTableOrders);
   }
 
+  @Test
+  public void shouldReuseParseOfRepeatedSql() {
+    // Given:
+    final String sql = "SELECT * FROM test1;";
+    final DefaultKsqlParser parser = cachingParser();
+    final ParsedStatement first = parser.parse(sql).get(0);
+
+    // When:
+    final ParsedStatement second = parser.parse(sql).get(0);
+
+    // Then:
+    assertThat(second.getStatement(), is(sameInstance(first.getStatement())));
+    assertThat(second.getStatementText(), is("SELECT * FROM test1;"));
+    assertThat(parser.getParseCacheStats().hitCount(), is(1L));
+  }
+
+  @Test
+  public void shouldNotShareParseCacheBetweenParsers() {
+    // Given:
+    final String sql = "SELECT * FROM test1;";
+    final ParsedStatement first = cachingParser().parse(sql).get(0);
+
+    // When:
+    final ParsedStatement second = cachingParser().parse(sql).get(0);
+
+    // Then:
+    assertThat(second.getStatement(), is(not(sameInstance(first.getStatement()))));
+  }
+
+  @Test
+  public void shouldNotCacheParseByDefault() {
+    // Given:
+    final String sql = "SELECT * FROM test1;";
+    final DefaultKsqlParser parser = new DefaultKsqlParser();
+    final ParsedStatement first = parser.parse(sql).get(0);
+
+    // When:
+    final ParsedStatement second = parser.parse(sql).get(0);
+
+    // Then:
+    assertThat(second.getStatement(), is(not(sameInstance(first.getStatement()))));
+  }
+
+  @Test
+  public void shouldNotCacheParseOfSqlLongerThanCacheBound() {
+    // Given:
+    final String sql = "SELECT * FROM test1;";
+    final DefaultKsqlParser parser = new DefaultKsqlParser(sql.length() - 1);
+    final ParsedStatement first = parser.parse(sql).get(0);
+
+    // When:
+    final ParsedStatement second = parser.parse(sql).get(0);
+
+    // Then:
+    assertThat(second.getStatement(), is(not(sameInstance(first.getStatement()))));
+  }
+
+  @Test
+  public void shouldReusePreparationAgainstUnchangedMetaStore() {
+    // Given:
+    final DefaultKsqlParser parser = cachingParser();
+    final ParsedStatement parsed = parser.parse("SELECT * FROM test1;").get(0);
+    final PreparedStatement<?> first = parser.prepare(parsed, metaStore);
+
+    // When:
+    final PreparedStatement<?> second = parser.prepare(parsed, metaStore);
+    final PreparedStatement<?> fromCopy = parser.prepare(parsed, metaStore.copy());
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+    assertThat(fromCopy, is(sameInstance(first)));
+    assertThat(parser.getPrepareCacheStats().hitCount(), is(2L));
+  }
+
+  @Test
+  public void shouldPrepareAgainOnceMetaStoreChanges() {
+    // Given:
+    final DefaultKsqlParser parser = cachingParser();
+    final ParsedStatement parsed = parser.parse("SELECT * FROM test1;").get(0);
+    final PreparedStatement<?> first = parser.prepare(parsed, metaStore);
+
+    // When:
+    metaStore.putTopic(
+        new KsqlTopic("OTHER_TOPIC", "other_topic", new KsqlJsonTopicSerDe(), false));
+    final PreparedStatement<?> second = parser.prepare(parsed, metaStore);
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+  }
+
   @Test
   public void testSimpleQuery() {
     final String simpleQuery = "SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;";
@@ -1204,6 +1296,10 @@ public class KsqlParserTest {
     assertThat(searchedCaseExpression.getDefaultValue().isPresent(), equalTo(false));
   }
 
+  private static DefaultKsqlParser cachingParser() {
+    return new DefaultKsqlParser(DefaultKsqlParser.DEFAULT_CACHE_MAX_TEXT_LENGTH);
+  }
+
   private static SearchedCaseExpression getSearchedCaseExpressionFromCsas(final Statement statement) {
     final Query query = ((CreateStreamAsSelect) statement).getQuery();
     final Expression caseExpression = ((SingleColumn) query.getSelect().getSelectItems().get(0)).getExpression();
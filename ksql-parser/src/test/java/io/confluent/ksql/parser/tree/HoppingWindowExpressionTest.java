@@ -23,14 +23,15 @@ import static org.easymock.EasyMock.same;
 
 import com.google.common.testing.EqualsTester;
 import io.confluent.ksql.GenericRow;
-import io.confluent.ksql.function.UdafAggregator;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Merger;
 import org.apache.kafka.streams.kstream.TimeWindowedKStream;
 import org.apache.kafka.streams.kstream.TimeWindows;
 import org.apache.kafka.streams.state.WindowStore;
@@ -72,7 +73,8 @@ public class HoppingWindowExpressionTest {
   public void shouldCreateHoppingWindowAggregate() {
     final KGroupedStream stream = EasyMock.createNiceMock(KGroupedStream.class);
     final TimeWindowedKStream windowedKStream = EasyMock.createNiceMock(TimeWindowedKStream.class);
-    final UdafAggregator aggregator = EasyMock.createNiceMock(UdafAggregator.class);
+    final Aggregator<Object, GenericRow, GenericRow> aggregator = EasyMock.createNiceMock(Aggregator.class);
+    final Merger<Object, GenericRow> merger = EasyMock.createNiceMock(Merger.class);
     final HoppingWindowExpression windowExpression = new HoppingWindowExpression(10, SECONDS, 4, TimeUnit.MILLISECONDS);
     final Initializer initializer = () -> 0;
     final Materialized<String, GenericRow, WindowStore<Bytes, byte[]>> store = Materialized.as("store");
@@ -81,7 +83,7 @@ public class HoppingWindowExpressionTest {
     EasyMock.expect(windowedKStream.aggregate(same(initializer), same(aggregator), same(store))).andReturn(null);
     EasyMock.replay(stream, windowedKStream);
 
-    windowExpression.applyAggregate(stream, initializer, aggregator, store);
+    windowExpression.applyAggregate(stream, initializer, aggregator, merger, store);
     EasyMock.verify(stream, windowedKStream);
   }
 
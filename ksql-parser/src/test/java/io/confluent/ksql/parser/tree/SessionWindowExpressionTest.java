@@ -21,9 +21,9 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import io.confluent.ksql.GenericRow;
-import io.confluent.ksql.function.UdafAggregator;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.Materialized;
@@ -39,12 +39,12 @@ public class SessionWindowExpressionTest {
 
   private final KGroupedStream groupedStreamMock = EasyMock.createNiceMock(KGroupedStream.class);
   private final SessionWindowedKStream sessionWindowed = EasyMock.createNiceMock(SessionWindowedKStream.class);
-  private final UdafAggregator aggregator = EasyMock.createNiceMock(UdafAggregator.class);
+  private final Aggregator<Object, GenericRow, GenericRow> aggregator = EasyMock.createNiceMock(Aggregator.class);
   private final SessionWindowExpression expression = new SessionWindowExpression(5, TimeUnit.SECONDS);
   private final Initializer initializer = () -> 0;
   private final Materialized<String, GenericRow, SessionStore<Bytes, byte[]>> materialized = Materialized.as("store");
   private final Capture<SessionWindows> sessionWindows = EasyMock.newCapture();
-  private final Merger<String, GenericRow> merger = (s, genericRow, v1) -> genericRow;
+  private final Merger<Object, GenericRow> merger = (s, genericRow, v1) -> genericRow;
 
   @SuppressWarnings("unchecked")
   @Test
@@ -56,7 +56,7 @@ public class SessionWindowExpressionTest {
         same(materialized))).andReturn(null);
     EasyMock.replay(groupedStreamMock, aggregator, sessionWindowed);
 
-    expression.applyAggregate(groupedStreamMock, initializer, aggregator, materialized);
+    expression.applyAggregate(groupedStreamMock, initializer, aggregator, merger, materialized);
 
     assertThat(sessionWindows.getValue().inactivityGap(), equalTo(5000L));
     EasyMock.verify(groupedStreamMock);
@@ -64,18 +64,17 @@ public class SessionWindowExpressionTest {
 
   @SuppressWarnings("unchecked")
   @Test
-  public void shouldGetMergerForSessionWindowsFromUdafAggregator() {
+  public void shouldPassMergerToSessionWindowedAggregate() {
     EasyMock.expect(groupedStreamMock.windowedBy(EasyMock.capture(sessionWindows))).andReturn(sessionWindowed);
     EasyMock.expect(sessionWindowed.aggregate(same(initializer),
         same(aggregator),
         same(merger),
         same(materialized))).andReturn(null);
-    EasyMock.expect(aggregator.getMerger()).andReturn(merger);
     EasyMock.replay(groupedStreamMock, aggregator, sessionWindowed);
 
-    expression.applyAggregate(groupedStreamMock, initializer, aggregator, materialized);
+    expression.applyAggregate(groupedStreamMock, initializer, aggregator, merger, materialized);
 
-    EasyMock.verify(aggregator);
+    EasyMock.verify(sessionWindowed);
 
   }
 
@@ -18,13 +18,14 @@ package io.confluent.ksql.parser.tree;
 import static org.easymock.EasyMock.same;
 
 import io.confluent.ksql.GenericRow;
-import io.confluent.ksql.function.UdafAggregator;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Merger;
 import org.apache.kafka.streams.kstream.TimeWindowedKStream;
 import org.apache.kafka.streams.kstream.TimeWindows;
 import org.apache.kafka.streams.state.WindowStore;
@@ -38,7 +39,8 @@ public class TumblingWindowExpressionTest {
   public void shouldCreateTumblingWindowAggregate() {
     final KGroupedStream stream = EasyMock.createNiceMock(KGroupedStream.class);
     final TimeWindowedKStream windowedKStream = EasyMock.createNiceMock(TimeWindowedKStream.class);
-    final UdafAggregator aggregator = EasyMock.createNiceMock(UdafAggregator.class);
+    final Aggregator<Object, GenericRow, GenericRow> aggregator = EasyMock.createNiceMock(Aggregator.class);
+    final Merger<Object, GenericRow> merger = EasyMock.createNiceMock(Merger.class);
     final TumblingWindowExpression windowExpression = new TumblingWindowExpression(10, TimeUnit.SECONDS);
     final Initializer initializer = () -> 0;
     final Materialized<String, GenericRow, WindowStore<Bytes, byte[]>> store = Materialized.as("store");
@@ -47,7 +49,7 @@ public class TumblingWindowExpressionTest {
     EasyMock.expect(windowedKStream.aggregate(same(initializer), same(aggregator), same(store))).andReturn(null);
     EasyMock.replay(stream, windowedKStream);
 
-    windowExpression.applyAggregate(stream, initializer, aggregator, store);
+    windowExpression.applyAggregate(stream, initializer, aggregator, merger, store);
     EasyMock.verify(stream, windowedKStream);
   }
 
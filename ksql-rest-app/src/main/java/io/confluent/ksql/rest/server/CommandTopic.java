@@ -103,11 +103,29 @@ public class CommandTopic {
   }
 
   public List<QueuedCommand> getRestoreCommands(final Duration duration) {
-    final List<QueuedCommand> restoreCommands = Lists.newArrayList();
-
     commandConsumer.seekToBeginning(
         Collections.singletonList(commandTopicPartition));
 
+    return readRestoreCommands(duration);
+  }
+
+  /**
+   * Reads the commands from {@code offset} to the end of the topic, for restoring those that
+   * follow the commands held in a snapshot.
+   *
+   * @param offset the offset of the first record to read.
+   * @param duration the time to wait for each poll.
+   * @return the commands read, in order, excluding any null commands.
+   */
+  public List<QueuedCommand> getRestoreCommands(final long offset, final Duration duration) {
+    commandConsumer.seek(commandTopicPartition, offset);
+
+    return readRestoreCommands(duration);
+  }
+
+  private List<QueuedCommand> readRestoreCommands(final Duration duration) {
+    final List<QueuedCommand> restoreCommands = Lists.newArrayList();
+
     log.debug("Reading prior command records");
     ConsumerRecords<CommandId, Command> records =
         commandConsumer.poll(duration);
@@ -121,7 +139,8 @@ public class CommandTopic {
             new QueuedCommand(
                 record.key(),
                 record.value(),
-                Optional.empty()));
+                Optional.empty(),
+                record.offset()));
       }
       records = commandConsumer.poll(duration);
     }
@@ -43,6 +43,8 @@ import io.confluent.ksql.parser.tree.Type.SqlType;
 import io.confluent.ksql.rest.entity.ServerInfo;
 import io.confluent.ksql.rest.server.computation.CommandQueue;
 import io.confluent.ksql.rest.server.computation.CommandRunner;
+import io.confluent.ksql.rest.server.computation.CommandCompactor;
+import io.confluent.ksql.rest.server.computation.CommandSnapshotStore;
 import io.confluent.ksql.rest.server.computation.CommandStore;
 import io.confluent.ksql.rest.server.computation.StatementExecutor;
 import io.confluent.ksql.rest.server.resources.KsqlExceptionMapper;
@@ -50,6 +52,7 @@ import io.confluent.ksql.rest.server.resources.KsqlResource;
 import io.confluent.ksql.rest.server.resources.RootDocument;
 import io.confluent.ksql.rest.server.resources.ServerInfoResource;
 import io.confluent.ksql.rest.server.resources.StatusResource;
+import io.confluent.ksql.rest.server.resources.streaming.QueryStreamFlushPolicy;
 import io.confluent.ksql.rest.server.resources.streaming.StreamedQueryResource;
 import io.confluent.ksql.rest.server.resources.streaming.WSQueryEndpoint;
 import io.confluent.ksql.rest.util.ClusterTerminator;
@@ -74,6 +77,7 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
@@ -376,10 +380,19 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
         restConfig.getCommandConsumerProperties(),
         restConfig.getCommandProducerProperties());
 
+    final String commandSnapshotFile =
+        restConfig.getString(KsqlRestConfig.KSQL_SERVER_COMMAND_SNAPSHOT_FILE_CONFIG);
+    final Optional<CommandCompactor> commandCompactor = commandSnapshotFile.isEmpty()
+        ? Optional.empty()
+        : Optional.of(new CommandCompactor(
+            new CommandSnapshotStore(Paths.get(commandSnapshotFile), commandTopic),
+            restConfig.getInt(KsqlRestConfig.KSQL_SERVER_COMMAND_SNAPSHOT_INTERVAL_CONFIG)));
+
     final StatementExecutor statementExecutor = new StatementExecutor(
         ksqlConfig,
         ksqlEngine,
-        statementParser
+        statementParser,
+        commandCompactor
     );
 
     final RootDocument rootDocument = new RootDocument();
@@ -397,7 +410,12 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
         Duration.ofMillis(
             restConfig.getLong(KsqlRestConfig.STREAMED_QUERY_DISCONNECT_CHECK_MS_CONFIG)),
         Duration.ofMillis(restConfig.getLong(DISTRIBUTED_COMMAND_RESPONSE_TIMEOUT_MS_CONFIG)),
-        versionChecker::updateLastRequestTime
+        versionChecker::updateLastRequestTime,
+        new QueryStreamFlushPolicy(
+            restConfig.getInt(KsqlRestConfig.STREAMED_QUERY_FLUSH_MAX_ROWS_CONFIG),
+            restConfig.getLong(KsqlRestConfig.STREAMED_QUERY_FLUSH_MAX_BYTES_CONFIG),
+            Duration.ofMillis(
+                restConfig.getLong(KsqlRestConfig.STREAMED_QUERY_FLUSH_LINGER_MS_CONFIG)))
     );
 
     final Function<ServiceContext, SchemaInjector> schemaInjectorFactory = sc ->
@@ -434,7 +452,8 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
         commandStore,
         ksqlEngine,
         maxStatementRetries,
-        new ClusterTerminator(ksqlConfig, ksqlEngine, serviceContext, managedTopics)
+        new ClusterTerminator(ksqlConfig, ksqlEngine, serviceContext, managedTopics),
+        restConfig.getInt(KsqlRestConfig.KSQL_SERVER_RESTORE_THREADS_CONFIG)
     );
 
     commandRunner.processPriorCommands();
@@ -40,6 +40,29 @@ public class KsqlRestConfig extends RestConfig {
               + "JSON; this helps proactively determine if the connection has been terminated in "
               + "order to avoid keeping the created streams job alive longer than necessary";
 
+  static final String STREAMED_QUERY_FLUSH_MAX_ROWS_CONFIG =
+      "query.stream.flush.max.rows";
+
+  private static final String STREAMED_QUERY_FLUSH_MAX_ROWS_DOC =
+      "The most rows of a streamed query that are written to the response before it is "
+          + "flushed. Rows that are already waiting are written and flushed together, rather than "
+          + "one at a time";
+
+  static final String STREAMED_QUERY_FLUSH_MAX_BYTES_CONFIG =
+      "query.stream.flush.max.bytes";
+
+  private static final String STREAMED_QUERY_FLUSH_MAX_BYTES_DOC =
+      "The number of bytes of rows of a streamed query after which the response is flushed, "
+          + "even if more rows are waiting";
+
+  static final String STREAMED_QUERY_FLUSH_LINGER_MS_CONFIG =
+      "query.stream.flush.linger.ms";
+
+  private static final String STREAMED_QUERY_FLUSH_LINGER_MS_DOC =
+      "How long to wait for more rows of a streamed query before flushing the rows written so "
+          + "far. The default of zero flushes as soon as no more rows are waiting, adding no "
+          + "latency; a larger value trades latency for fewer, larger writes";
+
   static final String DISTRIBUTED_COMMAND_RESPONSE_TIMEOUT_MS_CONFIG =
       KSQL_CONFIG_PREFIX + "server.command.response.timeout.ms";
 
@@ -58,6 +81,28 @@ public class KsqlRestConfig extends RestConfig {
   private static final String KSQL_WEBSOCKETS_NUM_THREADS_DOC =
       "The number of websocket threads to handle query results";
 
+  static final String KSQL_SERVER_RESTORE_THREADS_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.restore.threads";
+  private static final String KSQL_SERVER_RESTORE_THREADS_DOC =
+      "The number of threads used to start the persistent queries restored from the command "
+          + "topic when the server starts. The commands themselves are always replayed in order "
+          + "on a single thread; only starting the queries they build is done in parallel";
+
+  static final String KSQL_SERVER_COMMAND_SNAPSHOT_FILE_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.snapshot.file";
+  private static final String KSQL_SERVER_COMMAND_SNAPSHOT_FILE_DOC =
+      "A local file in which to keep a compacted snapshot of the command topic: the commands "
+          + "that still contribute to the server's state, without those for streams and tables "
+          + "since dropped, queries since terminated, or that failed. On restart the server "
+          + "replays the snapshot and then only the commands written to the topic after it. If "
+          + "empty, the default, no snapshot is kept and every command in the topic is replayed";
+
+  static final String KSQL_SERVER_COMMAND_SNAPSHOT_INTERVAL_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.snapshot.interval";
+  private static final String KSQL_SERVER_COMMAND_SNAPSHOT_INTERVAL_DOC =
+      "The number of commands read from the command topic after which the command snapshot is "
+          + "written again, if a snapshot file is set";
+
   private static final ConfigDef CONFIG_DEF;
 
   static {
@@ -67,6 +112,27 @@ public class KsqlRestConfig extends RestConfig {
         1000L,
         Importance.LOW,
         STREAMED_QUERY_DISCONNECT_CHECK_MS_DOC
+    ).define(
+        STREAMED_QUERY_FLUSH_MAX_ROWS_CONFIG,
+        Type.INT,
+        500,
+        ConfigDef.Range.atLeast(1),
+        Importance.LOW,
+        STREAMED_QUERY_FLUSH_MAX_ROWS_DOC
+    ).define(
+        STREAMED_QUERY_FLUSH_MAX_BYTES_CONFIG,
+        Type.LONG,
+        64 * 1024L,
+        ConfigDef.Range.atLeast(1),
+        Importance.LOW,
+        STREAMED_QUERY_FLUSH_MAX_BYTES_DOC
+    ).define(
+        STREAMED_QUERY_FLUSH_LINGER_MS_CONFIG,
+        Type.LONG,
+        0L,
+        ConfigDef.Range.atLeast(0),
+        Importance.LOW,
+        STREAMED_QUERY_FLUSH_LINGER_MS_DOC
     ).define(
         DISTRIBUTED_COMMAND_RESPONSE_TIMEOUT_MS_CONFIG,
         Type.LONG,
@@ -85,6 +151,26 @@ public class KsqlRestConfig extends RestConfig {
         5,
         Importance.LOW,
         KSQL_WEBSOCKETS_NUM_THREADS_DOC
+    ).define(
+        KSQL_SERVER_RESTORE_THREADS_CONFIG,
+        Type.INT,
+        1,
+        ConfigDef.Range.atLeast(1),
+        Importance.LOW,
+        KSQL_SERVER_RESTORE_THREADS_DOC
+    ).define(
+        KSQL_SERVER_COMMAND_SNAPSHOT_FILE_CONFIG,
+        Type.STRING,
+        "",
+        Importance.LOW,
+        KSQL_SERVER_COMMAND_SNAPSHOT_FILE_DOC
+    ).define(
+        KSQL_SERVER_COMMAND_SNAPSHOT_INTERVAL_CONFIG,
+        Type.INT,
+        100,
+        ConfigDef.Range.atLeast(1),
+        Importance.LOW,
+        KSQL_SERVER_COMMAND_SNAPSHOT_INTERVAL_DOC
     );
   }
 
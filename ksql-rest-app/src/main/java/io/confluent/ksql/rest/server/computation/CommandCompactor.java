@@ -0,0 +1,275 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import io.confluent.ksql.parser.tree.AbstractStreamCreateStatement;
+import io.confluent.ksql.parser.tree.AbstractStreamDropStatement;
+import io.confluent.ksql.parser.tree.CreateAsSelect;
+import io.confluent.ksql.parser.tree.RunScript;
+import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.parser.tree.TerminateQuery;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.entity.CommandStatus;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the commands of the command topic that must still be replayed to rebuild the server's
+ * state, and writes them to a {@link CommandSnapshotStore} once every {@code snapshotInterval}
+ * commands read from the topic.
+ *
+ * <p>The commands are fed in as they are executed, with what they did, and are removed once
+ * they no longer contribute to the state:
+ * <ul>
+ *   <li>a command that failed is never kept;</li>
+ *   <li>an {@code INSERT INTO} is removed with the {@code TERMINATE} of its query;</li>
+ *   <li>the statement that created a stream or table is removed, with its {@code DROP} and the
+ *   {@code TERMINATE} of any query it started, once the source is dropped, its query is
+ *   terminated and no command still kept reads from or writes to it.</li>
+ * </ul>
+ * Every other command, such as registering a topic, is kept. A statement's dependencies on
+ * sources are taken from the sources it read when executed, so a source dropped and created
+ * again is tracked as two sources.
+ *
+ * <p>A {@code RUN SCRIPT}, or a command written before version 5, stops the snapshots being
+ * taken, as what they did is not tracked. The log is then always replayed from the last snapshot
+ * taken, if any.
+ */
+public final class CommandCompactor {
+
+  private static final Logger log = LoggerFactory.getLogger(CommandCompactor.class);
+
+  private final CommandSnapshotStore snapshotStore;
+  private final int snapshotInterval;
+  private final Set<LiveCommand> liveCommands = new LinkedHashSet<>();
+  private final Map<String, LiveCommand> sourceCreators = new HashMap<>();
+  private final Map<QueryId, LiveCommand> queryCreators = new HashMap<>();
+  private Optional<QueuedCommand> lastCommand = Optional.empty();
+  private int commandsSinceSnapshot;
+  private boolean disabled;
+
+  public CommandCompactor(final CommandSnapshotStore snapshotStore, final int snapshotInterval) {
+    if (snapshotInterval < 1) {
+      throw new IllegalArgumentException(
+          "snapshotInterval must be at least 1: " + snapshotInterval);
+    }
+    this.snapshotStore = Objects.requireNonNull(snapshotStore, "snapshotStore");
+    this.snapshotInterval = snapshotInterval;
+  }
+
+  /**
+   * @return the last snapshot written, if there is one that can be read.
+   */
+  Optional<CommandSnapshot> loadSnapshot() {
+    return snapshotStore.load();
+  }
+
+  /**
+   * Records a command that executed successfully.
+   *
+   * @param command the command.
+   * @param nextQueryId the number the query ID generator was at before it executed.
+   * @param statement the command's statement.
+   * @param query the persistent query it started, if any.
+   */
+  void executed(
+      final QueuedCommand command,
+      final long nextQueryId,
+      final Statement statement,
+      final Optional<PersistentQueryMetadata> query
+  ) {
+    read(command);
+    if (disabled) {
+      return;
+    }
+
+    if (command.getCommand().isPreVersion5() || statement instanceof RunScript) {
+      disable(command);
+      return;
+    }
+
+    final LiveCommand live = new LiveCommand(command, nextQueryId);
+    liveCommands.add(live);
+
+    if (query.isPresent()) {
+      startQuery(live, statement instanceof CreateAsSelect, query.get());
+    } else if (statement instanceof AbstractStreamCreateStatement) {
+      sourceCreators.put(((AbstractStreamCreateStatement) statement).getName().getSuffix(), live);
+      live.createsSource = true;
+    } else if (statement instanceof AbstractStreamDropStatement) {
+      drop(live, ((AbstractStreamDropStatement) statement).getName().getSuffix());
+    } else if (statement instanceof TerminateQuery) {
+      terminate(live, ((TerminateQuery) statement).getQueryId());
+    }
+  }
+
+  /**
+   * Records a command that failed, so is not kept.
+   *
+   * @param command the command.
+   */
+  void failed(final QueuedCommand command) {
+    read(command);
+  }
+
+  /**
+   * Continues from a snapshot whose commands have all been replayed.
+   *
+   * @param snapshot the snapshot.
+   */
+  void restored(final CommandSnapshot snapshot) {
+    lastCommand = Optional.of(new QueuedCommand(
+        snapshot.getLastCommand().getCommandId(),
+        snapshot.getLastCommand().getCommand(),
+        Optional.empty(),
+        snapshot.getOffset()));
+    commandsSinceSnapshot = 0;
+  }
+
+  /**
+   * Writes a snapshot if {@code snapshotInterval} commands have been read from the command topic
+   * since the last.
+   *
+   * @param nextQueryId the number the query ID generator is at.
+   * @param statuses the statuses of the commands read.
+   */
+  void snapshotIfDue(final long nextQueryId, final Map<CommandId, CommandStatus> statuses) {
+    if (disabled || !lastCommand.isPresent() || commandsSinceSnapshot < snapshotInterval) {
+      return;
+    }
+
+    final QueuedCommand last = lastCommand.get();
+    snapshotStore.write(new CommandSnapshot(
+        snapshotStore.getCommandTopic(),
+        last.getOffset().orElseThrow(IllegalStateException::new),
+        new CommandSnapshot.Entry(last.getCommandId(), last.getCommand(), nextQueryId),
+        nextQueryId,
+        getLiveCommands(),
+        statuses.entrySet().stream()
+            .collect(Collectors.toMap(e -> e.getKey().toString(), Map.Entry::getValue))
+    ));
+    commandsSinceSnapshot = 0;
+  }
+
+  List<CommandSnapshot.Entry> getLiveCommands() {
+    final List<CommandSnapshot.Entry> entries = new ArrayList<>(liveCommands.size());
+    liveCommands.forEach(live -> entries.add(new CommandSnapshot.Entry(
+        live.command.getCommandId(), live.command.getCommand(), live.nextQueryId)));
+    return entries;
+  }
+
+  private void read(final QueuedCommand command) {
+    if (command.getOffset().isPresent()) {
+      lastCommand = Optional.of(command);
+      commandsSinceSnapshot++;
+    }
+  }
+
+  private void disable(final QueuedCommand command) {
+    log.warn("No longer taking command snapshots, as the command topic holds a command whose "
+        + "effects are not tracked: {}", command.getCommand().getStatement());
+    disabled = true;
+    liveCommands.clear();
+    sourceCreators.clear();
+    queryCreators.clear();
+  }
+
+  private void startQuery(
+      final LiveCommand live,
+      final boolean createsSink,
+      final PersistentQueryMetadata query
+  ) {
+    query.getSourceNames().forEach(source -> live.dependOn(sourceCreators.get(source)));
+    for (final String sink : query.getSinkNames()) {
+      if (createsSink) {
+        sourceCreators.put(sink, live);
+      } else {
+        live.dependOn(sourceCreators.get(sink));
+      }
+    }
+    live.createsSource = createsSink;
+    live.queryRunning = true;
+    queryCreators.put(query.getQueryId(), live);
+  }
+
+  private void drop(final LiveCommand live, final String sourceName) {
+    final LiveCommand creator = sourceCreators.remove(sourceName);
+    if (creator == null) {
+      return;
+    }
+    creator.followedBy.add(live);
+    creator.dropped = true;
+    maybeRemove(creator);
+  }
+
+  private void terminate(final LiveCommand live, final QueryId queryId) {
+    final LiveCommand creator = queryCreators.remove(queryId);
+    if (creator == null) {
+      return;
+    }
+    creator.followedBy.add(live);
+    creator.queryRunning = false;
+    maybeRemove(creator);
+  }
+
+  private void maybeRemove(final LiveCommand live) {
+    if (live.queryRunning || live.dependents > 0 || (live.createsSource && !live.dropped)) {
+      return;
+    }
+
+    liveCommands.remove(live);
+    live.followedBy.forEach(liveCommands::remove);
+    for (final LiveCommand dependency : live.dependencies) {
+      dependency.dependents--;
+      maybeRemove(dependency);
+    }
+  }
+
+  private static final class LiveCommand {
+
+    private final QueuedCommand command;
+    private final long nextQueryId;
+    private final List<LiveCommand> dependencies = new ArrayList<>();
+    private final List<LiveCommand> followedBy = new ArrayList<>();
+    private int dependents;
+    private boolean createsSource;
+    private boolean queryRunning;
+    private boolean dropped;
+
+    private LiveCommand(final QueuedCommand command, final long nextQueryId) {
+      this.command = command;
+      this.nextQueryId = nextQueryId;
+    }
+
+    private void dependOn(final LiveCommand creator) {
+      if (creator == null || creator == this) {
+        return;
+      }
+      dependencies.add(creator);
+      creator.dependents++;
+    }
+  }
+}
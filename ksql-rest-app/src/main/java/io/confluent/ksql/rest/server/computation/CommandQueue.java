@@ -74,6 +74,19 @@ public interface CommandQueue extends Closeable {
    */
   List<QueuedCommand> getRestoreCommands();
 
+  /**
+   * Seeks to {@code offset} in the command queue and returns all commands between then and the
+   * end of the queue, each with its offset.
+   *
+   * <p>If the queue no longer holds, or never held, a command at {@code offset}, the commands
+   * returned may start elsewhere: callers must check the offset of the first.
+   *
+   * @param offset the offset of the first command to return
+   * @return the command list history from {@code offset}
+   * @apiNote this method may block
+   */
+  List<QueuedCommand> getRestoreCommands(long offset);
+
   /**
    * @param seqNum  the required minimum sequence number to wait for
    * @param timeout throws {@link TimeoutException} if it takes longer that
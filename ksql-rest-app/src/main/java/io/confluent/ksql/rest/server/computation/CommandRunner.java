@@ -17,9 +17,11 @@ package io.confluent.ksql.rest.server.computation;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.rest.entity.ClusterTerminateRequest;
 import io.confluent.ksql.rest.util.ClusterTerminator;
 import io.confluent.ksql.rest.util.TerminateCluster;
+import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.RetryUtil;
 import java.io.Closeable;
@@ -28,9 +30,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.apache.kafka.common.errors.WakeupException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +63,8 @@ public class CommandRunner implements Closeable {
   private volatile boolean closed = false;
   private final int maxRetries;
   private final ClusterTerminator clusterTerminator;
+  private final int restoreThreads;
+  private final RestoreMetrics restoreMetrics;
 
   public CommandRunner(
       final StatementExecutor statementExecutor,
@@ -64,6 +72,17 @@ public class CommandRunner implements Closeable {
       final KsqlEngine ksqlEngine,
       final int maxRetries,
       final ClusterTerminator clusterTerminator
+  ) {
+    this(statementExecutor, commandStore, ksqlEngine, maxRetries, clusterTerminator, 1);
+  }
+
+  public CommandRunner(
+      final StatementExecutor statementExecutor,
+      final CommandQueue commandStore,
+      final KsqlEngine ksqlEngine,
+      final int maxRetries,
+      final ClusterTerminator clusterTerminator,
+      final int restoreThreads
   ) {
     this(
         statementExecutor,
@@ -71,7 +90,9 @@ public class CommandRunner implements Closeable {
         ksqlEngine,
         maxRetries,
         clusterTerminator,
-        Executors.newSingleThreadExecutor(r -> new Thread(r, "CommandRunner"))
+        Executors.newSingleThreadExecutor(r -> new Thread(r, "CommandRunner")),
+        restoreThreads,
+        new RestoreMetrics(MetricCollectors.getMetrics())
     );
   }
 
@@ -82,14 +103,21 @@ public class CommandRunner implements Closeable {
       final KsqlEngine ksqlEngine,
       final int maxRetries,
       final ClusterTerminator clusterTerminator,
-      final ExecutorService executor
+      final ExecutorService executor,
+      final int restoreThreads,
+      final RestoreMetrics restoreMetrics
   ) {
+    if (restoreThreads < 1) {
+      throw new IllegalArgumentException("restoreThreads must be at least 1: " + restoreThreads);
+    }
     this.statementExecutor = Objects.requireNonNull(statementExecutor, "statementExecutor");
     this.commandStore = Objects.requireNonNull(commandStore, "commandStore");
     this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
     this.maxRetries = maxRetries;
     this.clusterTerminator = Objects.requireNonNull(clusterTerminator, "clusterTerminator");
     this.executor = Objects.requireNonNull(executor, "executor");
+    this.restoreThreads = restoreThreads;
+    this.restoreMetrics = Objects.requireNonNull(restoreMetrics, "restoreMetrics");
   }
 
   /**
@@ -114,29 +142,86 @@ public class CommandRunner implements Closeable {
       Thread.currentThread().interrupt();
     }
     commandStore.close();
+    restoreMetrics.close();
   }
 
   /**
    * Read and execute all commands on the command topic, starting at the earliest offset.
+   *
+   * <p>The commands are replayed one at a time, in order, as each may depend on the metastore
+   * state left by those before it. This builds, but does not start, the persistent queries, so
+   * that any terminated later in the log are never started. The queries that remain are then
+   * started together, on up to {@code restoreThreads} threads, as they are independent.
+   *
+   * <p>If the {@link StatementExecutor} keeps snapshots of the command topic, and the last still
+   * matches the topic, the commands held in the snapshot are replayed instead of those the topic
+   * holds up to it, followed by those written to the topic after it.
    */
   public void processPriorCommands() {
-    final List<QueuedCommand> restoreCommands = commandStore.getRestoreCommands();
+    final Optional<CommandSnapshot> loaded = statementExecutor.loadSnapshot();
+    final Optional<List<QueuedCommand>> commandsAfterSnapshot =
+        loaded.flatMap(this::readCommandsAfter);
+    final Optional<CommandSnapshot> snapshot = commandsAfterSnapshot.isPresent()
+        ? loaded
+        : Optional.empty();
+    final List<QueuedCommand> restoreCommands =
+        commandsAfterSnapshot.orElseGet(commandStore::getRestoreCommands);
     final Optional<QueuedCommand> terminateCmd = findTerminateCommand(restoreCommands);
     if (terminateCmd.isPresent()) {
       terminateCluster(terminateCmd.get().getCommand());
       return;
     }
-    restoreCommands.forEach(
-        command -> RetryUtil.retryWithBackoff(
-            maxRetries,
-            STATEMENT_RETRY_MS,
-            MAX_STATEMENT_RETRY_MS,
-            () -> statementExecutor.handleRestore(command),
-            WakeupException.class
-        )
-    );
+
+    final long replayStart = System.nanoTime();
+    final List<CommandSnapshot.Entry> snapshotCommands = snapshot
+        .map(CommandSnapshot::getCommands)
+        .orElse(Collections.emptyList());
+    snapshotCommands.forEach(
+        entry -> replay(() -> statementExecutor.handleSnapshotRestore(entry)));
+    snapshot.ifPresent(statementExecutor::completeRestore);
+    restoreCommands.forEach(command -> replay(() -> statementExecutor.handleRestore(command)));
+    final long replayTime = System.nanoTime() - replayStart;
+    final int numReplayed = snapshotCommands.size() + restoreCommands.size();
+    restoreMetrics.recordReplay(numReplayed, replayTime);
+    restoreMetrics.recordSnapshotReplay(snapshotCommands.size());
+
     final KsqlEngine ksqlEngine = statementExecutor.getKsqlEngine();
-    ksqlEngine.getPersistentQueries().forEach(PersistentQueryMetadata::start);
+    final List<PersistentQueryMetadata> queries = ksqlEngine.getPersistentQueries();
+    final long startStart = System.nanoTime();
+    startQueries(queries);
+    final long startTime = System.nanoTime() - startStart;
+    restoreMetrics.recordQueryStart(queries.size(), startTime);
+
+    log.info("Replayed {} prior commands, {} of them from a snapshot, in {}ms "
+            + "and started {} queries in {}ms",
+        numReplayed, snapshotCommands.size(), TimeUnit.NANOSECONDS.toMillis(replayTime),
+        queries.size(), TimeUnit.NANOSECONDS.toMillis(startTime));
+  }
+
+  /**
+   * Reads the commands that follow the snapshot, starting from its last, which the command store
+   * must still hold at the same offset for the snapshot to be of the history the store holds,
+   * rather than, say, of a topic since deleted and created again.
+   *
+   * @return the commands that follow the snapshot, if it is of the store's history.
+   */
+  private Optional<List<QueuedCommand>> readCommandsAfter(final CommandSnapshot snapshot) {
+    final List<QueuedCommand> commands = commandStore.getRestoreCommands(snapshot.getOffset());
+    if (commands.isEmpty() || !snapshot.isLastCommand(commands.get(0))) {
+      log.warn("Ignoring command snapshot that does not match the command topic");
+      return Optional.empty();
+    }
+    return Optional.of(commands.subList(1, commands.size()));
+  }
+
+  private void replay(final Runnable task) {
+    RetryUtil.retryWithBackoff(
+        maxRetries,
+        STATEMENT_RETRY_MS,
+        MAX_STATEMENT_RETRY_MS,
+        task,
+        WakeupException.class
+    );
   }
 
   void fetchAndRunCommands() {
@@ -182,6 +267,62 @@ public class CommandRunner implements Closeable {
     );
   }
 
+  /**
+   * Start the queries on up to {@code restoreThreads} threads. Every start is waited for, even
+   * once one has failed, so that no query is still starting when this returns. The failure of the
+   * first query to fail in the supplied order is then thrown, with any others suppressed by it,
+   * so which failure is reported does not depend on how the starts were scheduled.
+   */
+  private void startQueries(final List<PersistentQueryMetadata> queries) {
+    if (restoreThreads == 1 || queries.size() <= 1) {
+      queries.forEach(PersistentQueryMetadata::start);
+      return;
+    }
+
+    final AtomicInteger threadIndex = new AtomicInteger();
+    final ExecutorService startExecutor = Executors.newFixedThreadPool(
+        Math.min(restoreThreads, queries.size()),
+        r -> new Thread(r, "CommandRunner-restore-" + threadIndex.getAndIncrement()));
+    try {
+      final List<Future<?>> started = queries.stream()
+          .map(query -> startExecutor.submit(query::start))
+          .collect(Collectors.toList());
+
+      RuntimeException failure = null;
+      for (final Future<?> future : started) {
+        final Optional<RuntimeException> startFailure = waitForStart(future);
+        if (!startFailure.isPresent()) {
+          continue;
+        }
+        if (failure == null) {
+          failure = startFailure.get();
+        } else {
+          failure.addSuppressed(startFailure.get());
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    } finally {
+      startExecutor.shutdownNow();
+    }
+  }
+
+  private static Optional<RuntimeException> waitForStart(final Future<?> started) {
+    try {
+      started.get();
+      return Optional.empty();
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        return Optional.of((RuntimeException) e.getCause());
+      }
+      return Optional.of(new KsqlException("Failed to start query", e.getCause()));
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KsqlException("Interrupted while starting queries", e);
+    }
+  }
+
   private static Optional<QueuedCommand> findTerminateCommand(
       final List<QueuedCommand> restoreCommands
   ) {
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.rest.entity.CommandStatus;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The compacted state of a command topic up to and including the command at {@code offset}:
+ * the commands that must still be replayed to rebuild the metastore and the persistent queries,
+ * in order, and the statuses of all the commands read.
+ *
+ * <p>Each command is held with the number its query IDs were generated from when it was first
+ * executed, so that replaying it without the commands removed from before it gives its queries
+ * the same IDs, and so the same internal topics and state stores.
+ */
+public final class CommandSnapshot {
+
+  private final String commandTopic;
+  private final long offset;
+  private final Entry lastCommand;
+  private final long nextQueryId;
+  private final List<Entry> commands;
+  private final Map<String, CommandStatus> statuses;
+
+  @JsonCreator
+  public CommandSnapshot(
+      @JsonProperty("commandTopic") final String commandTopic,
+      @JsonProperty("offset") final long offset,
+      @JsonProperty("lastCommand") final Entry lastCommand,
+      @JsonProperty("nextQueryId") final long nextQueryId,
+      @JsonProperty("commands") final List<Entry> commands,
+      @JsonProperty("statuses") final Map<String, CommandStatus> statuses
+  ) {
+    this.commandTopic = Objects.requireNonNull(commandTopic, "commandTopic");
+    this.offset = offset;
+    this.lastCommand = Objects.requireNonNull(lastCommand, "lastCommand");
+    this.nextQueryId = nextQueryId;
+    this.commands = ImmutableList.copyOf(Objects.requireNonNull(commands, "commands"));
+    this.statuses = ImmutableMap.copyOf(Objects.requireNonNull(statuses, "statuses"));
+  }
+
+  @JsonProperty("commandTopic")
+  public String getCommandTopic() {
+    return commandTopic;
+  }
+
+  /**
+   * @return the offset of the last command read from the command topic.
+   */
+  @JsonProperty("offset")
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * @return the last command read from the command topic, which need not still be replayed, to
+   *     check that the topic still holds the history the snapshot was taken of.
+   */
+  @JsonProperty("lastCommand")
+  public Entry getLastCommand() {
+    return lastCommand;
+  }
+
+  @JsonProperty("nextQueryId")
+  public long getNextQueryId() {
+    return nextQueryId;
+  }
+
+  @JsonProperty("commands")
+  public List<Entry> getCommands() {
+    return commands;
+  }
+
+  @JsonProperty("statuses")
+  public Map<String, CommandStatus> getStatuses() {
+    return statuses;
+  }
+
+  /**
+   * @param command a command read from the command topic.
+   * @return whether it is this snapshot's last command, at the same offset.
+   */
+  boolean isLastCommand(final QueuedCommand command) {
+    return command.getOffset().equals(Optional.of(offset))
+        && command.getCommandId().equals(lastCommand.getCommandId())
+        && command.getCommand().equals(lastCommand.getCommand());
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final CommandSnapshot that = (CommandSnapshot) o;
+    return offset == that.offset
+        && nextQueryId == that.nextQueryId
+        && Objects.equals(commandTopic, that.commandTopic)
+        && Objects.equals(lastCommand, that.lastCommand)
+        && Objects.equals(commands, that.commands)
+        && Objects.equals(statuses, that.statuses);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(commandTopic, offset, lastCommand, nextQueryId, commands, statuses);
+  }
+
+  /**
+   * A command, with the number its query IDs were generated from when it was executed.
+   */
+  public static final class Entry {
+
+    private final CommandId commandId;
+    private final Command command;
+    private final long nextQueryId;
+
+    @JsonCreator
+    public Entry(
+        @JsonProperty("commandId") final CommandId commandId,
+        @JsonProperty("command") final Command command,
+        @JsonProperty("nextQueryId") final long nextQueryId
+    ) {
+      this.commandId = Objects.requireNonNull(commandId, "commandId");
+      this.command = Objects.requireNonNull(command, "command");
+      this.nextQueryId = nextQueryId;
+    }
+
+    @JsonProperty("commandId")
+    public CommandId getCommandId() {
+      return commandId;
+    }
+
+    @JsonProperty("command")
+    public Command getCommand() {
+      return command;
+    }
+
+    @JsonProperty("nextQueryId")
+    public long getNextQueryId() {
+      return nextQueryId;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Entry that = (Entry) o;
+      return nextQueryId == that.nextQueryId
+          && Objects.equals(commandId, that.commandId)
+          && Objects.equals(command, that.command);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(commandId, command, nextQueryId);
+    }
+
+    @Override
+    public String toString() {
+      return "Entry{"
+          + "commandId=" + commandId
+          + ", command=" + command
+          + ", nextQueryId=" + nextQueryId
+          + '}';
+    }
+  }
+}
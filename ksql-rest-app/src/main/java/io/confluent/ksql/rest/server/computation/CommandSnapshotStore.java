@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.ksql.metrics.MetricCollectors;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads and writes the {@link CommandSnapshot} of a command topic in a local file.
+ *
+ * <p>Each snapshot is written to a temporary file that then replaces the last, so that a server
+ * that stops part way through writing one still finds the last complete snapshot. Failing to
+ * read or write a snapshot is logged rather than thrown, as the server can always restore from
+ * the command topic alone.
+ */
+public class CommandSnapshotStore implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(CommandSnapshotStore.class);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final String METRIC_GROUP = "ksql-restore";
+
+  private final Path file;
+  private final String commandTopic;
+  private final Metrics metrics;
+  private final List<Sensor> sensors = new ArrayList<>();
+  private final Sensor snapshotCommands;
+  private final Sensor snapshotBytes;
+
+  public CommandSnapshotStore(final Path file, final String commandTopic) {
+    this(file, commandTopic, MetricCollectors.getMetrics());
+  }
+
+  CommandSnapshotStore(final Path file, final String commandTopic, final Metrics metrics) {
+    this.file = Objects.requireNonNull(file, "file");
+    this.commandTopic = Objects.requireNonNull(commandTopic, "commandTopic");
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    this.snapshotCommands = configureSensor("snapshot-commands",
+        "The number of commands in the last command snapshot read or written");
+    this.snapshotBytes = configureSensor("snapshot-bytes",
+        "The size of the last command snapshot read or written, in bytes");
+  }
+
+  /**
+   * @return the snapshot, if there is one, it can be read and it is of this store's topic.
+   */
+  Optional<CommandSnapshot> load() {
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+
+    final byte[] bytes;
+    final CommandSnapshot snapshot;
+    try {
+      bytes = Files.readAllBytes(file);
+      snapshot = MAPPER.readValue(bytes, CommandSnapshot.class);
+    } catch (final IOException | RuntimeException e) {
+      log.warn("Ignoring command snapshot that could not be read: {}", file, e);
+      return Optional.empty();
+    }
+
+    if (!snapshot.getCommandTopic().equals(commandTopic)) {
+      log.warn("Ignoring command snapshot {} of another command topic: {}",
+          file, snapshot.getCommandTopic());
+      return Optional.empty();
+    }
+
+    record(snapshot, bytes);
+    return Optional.of(snapshot);
+  }
+
+  String getCommandTopic() {
+    return commandTopic;
+  }
+
+  void write(final CommandSnapshot snapshot) {
+    final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      final byte[] bytes = MAPPER.writeValueAsBytes(snapshot);
+      Files.write(temp, bytes);
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      record(snapshot, bytes);
+      log.debug("Wrote command snapshot of {} commands, to offset {}, to {}",
+          snapshot.getCommands().size(), snapshot.getOffset(), file);
+    } catch (final IOException e) {
+      log.warn("Failed to write command snapshot: {}", file, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    sensors.forEach(sensor -> metrics.removeSensor(sensor.name()));
+  }
+
+  private void record(final CommandSnapshot snapshot, final byte[] bytes) {
+    snapshotCommands.record(snapshot.getCommands().size());
+    snapshotBytes.record(bytes.length);
+  }
+
+  private Sensor configureSensor(final String name, final String description) {
+    final Sensor sensor = metrics.sensor(METRIC_GROUP + "-" + name);
+    final MetricName metricName = metrics.metricName(name, METRIC_GROUP, description);
+    if (metrics.metric(metricName) == null) {
+      sensor.add(metricName, new Value());
+    }
+    sensors.add(sensor);
+    return sensor;
+  }
+}
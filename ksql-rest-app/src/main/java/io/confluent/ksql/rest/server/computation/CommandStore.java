@@ -139,7 +139,8 @@ public class CommandStore implements CommandQueue, Closeable {
                 new QueuedCommand(
                     c.key(),
                     c.value(),
-                    Optional.ofNullable(commandStatusMap.remove(c.key()))
+                    Optional.ofNullable(commandStatusMap.remove(c.key())),
+                    c.offset()
                 )
             );
           }
@@ -152,6 +153,11 @@ public class CommandStore implements CommandQueue, Closeable {
     return commandTopic.getRestoreCommands(POLLING_TIMEOUT_FOR_COMMAND_TOPIC);
   }
 
+  @Override
+  public List<QueuedCommand> getRestoreCommands(final long offset) {
+    return commandTopic.getRestoreCommands(offset, POLLING_TIMEOUT_FOR_COMMAND_TOPIC);
+  }
+
   @Override
   public void ensureConsumedPast(final long seqNum, final Duration timeout)
       throws InterruptedException, TimeoutException {
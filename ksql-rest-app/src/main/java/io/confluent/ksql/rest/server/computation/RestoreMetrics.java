@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Value;
+
+/**
+ * Reports how long each phase of restoring the server's state from the command topic took, and
+ * how much work each did: replaying the prior commands, which rebuilds the metastore and the
+ * persistent queries, and then starting those queries. Of the commands replayed, the number
+ * replayed from a snapshot of the command topic, rather than read from the topic, is reported
+ * separately.
+ */
+class RestoreMetrics implements Closeable {
+
+  private static final String METRIC_GROUP = "ksql-restore";
+
+  private final Metrics metrics;
+  private final List<Sensor> sensors = new ArrayList<>();
+  private final Sensor commandsReplayed;
+  private final Sensor snapshotCommandsReplayed;
+  private final Sensor replayTime;
+  private final Sensor queriesStarted;
+  private final Sensor queryStartTime;
+
+  RestoreMetrics(final Metrics metrics) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    this.commandsReplayed = configureSensor("commands-replayed",
+        "The number of prior commands replayed from the command topic on startup");
+    this.snapshotCommandsReplayed = configureSensor("snapshot-commands-replayed",
+        "The number of the prior commands replayed on startup that were read from the command "
+            + "snapshot rather than the command topic");
+    this.replayTime = configureSensor("replay-time-ms",
+        "The time taken to replay the prior commands on startup, in milliseconds");
+    this.queriesStarted = configureSensor("queries-started",
+        "The number of persistent queries started once the prior commands were replayed");
+    this.queryStartTime = configureSensor("query-start-time-ms",
+        "The time taken to start the persistent queries on startup, in milliseconds");
+  }
+
+  void recordReplay(final int numCommands, final long elapsedNanos) {
+    commandsReplayed.record(numCommands);
+    replayTime.record(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+  }
+
+  void recordSnapshotReplay(final int numCommands) {
+    snapshotCommandsReplayed.record(numCommands);
+  }
+
+  void recordQueryStart(final int numQueries, final long elapsedNanos) {
+    queriesStarted.record(numQueries);
+    queryStartTime.record(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+  }
+
+  @Override
+  public void close() {
+    sensors.forEach(sensor -> metrics.removeSensor(sensor.name()));
+  }
+
+  private Sensor configureSensor(final String name, final String description) {
+    final Sensor sensor = metrics.sensor(METRIC_GROUP + "-" + name);
+    final MetricName metricName = metrics.metricName(name, METRIC_GROUP, description);
+    if (metrics.metric(metricName) == null) {
+      sensor.add(metricName, new Value());
+    }
+    sensors.add(sensor);
+    return sensor;
+  }
+}
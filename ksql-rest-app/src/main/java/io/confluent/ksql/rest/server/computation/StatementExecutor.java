@@ -61,6 +61,7 @@ public class StatementExecutor {
   private final KsqlEngine ksqlEngine;
   private final StatementParser statementParser;
   private final Map<CommandId, CommandStatus> statusStore;
+  private final Optional<CommandCompactor> compactor;
 
   private enum Mode {
     RESTORE,
@@ -71,6 +72,19 @@ public class StatementExecutor {
       final KsqlConfig ksqlConfig,
       final KsqlEngine ksqlEngine,
       final StatementParser statementParser
+  ) {
+    this(ksqlConfig, ksqlEngine, statementParser, Optional.empty());
+  }
+
+  /**
+   * @param compactor if present, is fed each command executed, to keep the snapshots of the
+   *     command topic that the commands can be restored from.
+   */
+  public StatementExecutor(
+      final KsqlConfig ksqlConfig,
+      final KsqlEngine ksqlEngine,
+      final StatementParser statementParser,
+      final Optional<CommandCompactor> compactor
   ) {
     Objects.requireNonNull(ksqlConfig, "ksqlConfig cannot be null.");
     Objects.requireNonNull(ksqlEngine, "ksqlEngine cannot be null.");
@@ -79,6 +93,7 @@ public class StatementExecutor {
     this.ksqlEngine = ksqlEngine;
     this.statementParser = statementParser;
     this.statusStore = new ConcurrentHashMap<>();
+    this.compactor = Objects.requireNonNull(compactor, "compactor");
   }
 
   protected KsqlEngine getKsqlEngine() {
@@ -91,22 +106,46 @@ public class StatementExecutor {
    * @param queuedCommand The command to be executed
    */
   void handleStatement(final QueuedCommand queuedCommand) {
-    handleStatementWithTerminatedQueries(
-        queuedCommand.getCommand(),
-        queuedCommand.getCommandId(),
-        queuedCommand.getStatus(),
-        Mode.EXECUTE);
+    handleStatementWithTerminatedQueries(queuedCommand, Mode.EXECUTE);
   }
 
   void handleRestore(final QueuedCommand queuedCommand) {
+    handleStatementWithTerminatedQueries(queuedCommand, Mode.RESTORE);
+  }
+
+  /**
+   * @return the last snapshot of the command topic taken, if snapshots are kept and there is one.
+   */
+  Optional<CommandSnapshot> loadSnapshot() {
+    return compactor.flatMap(CommandCompactor::loadSnapshot);
+  }
+
+  /**
+   * Replay a command held in a snapshot, giving its queries the IDs they were first given.
+   *
+   * @param entry the command to be replayed
+   */
+  void handleSnapshotRestore(final CommandSnapshot.Entry entry) {
+    ksqlEngine.getQueryIdGenerator().setNextId(entry.getNextQueryId());
     handleStatementWithTerminatedQueries(
-        queuedCommand.getCommand(),
-        queuedCommand.getCommandId(),
-        queuedCommand.getStatus(),
+        new QueuedCommand(entry.getCommandId(), entry.getCommand()),
         Mode.RESTORE
     );
   }
 
+  /**
+   * Complete restoring from a snapshot, once all its commands have been replayed and before any
+   * that follow it in the command topic are.
+   *
+   * @param snapshot the snapshot restored from
+   */
+  void completeRestore(final CommandSnapshot snapshot) {
+    ksqlEngine.getQueryIdGenerator().setNextId(snapshot.getNextQueryId());
+    snapshot.getStatuses().forEach(
+        (commandId, status) -> statusStore.put(CommandId.fromString(commandId), status));
+    compactor.ifPresent(c -> c.restored(snapshot));
+  }
+
   /**
    * Get details on the statuses of all the statements handled thus far.
    *
@@ -142,16 +181,18 @@ public class StatementExecutor {
   /**
    * Attempt to execute a single statement.
    *
-   * @param command The string containing the statement to be executed
-   * @param commandId The ID to be used to track the status of the command
+   * @param queuedCommand The command to be executed
    * @param mode was this table/stream subsequently dropped
    */
   private void handleStatementWithTerminatedQueries(
-      final Command command,
-      final CommandId commandId,
-      final Optional<CommandStatusFuture> commandStatusFuture,
+      final QueuedCommand queuedCommand,
       final Mode mode
   ) {
+    final Command command = queuedCommand.getCommand();
+    final CommandId commandId = queuedCommand.getCommandId();
+    final Optional<CommandStatusFuture> commandStatusFuture = queuedCommand.getStatus();
+    final Optional<Long> nextQueryId =
+        compactor.map(c -> ksqlEngine.getQueryIdGenerator().peekNextId());
     try {
       final String statementString = command.getStatement();
       maybeTerminateQueryForLegacyDropCommand(commandId, command);
@@ -165,8 +206,10 @@ public class StatementExecutor {
           commandStatusFuture,
           new CommandStatus(CommandStatus.Status.EXECUTING, "Executing statement")
       );
-      executeStatement(
+      final Optional<PersistentQueryMetadata> query = executeStatement(
           statement, command, commandId, commandStatusFuture, mode);
+      compactor.ifPresent(
+          c -> c.executed(queuedCommand, nextQueryId.get(), statement.getStatement(), query));
     } catch (final KsqlException exception) {
       log.error("Failed to handle: " + command, exception);
       final CommandStatus errorStatus = new CommandStatus(
@@ -174,11 +217,14 @@ public class StatementExecutor {
           ExceptionUtil.stackTraceToString(exception)
       );
       putFinalStatus(commandId, commandStatusFuture, errorStatus);
+      compactor.ifPresent(c -> c.failed(queuedCommand));
     }
+    compactor.ifPresent(c -> c.snapshotIfDue(
+        ksqlEngine.getQueryIdGenerator().peekNextId(), statusStore));
   }
 
   @SuppressWarnings({"unchecked", "deprecation"})
-  private void executeStatement(
+  private Optional<PersistentQueryMetadata> executeStatement(
       final PreparedStatement<?> statement,
       final Command command,
       final CommandId commandId,
@@ -186,14 +232,15 @@ public class StatementExecutor {
       final Mode mode
   ) {
     String successMessage = "";
+    Optional<PersistentQueryMetadata> query = Optional.empty();
     if (statement.getStatement() instanceof ExecutableDdlStatement) {
       successMessage = executeDdlStatement(statement, command);
     } else if (statement.getStatement() instanceof CreateAsSelect) {
-      startQuery(statement, command, mode);
+      query = Optional.of(startQuery(statement, command, mode));
       successMessage = statement.getStatement() instanceof CreateTableAsSelect
           ? "Table created and running" : "Stream created and running";
     } else if (statement.getStatement() instanceof InsertInto) {
-      startQuery(statement, command, mode);
+      query = Optional.of(startQuery(statement, command, mode));
       successMessage = "Insert Into query is running.";
     } else if (statement.getStatement() instanceof TerminateQuery) {
       terminateQuery((PreparedStatement<TerminateQuery>) statement);
@@ -211,6 +258,7 @@ public class StatementExecutor {
         new CommandStatus(CommandStatus.Status.SUCCESS, successMessage);
 
     putFinalStatus(commandId, commandStatusFuture, successStatus);
+    return query;
   }
 
   @SuppressWarnings("ConstantConditions")
@@ -267,7 +315,7 @@ public class StatementExecutor {
     }
   }
 
-  private void startQuery(
+  private PersistentQueryMetadata startQuery(
       final PreparedStatement<?> statement,
       final Command command,
       final Mode mode
@@ -297,6 +345,7 @@ public class StatementExecutor {
     if (mode == Mode.EXECUTE) {
       persistentQueryMd.start();
     }
+    return persistentQueryMd;
   }
 
   private KsqlConfig buildMergedConfig(final Command command) {
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * When the rows of a streamed query are flushed to the client.
+ *
+ * <p>Rows already waiting to be sent are written in a batch, and flushed together once the batch
+ * holds {@code maxRows} rows or {@code maxBytes} bytes, or once no more rows arrive within
+ * {@code linger} of the first row of the batch. With no linger, a batch is flushed as soon as no
+ * more rows are waiting, so batching adds no latency.
+ */
+public final class QueryStreamFlushPolicy {
+
+  public static final QueryStreamFlushPolicy DEFAULT =
+      new QueryStreamFlushPolicy(500, 64 * 1024, Duration.ZERO);
+
+  private final int maxRows;
+  private final long maxBytes;
+  private final Duration linger;
+
+  public QueryStreamFlushPolicy(final int maxRows, final long maxBytes, final Duration linger) {
+    if (maxRows < 1) {
+      throw new IllegalArgumentException("maxRows must be at least 1: " + maxRows);
+    }
+    this.maxRows = maxRows;
+    this.maxBytes = maxBytes;
+    this.linger = Objects.requireNonNull(linger, "linger");
+  }
+
+  int getMaxRows() {
+    return maxRows;
+  }
+
+  long getMaxBytes() {
+    return maxBytes;
+  }
+
+  Duration getLinger() {
+    return linger;
+  }
+}
@@ -15,8 +15,12 @@
 
 package io.confluent.ksql.rest.server.resources.streaming;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.collect.Lists;
+import com.google.common.io.CountingOutputStream;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.util.KsqlException;
@@ -27,6 +31,7 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.kafka.streams.KeyValue;
@@ -40,6 +45,8 @@ class QueryStreamWriter implements StreamingOutput {
   private final QueuedQueryMetadata queryMetadata;
   private final long disconnectCheckInterval;
   private final ObjectMapper objectMapper;
+  private final ObjectWriter rowWriter;
+  private final QueryStreamFlushPolicy flushPolicy;
   private volatile Exception streamsException;
   private volatile boolean limitReached = false;
 
@@ -47,8 +54,19 @@ class QueryStreamWriter implements StreamingOutput {
       final QueuedQueryMetadata queryMetadata,
       final long disconnectCheckInterval,
       final ObjectMapper objectMapper
+  ) {
+    this(queryMetadata, disconnectCheckInterval, objectMapper, QueryStreamFlushPolicy.DEFAULT);
+  }
+
+  QueryStreamWriter(
+      final QueuedQueryMetadata queryMetadata,
+      final long disconnectCheckInterval,
+      final ObjectMapper objectMapper,
+      final QueryStreamFlushPolicy flushPolicy
   ) {
     this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+    this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.flushPolicy = Objects.requireNonNull(flushPolicy, "flushPolicy");
     this.disconnectCheckInterval = disconnectCheckInterval;
     this.queryMetadata = Objects.requireNonNull(queryMetadata, "queryMetadata");
     this.queryMetadata.setLimitHandler(new LimitHandler());
@@ -58,24 +76,28 @@ class QueryStreamWriter implements StreamingOutput {
 
   @Override
   public void write(final OutputStream out) {
+    JsonGenerator generator = null;
     try {
+      final CountingOutputStream countingOut = new CountingOutputStream(out);
+      generator = createGenerator(countingOut);
+
       while (queryMetadata.isRunning() && !limitReached) {
         final KeyValue<String, GenericRow> value = queryMetadata.getRowQueue().poll(
             disconnectCheckInterval,
             TimeUnit.MILLISECONDS
         );
         if (value != null) {
-          write(out, value.value);
+          writeBatch(generator, countingOut, value);
         } else {
           // If no new rows have been written, the user may have terminated the connection without
           // us knowing. Check by trying to write a single newline.
-          out.write("\n".getBytes(StandardCharsets.UTF_8));
-          out.flush();
+          generator.writeRaw('\n');
+          generator.flush();
         }
-        drainAndThrowOnError(out);
+        drainAndThrowOnError(generator);
       }
 
-      drain(out);
+      drain(generator);
 
       if (limitReached) {
         objectMapper.writeValue(out, StreamedRow.finalMessage("Limit Reached"));
@@ -91,20 +113,75 @@ class QueryStreamWriter implements StreamingOutput {
       log.warn("Interrupted while writing to connection stream");
     } catch (final Exception exception) {
       log.error("Exception occurred while writing to connection stream: ", exception);
-      outputException(out, exception);
+      outputException(out, generator, exception);
     } finally {
       queryMetadata.close();
     }
   }
 
-  private void write(final OutputStream output, final GenericRow row) throws IOException {
-    objectMapper.writeValue(output, StreamedRow.row(row));
-    output.write("\n".getBytes(StandardCharsets.UTF_8));
-    output.flush();
+  /**
+   * Creates the generator that all of the connection's rows are written through, which buffers
+   * them until they are flushed.
+   */
+  private JsonGenerator createGenerator(final OutputStream out) throws IOException {
+    final JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // Rows are separated by newlines, which are written explicitly:
+    generator.setRootValueSeparator(null);
+    return generator;
   }
 
-  private void outputException(final OutputStream out, final Throwable exception) {
+  /**
+   * Writes the first row of a batch, followed by any more rows that are waiting, or that arrive
+   * within the policy's linger time, then flushes them all at once.
+   */
+  private void writeBatch(
+      final JsonGenerator generator,
+      final CountingOutputStream countingOut,
+      final KeyValue<String, GenericRow> first
+  ) throws IOException, InterruptedException {
+    final BlockingQueue<KeyValue<String, GenericRow>> rowQueue = queryMetadata.getRowQueue();
+    final long lingerNs = flushPolicy.getLinger().toNanos();
+    final long lingerDeadline = System.nanoTime() + lingerNs;
+    final long startBytes = countingOut.getCount();
+
+    int rows = 0;
+    KeyValue<String, GenericRow> next = first;
+    while (next != null) {
+      write(generator, next.value);
+
+      final long bytes =
+          countingOut.getCount() + Math.max(0, generator.getOutputBuffered()) - startBytes;
+      if (++rows >= flushPolicy.getMaxRows() || bytes >= flushPolicy.getMaxBytes()) {
+        break;
+      }
+
+      next = rowQueue.poll();
+      if (next == null && lingerNs > 0) {
+        final long remaining = lingerDeadline - System.nanoTime();
+        if (remaining > 0) {
+          next = rowQueue.poll(remaining, TimeUnit.NANOSECONDS);
+        }
+      }
+    }
+
+    generator.flush();
+  }
+
+  private void write(final JsonGenerator generator, final GenericRow row) throws IOException {
+    rowWriter.writeValue(generator, StreamedRow.row(row));
+    generator.writeRaw('\n');
+  }
+
+  private void outputException(
+      final OutputStream out,
+      final JsonGenerator generator,
+      final Throwable exception
+  ) {
     try {
+      if (generator != null) {
+        generator.flush();
+      }
       out.write("\n".getBytes(StandardCharsets.UTF_8));
       if (exception.getCause() instanceof KsqlException) {
         objectMapper.writeValue(out, StreamedRow.error(exception.getCause()));
@@ -118,20 +195,21 @@ class QueryStreamWriter implements StreamingOutput {
     }
   }
 
-  private void drainAndThrowOnError(final OutputStream out) throws Exception {
+  private void drainAndThrowOnError(final JsonGenerator generator) throws Exception {
     if (streamsException != null) {
-      drain(out);
+      drain(generator);
       throw streamsException;
     }
   }
 
-  private void drain(final OutputStream out) throws IOException {
+  private void drain(final JsonGenerator generator) throws IOException {
     final List<KeyValue<String, GenericRow>> rows = Lists.newArrayList();
     queryMetadata.getRowQueue().drainTo(rows);
 
     for (final KeyValue<String, GenericRow> row : rows) {
-      write(out, row.value);
+      write(generator, row.value);
     }
+    generator.flush();
   }
 
   private class StreamsExceptionHandler implements Thread.UncaughtExceptionHandler {
@@ -64,6 +64,7 @@ public class StreamedQueryResource {
   private final Duration commandQueueCatchupTimeout;
   private final ObjectMapper objectMapper;
   private final ActivenessRegistrar activenessRegistrar;
+  private final QueryStreamFlushPolicy flushPolicy;
 
   public StreamedQueryResource(
       final KsqlConfig ksqlConfig,
@@ -74,6 +75,30 @@ public class StreamedQueryResource {
       final Duration disconnectCheckInterval,
       final Duration commandQueueCatchupTimeout,
       final ActivenessRegistrar activenessRegistrar
+  ) {
+    this(
+        ksqlConfig,
+        ksqlEngine,
+        serviceContext,
+        statementParser,
+        commandQueue,
+        disconnectCheckInterval,
+        commandQueueCatchupTimeout,
+        activenessRegistrar,
+        QueryStreamFlushPolicy.DEFAULT
+    );
+  }
+
+  public StreamedQueryResource(
+      final KsqlConfig ksqlConfig,
+      final KsqlEngine ksqlEngine,
+      final ServiceContext serviceContext,
+      final StatementParser statementParser,
+      final CommandQueue commandQueue,
+      final Duration disconnectCheckInterval,
+      final Duration commandQueueCatchupTimeout,
+      final ActivenessRegistrar activenessRegistrar,
+      final QueryStreamFlushPolicy flushPolicy
   ) {
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
@@ -87,6 +112,7 @@ public class StreamedQueryResource {
     this.objectMapper = JsonMapper.INSTANCE.mapper;
     this.activenessRegistrar =
         Objects.requireNonNull(activenessRegistrar, "activenessRegistrar");
+    this.flushPolicy = Objects.requireNonNull(flushPolicy, "flushPolicy");
   }
 
   @POST
@@ -164,7 +190,8 @@ public class StreamedQueryResource {
     final QueryStreamWriter queryStreamWriter = new QueryStreamWriter(
         (QueuedQueryMetadata) query,
         disconnectCheckInterval.toMillis(),
-        objectMapper);
+        objectMapper,
+        flushPolicy);
 
     log.info("Streaming query '{}'", statement.getStatementText());
     return Response.ok().entity(queryStreamWriter).build();
@@ -20,6 +20,7 @@ import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -169,9 +170,9 @@ public class CommandTopicTest {
     when(commandConsumer.poll(any(Duration.class)))
         .thenReturn(someConsumerRecords(
             new ConsumerRecord<>("topic", 0, 0, commandId1, command1),
-            new ConsumerRecord<>("topic", 0, 0, commandId2, command2)))
+            new ConsumerRecord<>("topic", 0, 1, commandId2, command2)))
         .thenReturn(someConsumerRecords(
-            new ConsumerRecord<>("topic", 0, 0, commandId3, command3)))
+            new ConsumerRecord<>("topic", 0, 2, commandId3, command3)))
         .thenReturn(new ConsumerRecords<>(Collections.emptyMap()));
 
     // When:
@@ -183,9 +184,9 @@ public class CommandTopicTest {
     assertThat(topicPartitionsCaptor.getValue(),
         equalTo(Collections.singletonList(new TopicPartition(COMMAND_TOPIC_NAME, 0))));
     assertThat(queuedCommandList, equalTo(ImmutableList.of(
-        new QueuedCommand(commandId1, command1, Optional.empty()),
-        new QueuedCommand(commandId2, command2, Optional.empty()),
-        new QueuedCommand(commandId3, command3, Optional.empty()))));
+        new QueuedCommand(commandId1, command1, Optional.empty(), 0L),
+        new QueuedCommand(commandId2, command2, Optional.empty(), 1L),
+        new QueuedCommand(commandId3, command3, Optional.empty(), 2L))));
   }
 
 
@@ -195,10 +196,10 @@ public class CommandTopicTest {
     when(commandConsumer.poll(any(Duration.class)))
         .thenReturn(someConsumerRecords(
             new ConsumerRecord<>("topic", 0, 0, commandId1, command1),
-            new ConsumerRecord<>("topic", 0, 0, commandId2, command2)))
+            new ConsumerRecord<>("topic", 0, 1, commandId2, command2)))
         .thenReturn(someConsumerRecords(
-            new ConsumerRecord<>("topic", 0, 0, commandId2, command3),
-            new ConsumerRecord<>("topic", 0, 0, commandId3, command3)))
+            new ConsumerRecord<>("topic", 0, 2, commandId2, command3),
+            new ConsumerRecord<>("topic", 0, 3, commandId3, command3)))
         .thenReturn(new ConsumerRecords<>(Collections.emptyMap()));
 
     // When:
@@ -207,10 +208,10 @@ public class CommandTopicTest {
 
     // Then:
     assertThat(queuedCommandList, equalTo(ImmutableList.of(
-        new QueuedCommand(commandId1, command1, Optional.empty()),
-        new QueuedCommand(commandId2, command2, Optional.empty()),
-        new QueuedCommand(commandId2, command3, Optional.empty()),
-        new QueuedCommand(commandId3, command3, Optional.empty()))));
+        new QueuedCommand(commandId1, command1, Optional.empty(), 0L),
+        new QueuedCommand(commandId2, command2, Optional.empty(), 1L),
+        new QueuedCommand(commandId2, command3, Optional.empty(), 2L),
+        new QueuedCommand(commandId3, command3, Optional.empty(), 3L))));
   }
 
 
@@ -220,8 +221,8 @@ public class CommandTopicTest {
     when(commandConsumer.poll(any(Duration.class)))
         .thenReturn(someConsumerRecords(
             new ConsumerRecord<>("topic", 0, 0, commandId1, command1),
-            new ConsumerRecord<>("topic", 0, 0, commandId2, command2),
-            new ConsumerRecord<>("topic", 0, 0, commandId2, null)
+            new ConsumerRecord<>("topic", 0, 1, commandId2, command2),
+            new ConsumerRecord<>("topic", 0, 2, commandId2, null)
         ))
         .thenReturn(new ConsumerRecords<>(Collections.emptyMap()));
 
@@ -231,8 +232,29 @@ public class CommandTopicTest {
 
     // Then:
     assertThat(queuedCommandList, equalTo(ImmutableList.of(
-        new QueuedCommand(commandId1, command1, Optional.empty()),
-        new QueuedCommand(commandId2, command2, Optional.empty()))));
+        new QueuedCommand(commandId1, command1, Optional.empty(), 0L),
+        new QueuedCommand(commandId2, command2, Optional.empty(), 1L))));
+  }
+
+  @Test
+  public void shouldGetRestoreCommandsFromOffset() {
+    // Given:
+    when(commandConsumer.poll(any(Duration.class)))
+        .thenReturn(someConsumerRecords(
+            new ConsumerRecord<>("topic", 0, 5, commandId1, command1),
+            new ConsumerRecord<>("topic", 0, 6, commandId2, command2)))
+        .thenReturn(new ConsumerRecords<>(Collections.emptyMap()));
+
+    // When:
+    final List<QueuedCommand> queuedCommandList = commandTopic
+        .getRestoreCommands(5, Duration.ofMillis(1));
+
+    // Then:
+    verify(commandConsumer).seek(TOPIC_PARTITION, 5);
+    verify(commandConsumer, never()).seekToBeginning(any());
+    assertThat(queuedCommandList, equalTo(ImmutableList.of(
+        new QueuedCommand(commandId1, command1, Optional.empty(), 5L),
+        new QueuedCommand(commandId2, command2, Optional.empty(), 6L))));
   }
 
   @Test
@@ -259,8 +281,8 @@ public class CommandTopicTest {
     // Given:
     final ConsumerRecords<CommandId, Command> records = someConsumerRecords(
         new ConsumerRecord<>("topic", 0, 0, commandId1, command1),
-        new ConsumerRecord<>("topic", 0, 0, commandId2, command2),
-        new ConsumerRecord<>("topic", 0, 0, commandId3, command3));
+        new ConsumerRecord<>("topic", 0, 1, commandId2, command2),
+        new ConsumerRecord<>("topic", 0, 2, commandId3, command3));
 
     when(commandTopic.getNewCommands(any()))
         .thenReturn(records)
@@ -271,9 +293,9 @@ public class CommandTopicTest {
 
     // Then:
     assertThat(commands, equalTo(Arrays.asList(
-        new QueuedCommand(commandId1, command1, Optional.empty()),
-        new QueuedCommand(commandId2, command2, Optional.empty()),
-        new QueuedCommand(commandId3, command3, Optional.empty())
+        new QueuedCommand(commandId1, command1, Optional.empty(), 0L),
+        new QueuedCommand(commandId2, command2, Optional.empty(), 1L),
+        new QueuedCommand(commandId3, command3, Optional.empty(), 2L)
     )));
   }
 
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.parser.tree.AbstractStreamCreateStatement;
+import io.confluent.ksql.parser.tree.CreateStream;
+import io.confluent.ksql.parser.tree.CreateStreamAsSelect;
+import io.confluent.ksql.parser.tree.DropStream;
+import io.confluent.ksql.parser.tree.InsertInto;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.RegisterTopic;
+import io.confluent.ksql.parser.tree.RunScript;
+import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.parser.tree.TerminateQuery;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.entity.CommandStatus;
+import io.confluent.ksql.rest.server.computation.CommandId.Action;
+import io.confluent.ksql.rest.server.computation.CommandId.Type;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CommandCompactorTest {
+
+  private static final String COMMAND_TOPIC = "_confluent-ksql-default__command_topic";
+
+  @Mock
+  private CommandSnapshotStore snapshotStore;
+
+  private CommandCompactor compactor;
+  private long offset;
+  private long nextQueryId;
+
+  @Before
+  public void setUp() {
+    compactor = new CommandCompactor(snapshotStore, 1000);
+  }
+
+  @Test
+  public void shouldKeepCommandsThatStillContribute() {
+    // When:
+    create("A");
+    createAsSelect("B", "CSAS_B_0", "A");
+
+    // Then:
+    assertThat(liveStatements(), contains(
+        "CREATE STREAM A",
+        "CREATE STREAM B AS SELECT * FROM A"));
+  }
+
+  @Test
+  public void shouldNotKeepCommandsThatFailed() {
+    // Given:
+    create("A");
+
+    // When:
+    compactor.failed(command("CREATE STREAM A"));
+
+    // Then:
+    assertThat(liveStatements(), contains("CREATE STREAM A"));
+  }
+
+  @Test
+  public void shouldRemoveInsertWithTheTerminateOfItsQuery() {
+    // Given:
+    create("A");
+    create("B");
+    insertInto("B", "InsertQuery_0", "A");
+
+    // When:
+    terminate("InsertQuery_0");
+
+    // Then:
+    assertThat(liveStatements(), contains("CREATE STREAM A", "CREATE STREAM B"));
+  }
+
+  @Test
+  public void shouldKeepTerminatedQueryWhileItsSinkExists() {
+    // Given:
+    create("A");
+    createAsSelect("B", "CSAS_B_0", "A");
+
+    // When:
+    terminate("CSAS_B_0");
+
+    // Then:
+    assertThat(liveStatements(), contains(
+        "CREATE STREAM A",
+        "CREATE STREAM B AS SELECT * FROM A",
+        "TERMINATE CSAS_B_0"));
+  }
+
+  @Test
+  public void shouldRemoveDroppedSourceWithItsQueryAndTerminate() {
+    // Given:
+    create("A");
+    createAsSelect("B", "CSAS_B_0", "A");
+    terminate("CSAS_B_0");
+
+    // When:
+    drop("B");
+
+    // Then:
+    assertThat(liveStatements(), contains("CREATE STREAM A"));
+  }
+
+  @Test
+  public void shouldKeepDroppedSourceWhileKeptQueryReadsIt() {
+    // Given:
+    create("A");
+    createAsSelect("B", "CSAS_B_0", "A");
+    terminate("CSAS_B_0");
+
+    // When:
+    drop("A");
+
+    // Then:
+    assertThat(liveStatements(), contains(
+        "CREATE STREAM A",
+        "CREATE STREAM B AS SELECT * FROM A",
+        "TERMINATE CSAS_B_0",
+        "DROP STREAM A"));
+  }
+
+  @Test
+  public void shouldRemoveDroppedSourceOnceNoKeptQueryReadsIt() {
+    // Given:
+    create("A");
+    createAsSelect("B", "CSAS_B_0", "A");
+    terminate("CSAS_B_0");
+    drop("A");
+
+    // When:
+    drop("B");
+
+    // Then:
+    assertThat(liveStatements(), is(empty()));
+  }
+
+  @Test
+  public void shouldKeepDroppedSourceWhileItsQueryRuns() {
+    // Given:
+    create("A");
+    createAsSelect("B", "CSAS_B_0", "A");
+
+    // When:
+    drop("B");
+
+    // Then:
+    assertThat(liveStatements(), contains(
+        "CREATE STREAM A",
+        "CREATE STREAM B AS SELECT * FROM A",
+        "DROP STREAM B"));
+  }
+
+  @Test
+  public void shouldTrackSourceCreatedAgainSeparately() {
+    // Given:
+    create("A");
+    createAsSelect("B", "CSAS_B_0", "A");
+    terminate("CSAS_B_0");
+    drop("B");
+
+    // When:
+    create("B");
+
+    // Then:
+    assertThat(liveStatements(), contains("CREATE STREAM A", "CREATE STREAM B"));
+  }
+
+  @Test
+  public void shouldKeepOtherCommands() {
+    // When:
+    compactor.executed(
+        command("REGISTER TOPIC T"), nextQueryId, mock(RegisterTopic.class), Optional.empty());
+
+    // Then:
+    assertThat(liveStatements(), contains("REGISTER TOPIC T"));
+  }
+
+  @Test
+  public void shouldKeepNumberQueryIdsWereGeneratedFrom() {
+    // Given:
+    create("A");
+    createAsSelect("B", "CSAS_B_0", "A");
+    createAsSelect("C", "CSAS_C_1", "A");
+    terminate("CSAS_B_0");
+    drop("B");
+
+    // When:
+    final List<CommandSnapshot.Entry> live = compactor.getLiveCommands();
+
+    // Then:
+    assertThat(
+        live.stream().map(CommandSnapshot.Entry::getNextQueryId).collect(Collectors.toList()),
+        contains(0L, 1L));
+  }
+
+  @Test
+  public void shouldSnapshotOnceIntervalCommandsRead() {
+    // Given:
+    compactor = new CommandCompactor(snapshotStore, 2);
+    when(snapshotStore.getCommandTopic()).thenReturn(COMMAND_TOPIC);
+    final Map<CommandId, CommandStatus> statuses = ImmutableMap.of(
+        new CommandId(Type.STREAM, "A", Action.CREATE),
+        new CommandStatus(CommandStatus.Status.SUCCESS, "Stream created"));
+    create("A");
+    compactor.snapshotIfDue(3L, statuses);
+    verify(snapshotStore, never()).write(any());
+    final QueuedCommand failed = command("CREATE STREAM A");
+    compactor.failed(failed);
+
+    // When:
+    compactor.snapshotIfDue(3L, statuses);
+
+    // Then:
+    final ArgumentCaptor<CommandSnapshot> snapshot =
+        ArgumentCaptor.forClass(CommandSnapshot.class);
+    verify(snapshotStore).write(snapshot.capture());
+    assertThat(snapshot.getValue(), is(new CommandSnapshot(
+        COMMAND_TOPIC,
+        1L,
+        new CommandSnapshot.Entry(failed.getCommandId(), failed.getCommand(), 3L),
+        3L,
+        compactor.getLiveCommands(),
+        ImmutableMap.of(
+            "stream/A/create",
+            new CommandStatus(CommandStatus.Status.SUCCESS, "Stream created")))));
+  }
+
+  @Test
+  public void shouldNotCountCommandsReplayedFromSnapshot() {
+    // Given:
+    compactor = new CommandCompactor(snapshotStore, 1);
+    compactor.executed(
+        new QueuedCommand(
+            new CommandId(Type.STREAM, "A", Action.CREATE),
+            new Command("CREATE STREAM A", Collections.emptyMap(), Collections.emptyMap())),
+        0L,
+        createStatement("A"),
+        Optional.empty());
+
+    // When:
+    compactor.snapshotIfDue(0L, Collections.emptyMap());
+
+    // Then:
+    verify(snapshotStore, never()).write(any());
+  }
+
+  @Test
+  public void shouldSnapshotIntervalCommandsAfterRestoredSnapshot() {
+    // Given:
+    compactor = new CommandCompactor(snapshotStore, 2);
+    when(snapshotStore.getCommandTopic()).thenReturn(COMMAND_TOPIC);
+    final QueuedCommand last = command("CREATE STREAM A");
+    compactor.restored(new CommandSnapshot(
+        COMMAND_TOPIC,
+        last.getOffset().get(),
+        new CommandSnapshot.Entry(last.getCommandId(), last.getCommand(), 0L),
+        0L,
+        ImmutableList.of(),
+        Collections.emptyMap()));
+    compactor.snapshotIfDue(0L, Collections.emptyMap());
+    create("B");
+    compactor.snapshotIfDue(0L, Collections.emptyMap());
+    verify(snapshotStore, never()).write(any());
+
+    // When:
+    create("C");
+    compactor.snapshotIfDue(0L, Collections.emptyMap());
+
+    // Then:
+    final ArgumentCaptor<CommandSnapshot> snapshot =
+        ArgumentCaptor.forClass(CommandSnapshot.class);
+    verify(snapshotStore).write(snapshot.capture());
+    assertThat(snapshot.getValue().getOffset(), is(2L));
+  }
+
+  @Test
+  public void shouldStopSnapshotsOnRunScript() {
+    // Given:
+    compactor = new CommandCompactor(snapshotStore, 1);
+    create("A");
+
+    // When:
+    compactor.executed(
+        command("RUN SCRIPT 'foo.sql'"), nextQueryId, mock(RunScript.class), Optional.empty());
+    compactor.snapshotIfDue(0L, Collections.emptyMap());
+    create("B");
+    compactor.snapshotIfDue(0L, Collections.emptyMap());
+
+    // Then:
+    verify(snapshotStore, never()).write(any());
+  }
+
+  @Test
+  public void shouldStopSnapshotsOnCommandWrittenBeforeVersion5() {
+    // Given:
+    compactor = new CommandCompactor(snapshotStore, 1);
+
+    // When:
+    compactor.executed(
+        new QueuedCommand(
+            new CommandId(Type.STREAM, "A", Action.CREATE),
+            new Command("CREATE STREAM A", Collections.emptyMap(), null),
+            Optional.empty(),
+            offset++),
+        nextQueryId,
+        mock(CreateStream.class),
+        Optional.empty());
+    compactor.snapshotIfDue(0L, Collections.emptyMap());
+
+    // Then:
+    verify(snapshotStore, never()).write(any());
+    assertThat(liveStatements(), is(empty()));
+  }
+
+  private List<String> liveStatements() {
+    return compactor.getLiveCommands().stream()
+        .map(entry -> entry.getCommand().getStatement())
+        .collect(Collectors.toList());
+  }
+
+  private QueuedCommand command(final String statement) {
+    return new QueuedCommand(
+        new CommandId(Type.STREAM, "S" + offset, Action.CREATE),
+        new Command(statement, Collections.emptyMap(), Collections.emptyMap()),
+        Optional.empty(),
+        offset++);
+  }
+
+  private void create(final String name) {
+    compactor.executed(
+        command("CREATE STREAM " + name), nextQueryId, createStatement(name), Optional.empty());
+  }
+
+  private void createAsSelect(final String sink, final String queryId, final String source) {
+    compactor.executed(
+        command("CREATE STREAM " + sink + " AS SELECT * FROM " + source),
+        nextQueryId++,
+        mock(CreateStreamAsSelect.class),
+        Optional.of(query(queryId, source, sink)));
+  }
+
+  private void insertInto(final String sink, final String queryId, final String source) {
+    compactor.executed(
+        command("INSERT INTO " + sink + " SELECT * FROM " + source),
+        nextQueryId++,
+        mock(InsertInto.class),
+        Optional.of(query(queryId, source, sink)));
+  }
+
+  private void terminate(final String queryId) {
+    compactor.executed(
+        command("TERMINATE " + queryId),
+        nextQueryId,
+        new TerminateQuery(queryId),
+        Optional.empty());
+  }
+
+  private void drop(final String name) {
+    final DropStream statement = mock(DropStream.class);
+    when(statement.getName()).thenReturn(QualifiedName.of(name));
+    compactor.executed(command("DROP STREAM " + name), nextQueryId, statement, Optional.empty());
+  }
+
+  private static Statement createStatement(final String name) {
+    final AbstractStreamCreateStatement statement = mock(CreateStream.class);
+    when(statement.getName()).thenReturn(QualifiedName.of(name));
+    return statement;
+  }
+
+  private static PersistentQueryMetadata query(
+      final String queryId,
+      final String source,
+      final String sink
+  ) {
+    final PersistentQueryMetadata query = mock(PersistentQueryMetadata.class);
+    when(query.getQueryId()).thenReturn(new QueryId(queryId));
+    when(query.getSourceNames()).thenReturn(ImmutableSet.of(source));
+    when(query.getSinkNames()).thenReturn(ImmutableSet.of(sink));
+    return query;
+  }
+}
@@ -15,10 +15,16 @@
 
 package io.confluent.ksql.rest.server.computation;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
@@ -28,12 +34,21 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.rest.server.computation.CommandId.Action;
+import io.confluent.ksql.rest.server.computation.CommandId.Type;
 import io.confluent.ksql.rest.util.ClusterTerminator;
 import io.confluent.ksql.rest.util.TerminateCluster;
+import io.confluent.ksql.util.PersistentQueryMetadata;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -64,7 +79,15 @@ public class CommandRunnerTest {
   @Mock
   private QueuedCommand queuedCommand3;
   @Mock
+  private PersistentQueryMetadata query1;
+  @Mock
+  private PersistentQueryMetadata query2;
+  @Mock
+  private PersistentQueryMetadata query3;
+  @Mock
   private ExecutorService executor;
+  @Mock
+  private RestoreMetrics restoreMetrics;
   private CommandRunner commandRunner;
 
   @Before
@@ -87,7 +110,9 @@ public class CommandRunnerTest {
         ksqlEngine,
         1,
         clusterTerminator,
-        executor);
+        executor,
+        1,
+        restoreMetrics);
   }
 
   @Test
@@ -105,6 +130,214 @@ public class CommandRunnerTest {
     inOrder.verify(statementExecutor).handleRestore(eq(queuedCommand3));
   }
 
+  @Test
+  public void shouldStartQueriesOnlyOnceThePriorCommandsAreReplayed() {
+    // Given:
+    when(ksqlEngine.getPersistentQueries()).thenReturn(Arrays.asList(query1, query2));
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    final InOrder inOrder = inOrder(statementExecutor, query1, query2);
+    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommand3));
+    inOrder.verify(query1).start();
+    inOrder.verify(query2).start();
+  }
+
+  @Test
+  public void shouldStartQueriesInParallel() throws Exception {
+    // Given:
+    givenRestoreThreads(2);
+    when(ksqlEngine.getPersistentQueries()).thenReturn(Arrays.asList(query1, query2));
+
+    final CountDownLatch bothStarting = new CountDownLatch(2);
+    final Answer<?> awaitOther = inv -> {
+      bothStarting.countDown();
+      assertThat(bothStarting.await(30, TimeUnit.SECONDS), is(true));
+      return null;
+    };
+    doAnswer(awaitOther).when(query1).start();
+    doAnswer(awaitOther).when(query2).start();
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    verify(query1).start();
+    verify(query2).start();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldThrowIfQueryFailsToStartInParallel() {
+    // Given:
+    givenRestoreThreads(2);
+    when(ksqlEngine.getPersistentQueries()).thenReturn(Arrays.asList(query1, query2));
+    doThrow(new IllegalStateException("boom")).when(query2).start();
+
+    // When:
+    commandRunner.processPriorCommands();
+  }
+
+  @Test
+  public void shouldStartNoMoreQueriesAtOnceThanRestoreThreads() {
+    // Given:
+    givenRestoreThreads(2);
+    when(ksqlEngine.getPersistentQueries()).thenReturn(Arrays.asList(query1, query2, query3));
+
+    final AtomicInteger starting = new AtomicInteger();
+    final AtomicInteger maxStarting = new AtomicInteger();
+    final Answer<?> start = inv -> {
+      maxStarting.accumulateAndGet(starting.incrementAndGet(), Math::max);
+      Thread.sleep(50);
+      starting.decrementAndGet();
+      return null;
+    };
+    doAnswer(start).when(query1).start();
+    doAnswer(start).when(query2).start();
+    doAnswer(start).when(query3).start();
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    verify(query3).start();
+    assertThat(maxStarting.get() <= 2, is(true));
+  }
+
+  @Test
+  public void shouldThrowFailureOfFirstQueryInOrderWithLaterFailuresSuppressed() {
+    // Given:
+    givenRestoreThreads(2);
+    when(ksqlEngine.getPersistentQueries()).thenReturn(Arrays.asList(query1, query2));
+
+    final IllegalStateException firstFailure = new IllegalStateException("first");
+    final IllegalStateException secondFailure = new IllegalStateException("second");
+    final CountDownLatch secondFailed = new CountDownLatch(1);
+    doAnswer(inv -> {
+      assertThat(secondFailed.await(30, TimeUnit.SECONDS), is(true));
+      throw firstFailure;
+    }).when(query1).start();
+    doAnswer(inv -> {
+      secondFailed.countDown();
+      throw secondFailure;
+    }).when(query2).start();
+
+    // When:
+    try {
+      commandRunner.processPriorCommands();
+      fail("should have thrown");
+    } catch (final IllegalStateException e) {
+      // Then:
+      assertThat(e, is(sameInstance(firstFailure)));
+      assertThat(e.getSuppressed(), is(arrayContaining(secondFailure)));
+    }
+  }
+
+  @Test
+  public void shouldWaitForEveryQueryToStartBeforeThrowing() {
+    // Given:
+    givenRestoreThreads(2);
+    when(ksqlEngine.getPersistentQueries()).thenReturn(Arrays.asList(query1, query2, query3));
+
+    final AtomicInteger started = new AtomicInteger();
+    doThrow(new IllegalStateException("boom")).when(query1).start();
+    doAnswer(inv -> started.incrementAndGet()).when(query2).start();
+    doAnswer(inv -> {
+      Thread.sleep(50);
+      return started.incrementAndGet();
+    }).when(query3).start();
+
+    // When:
+    try {
+      commandRunner.processPriorCommands();
+      fail("should have thrown");
+    } catch (final IllegalStateException e) {
+      // Then:
+      assertThat(started.get(), is(2));
+    }
+  }
+
+  @Test
+  public void shouldRecordRestoreMetrics() {
+    // Given:
+    when(ksqlEngine.getPersistentQueries()).thenReturn(Arrays.asList(query1, query2));
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    verify(restoreMetrics).recordReplay(eq(3), anyLong());
+    verify(restoreMetrics).recordQueryStart(eq(2), anyLong());
+  }
+
+  @Test
+  public void shouldReplaySnapshotThenCommandsAfterIt() {
+    // Given:
+    final CommandId commandId = new CommandId(Type.STREAM, "B", Action.CREATE);
+    final CommandSnapshot.Entry entry = new CommandSnapshot.Entry(commandId, command, 0L);
+    final CommandSnapshot snapshot = givenSnapshot(commandId, 5L, entry);
+    final QueuedCommand last = new QueuedCommand(commandId, command, Optional.empty(), 5L);
+    when(commandStore.getRestoreCommands(5L)).thenReturn(Arrays.asList(last, queuedCommand1));
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    final InOrder inOrder = inOrder(statementExecutor);
+    inOrder.verify(statementExecutor).handleSnapshotRestore(entry);
+    inOrder.verify(statementExecutor).completeRestore(snapshot);
+    inOrder.verify(statementExecutor).handleRestore(queuedCommand1);
+    verify(statementExecutor, never()).handleRestore(last);
+    verify(commandStore, never()).getRestoreCommands();
+    verify(restoreMetrics).recordReplay(eq(2), anyLong());
+    verify(restoreMetrics).recordSnapshotReplay(1);
+  }
+
+  @Test
+  public void shouldReplayAllCommandsIfSnapshotDoesNotMatchCommandStore() {
+    // Given:
+    final CommandId commandId = new CommandId(Type.STREAM, "B", Action.CREATE);
+    final CommandSnapshot.Entry entry = new CommandSnapshot.Entry(commandId, command, 0L);
+    final CommandSnapshot snapshot = givenSnapshot(commandId, 5L, entry);
+    when(commandStore.getRestoreCommands(5L)).thenReturn(Collections.singletonList(
+        new QueuedCommand(
+            new CommandId(Type.STREAM, "C", Action.CREATE), command, Optional.empty(), 5L)));
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    final InOrder inOrder = inOrder(statementExecutor);
+    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommand1));
+    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommand2));
+    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommand3));
+    verify(statementExecutor, never()).handleSnapshotRestore(entry);
+    verify(statementExecutor, never()).completeRestore(snapshot);
+  }
+
+  @Test
+  public void shouldReplayAllCommandsIfCommandStoreNoLongerHoldsSnapshotOffset() {
+    // Given:
+    final CommandId commandId = new CommandId(Type.STREAM, "B", Action.CREATE);
+    final CommandSnapshot.Entry entry = new CommandSnapshot.Entry(commandId, command, 0L);
+    final CommandSnapshot snapshot = givenSnapshot(commandId, 5L, entry);
+    when(commandStore.getRestoreCommands(5L)).thenReturn(Collections.singletonList(
+        new QueuedCommand(commandId, command, Optional.empty(), 0L)));
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    verify(statementExecutor).handleRestore(eq(queuedCommand1));
+    verify(statementExecutor, never()).completeRestore(snapshot);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnNoRestoreThreads() {
+    givenRestoreThreads(0);
+  }
+
   @Test
   public void shouldRunThePriorCommandsWithTerminateCorrectly() {
     // Given:
@@ -119,6 +352,7 @@ public class CommandRunnerTest {
     verify(commandStore).close();
     verify(clusterTerminator).terminateCluster(anyList());
     verify(statementExecutor, never()).handleRestore(any());
+    verify(restoreMetrics, never()).recordReplay(anyInt(), anyLong());
   }
 
   @Test
@@ -209,6 +443,7 @@ public class CommandRunnerTest {
     inOrder.verify(commandStore).wakeup();
     inOrder.verify(executor).awaitTermination(anyLong(), any());
     inOrder.verify(commandStore).close();
+    verify(restoreMetrics).close();
   }
 
   @Test(expected = RuntimeException.class)
@@ -220,6 +455,34 @@ public class CommandRunnerTest {
     commandRunner.close();
   }
 
+  private void givenRestoreThreads(final int restoreThreads) {
+    commandRunner = new CommandRunner(
+        statementExecutor,
+        commandStore,
+        ksqlEngine,
+        1,
+        clusterTerminator,
+        executor,
+        restoreThreads,
+        restoreMetrics);
+  }
+
+  private CommandSnapshot givenSnapshot(
+      final CommandId lastCommandId,
+      final long offset,
+      final CommandSnapshot.Entry... commands
+  ) {
+    final CommandSnapshot snapshot = new CommandSnapshot(
+        "command_topic",
+        offset,
+        new CommandSnapshot.Entry(lastCommandId, command, 1L),
+        1L,
+        ImmutableList.copyOf(commands),
+        Collections.emptyMap());
+    when(statementExecutor.loadSnapshot()).thenReturn(Optional.of(snapshot));
+    return snapshot;
+  }
+
   private void givenQueuedCommands(final QueuedCommand... cmds) {
     when(commandStore.getRestoreCommands()).thenReturn(Arrays.asList(cmds));
     when(commandStore.getNewCommands(any())).thenReturn(Arrays.asList(cmds));
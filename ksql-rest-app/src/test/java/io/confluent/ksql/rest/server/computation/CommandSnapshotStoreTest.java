@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.rest.entity.CommandStatus;
+import io.confluent.ksql.rest.server.computation.CommandId.Action;
+import io.confluent.ksql.rest.server.computation.CommandId.Type;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CommandSnapshotStoreTest {
+
+  private static final String COMMAND_TOPIC = "_confluent-ksql-default__command_topic";
+
+  private static final CommandSnapshot.Entry CREATE_A = new CommandSnapshot.Entry(
+      new CommandId(Type.STREAM, "A", Action.CREATE),
+      new Command(
+          "CREATE STREAM A (C1 STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+          Collections.emptyMap(),
+          Collections.singletonMap("ksql.streams.auto.offset.reset", "earliest")),
+      0L);
+
+  private static final CommandSnapshot.Entry CREATE_B = new CommandSnapshot.Entry(
+      new CommandId(Type.STREAM, "B", Action.CREATE),
+      new Command(
+          "CREATE STREAM B AS SELECT * FROM A;",
+          Collections.singletonMap("ksql.streams.auto.offset.reset", "earliest"),
+          Collections.emptyMap()),
+      3L);
+
+  private static final CommandSnapshot SNAPSHOT = new CommandSnapshot(
+      COMMAND_TOPIC,
+      12L,
+      CREATE_B,
+      4L,
+      ImmutableList.of(CREATE_A, CREATE_B),
+      ImmutableMap.of(
+          "stream/A/create", new CommandStatus(CommandStatus.Status.SUCCESS, "Stream created"),
+          "stream/C/create", new CommandStatus(CommandStatus.Status.ERROR, "Failed")));
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final Metrics metrics = new Metrics();
+  private Path file;
+  private CommandSnapshotStore store;
+
+  @Before
+  public void setUp() {
+    file = folder.getRoot().toPath().resolve("commands.snapshot");
+    store = new CommandSnapshotStore(file, COMMAND_TOPIC, metrics);
+  }
+
+  @After
+  public void tearDown() {
+    store.close();
+    metrics.close();
+  }
+
+  @Test
+  public void shouldLoadNothingIfNoSnapshotWritten() {
+    assertThat(store.load(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldLoadSnapshotWritten() {
+    // Given:
+    store.write(SNAPSHOT);
+
+    // When:
+    final Optional<CommandSnapshot> loaded = store.load();
+
+    // Then:
+    assertThat(loaded, is(Optional.of(SNAPSHOT)));
+  }
+
+  @Test
+  public void shouldLoadSnapshotWrittenByAnotherStore() {
+    // Given:
+    store.write(SNAPSHOT);
+
+    // When:
+    final Optional<CommandSnapshot> loaded =
+        new CommandSnapshotStore(file, COMMAND_TOPIC, metrics).load();
+
+    // Then:
+    assertThat(loaded, is(Optional.of(SNAPSHOT)));
+  }
+
+  @Test
+  public void shouldReplaceLastSnapshot() {
+    // Given:
+    store.write(SNAPSHOT);
+    final CommandSnapshot next = new CommandSnapshot(
+        COMMAND_TOPIC,
+        13L,
+        CREATE_A,
+        4L,
+        ImmutableList.of(CREATE_A),
+        Collections.emptyMap());
+
+    // When:
+    store.write(next);
+
+    // Then:
+    assertThat(store.load(), is(Optional.of(next)));
+    assertThat(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")), is(false));
+  }
+
+  @Test
+  public void shouldIgnoreSnapshotThatCannotBeRead() throws IOException {
+    // Given:
+    Files.write(file, "{\"commandTopic\": \"".getBytes(StandardCharsets.UTF_8));
+
+    // When:
+    final Optional<CommandSnapshot> loaded = store.load();
+
+    // Then:
+    assertThat(loaded, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldIgnoreSnapshotOfAnotherCommandTopic() {
+    // Given:
+    new CommandSnapshotStore(file, "other_command_topic", metrics).write(new CommandSnapshot(
+        "other_command_topic",
+        12L,
+        CREATE_B,
+        4L,
+        ImmutableList.of(CREATE_A, CREATE_B),
+        Collections.emptyMap()));
+
+    // When:
+    final Optional<CommandSnapshot> loaded = store.load();
+
+    // Then:
+    assertThat(loaded, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldRecordSizeOfSnapshotWritten() throws IOException {
+    // When:
+    store.write(SNAPSHOT);
+
+    // Then:
+    assertThat(value("snapshot-commands"), is(2.0));
+    assertThat(value("snapshot-bytes"), is((double) Files.size(file)));
+  }
+
+  @Test
+  public void shouldRemoveMetricsOnClose() {
+    // When:
+    store.close();
+
+    // Then:
+    assertThat(metric("snapshot-commands"), is(nullValue()));
+    assertThat(metric("snapshot-bytes"), is(nullValue()));
+  }
+
+  private double value(final String name) {
+    return (Double) metric(name).metricValue();
+  }
+
+  private KafkaMetric metric(final String name) {
+    return metrics.metric(metrics.metricName(name, "ksql-restore"));
+  }
+}
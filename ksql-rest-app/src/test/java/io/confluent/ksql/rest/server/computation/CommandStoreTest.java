@@ -21,6 +21,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -41,6 +42,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -199,6 +201,35 @@ public class CommandStoreTest {
     assertThat(commands.get(0).getCommand(), equalTo(command));
   }
 
+  @Test
+  public void shouldIncludeOffsetOfNewCommands() {
+    // Given:
+    when(commandTopic.getNewCommands(any())).thenReturn(buildRecords(
+        commandId, command,
+        commandId, command));
+
+    // When:
+    final List<QueuedCommand> commands = commandStore.getNewCommands(NEW_CMDS_TIMEOUT);
+
+    // Then:
+    assertThat(commands.get(0).getOffset(), equalTo(Optional.of(0L)));
+    assertThat(commands.get(1).getOffset(), equalTo(Optional.of(1L)));
+  }
+
+  @Test
+  public void shouldGetRestoreCommandsFromOffset() {
+    // Given:
+    final List<QueuedCommand> restoreCommands = Collections.singletonList(
+        new QueuedCommand(commandId, command, Optional.empty(), 7L));
+    when(commandTopic.getRestoreCommands(eq(7L), any())).thenReturn(restoreCommands);
+
+    // When:
+    final List<QueuedCommand> commands = commandStore.getRestoreCommands(7L);
+
+    // Then:
+    assertThat(commands, sameInstance(restoreCommands));
+  }
+
 
   @Test
   public void shouldDistributeCommand() {
@@ -302,8 +333,8 @@ public class CommandStoreTest {
     for (int i = 0; i < args.length; i += 2) {
       assertThat(args[i], instanceOf(CommandId.class));
       assertThat(args[i + 1], anyOf(is(nullValue()), instanceOf(Command.class)));
-      records.add(
-          new ConsumerRecord<>(COMMAND_TOPIC, 0, 0, (CommandId) args[i], (Command) args[i + 1]));
+      records.add(new ConsumerRecord<>(
+          COMMAND_TOPIC, 0, i / 2, (CommandId) args[i], (Command) args[i + 1]));
     }
     return new ConsumerRecords<>(Collections.singletonMap(COMMAND_TOPIC_PARTITION, records));
   }
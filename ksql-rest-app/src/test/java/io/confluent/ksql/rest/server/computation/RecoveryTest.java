@@ -19,6 +19,10 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.mock;
 
 import com.google.common.collect.ImmutableList;
@@ -33,6 +37,7 @@ import io.confluent.ksql.metastore.model.KsqlTopic;
 import io.confluent.ksql.metastore.model.StructuredDataSource;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.entity.CommandStatus;
 import io.confluent.ksql.rest.entity.KsqlRequest;
 import io.confluent.ksql.rest.server.StatementParser;
 import io.confluent.ksql.rest.server.computation.CommandId.Action;
@@ -63,13 +68,16 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.ws.rs.core.Response;
+import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.connect.data.Schema;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class RecoveryTest {
   private final KsqlConfig ksqlConfig = new KsqlConfig(
@@ -82,12 +90,17 @@ public class RecoveryTest {
   private final ServiceContext serviceContext = TestServiceContext.create(topicClient);
   private final KsqlServer server1 = new KsqlServer(commands);
   private final KsqlServer server2 = new KsqlServer(commands);
+  private final Metrics metrics = new Metrics();
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
 
   @After
   public void tearDown() {
     server1.close();
     server2.close();
     serviceContext.close();
+    metrics.close();
   }
 
   private KsqlEngine createKsqlEngine() {
@@ -130,18 +143,33 @@ public class RecoveryTest {
 
     @Override
     public List<QueuedCommand> getNewCommands(final Duration timeout) {
-      final List<QueuedCommand> commands = commandLog.subList(offset, commandLog.size());
+      final List<QueuedCommand> commands = commandsFrom(offset);
       offset = commandLog.size();
       return commands;
     }
 
     @Override
     public List<QueuedCommand> getRestoreCommands() {
-      final List<QueuedCommand> restoreCommands = ImmutableList.copyOf(commandLog);
+      return getRestoreCommands(0);
+    }
+
+    @Override
+    public List<QueuedCommand> getRestoreCommands(final long offset) {
+      final List<QueuedCommand> restoreCommands = commandsFrom((int) offset);
       this.offset = commandLog.size();
       return restoreCommands;
     }
 
+    private List<QueuedCommand> commandsFrom(final int offset) {
+      final ImmutableList.Builder<QueuedCommand> commands = ImmutableList.builder();
+      for (int i = offset; i < commandLog.size(); i++) {
+        final QueuedCommand command = commandLog.get(i);
+        commands.add(new QueuedCommand(
+            command.getCommandId(), command.getCommand(), command.getStatus(), i));
+      }
+      return commands.build();
+    }
+
     @Override
     public void ensureConsumedPast(final long seqNum, final Duration timeout) {
     }
@@ -168,6 +196,10 @@ public class RecoveryTest {
     final CommandRunner commandRunner;
 
     KsqlServer(final List<QueuedCommand> commandLog) {
+      this(commandLog, Optional.empty());
+    }
+
+    KsqlServer(final List<QueuedCommand> commandLog, final Optional<CommandCompactor> compactor) {
       this.ksqlEngine = createKsqlEngine();
       this.fakeCommandQueue = new FakeCommandQueue(commandLog);
 
@@ -187,7 +219,8 @@ public class RecoveryTest {
       this.statementExecutor = new StatementExecutor(
           ksqlConfig,
           ksqlEngine,
-          new StatementParser(ksqlEngine));
+          new StatementParser(ksqlEngine),
+          compactor);
       this.commandRunner = new CommandRunner(
           statementExecutor,
           fakeCommandQueue,
@@ -505,6 +538,10 @@ public class RecoveryTest {
     final KsqlEngine recovered = recoverServer.ksqlEngine;
 
     // Then:
+    assertSameState(recovered, engine);
+  }
+
+  private static void assertSameState(final KsqlEngine recovered, final KsqlEngine engine) {
     assertThat(recovered.getMetaStore(), sameStore(engine.getMetaStore()));
     final Map<QueryId, PersistentQueryMetadata> queries
         = queriesById(engine.getPersistentQueries());
@@ -515,6 +552,23 @@ public class RecoveryTest {
         (queryId, query) -> assertThat(query, sameQuery(recoveredQueries.get(queryId))));
   }
 
+  private CommandSnapshotStore snapshotStore() {
+    return new CommandSnapshotStore(
+        folder.getRoot().toPath().resolve("commands.snapshot"), "command_topic", metrics);
+  }
+
+  private KsqlServer snapshottingServer(final int snapshotInterval) {
+    return new KsqlServer(
+        commands,
+        Optional.of(new CommandCompactor(snapshotStore(), snapshotInterval)));
+  }
+
+  private static List<String> statements(final CommandSnapshot snapshot) {
+    return snapshot.getCommands().stream()
+        .map(entry -> entry.getCommand().getStatement())
+        .collect(Collectors.toList());
+  }
+
   @Before
   public void setUp() {
     topicClient.preconditionTopicExists("A");
@@ -646,4 +700,104 @@ public class RecoveryTest {
         recovered.ksqlEngine.getMetaStore().getAllStructuredDataSources().keySet(),
         contains("A"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldRecoverFromCompactedSnapshot() {
+    // Given:
+    final KsqlServer server = snapshottingServer(1);
+    server.submitCommands(
+        "CREATE STREAM A (COLUMN STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+        "CREATE STREAM B AS SELECT * FROM A;",
+        "TERMINATE CSAS_B_0;",
+        "DROP STREAM B;",
+        "CREATE STREAM C AS SELECT * FROM A;",
+        "INSERT INTO C SELECT * FROM A;",
+        "TERMINATE InsertQuery_2;",
+        "CREATE STREAM D AS SELECT * FROM A;"
+    );
+
+    // When:
+    final KsqlServer recovered = snapshottingServer(1);
+    recovered.recover();
+
+    // Then:
+    final CommandSnapshot snapshot = snapshotStore().load().get();
+    assertThat(snapshot.getOffset(), equalTo(7L));
+    assertThat(statements(snapshot), contains(
+        startsWith("CREATE STREAM A "),
+        startsWith("CREATE STREAM C "),
+        startsWith("CREATE STREAM D ")));
+    assertSameState(recovered.ksqlEngine, server.ksqlEngine);
+    assertThat(
+        recovered.statementExecutor.getStatus(
+            new CommandId(Type.TERMINATE, "CSAS_B_0", Action.EXECUTE))
+            .map(CommandStatus::getStatus),
+        equalTo(Optional.of(CommandStatus.Status.SUCCESS)));
+  }
+
+  @Test
+  public void shouldGenerateNewQueryIdsAfterThoseOfCompactedCommands() {
+    // Given:
+    snapshottingServer(1).submitCommands(
+        "CREATE STREAM A (COLUMN STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+        "CREATE STREAM B AS SELECT * FROM A;",
+        "CREATE STREAM C AS SELECT * FROM A;",
+        "TERMINATE CSAS_C_1;",
+        "DROP STREAM C;"
+    );
+    final KsqlServer recovered = snapshottingServer(1);
+    recovered.recover();
+
+    // When:
+    recovered.submitCommands("CREATE STREAM D AS SELECT * FROM A;");
+
+    // Then:
+    assertThat(
+        queriesById(recovered.ksqlEngine.getPersistentQueries()).keySet(),
+        containsInAnyOrder(new QueryId("CSAS_B_0"), new QueryId("CSAS_D_2")));
+  }
+
+  @Test
+  public void shouldRecoverFromSnapshotAndCommandsWrittenAfterIt() {
+    // Given:
+    final KsqlServer server = snapshottingServer(2);
+    server.submitCommands(
+        "CREATE STREAM A (COLUMN STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+        "CREATE STREAM B AS SELECT * FROM A;",
+        "TERMINATE CSAS_B_0;"
+    );
+
+    // When:
+    final KsqlServer recovered = snapshottingServer(2);
+    recovered.recover();
+
+    // Then:
+    assertThat(snapshotStore().load().get().getOffset(), equalTo(1L));
+    assertSameState(recovered.ksqlEngine, server.ksqlEngine);
+    assertThat(recovered.ksqlEngine.getPersistentQueries(), is(empty()));
+  }
+
+  @Test
+  public void shouldIgnoreSnapshotOfAnotherCommandLog() {
+    // Given:
+    snapshottingServer(1).submitCommands(
+        "CREATE STREAM A (COLUMN STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+        "CREATE STREAM B AS SELECT * FROM A;"
+    );
+    commands.clear();
+    server1.submitCommands(
+        "CREATE STREAM A (COLUMN STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+        "CREATE STREAM C AS SELECT * FROM A;"
+    );
+
+    // When:
+    final KsqlServer recovered = snapshottingServer(1);
+    recovered.recover();
+
+    // Then:
+    assertSameState(recovered.ksqlEngine, server1.ksqlEngine);
+    assertThat(
+        recovered.ksqlEngine.getMetaStore().getAllStructuredDataSources().keySet(),
+        containsInAnyOrder("A", "C"));
+  }
+}
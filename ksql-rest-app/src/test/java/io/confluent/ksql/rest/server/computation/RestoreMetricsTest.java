@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.After;
+import org.junit.Test;
+
+public class RestoreMetricsTest {
+
+  private final Metrics metrics = new Metrics();
+  private final RestoreMetrics restoreMetrics = new RestoreMetrics(metrics);
+
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Test
+  public void shouldRecordReplay() {
+    // When:
+    restoreMetrics.recordReplay(400, TimeUnit.SECONDS.toNanos(3));
+
+    // Then:
+    assertThat(value("commands-replayed"), is(400.0));
+    assertThat(value("replay-time-ms"), is(3000.0));
+  }
+
+  @Test
+  public void shouldRecordSnapshotReplay() {
+    // When:
+    restoreMetrics.recordSnapshotReplay(350);
+
+    // Then:
+    assertThat(value("snapshot-commands-replayed"), is(350.0));
+  }
+
+  @Test
+  public void shouldRecordQueryStart() {
+    // When:
+    restoreMetrics.recordQueryStart(12, TimeUnit.MILLISECONDS.toNanos(250));
+
+    // Then:
+    assertThat(value("queries-started"), is(12.0));
+    assertThat(value("query-start-time-ms"), is(250.0));
+  }
+
+  @Test
+  public void shouldRemoveMetricsOnClose() {
+    // When:
+    restoreMetrics.close();
+
+    // Then:
+    assertThat(metric("replay-time-ms"), is(nullValue()));
+    assertThat(metric("query-start-time-ms"), is(nullValue()));
+  }
+
+  private double value(final String name) {
+    return (Double) metric(name).metricValue();
+  }
+
+  private KafkaMetric metric(final String name) {
+    return metrics.metric(metrics.metricName(name, "ksql-restore"));
+  }
+}
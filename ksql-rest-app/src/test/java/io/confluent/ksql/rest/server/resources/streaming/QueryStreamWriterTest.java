@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.rest.server.resources.streaming;
 
+import static org.easymock.EasyMock.anyLong;
 import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.capture;
 import static org.easymock.EasyMock.expect;
@@ -23,6 +24,7 @@ import static org.easymock.EasyMock.newCapture;
 import static org.easymock.EasyMock.niceMock;
 import static org.easymock.EasyMock.replay;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -36,6 +38,7 @@ import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.QueuedQueryMetadata;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -172,10 +175,39 @@ public class QueryStreamWriterTest {
         containsString("Row3")));
   }
 
+  @Test
+  public void shouldWriteEachRowOfABatchOnItsOwnLine() throws Exception {
+    // Given:
+    expect(queryMetadata.isRunning()).andReturn(true).andReturn(false);
+    expect(rowQueue.poll(anyLong(), anyObject())).andReturn(row("Row1"));
+    expect(rowQueue.poll())
+        .andReturn(row("Row2"))
+        .andReturn(row("Row3"))
+        .andReturn(row("Row4"))
+        .andReturn(null);
+
+    createWriter(new QueryStreamFlushPolicy(2, Long.MAX_VALUE, Duration.ZERO));
+
+    // When:
+    writer.write(out);
+
+    // Then:
+    final List<String> lines = getOutput(out);
+    assertThat(lines, contains(
+        containsString("Row1"),
+        containsString("Row2"),
+        containsString("Row3"),
+        containsString("Row4")));
+  }
+
   private void createWriter() {
+    createWriter(QueryStreamFlushPolicy.DEFAULT);
+  }
+
+  private void createWriter(final QueryStreamFlushPolicy flushPolicy) {
     replay(queryMetadata, ksqlEngine, rowQueue);
 
-    writer = new QueryStreamWriter(queryMetadata, 1000, objectMapper);
+    writer = new QueryStreamWriter(queryMetadata, 1000, objectMapper, flushPolicy);
 
     out = new ByteArrayOutputStream();
     limitHandler = limitHandlerCapture.getValue();
@@ -185,6 +217,10 @@ public class QueryStreamWriterTest {
     ehCapture.getValue().uncaughtException(new Thread(), e);
   }
 
+  private static KeyValue<String, GenericRow> row(final Object value) {
+    return new KeyValue<>("no used", new GenericRow(ImmutableList.of(value)));
+  }
+
   private IAnswer<Integer> rows(final Object... rows) {
     return () -> {
       final Collection<KeyValue<String, GenericRow>> output = drainCapture.getValue();
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A conjunction of predicates on the values of single columns of a row, which a deserializer
+ * tests as soon as it has read each column, so that it can reject a record without reading the
+ * rest of it.
+ *
+ * <p>A deserializer returns {@code null} for a rejected record. A filter only ever rejects
+ * records that a later filter on the rows deserialized would drop anyway: it saves work, but does
+ * not change which rows a query outputs.
+ */
+public final class DeserializationFilter {
+
+  public static final DeserializationFilter ACCEPT_ALL =
+      new DeserializationFilter(Collections.emptyList());
+
+  // Indexed by column, holding null for columns without predicates:
+  private final List<Predicate<Object>> columnPredicates;
+
+  private DeserializationFilter(final List<Predicate<Object>> columnPredicates) {
+    this.columnPredicates = Collections.unmodifiableList(new ArrayList<>(columnPredicates));
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @return {@code true} if the filter tests no columns, and so accepts every record.
+   */
+  public boolean isEmpty() {
+    return columnPredicates.isEmpty();
+  }
+
+  /**
+   * @return {@code true} if the value of the column at {@code index} fails the filter.
+   */
+  public boolean rejects(final int index, final Object value) {
+    if (index >= columnPredicates.size()) {
+      return false;
+    }
+    final Predicate<Object> predicate = columnPredicates.get(index);
+    return predicate != null && !predicate.test(value);
+  }
+
+  /**
+   * @return {@code true} if any of the columns fails the filter. Missing trailing columns are
+   *         tested as nulls.
+   */
+  public boolean rejects(final List<?> columns) {
+    for (int i = 0; i < columnPredicates.size(); i++) {
+      if (rejects(i, i < columns.size() ? columns.get(i) : null)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "DeserializationFilter{columnPredicates=" + columnPredicates + "}";
+  }
+
+  public static final class Builder {
+
+    private final List<Predicate<Object>> columnPredicates = new ArrayList<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Adds a predicate that the value of the column at {@code index} must pass.
+     */
+    public Builder addColumnPredicate(final int index, final Predicate<Object> predicate) {
+      Objects.requireNonNull(predicate, "predicate");
+      while (columnPredicates.size() <= index) {
+        columnPredicates.add(null);
+      }
+      final Predicate<Object> existing = columnPredicates.get(index);
+      columnPredicates.set(index, existing == null ? predicate : existing.and(predicate));
+      return this;
+    }
+
+    public DeserializationFilter build() {
+      return columnPredicates.isEmpty()
+          ? ACCEPT_ALL
+          : new DeserializationFilter(columnPredicates);
+    }
+  }
+}
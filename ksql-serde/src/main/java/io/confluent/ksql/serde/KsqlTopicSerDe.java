@@ -19,8 +19,10 @@ import com.google.errorprone.annotations.Immutable;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Schema;
@@ -38,12 +40,60 @@ public abstract class KsqlTopicSerDe {
     return serDe;
   }
 
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schemaMaybeWithSource,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext) {
+    return getGenericRowSerde(
+        schemaMaybeWithSource,
+        ksqlConfig,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        SerdeUtils.fieldNames(schemaMaybeWithSource));
+  }
+
+  /**
+   * Get a serde whose deserializer only reads the values of the required fields of the schema,
+   * leaving the columns of its other fields null. Rows are serialized in full.
+   *
+   * @param requiredFields the names of the fields of the schema to read.
+   */
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schemaMaybeWithSource,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<String> requiredFields) {
+    return getGenericRowSerde(
+        schemaMaybeWithSource,
+        ksqlConfig,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        requiredFields,
+        DeserializationFilter.ACCEPT_ALL);
+  }
+
+  /**
+   * Get a serde whose deserializer only reads the values of the required fields of the schema,
+   * and returns {@code null} for records rejected by the filter, without reading any more of
+   * them once the filter rejects a column. Rows are serialized in full.
+   *
+   * @param requiredFields the names of the fields of the schema to read.
+   * @param filter the filter on the columns of the rows read.
+   */
   public abstract Serde<GenericRow> getGenericRowSerde(
       Schema schemaMaybeWithSource,
       KsqlConfig ksqlConfig,
       Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
       String loggerNamePrefix,
-      ProcessingLogContext processingLogContext);
+      ProcessingLogContext processingLogContext,
+      Set<String> requiredFields,
+      DeserializationFilter filter);
 
   @Override
   public boolean equals(final Object o) {
@@ -18,14 +18,17 @@ package io.confluent.ksql.serde.avro;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.DeserializationFilter;
 import io.confluent.ksql.serde.connect.ConnectDataTranslator;
 import io.confluent.ksql.serde.connect.DataTranslator;
+import io.confluent.ksql.serde.util.SerdeUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
@@ -35,35 +38,45 @@ import org.apache.kafka.connect.data.Struct;
 
 public class AvroDataTranslator implements DataTranslator {
   private final DataTranslator innerTranslator;
-  private final Schema ksqlSchema;
   private final Schema avroCompatibleSchema;
 
   public AvroDataTranslator(
       final Schema ksqlSchema,
       final String schemaFullName,
       final boolean useNamedMaps) {
-    this.ksqlSchema = ksqlSchema;
+    this(
+        ksqlSchema,
+        schemaFullName,
+        useNamedMaps,
+        SerdeUtils.fieldNames(ksqlSchema),
+        DeserializationFilter.ACCEPT_ALL);
+  }
+
+  /**
+   * @param requiredFields the names of the fields of the KSQL schema to translate from connect
+   *                       data. The columns of any other fields are left null.
+   * @param filter the filter on the columns translated, for which rejected records translate to
+   *               {@code null}.
+   */
+  public AvroDataTranslator(
+      final Schema ksqlSchema,
+      final String schemaFullName,
+      final boolean useNamedMaps,
+      final Set<String> requiredFields,
+      final DeserializationFilter filter) {
     this.avroCompatibleSchema = buildAvroCompatibleSchema(
         ksqlSchema,
         useNamedMaps,
         new TypeNameGenerator(Collections.singleton(schemaFullName)));
-    this.innerTranslator = new ConnectDataTranslator(avroCompatibleSchema);
+    // Connect fields are matched by their Avro compatible names, but the rows and structs
+    // translated from connect data have the KSQL schema:
+    this.innerTranslator =
+        new ConnectDataTranslator(avroCompatibleSchema, ksqlSchema, requiredFields, filter);
   }
 
   @Override
   public GenericRow toKsqlRow(final Schema connectSchema, final Object connectObject) {
-    final GenericRow avroCompatibleRow = innerTranslator.toKsqlRow(connectSchema, connectObject);
-    if (avroCompatibleRow == null) {
-      return null;
-    }
-    final List<Object> columns = new ArrayList<>(avroCompatibleRow.getColumns().size());
-    for (int i = 0; i < avroCompatibleRow.getColumns().size(); i++) {
-      columns.add(
-          replaceSchema(
-              ksqlSchema.fields().get(i).schema(),
-              avroCompatibleRow.getColumns().get(i)));
-    }
-    return new GenericRow(columns);
+    return innerTranslator.toKsqlRow(connectSchema, connectObject);
   }
 
   @Override
@@ -16,261 +16,111 @@
 package io.confluent.ksql.serde.connect;
 
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.DeserializationFilter;
+import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import org.apache.kafka.connect.data.Date;
-import org.apache.kafka.connect.data.Field;
+import java.util.Objects;
+import java.util.Set;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
-import org.apache.kafka.connect.data.Time;
-import org.apache.kafka.connect.data.Timestamp;
-import org.apache.kafka.connect.errors.DataException;
 
+/**
+ * Translates between connect data and KSQL rows.
+ *
+ * <p>Connect data is translated by a {@link ConnectTranslationPlan} compiled for each connect
+ * schema seen. Plans are cached by the identity of the connect schema: converters, such as the
+ * Avro converter, return the same schema instance for each record written with the same schema,
+ * so a steady stream of records compiles a single plan. Like the converters it is used with,
+ * this class is not thread-safe.
+ */
 public class ConnectDataTranslator implements DataTranslator {
-  private static final String PATH_SEPARATOR = "->";
+
+  private static final int MAX_CACHED_PLANS = 100;
 
   private final Schema schema;
+  private final Schema ksqlSchema;
+  private final boolean[] requiredFields;
+  private final DeserializationFilter filter;
+  private final Map<Schema, ConnectTranslationPlan> plans = new IdentityHashMap<>();
+  private Schema lastConnectSchema;
+  private ConnectTranslationPlan lastPlan;
 
   public ConnectDataTranslator(final Schema schema) {
-    this.schema = schema;
-  }
-
-  @Override
-  public GenericRow toKsqlRow(final Schema connectSchema,
-                              final Object connectData) {
-    if (!schema.type().equals(Schema.Type.STRUCT)) {
-      throw new KsqlException("Schema for a KSQL row should be a struct");
-    }
-
-    final Struct rowStruct = (Struct) toKsqlValue(schema, connectSchema, connectData, "");
-    if (rowStruct == null) {
-      return null;
-    }
-
-    // streams are expensive, so we don't use them from serdes. build the row using forEach
-    final List<Object> fields = new ArrayList<>(schema.fields().size());
-    schema.fields().forEach(field -> fields.add(rowStruct.get(field)));
-    return new GenericRow(fields);
+    this(schema, schema);
   }
 
-  private void throwTypeMismatchException(final String pathStr,
-                                          final Schema schema,
-                                          final Schema connectSchema) {
-    throw new DataException(
-        String.format(
-            "Cannot deserialize type %s as type %s for field %s",
-            connectSchema.type().getName(),
-            schema.type().getName(),
-            pathStr));
+  /**
+   * @param schema the schema of the connect rows built, whose field names are also matched to
+   *               the fields of the connect data translated.
+   * @param ksqlSchema the schema of the KSQL rows built, which must have the same shape as
+   *                   {@code schema}, but may differ in its names.
+   */
+  public ConnectDataTranslator(final Schema schema, final Schema ksqlSchema) {
+    this(schema, ksqlSchema, SerdeUtils.fieldNames(ksqlSchema));
   }
 
-  private void validateType(final String pathStr,
-                            final Schema schema,
-                            final Schema connectSchema,
-                            final Schema.Type[] validTypes) {
-    // don't use stream here
-    for (final Schema.Type type : validTypes) {
-      if (connectSchema.type().equals(type)) {
-        return;
-      }
-    }
-    throwTypeMismatchException(pathStr, schema, connectSchema);
+  /**
+   * @param requiredFields the names of the fields of {@code ksqlSchema} to translate. The columns
+   *                       of any other fields are left null.
+   */
+  public ConnectDataTranslator(
+      final Schema schema,
+      final Schema ksqlSchema,
+      final Set<String> requiredFields
+  ) {
+    this(schema, ksqlSchema, requiredFields, DeserializationFilter.ACCEPT_ALL);
   }
 
-  private void validateType(final String pathStr,
-                            final Schema schema,
-                            final Schema connectSchema) {
-    if (!connectSchema.type().equals(schema.type())) {
-      throwTypeMismatchException(pathStr, schema, connectSchema);
-    }
+  /**
+   * @param filter the filter on the columns translated. Records it rejects translate to
+   *               {@code null}, with none of the columns after the first it rejects translated.
+   */
+  public ConnectDataTranslator(
+      final Schema schema,
+      final Schema ksqlSchema,
+      final Set<String> requiredFields,
+      final DeserializationFilter filter
+  ) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+    this.ksqlSchema = Objects.requireNonNull(ksqlSchema, "ksqlSchema");
+    this.requiredFields = SerdeUtils.requiredFieldMask(ksqlSchema, requiredFields);
+    this.filter = Objects.requireNonNull(filter, "filter");
   }
 
-  // use static arrays instead of varargs from validateSchema. Under the hood
-  // varargs creates and populates arrays on each call, which is expensive.
-  private static final Schema.Type[] INT64_ACCEPTABLE_TYPES = {
-      Schema.Type.INT64,
-      Schema.Type.INT32,
-      Schema.Type.INT16,
-      Schema.Type.INT8
-  };
-
-  private static final Schema.Type[] INT32_ACCEPTABLE_TYPES = {
-      Schema.Type.INT32,
-      Schema.Type.INT16,
-      Schema.Type.INT8
-  };
-
-  private static final Schema.Type[] FLOAT64_ACCEPTABLE_TYPES = {
-      Schema.Type.FLOAT32,
-      Schema.Type.FLOAT64
-  };
-
-  private static final Schema.Type[] STRING_ACCEPTABLE_TYPES = {
-      Schema.Type.INT8,
-      Schema.Type.INT16,
-      Schema.Type.INT32,
-      Schema.Type.INT64,
-      Schema.Type.BOOLEAN,
-      Schema.Type.STRING
-  };
-
-  private void validateSchema(final String pathStr,
-                              final Schema schema,
-                              final Schema connectSchema) {
-    switch (schema.type()) {
-      case BOOLEAN:
-      case ARRAY:
-      case MAP:
-      case STRUCT:
-        validateType(pathStr, schema, connectSchema);
-        break;
-      case STRING:
-        validateType(pathStr, schema, connectSchema, STRING_ACCEPTABLE_TYPES);
-        break;
-      case INT64:
-        validateType(pathStr, schema, connectSchema, INT64_ACCEPTABLE_TYPES);
-        break;
-      case INT32:
-        validateType(pathStr, schema, connectSchema, INT32_ACCEPTABLE_TYPES);
-        break;
-      case FLOAT64:
-        validateType(pathStr, schema, connectSchema, FLOAT64_ACCEPTABLE_TYPES);
-        break;
-      default:
-        throw new RuntimeException(
-            "Unexpected data type seen in schema: " + schema.type().getName());
-    }
-  }
-
-  private Object maybeConvertLogicalType(final Schema connectSchema, final Object connectValue) {
-    if (connectSchema.name() == null) {
-      return connectValue;
-    }
-    switch  (connectSchema.name()) {
-      case Date.LOGICAL_NAME:
-        return Date.fromLogical(connectSchema, (java.util.Date) connectValue);
-      case Time.LOGICAL_NAME:
-        return Time.fromLogical(connectSchema, (java.util.Date) connectValue);
-      case Timestamp.LOGICAL_NAME:
-        return Timestamp.fromLogical(connectSchema, (java.util.Date) connectValue);
-      default:
-        return connectValue;
+  @Override
+  public GenericRow toKsqlRow(final Schema connectSchema,
+                              final Object connectData) {
+    if (!schema.type().equals(Schema.Type.STRUCT)) {
+      throw new KsqlException("Schema for a KSQL row should be a struct");
     }
-  }
 
-  @SuppressWarnings("unchecked")
-  private Object toKsqlValue(final Schema schema,
-                             final Schema connectSchema,
-                             final Object connectValue,
-                             final String pathStr) {
-    // Map a connect value+schema onto the schema expected by KSQL. For now this involves:
-    // - handling case insensitivity for struct field names
-    // - setting missing values to null
     if (connectSchema == null) {
       return null;
     }
-    validateSchema(pathStr, schema, connectSchema);
-    if (connectValue == null) {
-      return null;
-    }
-    final Object convertedValue = maybeConvertLogicalType(connectSchema, connectValue);
-    switch (schema.type()) {
-      case INT64:
-        return ((Number) convertedValue).longValue();
-      case INT32:
-        return ((Number) convertedValue).intValue();
-      case FLOAT64:
-        return ((Number) convertedValue).doubleValue();
-      case ARRAY:
-        return toKsqlArray(
-            schema.valueSchema(), connectSchema.valueSchema(), (List) convertedValue, pathStr);
-      case MAP:
-        return toKsqlMap(
-            schema.keySchema(), connectSchema.keySchema(),
-            schema.valueSchema(), connectSchema.valueSchema(), (Map) convertedValue, pathStr);
-      case STRUCT:
-        return toKsqlStruct(schema, connectSchema, (Struct) convertedValue, pathStr);
-      case STRING:
-        // use String.valueOf to convert various int types and Boolean to string
-        return String.valueOf(convertedValue);
-      default:
-        return convertedValue;
-    }
-  }
 
-  private List<?> toKsqlArray(final Schema valueSchema, final Schema connectValueSchema,
-                           final List<Object> connectArray, final String pathStr) {
-    final List<Object> ksqlArray = new ArrayList<>(connectArray.size());
-    // streams are expensive, so we don't use them from serdes.
-    // build the array using forEach instead.
-    connectArray.forEach(
-        item -> ksqlArray.add(
-            toKsqlValue(
-                valueSchema, connectValueSchema, item, pathStr + PATH_SEPARATOR + "ARRAY")));
-    return ksqlArray;
+    return planFor(connectSchema).toKsqlRow(connectData);
   }
 
-  private Map<?, ?> toKsqlMap(final Schema keySchema, final Schema connectKeySchema,
-                        final Schema valueSchema, final Schema connectValueSchema,
-                        final Map<Object, Object> connectMap, final String pathStr) {
-    final Map<Object, Object> ksqlMap = new HashMap<>();
-    // streams are expensive, so we don't use them from serdes.
-    // build the map using forEach instead.
-    connectMap.forEach(
-        (key, value) -> ksqlMap.put(
-            toKsqlValue(
-                keySchema,
-                connectKeySchema,
-                key,
-                pathStr + PATH_SEPARATOR + "MAP_KEY"),
-            toKsqlValue(
-                valueSchema,
-                connectValueSchema,
-                value,
-                pathStr + PATH_SEPARATOR + "MAP_VAL")
-        )
-    );
-    return ksqlMap;
-  }
+  private ConnectTranslationPlan planFor(final Schema connectSchema) {
+    if (connectSchema == lastConnectSchema) {
+      return lastPlan;
+    }
 
-  private Struct toKsqlStruct(final Schema schema,
-                              final Schema connectSchema,
-                              final Struct connectStruct,
-                              final String pathStr) {
-    // todo: check name here? e.g. what if the struct gets changed to a union?
-    final Struct ksqlStruct = new Struct(schema);
-    final Map<String, Field> caseInsensitiveFieldMap =
-        getCaseInsensitiveFieldMap(connectSchema);
-    schema.fields().forEach(field -> {
-      final String fieldNameUppercase = field.name().toUpperCase();
-      // TODO: should we throw an exception if this is not true? this means the schema changed
-      //       or the user declared the source with a schema incompatible with the registry schema
-      if (caseInsensitiveFieldMap.containsKey(fieldNameUppercase)) {
-        final Field connectField = caseInsensitiveFieldMap.get(fieldNameUppercase);
-        // make sure to get/put the field using the Field object to avoid a lookup in Struct
-        final Object fieldValue = connectStruct.get(connectField);
-        final Schema fieldSchema = connectField.schema();
-        ksqlStruct.put(
-            field,
-            toKsqlValue(
-                field.schema(),
-                fieldSchema,
-                fieldValue,
-                pathStr + PATH_SEPARATOR + field.name()));
+    ConnectTranslationPlan plan = plans.get(connectSchema);
+    if (plan == null) {
+      if (plans.size() >= MAX_CACHED_PLANS) {
+        plans.clear();
       }
-    });
-    return ksqlStruct;
-  }
+      plan = ConnectTranslationPlan.compile(
+          schema, ksqlSchema, connectSchema, requiredFields, filter);
+      plans.put(connectSchema, plan);
+    }
 
-  private Map<String, Field> getCaseInsensitiveFieldMap(final Schema schema) {
-    final Map<String, Field> fieldsByName = new HashMap<>();
-    schema.fields().forEach(
-        field -> fieldsByName.put(field.name().toUpperCase(), field)
-    );
-    return fieldsByName;
+    lastConnectSchema = connectSchema;
+    lastPlan = plan;
+    return plan;
   }
 
   public Struct toConnectRow(final GenericRow row) {
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.connect;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.DeserializationFilter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.errors.DataException;
+
+/**
+ * The translation of connect data of one schema into KSQL rows, compiled once from the pair of
+ * schemas, so that translating each record neither revalidates the schemas nor looks up fields
+ * by name.
+ *
+ * <p>Connect fields are matched to KSQL fields case-insensitively, by the names of the fields of
+ * the lookup schema. The rows and structs built have the KSQL schema, which must have the same
+ * shape as the lookup schema. Where the connect type of a value can not be translated to its
+ * KSQL type, translating the value throws, just as before the plan was compiled: so records with
+ * no such value, e.g. because it is in an empty array, still translate.
+ */
+final class ConnectTranslationPlan {
+
+  private static final String PATH_SEPARATOR = "->";
+
+  // use static arrays instead of varargs from validateSchema. Under the hood
+  // varargs creates and populates arrays on each call, which is expensive.
+  private static final Schema.Type[] INT64_ACCEPTABLE_TYPES = {
+      Schema.Type.INT64,
+      Schema.Type.INT32,
+      Schema.Type.INT16,
+      Schema.Type.INT8
+  };
+
+  private static final Schema.Type[] INT32_ACCEPTABLE_TYPES = {
+      Schema.Type.INT32,
+      Schema.Type.INT16,
+      Schema.Type.INT8
+  };
+
+  private static final Schema.Type[] FLOAT64_ACCEPTABLE_TYPES = {
+      Schema.Type.FLOAT32,
+      Schema.Type.FLOAT64
+  };
+
+  private static final Schema.Type[] STRING_ACCEPTABLE_TYPES = {
+      Schema.Type.INT8,
+      Schema.Type.INT16,
+      Schema.Type.INT32,
+      Schema.Type.INT64,
+      Schema.Type.BOOLEAN,
+      Schema.Type.STRING
+  };
+
+  private final Translator rowTranslator;
+
+  private ConnectTranslationPlan(final Translator rowTranslator) {
+    this.rowTranslator = rowTranslator;
+  }
+
+  /**
+   * @param lookupSchema the struct schema whose field names are matched to connect fields.
+   * @param ksqlSchema the struct schema of the rows to build, shaped as the lookup schema.
+   * @param connectSchema the schema of the connect data to translate.
+   * @param requiredFields for each field of the row, whether to translate it. The columns of the
+   *                       other fields are left null, without their connect values being read.
+   * @param filter the filter on the columns of the row, tested as each is translated.
+   */
+  static ConnectTranslationPlan compile(
+      final Schema lookupSchema,
+      final Schema ksqlSchema,
+      final Schema connectSchema,
+      final boolean[] requiredFields,
+      final DeserializationFilter filter
+  ) {
+    return new ConnectTranslationPlan(
+        compile(lookupSchema, ksqlSchema, connectSchema, "", requiredFields, filter));
+  }
+
+  @SuppressWarnings("unchecked")
+  GenericRow toKsqlRow(final Object connectData) {
+    final List<Object> columns = (List<Object>) rowTranslator.translate(connectData);
+    return columns == null ? null : new GenericRow(columns);
+  }
+
+  @FunctionalInterface
+  private interface Translator {
+    Object translate(Object connectValue);
+  }
+
+  private static Translator compile(
+      final Schema lookupSchema,
+      final Schema ksqlSchema,
+      final Schema connectSchema,
+      final String pathStr
+  ) {
+    return compile(lookupSchema, ksqlSchema, connectSchema, pathStr, null, null);
+  }
+
+  private static Translator compile(
+      final Schema lookupSchema,
+      final Schema ksqlSchema,
+      final Schema connectSchema,
+      final String pathStr,
+      final boolean[] requiredRowFields,
+      final DeserializationFilter rowFilter
+  ) {
+    if (connectSchema == null) {
+      return value -> null;
+    }
+
+    final Translator mismatch = validateSchema(pathStr, lookupSchema, connectSchema);
+    if (mismatch != null) {
+      return mismatch;
+    }
+
+    final UnaryOperator<Object> logical = logicalTypeConverter(connectSchema);
+    switch (lookupSchema.type()) {
+      case INT64:
+        return value -> value == null ? null : ((Number) logical.apply(value)).longValue();
+      case INT32:
+        return value -> value == null ? null : ((Number) logical.apply(value)).intValue();
+      case FLOAT64:
+        return value -> value == null ? null : ((Number) logical.apply(value)).doubleValue();
+      case STRING:
+        // use String.valueOf to convert various int types and Boolean to string
+        return value -> value == null ? null : String.valueOf(logical.apply(value));
+      case ARRAY:
+        return arrayTranslator(lookupSchema, ksqlSchema, connectSchema, pathStr, logical);
+      case MAP:
+        return mapTranslator(lookupSchema, ksqlSchema, connectSchema, pathStr, logical);
+      case STRUCT:
+        return new StructTranslator(
+            lookupSchema, ksqlSchema, connectSchema, pathStr, logical, requiredRowFields,
+            rowFilter);
+      default:
+        return value -> value == null ? null : logical.apply(value);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Translator arrayTranslator(
+      final Schema lookupSchema,
+      final Schema ksqlSchema,
+      final Schema connectSchema,
+      final String pathStr,
+      final UnaryOperator<Object> logical
+  ) {
+    final Translator elementTranslator = compile(
+        lookupSchema.valueSchema(),
+        ksqlSchema.valueSchema(),
+        connectSchema.valueSchema(),
+        pathStr + PATH_SEPARATOR + "ARRAY");
+
+    return value -> {
+      if (value == null) {
+        return null;
+      }
+      final List<Object> connectArray = (List<Object>) logical.apply(value);
+      final List<Object> ksqlArray = new ArrayList<>(connectArray.size());
+      for (final Object item : connectArray) {
+        ksqlArray.add(elementTranslator.translate(item));
+      }
+      return ksqlArray;
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Translator mapTranslator(
+      final Schema lookupSchema,
+      final Schema ksqlSchema,
+      final Schema connectSchema,
+      final String pathStr,
+      final UnaryOperator<Object> logical
+  ) {
+    final Translator keyTranslator = compile(
+        lookupSchema.keySchema(),
+        ksqlSchema.keySchema(),
+        connectSchema.keySchema(),
+        pathStr + PATH_SEPARATOR + "MAP_KEY");
+    final Translator valueTranslator = compile(
+        lookupSchema.valueSchema(),
+        ksqlSchema.valueSchema(),
+        connectSchema.valueSchema(),
+        pathStr + PATH_SEPARATOR + "MAP_VAL");
+
+    return value -> {
+      if (value == null) {
+        return null;
+      }
+      final Map<Object, Object> connectMap = (Map<Object, Object>) logical.apply(value);
+      final Map<Object, Object> ksqlMap = new HashMap<>();
+      for (final Map.Entry<Object, Object> entry : connectMap.entrySet()) {
+        ksqlMap.put(
+            keyTranslator.translate(entry.getKey()),
+            valueTranslator.translate(entry.getValue()));
+      }
+      return ksqlMap;
+    };
+  }
+
+  /**
+   * Translates a struct into a struct of the KSQL schema or, for the row itself, into the list
+   * of its columns, of which only those of the required fields are translated, or into
+   * {@code null} if the row filter rejects a column.
+   */
+  private static final class StructTranslator implements Translator {
+
+    private final Schema ksqlSchema;
+    private final List<Field> ksqlFields;
+    private final Field[] connectFields;
+    private final Translator[] fieldTranslators;
+    private final UnaryOperator<Object> logical;
+    private final boolean isRow;
+    private final boolean[] requiredFields;
+    private final DeserializationFilter rowFilter;
+
+    /**
+     * @param requiredRowFields for a row, whether each of its fields is required; otherwise
+     *                          {@code null}.
+     * @param rowFilter for a row, the filter on its columns; otherwise {@code null}.
+     */
+    StructTranslator(
+        final Schema lookupSchema,
+        final Schema ksqlSchema,
+        final Schema connectSchema,
+        final String pathStr,
+        final UnaryOperator<Object> logical,
+        final boolean[] requiredRowFields,
+        final DeserializationFilter rowFilter
+    ) {
+      this.ksqlSchema = ksqlSchema;
+      this.ksqlFields = ksqlSchema.fields();
+      this.logical = logical;
+      this.isRow = requiredRowFields != null;
+      this.requiredFields = requiredRowFields;
+      this.rowFilter = rowFilter;
+
+      final Map<String, Field> caseInsensitiveFieldMap = new HashMap<>();
+      for (final Field field : connectSchema.fields()) {
+        caseInsensitiveFieldMap.put(field.name().toUpperCase(), field);
+      }
+
+      final List<Field> lookupFields = lookupSchema.fields();
+      this.connectFields = new Field[lookupFields.size()];
+      this.fieldTranslators = new Translator[lookupFields.size()];
+      for (int i = 0; i < lookupFields.size(); i++) {
+        final Field lookupField = lookupFields.get(i);
+        if (isRow && !requiredFields[i]) {
+          continue;
+        }
+        final Field connectField = caseInsensitiveFieldMap.get(lookupField.name().toUpperCase());
+        if (connectField != null) {
+          connectFields[i] = connectField;
+          fieldTranslators[i] = compile(
+              lookupField.schema(),
+              ksqlFields.get(i).schema(),
+              connectField.schema(),
+              pathStr + PATH_SEPARATOR + lookupField.name());
+        }
+      }
+    }
+
+    @Override
+    public Object translate(final Object value) {
+      if (value == null) {
+        return null;
+      }
+
+      final Struct connectStruct = (Struct) logical.apply(value);
+      if (isRow) {
+        final List<Object> columns = new ArrayList<>(ksqlFields.size());
+        for (int i = 0; i < connectFields.length; i++) {
+          final Object column = translateField(connectStruct, i);
+          if (column == null && requiredFields[i] && !ksqlFields.get(i).schema().isOptional()) {
+            throw new DataException("Invalid value: null used for required field: \""
+                + ksqlFields.get(i).name() + "\", schema type: "
+                + ksqlFields.get(i).schema().type());
+          }
+          if (rowFilter.rejects(i, column)) {
+            return null;
+          }
+          columns.add(column);
+        }
+        return columns;
+      }
+
+      final Struct ksqlStruct = new Struct(ksqlSchema);
+      for (int i = 0; i < connectFields.length; i++) {
+        ksqlStruct.put(ksqlFields.get(i), translateField(connectStruct, i));
+      }
+      return ksqlStruct;
+    }
+
+    private Object translateField(final Struct connectStruct, final int index) {
+      final Field connectField = connectFields[index];
+      if (connectField == null) {
+        return null;
+      }
+      // make sure to get the field using the Field object to avoid a lookup in Struct
+      return fieldTranslators[index].translate(connectStruct.get(connectField));
+    }
+  }
+
+  private static UnaryOperator<Object> logicalTypeConverter(final Schema connectSchema) {
+    if (connectSchema.name() == null) {
+      return UnaryOperator.identity();
+    }
+    switch (connectSchema.name()) {
+      case Date.LOGICAL_NAME:
+        return value -> Date.fromLogical(connectSchema, (java.util.Date) value);
+      case Time.LOGICAL_NAME:
+        return value -> Time.fromLogical(connectSchema, (java.util.Date) value);
+      case Timestamp.LOGICAL_NAME:
+        return value -> Timestamp.fromLogical(connectSchema, (java.util.Date) value);
+      default:
+        return UnaryOperator.identity();
+    }
+  }
+
+  /**
+   * @return a translator that throws for every value, if values of the connect schema can not be
+   *         translated to the schema; otherwise {@code null}.
+   */
+  private static Translator validateSchema(
+      final String pathStr,
+      final Schema schema,
+      final Schema connectSchema
+  ) {
+    switch (schema.type()) {
+      case BOOLEAN:
+      case ARRAY:
+      case MAP:
+      case STRUCT:
+        return validateType(pathStr, schema, connectSchema, new Schema.Type[]{schema.type()});
+      case STRING:
+        return validateType(pathStr, schema, connectSchema, STRING_ACCEPTABLE_TYPES);
+      case INT64:
+        return validateType(pathStr, schema, connectSchema, INT64_ACCEPTABLE_TYPES);
+      case INT32:
+        return validateType(pathStr, schema, connectSchema, INT32_ACCEPTABLE_TYPES);
+      case FLOAT64:
+        return validateType(pathStr, schema, connectSchema, FLOAT64_ACCEPTABLE_TYPES);
+      default:
+        return value -> {
+          throw new RuntimeException(
+              "Unexpected data type seen in schema: " + schema.type().getName());
+        };
+    }
+  }
+
+  private static Translator validateType(
+      final String pathStr,
+      final Schema schema,
+      final Schema connectSchema,
+      final Schema.Type[] validTypes
+  ) {
+    for (final Schema.Type type : validTypes) {
+      if (connectSchema.type().equals(type)) {
+        return null;
+      }
+    }
+    return value -> {
+      throw new DataException(
+          String.format(
+              "Cannot deserialize type %s as type %s for field %s",
+              connectSchema.type().getName(),
+              schema.type().getName(),
+              pathStr));
+    };
+  }
+}
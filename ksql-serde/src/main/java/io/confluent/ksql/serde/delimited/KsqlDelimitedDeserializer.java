@@ -17,31 +17,120 @@ package io.confluent.ksql.serde.delimited;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.DeserializationFilter;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
+import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import java.util.Set;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 
+/**
+ * Deserializes a delimited row.
+ *
+ * <p>The row is tokenized in a single pass over its UTF-8 bytes, following the RFC 4180 rules
+ * of {@code CSVFormat.DEFAULT}, which KSQL used to parse rows with: a field may be enclosed in
+ * double quotes, within which a double quote is escaped by doubling it; the row ends at the first
+ * line break outside quotes; and leading empty lines are ignored. {@code INT}, {@code BIGINT},
+ * {@code DOUBLE} and {@code BOOLEAN} fields are then parsed straight from the bytes, so that only
+ * {@code STRING} fields are decoded into strings.
+ */
 public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
 
+  private static final char DEFAULT_DELIMITER = ',';
+
+  private static final byte QUOTE = '"';
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  // Each field is recorded as three ints: its start, its end and whether it holds escaped quotes:
+  private static final int FIELD_SLOTS = 3;
+
+  // The powers of ten that are exactly representable as doubles:
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+
   private final Schema schema;
+  private final Schema.Type[] fieldTypes;
+  private final boolean[] requiredFields;
+  private final DeserializationFilter filter;
+  private final byte delimiter;
   private final ProcessingLogger recordLogger;
 
   KsqlDelimitedDeserializer(
       final Schema schema,
       final ProcessingLogger recordLogger
+  ) {
+    this(schema, SerdeUtils.fieldNames(schema), recordLogger);
+  }
+
+  KsqlDelimitedDeserializer(
+      final Schema schema,
+      final Set<String> requiredFields,
+      final ProcessingLogger recordLogger
+  ) {
+    this(schema, requiredFields, DeserializationFilter.ACCEPT_ALL, recordLogger);
+  }
+
+  KsqlDelimitedDeserializer(
+      final Schema schema,
+      final Set<String> requiredFields,
+      final DeserializationFilter filter,
+      final ProcessingLogger recordLogger
+  ) {
+    this(schema, DEFAULT_DELIMITER, requiredFields, filter, recordLogger);
+  }
+
+  KsqlDelimitedDeserializer(
+      final Schema schema,
+      final char delimiter,
+      final ProcessingLogger recordLogger
+  ) {
+    this(
+        schema,
+        delimiter,
+        SerdeUtils.fieldNames(schema),
+        DeserializationFilter.ACCEPT_ALL,
+        recordLogger);
+  }
+
+  /**
+   * @param requiredFields the names of the fields of the schema to parse. The fields of a row
+   *                       are still counted, but the columns of any other fields are left null.
+   * @param filter the filter on the columns parsed. Once it rejects a column, no more columns are
+   *               parsed and {@code null} is returned.
+   */
+  KsqlDelimitedDeserializer(
+      final Schema schema,
+      final char delimiter,
+      final Set<String> requiredFields,
+      final DeserializationFilter filter,
+      final ProcessingLogger recordLogger
   ) {
     this.schema = Objects.requireNonNull(schema, "schema").schema();
+    this.fieldTypes = this.schema.fields().stream()
+        .map(Field::schema)
+        .map(Schema::type)
+        .toArray(Schema.Type[]::new);
+    this.requiredFields = SerdeUtils.requiredFieldMask(this.schema, requiredFields);
+    this.filter = Objects.requireNonNull(filter, "filter");
+    if (delimiter > 0x7F || delimiter == QUOTE || delimiter == CR || delimiter == LF) {
+      throw new IllegalArgumentException("Invalid delimiter: " + delimiter);
+    }
+    this.delimiter = (byte) delimiter;
     this.recordLogger = Objects.requireNonNull(recordLogger, "recordLogger");
   }
 
@@ -54,36 +143,33 @@ public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
     if (bytes == null) {
       return null;
     }
-    final String recordCsvString = new String(bytes, StandardCharsets.UTF_8);
     try {
-      final List<CSVRecord> csvRecords = CSVParser.parse(recordCsvString, CSVFormat.DEFAULT)
-          .getRecords();
-
-      if (csvRecords == null || csvRecords.isEmpty()) {
-        throw new KsqlException("Deserialization error in the delimited line: " + recordCsvString);
-      }
-      final CSVRecord csvRecord = csvRecords.get(0);
-      if (csvRecord == null || csvRecord.size() == 0) {
-        throw new KsqlException("Deserialization error in the delimited line: " + recordCsvString);
-      }
-      final List<Object> columns = new ArrayList<>();
-      if (csvRecord.size() != schema.fields().size()) {
+      final int[] fields = tokenize(bytes);
+      final int numFields = fields[fields.length - 1];
+      if (numFields != fieldTypes.length) {
         throw new KsqlException(
             String.format(
               "Unexpected field count, csvFields:%d schemaFields:%d line: %s",
-              csvRecord.size(),
-              schema.fields().size(),
-              recordCsvString
+              numFields,
+              fieldTypes.length,
+              new String(bytes, StandardCharsets.UTF_8)
           )
         );
       }
-      for (int i = 0; i < csvRecord.size(); i++) {
-        if (csvRecord.get(i) == null) {
+
+      final List<Object> columns = new ArrayList<>(numFields);
+      for (int i = 0; i < numFields; i++) {
+        if (!requiredFields[i]) {
           columns.add(null);
-        } else {
-          columns.add(enforceFieldType(schema.fields().get(i).schema(), csvRecord.get(i)));
+          continue;
         }
-
+        final int slot = i * FIELD_SLOTS;
+        final Object column = enforceFieldType(
+            fieldTypes[i], bytes, fields[slot], fields[slot + 1], fields[slot + 2] != 0);
+        if (filter.rejects(i, column)) {
+          return null;
+        }
+        columns.add(column);
       }
       return new GenericRow(columns);
     } catch (final Exception e) {
@@ -96,12 +182,119 @@ public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
     }
   }
 
-  private Object enforceFieldType(final Schema fieldSchema, final String delimitedField) {
+  /**
+   * Finds the fields of the first row in {@code bytes}.
+   *
+   * @return the start, end and escaped flag of each field in turn, followed, in the last element,
+   *         by the number of fields. The bounds of a quoted field exclude its quotes.
+   */
+  private int[] tokenize(final byte[] bytes) {
+    final int end = bytes.length;
+
+    int pos = 0;
+    while (pos < end && (bytes[pos] == CR || bytes[pos] == LF)) {
+      pos++;
+    }
+    if (pos == end) {
+      throw new KsqlException("Deserialization error in the delimited line: "
+          + new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    int[] fields = new int[fieldTypes.length * FIELD_SLOTS + 1];
+    int numFields = 0;
+    while (true) {
+      final int fieldStart;
+      final int fieldEnd;
+      boolean escaped = false;
+
+      if (pos < end && bytes[pos] == QUOTE) {
+        fieldStart = ++pos;
+        while (true) {
+          if (pos == end) {
+            throw new KsqlException("EOF reached before encapsulated token finished: "
+                + new String(bytes, StandardCharsets.UTF_8));
+          }
+          if (bytes[pos] == QUOTE) {
+            if (pos + 1 < end && bytes[pos + 1] == QUOTE) {
+              escaped = true;
+              pos += 2;
+              continue;
+            }
+            break;
+          }
+          pos++;
+        }
+        fieldEnd = pos++;
+
+        // Only whitespace may follow the closing quote:
+        while (pos < end && !isFieldEnd(bytes[pos])) {
+          if (!Character.isWhitespace(bytes[pos])) {
+            throw new KsqlException("Invalid char between encapsulated token and delimiter: "
+                + new String(bytes, StandardCharsets.UTF_8));
+          }
+          pos++;
+        }
+      } else {
+        fieldStart = pos;
+        while (pos < end && !isFieldEnd(bytes[pos])) {
+          pos++;
+        }
+        fieldEnd = pos;
+      }
 
-    if (delimitedField.isEmpty()) {
+      final int slot = numFields++ * FIELD_SLOTS;
+      if (slot + FIELD_SLOTS >= fields.length) {
+        fields = Arrays.copyOf(fields, fields.length * 2 + FIELD_SLOTS);
+      }
+      fields[slot] = fieldStart;
+      fields[slot + 1] = fieldEnd;
+      fields[slot + 2] = escaped ? 1 : 0;
+
+      if (pos == end || bytes[pos] != delimiter) {
+        break;
+      }
+      pos++;
+    }
+
+    fields[fields.length - 1] = numFields;
+    return fields;
+  }
+
+  private boolean isFieldEnd(final byte b) {
+    return b == delimiter || b == CR || b == LF;
+  }
+
+  private static Object enforceFieldType(
+      final Schema.Type type,
+      final byte[] bytes,
+      final int start,
+      final int end,
+      final boolean escaped
+  ) {
+    if (start == end) {
       return null;
     }
-    switch (fieldSchema.type()) {
+    if (escaped) {
+      return enforceFieldType(type, unescape(bytes, start, end));
+    }
+    switch (type) {
+      case BOOLEAN:
+        return parseBoolean(bytes, start, end);
+      case INT32:
+        return parseInt(bytes, start, end);
+      case INT64:
+        return parseLong(bytes, start, end);
+      case FLOAT64:
+        return parseDouble(bytes, start, end);
+      case STRING:
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+      default:
+        throw new KsqlException("Type is not supported: " + type);
+    }
+  }
+
+  private static Object enforceFieldType(final Schema.Type type, final String delimitedField) {
+    switch (type) {
       case BOOLEAN:
         return Boolean.parseBoolean(delimitedField);
       case INT32:
@@ -112,11 +305,109 @@ public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
         return Double.parseDouble(delimitedField);
       case STRING:
         return delimitedField;
-      case ARRAY:
-      case MAP:
       default:
-        throw new KsqlException("Type is not supported: " + fieldSchema.type());
+        throw new KsqlException("Type is not supported: " + type);
+    }
+  }
+
+  private static String unescape(final byte[] bytes, final int start, final int end) {
+    final byte[] unescaped = new byte[end - start];
+    int length = 0;
+    for (int i = start; i < end; i++) {
+      unescaped[length++] = bytes[i];
+      if (bytes[i] == QUOTE) {
+        i++;
+      }
     }
+    return new String(unescaped, 0, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Matches {@link Boolean#parseBoolean(String)}: only a case-insensitive "true" is true.
+   */
+  private static boolean parseBoolean(final byte[] bytes, final int start, final int end) {
+    return end - start == 4
+        && (bytes[start] | 0x20) == 't'
+        && (bytes[start + 1] | 0x20) == 'r'
+        && (bytes[start + 2] | 0x20) == 'u'
+        && (bytes[start + 3] | 0x20) == 'e';
+  }
+
+  private static int parseInt(final byte[] bytes, final int start, final int end) {
+    final long value = parseLong(bytes, start, end);
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      // Let the JDK report the overflow:
+      return Integer.parseInt(asString(bytes, start, end));
+    }
+    return (int) value;
+  }
+
+  /**
+   * Parses the common case of a sign followed by at most 18 ASCII digits, which can not overflow,
+   * and leaves anything else, including any error, to {@link Long#parseLong(String)}.
+   */
+  private static long parseLong(final byte[] bytes, final int start, final int end) {
+    final boolean negative = bytes[start] == '-';
+    int pos = negative || bytes[start] == '+' ? start + 1 : start;
+    if (pos == end || end - pos > 18) {
+      return Long.parseLong(asString(bytes, start, end));
+    }
+
+    long value = 0;
+    for (; pos < end; pos++) {
+      final int digit = bytes[pos] - '0';
+      if (digit < 0 || digit > 9) {
+        return Long.parseLong(asString(bytes, start, end));
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses the common case of a plain decimal, such as {@code -12.375}, whose digits form an
+   * integer that is exactly representable as a double and that has at most 22 decimal places.
+   * Dividing that integer by the exactly representable power of ten then yields the correctly
+   * rounded result, just as {@link Double#parseDouble(String)} would. Anything else is left to
+   * {@link Double#parseDouble(String)}.
+   */
+  private static double parseDouble(final byte[] bytes, final int start, final int end) {
+    final boolean negative = bytes[start] == '-';
+    int pos = negative || bytes[start] == '+' ? start + 1 : start;
+
+    long mantissa = 0;
+    int digits = 0;
+    int decimalPlaces = -1;
+    for (; pos < end; pos++) {
+      final byte b = bytes[pos];
+      if (b == '.' && decimalPlaces < 0) {
+        decimalPlaces = 0;
+        continue;
+      }
+      final int digit = b - '0';
+      if (digit < 0 || digit > 9 || ++digits > 18) {
+        return Double.parseDouble(asString(bytes, start, end));
+      }
+      mantissa = mantissa * 10 + digit;
+      if (decimalPlaces >= 0) {
+        decimalPlaces++;
+      }
+    }
+
+    if (digits == 0
+        || mantissa > MAX_EXACT_DOUBLE_MANTISSA
+        || decimalPlaces >= POWERS_OF_TEN.length) {
+      return Double.parseDouble(asString(bytes, start, end));
+    }
+
+    final double value = decimalPlaces > 0
+        ? mantissa / POWERS_OF_TEN[decimalPlaces]
+        : mantissa;
+    return negative ? -value : value;
+  }
+
+  private static String asString(final byte[] bytes, final int start, final int end) {
+    return new String(bytes, start, end - start, StandardCharsets.UTF_8);
   }
 
   @Override
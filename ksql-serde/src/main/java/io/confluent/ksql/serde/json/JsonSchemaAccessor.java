@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * A tree of accessors, compiled once from a schema, that resolves JSON field names to the
+ * fields of the schema, and of any structs nested within it, without allocating per lookup.
+ *
+ * <p>Field names are matched case-insensitively. Names matching the field's declared name, or
+ * its all upper or all lower case form, hit a precomputed table directly. Only other names
+ * are case-folded before a second lookup.
+ */
+final class JsonSchemaAccessor {
+
+  private final Schema schema;
+  private final Map<String, Field> fieldsByName;
+  private final Map<String, Field> fieldsByFoldedName;
+  private final List<JsonSchemaAccessor> fieldAccessors;
+  private final JsonSchemaAccessor valueAccessor;
+
+  static JsonSchemaAccessor of(final Schema schema) {
+    return new JsonSchemaAccessor(schema);
+  }
+
+  private JsonSchemaAccessor(final Schema schema) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+
+    if (schema.type() == Schema.Type.STRUCT) {
+      final Map<String, Field> byName = new HashMap<>();
+      final Map<String, Field> byFoldedName = new HashMap<>();
+      final ImmutableList.Builder<JsonSchemaAccessor> accessors = ImmutableList.builder();
+      for (final Field field : schema.fields()) {
+        final String folded = field.name().toUpperCase();
+        byName.putIfAbsent(field.name(), field);
+        byName.putIfAbsent(folded, field);
+        byName.putIfAbsent(field.name().toLowerCase(), field);
+        byFoldedName.putIfAbsent(folded, field);
+        accessors.add(new JsonSchemaAccessor(field.schema()));
+      }
+      this.fieldsByName = ImmutableMap.copyOf(byName);
+      this.fieldsByFoldedName = ImmutableMap.copyOf(byFoldedName);
+      this.fieldAccessors = accessors.build();
+    } else {
+      this.fieldsByName = ImmutableMap.of();
+      this.fieldsByFoldedName = ImmutableMap.of();
+      this.fieldAccessors = ImmutableList.of();
+    }
+
+    final boolean hasValueSchema = schema.type() == Schema.Type.ARRAY
+        || schema.type() == Schema.Type.MAP;
+    this.valueAccessor = hasValueSchema ? new JsonSchemaAccessor(schema.valueSchema()) : null;
+  }
+
+  Schema schema() {
+    return schema;
+  }
+
+  /**
+   * @param jsonName the name of a field in the JSON document.
+   * @return the matching struct field, or {@code null} if the schema has no such field.
+   */
+  Field field(final String jsonName) {
+    final Field field = fieldsByName.get(jsonName);
+    if (field != null) {
+      return field;
+    }
+    return fieldsByFoldedName.get(jsonName.toUpperCase());
+  }
+
+  JsonSchemaAccessor fieldAccessor(final Field field) {
+    return fieldAccessors.get(field.index());
+  }
+
+  JsonSchemaAccessor valueAccessor() {
+    return valueAccessor;
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.errors.DataException;
+
+/**
+ * A tree of writers, compiled once from a schema, that writes values of the schema, and of any
+ * structs, arrays or maps nested within it, straight to a Jackson generator.
+ *
+ * <p>The JSON written is exactly that of Connect's {@code JsonConverter} with schemas disabled,
+ * but no Connect {@link Struct} or Jackson tree is built first. Field names are written from a
+ * precomputed table, so they are neither escaped nor encoded per row.
+ */
+final class JsonSchemaWriter {
+
+  private final Schema schema;
+  private final List<Field> fields;
+  private final SerializableString[] fieldNames;
+  private final JsonSchemaWriter[] fieldWriters;
+  private final JsonSchemaWriter keyWriter;
+  private final JsonSchemaWriter valueWriter;
+
+  static JsonSchemaWriter of(final Schema schema) {
+    return new JsonSchemaWriter(schema);
+  }
+
+  private JsonSchemaWriter(final Schema schema) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+
+    if (schema.type() == Schema.Type.STRUCT) {
+      this.fields = schema.fields();
+      this.fieldNames = new SerializableString[fields.size()];
+      this.fieldWriters = new JsonSchemaWriter[fields.size()];
+      for (final Field field : fields) {
+        fieldNames[field.index()] = new SerializedString(field.name());
+        fieldWriters[field.index()] = new JsonSchemaWriter(field.schema());
+      }
+    } else {
+      this.fields = null;
+      this.fieldNames = null;
+      this.fieldWriters = null;
+    }
+
+    this.keyWriter = schema.type() == Schema.Type.MAP
+        ? new JsonSchemaWriter(schema.keySchema())
+        : null;
+    this.valueWriter = schema.type() == Schema.Type.ARRAY || schema.type() == Schema.Type.MAP
+        ? new JsonSchemaWriter(schema.valueSchema())
+        : null;
+  }
+
+  /**
+   * Writes the columns of a row of this struct schema as a JSON object.
+   *
+   * <p>Missing trailing columns are written as nulls.
+   */
+  void writeRow(final JsonGenerator generator, final List<?> columns) throws IOException {
+    if (columns.size() > fields.size()) {
+      throw new DataException(String.format(
+          "Row has more columns than the schema has fields, columns:%d fields:%d",
+          columns.size(), fields.size()));
+    }
+
+    generator.writeStartObject();
+    for (int i = 0; i < fieldWriters.length; i++) {
+      generator.writeFieldName(fieldNames[i]);
+      fieldWriters[i].write(generator, i < columns.size() ? columns.get(i) : null);
+    }
+    generator.writeEndObject();
+  }
+
+  void write(final JsonGenerator generator, final Object logicalValue) throws IOException {
+    if (logicalValue == null) {
+      writeNull(generator);
+      return;
+    }
+
+    final Object value = fromLogical(logicalValue);
+    switch (schema.type()) {
+      case INT8:
+        generator.writeNumber((Byte) value);
+        return;
+      case INT16:
+        generator.writeNumber((Short) value);
+        return;
+      case INT32:
+        generator.writeNumber((Integer) value);
+        return;
+      case INT64:
+        generator.writeNumber((Long) value);
+        return;
+      case FLOAT32:
+        generator.writeNumber((Float) value);
+        return;
+      case FLOAT64:
+        generator.writeNumber((Double) value);
+        return;
+      case BOOLEAN:
+        generator.writeBoolean((Boolean) value);
+        return;
+      case STRING:
+        generator.writeString(((CharSequence) value).toString());
+        return;
+      case BYTES:
+        writeBytes(generator, value);
+        return;
+      case ARRAY:
+        generator.writeStartArray();
+        for (final Object element : (Collection<?>) value) {
+          valueWriter.write(generator, element);
+        }
+        generator.writeEndArray();
+        return;
+      case MAP:
+        writeMap(generator, (Map<?, ?>) value);
+        return;
+      case STRUCT:
+        writeStruct(generator, (Struct) value);
+        return;
+      default:
+        throw new DataException("Couldn't convert " + value + " to JSON.");
+    }
+  }
+
+  private void writeNull(final JsonGenerator generator) throws IOException {
+    if (schema.defaultValue() != null) {
+      write(generator, schema.defaultValue());
+    } else if (schema.isOptional()) {
+      generator.writeNull();
+    } else {
+      throw new DataException(
+          "Conversion error: null value for field that is required and has no default value");
+    }
+  }
+
+  private Object fromLogical(final Object value) {
+    if (schema.name() == null) {
+      return value;
+    }
+
+    switch (schema.name()) {
+      case Decimal.LOGICAL_NAME:
+        if (!(value instanceof BigDecimal)) {
+          throw new DataException("Invalid type for Decimal, expected BigDecimal but was "
+              + value.getClass());
+        }
+        return Decimal.fromLogical(schema, (BigDecimal) value);
+      case Date.LOGICAL_NAME:
+        if (!(value instanceof java.util.Date)) {
+          throw new DataException("Invalid type for Date, expected Date but was "
+              + value.getClass());
+        }
+        return Date.fromLogical(schema, (java.util.Date) value);
+      case Time.LOGICAL_NAME:
+        if (!(value instanceof java.util.Date)) {
+          throw new DataException("Invalid type for Time, expected Date but was "
+              + value.getClass());
+        }
+        return Time.fromLogical(schema, (java.util.Date) value);
+      case Timestamp.LOGICAL_NAME:
+        if (!(value instanceof java.util.Date)) {
+          throw new DataException("Invalid type for Timestamp, expected Date but was "
+              + value.getClass());
+        }
+        return Timestamp.fromLogical(schema, (java.util.Date) value);
+      default:
+        return value;
+    }
+  }
+
+  private static void writeBytes(final JsonGenerator generator, final Object value)
+      throws IOException {
+    if (value instanceof byte[]) {
+      generator.writeBinary((byte[]) value);
+    } else if (value instanceof ByteBuffer) {
+      generator.writeBinary(((ByteBuffer) value).array());
+    } else {
+      throw new DataException("Invalid type for bytes type: " + value.getClass());
+    }
+  }
+
+  /**
+   * Writes a map with string keys as an object, and any other map as an array of key-value
+   * arrays.
+   */
+  private void writeMap(final JsonGenerator generator, final Map<?, ?> map) throws IOException {
+    if (keyWriter.schema.type() == Schema.Type.STRING) {
+      generator.writeStartObject();
+      for (final Map.Entry<?, ?> entry : map.entrySet()) {
+        generator.writeFieldName(keyWriter.keyText(entry.getKey()));
+        valueWriter.write(generator, entry.getValue());
+      }
+      generator.writeEndObject();
+      return;
+    }
+
+    generator.writeStartArray();
+    for (final Map.Entry<?, ?> entry : map.entrySet()) {
+      generator.writeStartArray();
+      keyWriter.write(generator, entry.getKey());
+      valueWriter.write(generator, entry.getValue());
+      generator.writeEndArray();
+    }
+    generator.writeEndArray();
+  }
+
+  /**
+   * @return the text of a string map key, which, as for {@code JsonConverter}, is "null" for
+   *         a null key.
+   */
+  private String keyText(final Object key) {
+    if (key != null) {
+      return ((CharSequence) key).toString();
+    }
+    if (schema.defaultValue() != null) {
+      return keyText(schema.defaultValue());
+    }
+    if (schema.isOptional()) {
+      return "null";
+    }
+    throw new DataException(
+        "Conversion error: null value for field that is required and has no default value");
+  }
+
+  private void writeStruct(final JsonGenerator generator, final Struct struct) throws IOException {
+    if (!struct.schema().equals(schema)) {
+      throw new DataException("Mismatching schema.");
+    }
+
+    generator.writeStartObject();
+    for (int i = 0; i < fieldWriters.length; i++) {
+      generator.writeFieldName(fieldNames[i]);
+      fieldWriters[i].write(generator, struct.get(fields.get(i)));
+    }
+    generator.writeEndObject();
+  }
+}
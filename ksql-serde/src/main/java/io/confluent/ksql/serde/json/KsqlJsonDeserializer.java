@@ -18,6 +18,7 @@ package io.confluent.ksql.serde.json;
 import com.google.gson.Gson;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.DeserializationFilter;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
 import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlException;
@@ -28,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.connect.data.Field;
@@ -44,15 +46,46 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
 
   private final Gson gson;
   private final Schema schema;
+  private final JsonSchemaAccessor rowAccessor;
+  private final boolean[] requiredFields;
+  private final DeserializationFilter filter;
   private final JsonConverter jsonConverter;
   private final ProcessingLogger recordLogger;
 
   public KsqlJsonDeserializer(
       final Schema schema,
       final ProcessingLogger recordLogger
+  ) {
+    this(schema, SerdeUtils.fieldNames(schema), recordLogger);
+  }
+
+  /**
+   * @param requiredFields the names of the fields of the schema to read. The columns of any other
+   *                       fields are left null.
+   */
+  public KsqlJsonDeserializer(
+      final Schema schema,
+      final Set<String> requiredFields,
+      final ProcessingLogger recordLogger
+  ) {
+    this(schema, requiredFields, DeserializationFilter.ACCEPT_ALL, recordLogger);
+  }
+
+  /**
+   * @param filter the filter on the columns read. Once it rejects a column, no more columns are
+   *               read and {@code null} is returned.
+   */
+  public KsqlJsonDeserializer(
+      final Schema schema,
+      final Set<String> requiredFields,
+      final DeserializationFilter filter,
+      final ProcessingLogger recordLogger
   ) {
     this.gson = new Gson();
     this.schema = Objects.requireNonNull(schema, "schema");
+    this.rowAccessor = JsonSchemaAccessor.of(schema);
+    this.requiredFields = SerdeUtils.requiredFieldMask(schema, requiredFields);
+    this.filter = Objects.requireNonNull(filter, "filter");
     this.jsonConverter = new JsonConverter();
     this.jsonConverter.configure(Collections.singletonMap("schemas.enable", false), false);
     this.recordLogger = Objects.requireNonNull(recordLogger, "recordLogger");
@@ -90,12 +123,20 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
     }
 
     final Map<String, String> caseInsensitiveFieldNameMap =
-        getCaseInsensitiveFieldNameMap(valueMap, true);
+        getCaseInsensitiveFieldNameMap(valueMap);
 
     final List<Object> columns = new ArrayList<>(schema.fields().size());
     for (final Field field : schema.fields()) {
+      if (!requiredFields[field.index()]) {
+        columns.add(null);
+        continue;
+      }
       final Object columnVal = valueMap.get(caseInsensitiveFieldNameMap.get(field.name()));
-      columns.add(enforceFieldType(field.schema(), columnVal));
+      final Object column = enforceFieldType(rowAccessor.fieldAccessor(field), columnVal);
+      if (filter.rejects(field.index(), column)) {
+        return null;
+      }
+      columns.add(column);
     }
     return new GenericRow(columns);
   }
@@ -103,10 +144,11 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
   // This is a temporary requirement until we can ensure that the types that Connect JSON
   // convertor creates are supported in KSQL.
   @SuppressWarnings("unchecked")
-  private Object enforceFieldType(final Schema fieldSchema, final Object columnVal) {
+  private Object enforceFieldType(final JsonSchemaAccessor accessor, final Object columnVal) {
     if (columnVal == null) {
       return null;
     }
+    final Schema fieldSchema = accessor.schema();
     switch (fieldSchema.type()) {
       case BOOLEAN:
         return SerdeUtils.toBoolean(columnVal);
@@ -119,11 +161,11 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
       case STRING:
         return processString(columnVal);
       case ARRAY:
-        return enforceFieldTypeForArray(fieldSchema, (List<?>) columnVal);
+        return enforceFieldTypeForArray(accessor, (List<?>) columnVal);
       case MAP:
-        return enforceFieldTypeForMap(fieldSchema, (Map<String, Object>) columnVal);
+        return enforceFieldTypeForMap(accessor, (Map<String, Object>) columnVal);
       case STRUCT:
-        return enforceFieldTypeForStruct(fieldSchema, (Map<String, Object>) columnVal);
+        return enforceFieldTypeForStruct(accessor, (Map<String, Object>) columnVal);
       default:
         throw new KsqlException("Type is not supported: " + fieldSchema.type());
     }
@@ -136,48 +178,46 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
     return columnVal.toString();
   }
 
-  private List<?> enforceFieldTypeForArray(final Schema fieldSchema, final List<?> arrayList) {
+  private List<?> enforceFieldTypeForArray(
+      final JsonSchemaAccessor accessor,
+      final List<?> arrayList) {
     final List<Object> array = new ArrayList<>(arrayList.size());
     for (final Object item : arrayList) {
-      array.add(enforceFieldType(fieldSchema.valueSchema(), item));
+      array.add(enforceFieldType(accessor.valueAccessor(), item));
     }
     return array;
   }
 
   private Map<String, Object> enforceFieldTypeForMap(
-      final Schema fieldSchema,
+      final JsonSchemaAccessor accessor,
       final Map<String, ?> columnMap) {
     final Map<String, Object> ksqlMap = new HashMap<>();
     for (final Map.Entry<String, ?> e : columnMap.entrySet()) {
       ksqlMap.put(
-          enforceFieldType(Schema.OPTIONAL_STRING_SCHEMA, e.getKey()).toString(),
-          enforceFieldType(fieldSchema.valueSchema(), e.getValue())
+          processString(e.getKey()),
+          enforceFieldType(accessor.valueAccessor(), e.getValue())
       );
     }
     return ksqlMap;
   }
 
   private Struct enforceFieldTypeForStruct(
-      final Schema fieldSchema,
+      final JsonSchemaAccessor accessor,
       final Map<String, ?> structMap) {
-    final Struct columnStruct = new Struct(fieldSchema);
-    final Map<String, String> caseInsensitiveStructFieldNameMap =
-        getCaseInsensitiveFieldNameMap(structMap, false);
-    fieldSchema.fields()
-        .forEach(
-            field -> columnStruct.put(field.name(),
-                enforceFieldType(
-                    field.schema(), structMap.get(
-                        caseInsensitiveStructFieldNameMap.get(field.name().toUpperCase())
-                    ))));
+    final Struct columnStruct = new Struct(accessor.schema());
+    for (final Map.Entry<String, ?> e : structMap.entrySet()) {
+      final Field field = accessor.field(e.getKey());
+      if (field != null) {
+        columnStruct.put(field, enforceFieldType(accessor.fieldAccessor(field), e.getValue()));
+      }
+    }
     return columnStruct;
   }
 
-  private Map<String, String> getCaseInsensitiveFieldNameMap(final Map<String, ?> map,
-                                                             final boolean omitAt) {
+  private static Map<String, String> getCaseInsensitiveFieldNameMap(final Map<String, ?> map) {
     final Map<String, String> keyMap = new HashMap<>();
     for (final Map.Entry<String, ?> entry : map.entrySet()) {
-      if (omitAt && entry.getKey().startsWith("@")) {
+      if (entry.getKey().startsWith("@")) {
         if (entry.getKey().length() == 1) {
           throw new KsqlException("Field name cannot be '@'.");
         }
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.gson.Gson;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.DeserializationFilter;
+import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
+import io.confluent.ksql.serde.util.SerdeUtils;
+import io.confluent.ksql.util.KsqlException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JSON deserializer that drives a Jackson streaming parser directly off the raw bytes.
+ *
+ * <p>Unlike {@link KsqlJsonDeserializer}, no intermediate Connect representation of the
+ * whole message is built: fields, including those of nested structs, are resolved by a
+ * {@link JsonSchemaAccessor} compiled once from the schema, fields not in the schema are
+ * skipped unread and values are coerced as they are parsed, straight into the row's column
+ * list.
+ *
+ * <p>Coercion rules match those of {@link KsqlJsonDeserializer}.
+ */
+public class KsqlJsonStreamingDeserializer implements Deserializer<GenericRow> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonStreamingDeserializer.class);
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final Gson gson;
+  private final JsonSchemaAccessor rowAccessor;
+  private final int columnCount;
+  private final boolean[] requiredFields;
+  private final DeserializationFilter filter;
+  private final ProcessingLogger recordLogger;
+
+  public KsqlJsonStreamingDeserializer(
+      final Schema schema,
+      final ProcessingLogger recordLogger
+  ) {
+    this(schema, SerdeUtils.fieldNames(schema), recordLogger);
+  }
+
+  /**
+   * @param requiredFields the names of the fields of the schema to read. The values of any other
+   *                       fields are skipped unread, as are those of fields not in the schema.
+   */
+  public KsqlJsonStreamingDeserializer(
+      final Schema schema,
+      final Set<String> requiredFields,
+      final ProcessingLogger recordLogger
+  ) {
+    this(schema, requiredFields, DeserializationFilter.ACCEPT_ALL, recordLogger);
+  }
+
+  /**
+   * @param filter the filter on the columns read. Once it rejects a column, the values of the
+   *               remaining fields of the record are skipped unread and {@code null} returned.
+   */
+  public KsqlJsonStreamingDeserializer(
+      final Schema schema,
+      final Set<String> requiredFields,
+      final DeserializationFilter filter,
+      final ProcessingLogger recordLogger
+  ) {
+    this.gson = new Gson();
+    this.rowAccessor = JsonSchemaAccessor.of(Objects.requireNonNull(schema, "schema"));
+    this.columnCount = schema.fields().size();
+    this.requiredFields = SerdeUtils.requiredFieldMask(schema, requiredFields);
+    this.filter = Objects.requireNonNull(filter, "filter");
+    this.recordLogger = Objects.requireNonNull(recordLogger, "recordLogger");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean b) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    try {
+      final GenericRow row = getGenericRow(bytes);
+      if (LOG.isTraceEnabled()) {
+        LOG.trace("Deserialized row. topic:{}, row:{}", topic, row);
+      }
+      return row;
+    } catch (final Exception e) {
+      recordLogger.error(
+          SerdeProcessingLogMessageFactory.deserializationErrorMsg(
+              e,
+              Optional.ofNullable(bytes))
+      );
+      throw new SerializationException(
+          "KsqlJsonStreamingDeserializer failed to deserialize data for topic: " + topic, e);
+    }
+  }
+
+  private GenericRow getGenericRow(final byte[] rowJsonBytes) throws IOException {
+    if (rowJsonBytes == null) {
+      return null;
+    }
+
+    try (JsonParser parser = JSON_FACTORY.createParser(rowJsonBytes)) {
+      final JsonToken rowToken = parser.nextToken();
+      if (rowToken == null || rowToken == JsonToken.VALUE_NULL) {
+        return null;
+      }
+      if (rowToken != JsonToken.START_OBJECT) {
+        throw new KsqlException("Expected JSON object but found: " + rowToken);
+      }
+
+      final List<Object> columns = new ArrayList<>(columnCount);
+      for (int i = 0; i < columnCount; i++) {
+        columns.add(null);
+      }
+
+      boolean rejected = false;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final Field field = rowAccessor.field(columnName(parser.getCurrentName()));
+        final JsonToken valueToken = parser.nextToken();
+        if (rejected || field == null || !requiredFields[field.index()]) {
+          // Still tokenized, so that malformed records are reported as before:
+          parser.skipChildren();
+          continue;
+        }
+        final Object value = readValue(parser, valueToken, rowAccessor.fieldAccessor(field));
+        columns.set(field.index(), value);
+        rejected = filter.rejects(field.index(), value);
+      }
+      // Fields missing from the record have null columns, which the filter must also accept:
+      return rejected || filter.rejects(columns) ? null : new GenericRow(columns);
+    }
+  }
+
+  private static String columnName(final String fieldName) {
+    if (fieldName.startsWith("@")) {
+      if (fieldName.length() == 1) {
+        throw new KsqlException("Field name cannot be '@'.");
+      }
+      return fieldName.substring(1);
+    }
+    return fieldName;
+  }
+
+  private Object readValue(
+      final JsonParser parser,
+      final JsonToken token,
+      final JsonSchemaAccessor accessor
+  ) throws IOException {
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    final Schema fieldSchema = accessor.schema();
+    switch (fieldSchema.type()) {
+      case BOOLEAN:
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+          return parser.getBooleanValue();
+        }
+        return SerdeUtils.toBoolean(readUntyped(parser, token));
+      case INT32:
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+          return (int) parser.getLongValue();
+        }
+        return SerdeUtils.toInteger(readUntyped(parser, token));
+      case INT64:
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+          return parser.getLongValue();
+        }
+        return SerdeUtils.toLong(readUntyped(parser, token));
+      case FLOAT64:
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+          return parser.getDoubleValue();
+        }
+        return SerdeUtils.toDouble(readUntyped(parser, token));
+      case STRING:
+        return readString(parser, token);
+      case ARRAY:
+        return readArray(parser, token, accessor);
+      case MAP:
+        return readMap(parser, token, accessor);
+      case STRUCT:
+        return readStruct(parser, token, accessor);
+      default:
+        throw new KsqlException("Type is not supported: " + fieldSchema.type());
+    }
+  }
+
+  private String readString(final JsonParser parser, final JsonToken token) throws IOException {
+    if (token == JsonToken.VALUE_STRING) {
+      return parser.getText();
+    }
+    final Object value = readUntyped(parser, token);
+    if (value instanceof Map) {
+      return gson.toJson(value);
+    }
+    return value.toString();
+  }
+
+  private List<?> readArray(
+      final JsonParser parser,
+      final JsonToken token,
+      final JsonSchemaAccessor accessor
+  ) throws IOException {
+    checkToken(token, JsonToken.START_ARRAY, accessor);
+    final List<Object> array = new ArrayList<>();
+    JsonToken itemToken;
+    while ((itemToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+      array.add(readValue(parser, itemToken, accessor.valueAccessor()));
+    }
+    return array;
+  }
+
+  private Map<String, Object> readMap(
+      final JsonParser parser,
+      final JsonToken token,
+      final JsonSchemaAccessor accessor
+  ) throws IOException {
+    checkToken(token, JsonToken.START_OBJECT, accessor);
+    final Map<String, Object> map = new HashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String key = parser.getCurrentName();
+      map.put(key, readValue(parser, parser.nextToken(), accessor.valueAccessor()));
+    }
+    return map;
+  }
+
+  private Struct readStruct(
+      final JsonParser parser,
+      final JsonToken token,
+      final JsonSchemaAccessor accessor
+  ) throws IOException {
+    checkToken(token, JsonToken.START_OBJECT, accessor);
+    final Struct struct = new Struct(accessor.schema());
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final Field field = accessor.field(parser.getCurrentName());
+      final JsonToken valueToken = parser.nextToken();
+      if (field == null) {
+        parser.skipChildren();
+        continue;
+      }
+      struct.put(field, readValue(parser, valueToken, accessor.fieldAccessor(field)));
+    }
+    return struct;
+  }
+
+  private static void checkToken(
+      final JsonToken actual,
+      final JsonToken expected,
+      final JsonSchemaAccessor accessor
+  ) {
+    if (actual != expected) {
+      throw new KsqlException(
+          "Cannot coerce JSON " + actual + " to " + accessor.schema().type());
+    }
+  }
+
+  /**
+   * Reads the current value in the same form the schemaless Connect JSON converter would
+   * produce, for use by the less common coercion paths.
+   */
+  private static Object readUntyped(
+      final JsonParser parser,
+      final JsonToken token
+  ) throws IOException {
+    switch (token) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_TRUE:
+        return true;
+      case VALUE_FALSE:
+        return false;
+      case VALUE_NUMBER_INT:
+        return parser.getLongValue();
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_STRING:
+        return parser.getText();
+      case START_ARRAY:
+        return readUntypedArray(parser);
+      case START_OBJECT:
+        return readUntypedMap(parser);
+      default:
+        throw new KsqlException("Unexpected JSON token: " + token);
+    }
+  }
+
+  private static List<Object> readUntypedArray(final JsonParser parser) throws IOException {
+    final List<Object> list = new ArrayList<>();
+    JsonToken itemToken;
+    while ((itemToken = parser.nextToken()) != JsonToken.END_ARRAY) {
+      list.add(readUntyped(parser, itemToken));
+    }
+    return list;
+  }
+
+  private static Map<String, Object> readUntypedMap(final JsonParser parser) throws IOException {
+    final Map<String, Object> map = new HashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String key = parser.getCurrentName();
+      map.put(key, readUntyped(parser, parser.nextToken()));
+    }
+    return map;
+  }
+
+  @Override
+  public void close() {
+  }
+}
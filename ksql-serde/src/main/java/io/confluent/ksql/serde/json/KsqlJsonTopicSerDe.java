@@ -23,11 +23,13 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.serde.DataSource;
+import io.confluent.ksql.serde.DeserializationFilter;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
 import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -48,19 +50,26 @@ public class KsqlJsonTopicSerDe extends KsqlTopicSerDe {
       final KsqlConfig ksqlConfig,
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
       final String loggerNamePrefix,
-      final ProcessingLogContext processingLogContext
+      final ProcessingLogContext processingLogContext,
+      final Set<String> requiredFields,
+      final DeserializationFilter filter
   ) {
     final Map<String, Object> serdeProps = new HashMap<>();
     serdeProps.put("JsonPOJOClass", GenericRow.class);
 
-    final Serializer<GenericRow> genericRowSerializer = new KsqlJsonSerializer(schema);
+    final Serializer<GenericRow> genericRowSerializer =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_JSON_STREAMING_SERIALIZER_ENABLED)
+            ? new KsqlJsonStreamingSerializer(schema)
+            : new KsqlJsonSerializer(schema);
     genericRowSerializer.configure(serdeProps, false);
 
     final ProcessingLogger processingLogger = processingLogContext.getLoggerFactory()
         .getLogger(join(loggerNamePrefix, SerdeUtils.DESERIALIZER_LOGGER_NAME));
 
     final Deserializer<GenericRow> genericRowDeserializer =
-        new KsqlJsonDeserializer(schema, processingLogger);
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_JSON_STREAMING_DESERIALIZER_ENABLED)
+            ? new KsqlJsonStreamingDeserializer(schema, requiredFields, filter, processingLogger)
+            : new KsqlJsonDeserializer(schema, requiredFields, filter, processingLogger);
     genericRowDeserializer.configure(serdeProps, false);
 
     return Serdes.serdeFrom(genericRowSerializer, genericRowDeserializer);
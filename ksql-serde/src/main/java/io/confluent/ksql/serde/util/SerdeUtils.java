@@ -16,7 +16,12 @@
 package io.confluent.ksql.serde.util;
 
 import io.confluent.ksql.util.KsqlException;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
 
 public final class SerdeUtils {
   public static final String DESERIALIZER_LOGGER_NAME = "deserializer";
@@ -87,4 +92,37 @@ public final class SerdeUtils {
     }
     throw new IllegalArgumentException("This Object doesn't represent a double");
   }
+
+  /**
+   * @return the names of all the fields of the schema, which has none unless it is a struct.
+   */
+  public static Set<String> fieldNames(final Schema schema) {
+    final Set<String> names = new HashSet<>();
+    if (schema.type() != Schema.Type.STRUCT) {
+      return names;
+    }
+    for (final Field field : schema.fields()) {
+      names.add(field.name());
+    }
+    return names;
+  }
+
+  /**
+   * @return for each field of the schema, in order, whether it is one of the required fields.
+   */
+  public static boolean[] requiredFieldMask(
+      final Schema schema,
+      final Set<String> requiredFields
+  ) {
+    Objects.requireNonNull(requiredFields, "requiredFields");
+    if (schema.type() != Schema.Type.STRUCT) {
+      return new boolean[0];
+    }
+    final List<Field> fields = schema.fields();
+    final boolean[] mask = new boolean[fields.size()];
+    for (int i = 0; i < mask.length; i++) {
+      mask[i] = requiredFields.contains(fields.get(i).name());
+    }
+    return mask;
+  }
 }
@@ -23,8 +23,11 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.DeserializationFilter;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.apache.kafka.connect.data.Schema;
@@ -273,4 +276,114 @@ public class ConnectDataTranslatorTest {
     assertThat(row.getColumns().size(), equalTo(1));
     assertThat(row.getColumnValue(0), is(nullValue()));
   }
+
+  @Test
+  public void shouldTranslateRecordsOfChangingSchemas() {
+    final Schema rowSchema = SchemaBuilder.struct()
+        .field("INT", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
+        .optional()
+        .build();
+
+    final Schema dataSchemaOne = SchemaBuilder.struct()
+        .field("INT", SchemaBuilder.OPTIONAL_INT32_SCHEMA)
+        .optional()
+        .build();
+    final Schema dataSchemaTwo = SchemaBuilder.struct()
+        .field("OTHER", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+        .field("int", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
+        .optional()
+        .build();
+
+    final ConnectDataTranslator connectToKsqlTranslator = new ConnectDataTranslator(rowSchema);
+
+    final GenericRow rowOne = connectToKsqlTranslator.toKsqlRow(
+        dataSchemaOne, new Struct(dataSchemaOne).put("INT", 1));
+    final GenericRow rowTwo = connectToKsqlTranslator.toKsqlRow(
+        dataSchemaTwo, new Struct(dataSchemaTwo).put("int", 2L).put("OTHER", "x"));
+    final GenericRow rowThree = connectToKsqlTranslator.toKsqlRow(
+        dataSchemaOne, new Struct(dataSchemaOne).put("INT", 3));
+
+    assertThat(rowOne.getColumnValue(0), equalTo(1L));
+    assertThat(rowTwo.getColumnValue(0), equalTo(2L));
+    assertThat(rowThree.getColumnValue(0), equalTo(3L));
+  }
+
+  @Test
+  public void shouldOnlyThrowOnTypeMismatchOfValuesPresent() {
+    final Schema rowSchema = SchemaBuilder.struct()
+        .field("ARRAY", SchemaBuilder.array(SchemaBuilder.OPTIONAL_INT32_SCHEMA).optional().build())
+        .optional()
+        .build();
+
+    final Schema dataRowSchema = SchemaBuilder.struct()
+        .field("ARRAY",
+            SchemaBuilder.array(SchemaBuilder.OPTIONAL_STRING_SCHEMA).optional().build())
+        .optional()
+        .build();
+
+    final ConnectDataTranslator connectToKsqlTranslator = new ConnectDataTranslator(rowSchema);
+
+    final GenericRow row = connectToKsqlTranslator.toKsqlRow(
+        dataRowSchema, new Struct(dataRowSchema).put("ARRAY", Collections.emptyList()));
+    assertThat(row.getColumnValue(0), equalTo(Collections.emptyList()));
+
+    try {
+      connectToKsqlTranslator.toKsqlRow(
+          dataRowSchema, new Struct(dataRowSchema).put("ARRAY", Arrays.asList("1")));
+      Assert.fail("Translation failed to detect bad connect type");
+    } catch (final DataException e) {
+      assertThat(e.getMessage(), containsString("ARRAY->ARRAY"));
+    }
+  }
+
+  @Test
+  public void shouldLeaveColumnsOfFieldsNotRequiredNull() {
+    // Given:
+    final Schema rowSchema = SchemaBuilder.struct()
+        .field("INT", SchemaBuilder.OPTIONAL_INT32_SCHEMA)
+        .field("STRING", SchemaBuilder.STRING_SCHEMA)
+        .build();
+
+    final Schema dataRowSchema = SchemaBuilder.struct()
+        .field("INT", SchemaBuilder.OPTIONAL_INT32_SCHEMA)
+        .optional()
+        .build();
+
+    final ConnectDataTranslator connectToKsqlTranslator =
+        new ConnectDataTranslator(rowSchema, rowSchema, ImmutableSet.of("INT"));
+
+    // When:
+    final GenericRow row = connectToKsqlTranslator.toKsqlRow(
+        dataRowSchema, new Struct(dataRowSchema).put("INT", 123));
+
+    // Then:
+    assertThat(row.getColumns().size(), equalTo(2));
+    assertThat(row.getColumnValue(0), equalTo(123));
+    assertThat(row.getColumnValue(1), nullValue());
+  }
+
+  @Test
+  public void shouldTranslateRecordsRejectedByFilterToNull() {
+    // Given:
+    final Schema rowSchema = SchemaBuilder.struct()
+        .field("INT", SchemaBuilder.OPTIONAL_INT32_SCHEMA)
+        .field("STRING", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+        .build();
+
+    final ConnectDataTranslator connectToKsqlTranslator = new ConnectDataTranslator(
+        rowSchema,
+        rowSchema,
+        ImmutableSet.of("INT", "STRING"),
+        DeserializationFilter.builder().addColumnPredicate(0, value -> value.equals(1)).build());
+
+    // When:
+    final GenericRow rejected = connectToKsqlTranslator.toKsqlRow(
+        rowSchema, new Struct(rowSchema).put("INT", 2).put("STRING", "two"));
+    final GenericRow accepted = connectToKsqlTranslator.toKsqlRow(
+        rowSchema, new Struct(rowSchema).put("INT", 1).put("STRING", "one"));
+
+    // Then:
+    assertThat(rejected, nullValue());
+    assertThat(accepted.getColumnValue(1), equalTo("one"));
+  }
 }
@@ -16,13 +16,16 @@
 package io.confluent.ksql.serde.delimited;
 
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.DeserializationFilter;
 import io.confluent.ksql.serde.SerdeTestUtils;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
 import java.nio.charset.StandardCharsets;
@@ -76,6 +79,43 @@ public class KsqlDelimitedDeserializerTest {
     assertThat(genericRow.getColumns().get(3), is(10.0));
   }
 
+  @Test
+  public void shouldLeaveColumnsOfFieldsNotRequiredNull() {
+    // Given:
+    final KsqlDelimitedDeserializer prunedDeserializer = new KsqlDelimitedDeserializer(
+        ORDER_SCHEMA, ImmutableSet.of("ORDERID", "ORDERUNITS"), recordLogger);
+    final byte[] bytes = "not_a_bigint,1,item_1,10.0".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = prunedDeserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(), contains(null, 1L, null, 10.0));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldStillCheckFieldCountOfFieldsNotRequired() {
+    new KsqlDelimitedDeserializer(ORDER_SCHEMA, ImmutableSet.of("ORDERID"), recordLogger)
+        .deserialize("", "1,1,item_1".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void shouldReturnNullWithoutParsingRestOfRowRejectedByFilter() {
+    // Given:
+    final KsqlDelimitedDeserializer filteringDeserializer = new KsqlDelimitedDeserializer(
+        ORDER_SCHEMA,
+        ImmutableSet.of("ORDERTIME", "ORDERID", "ITEMID", "ORDERUNITS"),
+        DeserializationFilter.builder().addColumnPredicate(0, value -> value.equals(2L)).build(),
+        recordLogger);
+    final byte[] bytes = "1,not_a_bigint,item_1,10.0".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = filteringDeserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(genericRow, is(nullValue()));
+  }
+
   @Test
   public void shouldLogErrors() {
     // Given:
@@ -130,4 +170,110 @@ public class KsqlDelimitedDeserializerTest {
     // When:
     deserializer.deserialize("", bytes);
   }
+
+  @Test
+  public void shouldDeserializeQuotedFields() {
+    // Given:
+    final byte[] bytes = "\"1511897796092\",1,\"item, \"\"one\"\"\",\"10.5\"\r\n"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(), contains(1511897796092L, 1L, "item, \"one\"", 10.5));
+  }
+
+  @Test
+  public void shouldDeserializeAllSupportedTypes() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("BOOL", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+        .field("INT", Schema.OPTIONAL_INT32_SCHEMA)
+        .field("BIGINT", Schema.OPTIONAL_INT64_SCHEMA)
+        .field("DOUBLE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+        .field("STRING", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+    deserializer = new KsqlDelimitedDeserializer(schema, recordLogger);
+    final byte[] bytes = "TRUE,-2147483648,-9223372036854775808,-0.1,caf\u00e9"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(),
+        contains(true, Integer.MIN_VALUE, Long.MIN_VALUE, -0.1, "caf\u00e9"));
+  }
+
+  @Test
+  public void shouldDeserializeDoublesExactlyAsTheJdkDoes() {
+    // Given:
+    final String[] doubles = {
+        "0.1", "3.14159265358979", "-12.375", "1.", ".5", "1e3", " 2.5 ", "123456789012345678.9"
+    };
+
+    for (final String value : doubles) {
+      final byte[] bytes = ("1,1,item_1," + value).getBytes(StandardCharsets.UTF_8);
+
+      // When:
+      final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+      // Then:
+      assertThat(value, genericRow.getColumns().get(3), is(Double.parseDouble(value)));
+    }
+  }
+
+  @Test
+  public void shouldDeserializeWithCustomDelimiter() {
+    // Given:
+    deserializer = new KsqlDelimitedDeserializer(ORDER_SCHEMA, '|', recordLogger);
+    final byte[] bytes = "1511897796092|1|item,1|10.0".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(), contains(1511897796092L, 1L, "item,1", 10.0));
+  }
+
+  @Test
+  public void shouldIgnoreLeadingEmptyLinesAndLaterRows() {
+    // Given:
+    final byte[] bytes = "\r\n\n1511897796092,1,item_1,10.0\n2,2,item_2,20.0"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(), contains(1511897796092L, 1L, "item_1", 10.0));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnUnterminatedQuote() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,\"item_1,10.0".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnCharsAfterClosingQuote() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,\"item\"_1,10.0".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnBigintOverflow() {
+    // Given:
+    final byte[] bytes = "99999999999999999999,1,item_1,10.0".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
 }
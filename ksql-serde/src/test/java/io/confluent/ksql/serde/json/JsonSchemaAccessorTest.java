@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Test;
+
+public class JsonSchemaAccessorTest {
+
+  private static final Schema INNER = SchemaBuilder.struct()
+      .field("Leaf", Schema.OPTIONAL_STRING_SCHEMA)
+      .optional()
+      .build();
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("INNER", INNER)
+      .field("ITEMS", SchemaBuilder.array(INNER).optional().build())
+      .build();
+
+  private final JsonSchemaAccessor accessor = JsonSchemaAccessor.of(SCHEMA);
+
+  @Test
+  public void shouldResolveFieldsIgnoringCase() {
+    assertThat(accessor.field("ID"), is(SCHEMA.field("ID")));
+    assertThat(accessor.field("id"), is(SCHEMA.field("ID")));
+    assertThat(accessor.field("Id"), is(SCHEMA.field("ID")));
+  }
+
+  @Test
+  public void shouldReturnNullForUnknownField() {
+    assertThat(accessor.field("unknown"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldResolveNestedStructFields() {
+    // When:
+    final JsonSchemaAccessor inner = accessor.fieldAccessor(SCHEMA.field("INNER"));
+
+    // Then:
+    assertThat(inner.schema(), is(INNER));
+    assertThat(inner.field("Leaf"), is(INNER.field("Leaf")));
+    assertThat(inner.field("LEAF"), is(INNER.field("Leaf")));
+    assertThat(inner.field("lEaF"), is(INNER.field("Leaf")));
+  }
+
+  @Test
+  public void shouldResolveStructFieldsWithinArrays() {
+    // When:
+    final JsonSchemaAccessor items = accessor.fieldAccessor(SCHEMA.field("ITEMS"));
+
+    // Then:
+    assertThat(items.valueAccessor().field("leaf"), is(INNER.field("Leaf")));
+  }
+}
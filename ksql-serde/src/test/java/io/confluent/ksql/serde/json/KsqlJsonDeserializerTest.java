@@ -25,6 +25,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
@@ -99,6 +100,26 @@ public class KsqlJsonDeserializerTest {
     assertThat(genericRow.getColumns().get(5), is(ImmutableMap.of("key1", 10.0)));
   }
 
+  @Test
+  public void shouldLeaveColumnsOfFieldsNotRequiredNull() throws JsonProcessingException {
+    // Given:
+    final KsqlJsonDeserializer prunedDeserializer = new KsqlJsonDeserializer(
+        orderSchema, ImmutableSet.of("ORDERID", "ARRAYCOL"), recordLogger);
+    final byte[] jsonBytes = objectMapper.writeValueAsBytes(AN_ORDER);
+
+    // When:
+    final GenericRow genericRow = prunedDeserializer.deserialize("", jsonBytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(), hasSize(6));
+    assertThat(genericRow.getColumns().get(0), is(nullValue()));
+    assertThat(genericRow.getColumns().get(1), is(1L));
+    assertThat(genericRow.getColumns().get(2), is(nullValue()));
+    assertThat(genericRow.getColumns().get(3), is(nullValue()));
+    assertThat(genericRow.getColumns().get(4), is(ImmutableList.of(10.0, 20.0)));
+    assertThat(genericRow.getColumns().get(5), is(nullValue()));
+  }
+
   @Test
   public void shouldDeserializeJsonCorrectlyWithRedundantFields() throws JsonProcessingException {
     // Given:
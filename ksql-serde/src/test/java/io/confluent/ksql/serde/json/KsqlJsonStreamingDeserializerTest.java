@@ -0,0 +1,329 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogConfig;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.DeserializationFilter;
+import io.confluent.ksql.serde.SerdeTestUtils;
+import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
+import io.confluent.ksql.serde.util.SerdeUtils;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KsqlJsonStreamingDeserializerTest {
+
+  private static final Schema orderSchema = SchemaBuilder.struct()
+      .field("ordertime".toUpperCase(), Schema.OPTIONAL_INT64_SCHEMA)
+      .field("orderid".toUpperCase(), Schema.OPTIONAL_INT64_SCHEMA)
+      .field("itemid".toUpperCase(), Schema.OPTIONAL_STRING_SCHEMA)
+      .field("orderunits".toUpperCase(), Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("arraycol".toUpperCase(), SchemaBuilder
+          .array(Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .field("mapcol".toUpperCase(), SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .build();
+
+  private static final Map<String, Object> AN_ORDER = ImmutableMap.<String, Object>builder()
+      .put("ordertime", 1511897796092L)
+      .put("@orderid", 1L)
+      .put("itemid", "Item_1")
+      .put("orderunits", 10.0)
+      .put("arraycol", ImmutableList.of(10.0, 20.0))
+      .put("mapcol", Collections.singletonMap("key1", 10.0))
+      .build();
+
+  private KsqlJsonStreamingDeserializer deserializer;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ProcessingLogConfig processingLogConfig
+      = new ProcessingLogConfig(Collections.emptyMap());
+
+  @Mock
+  ProcessingLogger recordLogger;
+
+  @Before
+  public void before() {
+    deserializer = new KsqlJsonStreamingDeserializer(orderSchema, recordLogger);
+  }
+
+  @Test
+  public void shouldDeserializeJsonCorrectly() throws JsonProcessingException {
+    // Given:
+    final byte[] jsonBytes = objectMapper.writeValueAsBytes(AN_ORDER);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", jsonBytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(), hasSize(6));
+    assertThat(genericRow.getColumns().get(0), is(1511897796092L));
+    assertThat(genericRow.getColumns().get(1), is(1L));
+    assertThat(genericRow.getColumns().get(2), is("Item_1"));
+    assertThat(genericRow.getColumns().get(3), is(10.0));
+    assertThat(genericRow.getColumns().get(4), is(ImmutableList.of(10.0, 20.0)));
+    assertThat(genericRow.getColumns().get(5), is(ImmutableMap.of("key1", 10.0)));
+  }
+
+  @Test
+  public void shouldSkipFieldsNotRequired() throws JsonProcessingException {
+    // Given:
+    final KsqlJsonStreamingDeserializer prunedDeserializer = new KsqlJsonStreamingDeserializer(
+        orderSchema, ImmutableSet.of("ORDERID", "ARRAYCOL"), recordLogger);
+    final byte[] jsonBytes = objectMapper.writeValueAsBytes(AN_ORDER);
+
+    // When:
+    final GenericRow genericRow = prunedDeserializer.deserialize("", jsonBytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(), hasSize(6));
+    assertThat(genericRow.getColumns().get(0), is(nullValue()));
+    assertThat(genericRow.getColumns().get(1), is(1L));
+    assertThat(genericRow.getColumns().get(2), is(nullValue()));
+    assertThat(genericRow.getColumns().get(3), is(nullValue()));
+    assertThat(genericRow.getColumns().get(4), is(ImmutableList.of(10.0, 20.0)));
+    assertThat(genericRow.getColumns().get(5), is(nullValue()));
+  }
+
+  @Test
+  public void shouldReturnNullWithoutReadingRestOfRecordRejectedByFilter() {
+    // Given:
+    final KsqlJsonStreamingDeserializer filteringDeserializer = new KsqlJsonStreamingDeserializer(
+        orderSchema,
+        SerdeUtils.fieldNames(orderSchema),
+        DeserializationFilter.builder().addColumnPredicate(1, value -> value.equals(2L)).build(),
+        recordLogger);
+    final byte[] jsonBytes = "{\"orderid\":1,\"orderunits\":\"not a double\"}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = filteringDeserializer.deserialize("", jsonBytes);
+
+    // Then:
+    assertThat(genericRow, is(nullValue()));
+    verifyZeroInteractions(recordLogger);
+  }
+
+  @Test
+  public void shouldTestFilterAgainstNullColumnsOfMissingFields() {
+    // Given:
+    final KsqlJsonStreamingDeserializer filteringDeserializer = new KsqlJsonStreamingDeserializer(
+        orderSchema,
+        SerdeUtils.fieldNames(orderSchema),
+        DeserializationFilter.builder().addColumnPredicate(2, Objects::nonNull).build(),
+        recordLogger);
+
+    // When:
+    final GenericRow genericRow = filteringDeserializer.deserialize(
+        "", "{\"orderid\":1}".getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(genericRow, is(nullValue()));
+  }
+
+  @Test
+  public void shouldDeserializeRecordsAcceptedByFilter() throws JsonProcessingException {
+    // Given:
+    final KsqlJsonStreamingDeserializer filteringDeserializer = new KsqlJsonStreamingDeserializer(
+        orderSchema,
+        SerdeUtils.fieldNames(orderSchema),
+        DeserializationFilter.builder().addColumnPredicate(1, value -> value.equals(1L)).build(),
+        recordLogger);
+
+    // When:
+    final GenericRow genericRow = filteringDeserializer.deserialize(
+        "", objectMapper.writeValueAsBytes(AN_ORDER));
+
+    // Then:
+    assertThat(genericRow.getColumns().get(1), is(1L));
+    assertThat(genericRow.getColumns().get(2), is("Item_1"));
+  }
+
+  @Test
+  public void shouldSkipRedundantFields() throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> orderRow = new HashMap<>(AN_ORDER);
+    orderRow.put("extraField", ImmutableMap.of("nested", ImmutableList.of(1, 2, 3)));
+
+    final byte[] jsonBytes = objectMapper.writeValueAsBytes(orderRow);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", jsonBytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(), hasSize(6));
+    assertThat(genericRow.getColumns().get(0), is(1511897796092L));
+    assertThat(genericRow.getColumns().get(4), is(ImmutableList.of(10.0, 20.0)));
+    assertThat(genericRow.getColumns().get(5), is(ImmutableMap.of("key1", 10.0)));
+  }
+
+  @Test
+  public void shouldDeserializeEvenWithMissingFields() throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> orderRow = new HashMap<>(AN_ORDER);
+    orderRow.remove("ordertime");
+
+    final byte[] jsonBytes = objectMapper.writeValueAsBytes(orderRow);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", jsonBytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(), hasSize(6));
+    assertThat(genericRow.getColumns().get(0), is(nullValue()));
+    assertThat(genericRow.getColumns().get(1), is(1L));
+  }
+
+  @Test
+  public void shouldTreatNullAsNull() throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> row = new HashMap<>();
+    row.put("ordertime", null);
+    row.put("@orderid", null);
+    row.put("itemid", null);
+    row.put("orderunits", null);
+    row.put("arrayCol", new Double[]{0.0, null});
+    row.put("mapCol", null);
+
+    final byte[] bytes = objectMapper.writeValueAsBytes(row);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+    // Then:
+    final GenericRow expected = new GenericRow(
+        Arrays.asList(null, null, null, null, new Double[]{0.0, null}, null));
+
+    assertThat(genericRow, is(expected));
+  }
+
+  @Test
+  public void shouldReturnNullForNullRecord() {
+    assertThat(deserializer.deserialize("", null), is(nullValue()));
+    assertThat(deserializer.deserialize("", "null".getBytes(StandardCharsets.UTF_8)),
+        is(nullValue()));
+  }
+
+  @Test
+  public void shouldCoerceNumericStrings() {
+    // Given:
+    final byte[] bytes = "{\"ordertime\":\"100\",\"orderid\":7,\"orderunits\":\"1.5\"}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(genericRow.getColumns().get(0), is(100L));
+    assertThat(genericRow.getColumns().get(1), is(7L));
+    assertThat(genericRow.getColumns().get(3), is(1.5));
+  }
+
+  @Test
+  public void shouldDeserializeStructCaseInsensitively() {
+    // Given:
+    final Schema categorySchema = SchemaBuilder.struct()
+        .field("ID", Schema.OPTIONAL_INT32_SCHEMA)
+        .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+    final Schema schema = SchemaBuilder.struct()
+        .field("CATEGORY", categorySchema)
+        .build();
+
+    final KsqlJsonStreamingDeserializer deserializer =
+        new KsqlJsonStreamingDeserializer(schema, recordLogger);
+
+    final byte[] bytes = "{\"category\":{\"id\":2,\"Name\":\"Food\",\"other\":[1]}}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+    // Then:
+    final Struct expected = new Struct(categorySchema)
+        .put("ID", 2)
+        .put("NAME", "Food");
+    assertThat(genericRow.getColumns().get(0), is(expected));
+  }
+
+  @Test
+  public void shouldCreateJsonStringForStructIfDefinedAsVarchar() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("itemid".toUpperCase(), Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+
+    final KsqlJsonStreamingDeserializer deserializer =
+        new KsqlJsonStreamingDeserializer(schema, recordLogger);
+
+    final byte[] bytes = "{\"itemid\":{\"ITEMID\":6}}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+    // Then:
+    final GenericRow expected = new GenericRow(Collections.singletonList("{\"ITEMID\":6}"));
+    assertThat(genericRow, is(expected));
+  }
+
+  @Test
+  public void shouldLogDeserializationErrors() {
+    // Given:
+    final byte[] data = "{foo".getBytes(StandardCharsets.UTF_8);
+    try {
+      // When:
+      deserializer.deserialize("", data);
+      fail("deserialize should have thrown");
+    } catch (final SerializationException e) {
+      // Then:
+      SerdeTestUtils.shouldLogError(
+          recordLogger,
+          SerdeProcessingLogMessageFactory.deserializationErrorMsg(
+              e.getCause(),
+              Optional.ofNullable(data)).apply(processingLogConfig),
+          processingLogConfig);
+    }
+  }
+}
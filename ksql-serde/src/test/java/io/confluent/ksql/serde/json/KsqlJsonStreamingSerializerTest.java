@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+import org.junit.Test;
+
+public class KsqlJsonStreamingSerializerTest {
+
+  private static final Schema ORDER_SCHEMA = SchemaBuilder.struct()
+      .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ORDERID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("ARRAYCOL", SchemaBuilder.array(Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .field("MAPCOL", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .build();
+
+  private static final Schema CATEGORY_SCHEMA = SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+      .optional().build();
+
+  private static final Schema ITEM_SCHEMA = SchemaBuilder.struct()
+      .field("ITEMID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("CATEGORIES", SchemaBuilder.array(CATEGORY_SCHEMA).optional().build())
+      .optional().build();
+
+  private static final Schema SCHEMA_WITH_STRUCT = SchemaBuilder.struct()
+      .field("ordertime", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("itemid", ITEM_SCHEMA)
+      .field("orderunits", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("intmapcol", SchemaBuilder
+          .map(Schema.OPTIONAL_INT32_SCHEMA, Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+      .build();
+
+  private static final Schema OTHER_TYPES_SCHEMA = SchemaBuilder.struct()
+      .field("BOOL", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("TINY", Schema.OPTIONAL_INT8_SCHEMA)
+      .field("SMALL", Schema.OPTIONAL_INT16_SCHEMA)
+      .field("FLOAT", Schema.OPTIONAL_FLOAT32_SCHEMA)
+      .field("BYTES", Schema.OPTIONAL_BYTES_SCHEMA)
+      .field("DECIMAL", Decimal.builder(2).optional().build())
+      .field("TIMESTAMP", Timestamp.builder().optional().build())
+      .field("DEFAULTED", SchemaBuilder.string().optional().defaultValue("dflt").build())
+      .build();
+
+  @Test
+  public void shouldSerializeRowExactlyAsConnectDoes() {
+    // Given:
+    final Map<String, Double> map = new LinkedHashMap<>();
+    map.put("key1", 10.0);
+    map.put("key\"2\"", Double.NaN);
+    map.put(null, Double.NEGATIVE_INFINITY);
+
+    final GenericRow row = new GenericRow(Arrays.asList(
+        1511897796092L,
+        -1L,
+        "item_1 \u00e9\u4e2d\n\t\"\\",
+        10.0,
+        Arrays.asList(100.0, null, 1e-7),
+        map
+    ));
+
+    // Then:
+    assertSerializesAsConnect(ORDER_SCHEMA, row);
+  }
+
+  @Test
+  public void shouldSerializeNulls() {
+    assertSerializesAsConnect(
+        ORDER_SCHEMA, new GenericRow(Arrays.asList(null, null, null, null, null, null)));
+  }
+
+  @Test
+  public void shouldSerializeMissingTrailingColumnsAsNulls() {
+    assertSerializesAsConnect(ORDER_SCHEMA, new GenericRow(Arrays.asList(1L, 2L)));
+  }
+
+  @Test
+  public void shouldSerializeStructsAndNonStringMapKeys() {
+    // Given:
+    final Struct category = new Struct(CATEGORY_SCHEMA)
+        .put("ID", 1L)
+        .put("NAME", "Produce");
+
+    final Struct item = new Struct(ITEM_SCHEMA)
+        .put("ITEMID", 10L)
+        .put("NAME", "Item_10")
+        .put("CATEGORIES", ImmutableList.of(category, new Struct(CATEGORY_SCHEMA)));
+
+    final Map<Integer, String> intMap = new LinkedHashMap<>();
+    intMap.put(1, "one");
+    intMap.put(null, "none");
+
+    // Then:
+    assertSerializesAsConnect(
+        SCHEMA_WITH_STRUCT, new GenericRow(Arrays.asList(1234567L, item, 10, intMap)));
+  }
+
+  @Test
+  public void shouldSerializeOtherTypes() {
+    assertSerializesAsConnect(OTHER_TYPES_SCHEMA, new GenericRow(Arrays.asList(
+        true,
+        (byte) -1,
+        (short) 300,
+        1.1f,
+        new byte[]{0, 1, 2, (byte) 255},
+        new BigDecimal("12.34"),
+        new java.util.Date(1511897796092L),
+        null
+    )));
+  }
+
+  @Test
+  public void shouldSerializeNullRowAsNull() {
+    assertThat(new KsqlJsonStreamingSerializer(ORDER_SCHEMA).serialize("t1", null),
+        nullValue());
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnTooManyColumns() {
+    new KsqlJsonStreamingSerializer(ORDER_SCHEMA).serialize("t1", new GenericRow(
+        Arrays.asList(1L, 2L, "item", 1.0, null, null, "extra")));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnValueOfWrongType() {
+    new KsqlJsonStreamingSerializer(ORDER_SCHEMA).serialize("t1", new GenericRow(
+        Arrays.asList("not a bigint", 2L, "item", 1.0, null, null)));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnStructOfWrongSchema() {
+    new KsqlJsonStreamingSerializer(SCHEMA_WITH_STRUCT).serialize("t1", new GenericRow(
+        Arrays.asList(1L, new Struct(CATEGORY_SCHEMA), 10, Collections.emptyMap())));
+  }
+
+  private static void assertSerializesAsConnect(final Schema schema, final GenericRow row) {
+    // When:
+    final byte[] bytes = new KsqlJsonStreamingSerializer(schema).serialize("t1", row);
+
+    // Then:
+    final byte[] expected = new KsqlJsonSerializer(schema).serialize("t1", row);
+    assertThat(new String(bytes, StandardCharsets.UTF_8),
+        equalTo(new String(expected, StandardCharsets.UTF_8)));
+  }
+}
@@ -18,7 +18,10 @@ package io.confluent.ksql.serde.util;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
 
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.util.KsqlException;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
 import org.junit.Test;
 
 public class SerdeUtilsTest {
@@ -135,4 +138,20 @@ public class SerdeUtilsTest {
   public void shouldFailWhenConvertingIncompatibleDouble() {
     SerdeUtils.toDouble(true);
   }
+
+  @Test
+  public void shouldBuildRequiredFieldMask() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("A", Schema.OPTIONAL_INT64_SCHEMA)
+        .field("B", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("C", Schema.OPTIONAL_FLOAT64_SCHEMA)
+        .build();
+
+    // When:
+    final boolean[] mask = SerdeUtils.requiredFieldMask(schema, ImmutableSet.of("C", "A", "X"));
+
+    // Then:
+    assertThat(mask, equalTo(new boolean[]{true, false, true}));
+  }
 }